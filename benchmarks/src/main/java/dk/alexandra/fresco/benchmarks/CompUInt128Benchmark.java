@@ -0,0 +1,96 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the arithmetic of {@link CompUInt128}, which is used by the SPDZ2k protocol suite with
+ * k = s = 64. Each operation is applied to a fixed set of {@value #ELEMENTS} random elements, and
+ * the reported time is per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompUInt128Benchmark {
+
+  private static final int ELEMENTS = 1024;
+
+  private CompUInt128Factory factory;
+  private List<CompUInt128> left;
+  private List<CompUInt128> right;
+  private List<byte[]> serialized;
+
+  /**
+   * Creates the random elements.
+   */
+  @Setup
+  public void setup() {
+    factory = new CompUInt128Factory();
+    left = new ArrayList<>(ELEMENTS);
+    right = new ArrayList<>(ELEMENTS);
+    serialized = new ArrayList<>(ELEMENTS);
+    for (int i = 0; i < ELEMENTS; i++) {
+      left.add(factory.createRandom());
+      right.add(factory.createRandom());
+      serialized.add(left.get(i).toByteArray());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void add(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left.get(i).add(right.get(i)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void subtract(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left.get(i).subtract(right.get(i)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void multiply(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left.get(i).multiply(right.get(i)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void serialize(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left.get(i).toByteArray());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void deserialize(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(factory.deserialize(serialized.get(i)));
+    }
+  }
+}
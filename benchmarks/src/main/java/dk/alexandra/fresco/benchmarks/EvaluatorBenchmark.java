@@ -0,0 +1,283 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.ProtocolEvaluator;
+import dk.alexandra.fresco.framework.builder.ProtocolBuilder;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.ProtocolSuite;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticProtocolSuite;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuiteK64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesDummyOt;
+import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproResourcePool;
+import dk.alexandra.fresco.suite.tinytables.util.Util;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the end-to-end throughput of the {@link BatchedProtocolEvaluator} for two parties
+ * connected by a {@link InMemoryNetwork}. Each invocation runs an application which inputs
+ * {@value #OPERATIONS} pairs of values, multiplies (or for TinyTables, ANDs) each pair and opens
+ * the results, so the reported throughput is in multiplications per time unit.
+ * <p>
+ * The arithmetic suites use dummy preprocessing. For TinyTables the preprocessing phase is run
+ * once when setting up the benchmark, and only the online phase is measured.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvaluatorBenchmark {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int OPERATIONS = 4096;
+  private static final int MOD_BIT_LENGTH = 128;
+  private static final int MAX_BIT_LENGTH = 64;
+  private static final int FIXED_POINT_PRECISION = 16;
+
+  @Param({"Dummy", "Spdz", "Spdz2k", "TinyTables"})
+  public String suite;
+
+  @Param({"128", "1024", "8192"})
+  public int maxBatchSize;
+
+  @Param({"SEQUENTIAL_BATCHED"})
+  public EvaluationStrategy strategy;
+
+  private List<SecureComputationEngineImpl<?, ?>> engines;
+  private List<Supplier<Future<?>>> runs;
+  private Path tinyTablesFolder;
+
+  /**
+   * Creates the protocol suites, resource pools and engines of each party.
+   */
+  @Setup
+  public void setup() throws IOException {
+    engines = new ArrayList<>(NO_OF_PARTIES);
+    runs = new ArrayList<>(NO_OF_PARTIES);
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(NO_OF_PARTIES);
+    MersennePrimeFieldDefinition definition = MersennePrimeFieldDefinition.find(MOD_BIT_LENGTH);
+    switch (suite) {
+      case "Dummy":
+        for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+          addParty(new DummyArithmeticProtocolSuite(definition, MAX_BIT_LENGTH,
+                  FIXED_POINT_PRECISION),
+              new DummyArithmeticResourcePoolImpl(myId, NO_OF_PARTIES, definition),
+              networks.get(myId), numericApplication(myId));
+        }
+        break;
+      case "Spdz":
+        BigInteger ssk = new BigInteger(MOD_BIT_LENGTH, new Random(0))
+            .mod(definition.getModulus());
+        for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+          addParty(new SpdzProtocolSuite(MAX_BIT_LENGTH, FIXED_POINT_PRECISION),
+              new SpdzResourcePoolImpl(myId, NO_OF_PARTIES, new OpenedValueStoreImpl<>(),
+                  new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition, ssk),
+                  AesCtrDrbg::new),
+              networks.get(myId), numericApplication(myId));
+        }
+        break;
+      case "Spdz2k":
+        setupSpdz2k(networks);
+        break;
+      case "TinyTables":
+        setupTinyTables(networks);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown suite " + suite);
+    }
+  }
+
+  private void setupSpdz2k(Map<Integer, InMemoryNetwork> networks) {
+    Map<Integer, InMemoryNetwork> coinTossingNetworks = InMemoryNetwork.create(NO_OF_PARTIES);
+    List<Callable<Spdz2kResourcePool<CompUInt128>>> resourcePools = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      int finalMyId = myId;
+      resourcePools.add(() -> {
+        CompUInt128Factory factory = new CompUInt128Factory();
+        Spdz2kResourcePool<CompUInt128> resourcePool = new Spdz2kResourcePoolImpl<>(finalMyId,
+            NO_OF_PARTIES, null, new Spdz2kOpenedValueStoreImpl<>(),
+            new Spdz2kDummyDataSupplier<>(finalMyId, NO_OF_PARTIES, factory.createRandom(),
+                factory), factory);
+        resourcePool.initializeJointRandomness(() -> coinTossingNetworks.get(finalMyId),
+            AesCtrDrbg::new, 32);
+        return resourcePool;
+      });
+    }
+    List<Spdz2kResourcePool<CompUInt128>> initialized;
+    try (PartyThreads threads = new PartyThreads(NO_OF_PARTIES)) {
+      initialized = threads.run(resourcePools);
+    }
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      addParty(new Spdz2kProtocolSuiteK64(), initialized.get(myId - 1), networks.get(myId),
+          numericApplication(myId));
+    }
+  }
+
+  private void setupTinyTables(Map<Integer, InMemoryNetwork> networks) throws IOException {
+    tinyTablesFolder = Files.createTempDirectory("tinytables");
+    Map<Integer, InMemoryNetwork> preproNetworks = InMemoryNetwork.create(NO_OF_PARTIES);
+    Map<Integer, InMemoryNetwork> otNetworks = InMemoryNetwork.create(NO_OF_PARTIES);
+    List<Callable<List<Boolean>>> preprocessing = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      int finalMyId = myId;
+      File file = tinyTablesFolder.resolve("TinyTables_" + myId).toFile();
+      preprocessing.add(() -> {
+        TinyTablesPreproProtocolSuite preproSuite = new TinyTablesPreproProtocolSuite();
+        TinyTablesPreproResourcePool resourcePool = new TinyTablesPreproResourcePool(finalMyId,
+            new TinyTablesDummyOt(Util.otherPlayerId(finalMyId)),
+            new AesCtrDrbg(new byte[AesCtrDrbg.SEED_LENGTH]), 128, 40, 128, file,
+            () -> otNetworks.get(finalMyId));
+        ProtocolEvaluator<TinyTablesPreproResourcePool> evaluator =
+            new BatchedProtocolEvaluator<>(strategy.getStrategy(), preproSuite, maxBatchSize);
+        try (SecureComputationEngineImpl<TinyTablesPreproResourcePool, ProtocolBuilderBinary> sce =
+            new SecureComputationEngineImpl<>(preproSuite, evaluator)) {
+          return sce.runApplication(binaryApplication(finalMyId), resourcePool,
+              preproNetworks.get(finalMyId));
+        }
+      });
+    }
+    try (PartyThreads threads = new PartyThreads(NO_OF_PARTIES)) {
+      threads.run(preprocessing);
+    }
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      File file = tinyTablesFolder.resolve("TinyTables_" + myId).toFile();
+      addParty(new TinyTablesProtocolSuite(myId, file),
+          new ResourcePoolImpl(myId, NO_OF_PARTIES), networks.get(myId),
+          binaryApplication(myId));
+    }
+  }
+
+  private <ResourcePoolT extends ResourcePool, BuilderT extends ProtocolBuilder> void addParty(
+      ProtocolSuite<ResourcePoolT, BuilderT> protocolSuite, ResourcePoolT resourcePool,
+      Network network, Application<?, BuilderT> application) {
+    ProtocolEvaluator<ResourcePoolT> evaluator =
+        new BatchedProtocolEvaluator<>(strategy.getStrategy(), protocolSuite, maxBatchSize);
+    SecureComputationEngineImpl<ResourcePoolT, BuilderT> sce =
+        new SecureComputationEngineImpl<>(protocolSuite, evaluator);
+    engines.add(sce);
+    runs.add(() -> sce.startApplication(application, resourcePool, network));
+  }
+
+  private static Application<List<BigInteger>, ProtocolBuilderNumeric> numericApplication(
+      int myId) {
+    return builder -> builder.par(par -> {
+      List<DRes<SInt>> inputs = new ArrayList<>(2 * OPERATIONS);
+      for (int i = 0; i < 2 * OPERATIONS; i++) {
+        inputs.add(par.numeric().input(myId == 1 ? BigInteger.valueOf(i) : null, 1));
+      }
+      return () -> inputs;
+    }).par((par, inputs) -> {
+      List<DRes<SInt>> products = new ArrayList<>(OPERATIONS);
+      for (int i = 0; i < OPERATIONS; i++) {
+        products.add(par.numeric().mult(inputs.get(2 * i), inputs.get(2 * i + 1)));
+      }
+      return () -> products;
+    }).par((par, products) -> {
+      List<DRes<BigInteger>> opened = products.stream().map(par.numeric()::open)
+          .collect(Collectors.toList());
+      return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+    });
+  }
+
+  private static Application<List<Boolean>, ProtocolBuilderBinary> binaryApplication(int myId) {
+    return builder -> builder.par(par -> {
+      List<DRes<SBool>> inputs = new ArrayList<>(2 * OPERATIONS);
+      for (int i = 0; i < 2 * OPERATIONS; i++) {
+        inputs.add(par.binary().input(myId == 1 && i % 3 != 0, 1));
+      }
+      return () -> inputs;
+    }).par((par, inputs) -> {
+      List<DRes<SBool>> products = new ArrayList<>(OPERATIONS);
+      for (int i = 0; i < OPERATIONS; i++) {
+        products.add(par.binary().and(inputs.get(2 * i), inputs.get(2 * i + 1)));
+      }
+      return () -> products;
+    }).par((par, products) -> {
+      List<DRes<Boolean>> opened = products.stream().map(par.binary()::open)
+          .collect(Collectors.toList());
+      return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public Object evaluate() {
+    List<Future<?>> futures = runs.stream().map(Supplier::get).collect(Collectors.toList());
+    Object result = null;
+    for (Future<?> future : futures) {
+      result = ExceptionConverter.safe(future::get, "Party failed");
+    }
+    return result;
+  }
+
+  /**
+   * Shuts down the engines and removes any TinyTables written during setup.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    for (SecureComputationEngineImpl<?, ?> sce : engines) {
+      sce.close();
+    }
+    if (tinyTablesFolder != null) {
+      for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+        Files.deleteIfExists(tinyTablesFolder.resolve("TinyTables_" + myId));
+      }
+      Files.deleteIfExists(tinyTablesFolder);
+    }
+  }
+}
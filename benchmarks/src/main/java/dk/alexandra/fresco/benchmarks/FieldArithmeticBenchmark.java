@@ -0,0 +1,142 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.LongFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the basic operations of the {@link FieldDefinition} implementations. Each operation is
+ * applied to a fixed set of {@value #ELEMENTS} random elements, and the reported time is per
+ * operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldArithmeticBenchmark {
+
+  private static final int ELEMENTS = 1024;
+
+  /**
+   * The field given as the name of the implementation and the bit length of the modulus.
+   */
+  @Param({"BigInteger:128", "MersennePrime:128", "BigInteger:61", "MersennePrime:61", "Long:61"})
+  public String field;
+
+  private FieldDefinition definition;
+  private List<FieldElement> left;
+  private List<FieldElement> right;
+  private List<byte[]> serialized;
+
+  /**
+   * Creates the field and the random elements.
+   */
+  @Setup
+  public void setup() {
+    String[] parts = field.split(":");
+    int bitLength = Integer.parseInt(parts[1]);
+    switch (parts[0]) {
+      case "BigInteger":
+        definition = new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(bitLength));
+        break;
+      case "MersennePrime":
+        definition = MersennePrimeFieldDefinition.find(bitLength);
+        break;
+      case "Long":
+        definition = LongFieldDefinition.find(bitLength);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown field " + field);
+    }
+    Random random = new Random(42);
+    left = new ArrayList<>(ELEMENTS);
+    right = new ArrayList<>(ELEMENTS);
+    serialized = new ArrayList<>(ELEMENTS);
+    for (int i = 0; i < ELEMENTS; i++) {
+      left.add(randomElement(random));
+      right.add(randomElement(random));
+      serialized.add(definition.serialize(left.get(i)));
+    }
+  }
+
+  private FieldElement randomElement(Random random) {
+    FieldElement element;
+    do {
+      element = definition.createElement(
+          new BigInteger(definition.getBitLength() + 8, random).mod(definition.getModulus()));
+    } while (element.isZero());
+    return element;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void add(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left.get(i).add(right.get(i)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void multiply(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left.get(i).multiply(right.get(i)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void inverse(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left.get(i).modInverse());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void serialize(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(definition.serialize(left.get(i)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void deserialize(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(definition.deserialize(serialized.get(i)));
+    }
+  }
+
+  /**
+   * Serializes all elements as a single list, as done when batching network traffic.
+   */
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public byte[] serializeList() {
+    return definition.serialize(left);
+  }
+}
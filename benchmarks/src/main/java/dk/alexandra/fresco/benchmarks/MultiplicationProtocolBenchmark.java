@@ -0,0 +1,144 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import dk.alexandra.fresco.framework.sce.evaluator.ProtocolCollectionList;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kMultiplyProtocol;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the native multiplication protocols of SPDZ and SPDZ2k between two parties connected
+ * by a {@link InMemoryNetwork}. Each invocation evaluates a single batch of multiplications using
+ * {@link BatchedStrategy}, bypassing the protocol producers and the round synchronization of the
+ * evaluator, and preprocessed material is supplied by the dummy data suppliers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultiplicationProtocolBenchmark {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int MOD_BIT_LENGTH = 128;
+
+  @Param({"Spdz", "Spdz2k"})
+  public String suite;
+
+  @Param({"1", "256", "4096"})
+  public int multiplications;
+
+  private PartyThreads threads;
+  private List<Callable<Integer>> parties;
+
+  /**
+   * Creates the resource pools and the inputs of each party.
+   */
+  @Setup
+  public void setup() {
+    threads = new PartyThreads(NO_OF_PARTIES);
+    parties = new ArrayList<>(NO_OF_PARTIES);
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(NO_OF_PARTIES);
+    MersennePrimeFieldDefinition definition = MersennePrimeFieldDefinition.find(MOD_BIT_LENGTH);
+    BigInteger ssk = new BigInteger(MOD_BIT_LENGTH, new Random(0)).mod(definition.getModulus());
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      Network network = networks.get(myId);
+      switch (suite) {
+        case "Spdz":
+          SpdzDummyDataSupplier supplier =
+              new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition, ssk);
+          SpdzResourcePool spdzPool = new SpdzResourcePoolImpl(myId, NO_OF_PARTIES,
+              new OpenedValueStoreImpl<>(), supplier, AesCtrDrbg::new);
+          parties.add(createParty(spdzPool, network, supplier::getNextRandomFieldElement,
+              SpdzMultProtocol::new, spdzPool.getOpenedValueStore()));
+          break;
+        case "Spdz2k":
+          CompUInt128Factory factory = new CompUInt128Factory();
+          Spdz2kDummyDataSupplier<CompUInt128> spdz2kSupplier =
+              new Spdz2kDummyDataSupplier<>(myId, NO_OF_PARTIES, factory.createRandom(), factory);
+          Spdz2kResourcePool<CompUInt128> spdz2kPool = new Spdz2kResourcePoolImpl<>(myId,
+              NO_OF_PARTIES, null, new Spdz2kOpenedValueStoreImpl<>(), spdz2kSupplier, factory);
+          parties.add(createParty(spdz2kPool, network, spdz2kSupplier::getNextRandomElementShare,
+              Spdz2kMultiplyProtocol::new, spdz2kPool.getOpenedValueStore()));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown suite " + suite);
+      }
+    }
+  }
+
+  private <ResourcePoolT extends ResourcePool> Callable<Integer> createParty(
+      ResourcePoolT resourcePool, Network network, Supplier<? extends SInt> inputs,
+      BiFunction<SInt, SInt, NativeProtocol<SInt, ResourcePoolT>> multiplication,
+      OpenedValueStore<?, ?> openedValues) {
+    List<SInt> left = new ArrayList<>(multiplications);
+    List<SInt> right = new ArrayList<>(multiplications);
+    for (int i = 0; i < multiplications; i++) {
+      left.add(inputs.get());
+      right.add(inputs.get());
+    }
+    BatchedStrategy<ResourcePoolT> strategy = new BatchedStrategy<>();
+    NetworkBatchDecorator batchedNetwork = new NetworkBatchDecorator(NO_OF_PARTIES, network);
+    return () -> {
+      ProtocolCollectionList<ResourcePoolT> protocols =
+          new ProtocolCollectionList<>(multiplications);
+      for (int i = 0; i < multiplications; i++) {
+        protocols.addProtocol(multiplication.apply(left.get(i), right.get(i)));
+      }
+      strategy.processBatch(protocols, resourcePool, batchedNetwork);
+      // Skip the mac check, but do not let the opened values accumulate
+      openedValues.popValues();
+      return multiplications;
+    };
+  }
+
+  @Benchmark
+  public List<Integer> multiply() {
+    return threads.run(parties);
+  }
+
+  @TearDown
+  public void tearDown() {
+    threads.close();
+  }
+}
@@ -0,0 +1,49 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a task for each party of a benchmark concurrently, one thread per party.
+ */
+class PartyThreads implements Closeable {
+
+  private final ExecutorService executor;
+
+  PartyThreads(int noOfParties) {
+    this.executor = Executors.newFixedThreadPool(noOfParties, runnable -> {
+      Thread thread = new Thread(runnable, "BenchmarkParty");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Runs the tasks concurrently and waits for all of them to finish.
+   *
+   * @param tasks the tasks, one for each party
+   * @return the results of the tasks in the same order
+   */
+  <T> List<T> run(List<? extends Callable<T>> tasks) {
+    List<Future<T>> futures = new ArrayList<>(tasks.size());
+    for (Callable<T> task : tasks) {
+      futures.add(executor.submit(task));
+    }
+    List<T> results = new ArrayList<>(tasks.size());
+    for (Future<T> future : futures) {
+      results.add(ExceptionConverter.safe(future::get, "Party failed"));
+    }
+    return results;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
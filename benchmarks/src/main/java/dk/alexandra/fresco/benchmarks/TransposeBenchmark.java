@@ -0,0 +1,56 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.ot.otextension.Transpose;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link Transpose#transpose(List)} on the tall matrices used by the OT extension, with
+ * 128 columns and a varying number of rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransposeBenchmark {
+
+  private static final int COLUMNS = 128;
+
+  @Param({"1024", "16384"})
+  public int rows;
+
+  private List<StrictBitVector> matrix;
+
+  /**
+   * Creates a random matrix.
+   */
+  @Setup
+  public void setup() {
+    AesCtrDrbg drbg = new AesCtrDrbg(new byte[AesCtrDrbg.SEED_LENGTH]);
+    matrix = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      matrix.add(new StrictBitVector(COLUMNS, drbg));
+    }
+  }
+
+  @Benchmark
+  public List<StrictBitVector> transpose() {
+    return Transpose.transpose(matrix);
+  }
+}
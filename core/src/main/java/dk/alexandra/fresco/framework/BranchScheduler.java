@@ -0,0 +1,62 @@
+package dk.alexandra.fresco.framework;
+
+/**
+ * Orders the branches of parallel scopes by their depth while a {@link ProtocolCollection} is
+ * filled. Producers use this to tell the evaluator which branch or step they are asking for
+ * protocols, and to report the depth of their branches once they are exhausted.
+ *
+ * <p>Branches are identified by keys derived from their position in the computation using {@link
+ * #childKey(long, int)}, starting from the key returned by {@link #getKey()} when a producer is
+ * first asked.</p>
+ */
+public interface BranchScheduler {
+
+  /**
+   * Derives the key of a branch or step of a producer.
+   *
+   * @param parent the key of the producer
+   * @param index the index of the branch or step in the producer
+   * @return the key of the branch or step
+   */
+  static long childKey(long parent, int index) {
+    long key = (parent + index + 1) * 0x9E3779B97F4A7C15L;
+    return key ^ (key >>> 31);
+  }
+
+  /**
+   * Gets the key of the branch or step currently being asked for protocols.
+   *
+   * @return the current key
+   */
+  long getKey();
+
+  /**
+   * Sets the key of the branch or step about to be asked for protocols.
+   *
+   * @param key the key
+   */
+  void setKey(long key);
+
+  /**
+   * Gets the number of batches evaluated so far in this evaluation.
+   *
+   * @return the number of batches
+   */
+  int getBatch();
+
+  /**
+   * Gets the estimated depth of a branch.
+   *
+   * @param key the key of the branch
+   * @return the estimated depth in batches, or 0 if unknown
+   */
+  int getEstimate(long key);
+
+  /**
+   * Records the depth of an exhausted branch.
+   *
+   * @param key the key of the branch
+   * @param depth the number of batches in which the branch produced protocols
+   */
+  void recordDepth(long key, int depth);
+}
@@ -29,4 +29,25 @@ public interface ProtocolCollection<ResourcePoolT extends ResourcePool>
    * @return the number of elements
    */
   int size();
+
+  /**
+   * Checks if the protocols added to this collection are recorded to be evaluated again later, see
+   * {@link dk.alexandra.fresco.lib.helper.RecordingProtocolProducer}. In that case, producers must
+   * keep the protocols and must not cache their results, since later evaluations change them.
+   *
+   * @return true if the protocols are recorded
+   */
+  default boolean isRecording() {
+    return false;
+  }
+
+  /**
+   * Gets the scheduler used to order the branches of parallel scopes by their depth, if the
+   * evaluator filling the collection schedules branches by depth.
+   *
+   * @return the scheduler, or null if branches are asked in the order they were added
+   */
+  default BranchScheduler getBranchScheduler() {
+    return null;
+  }
 }
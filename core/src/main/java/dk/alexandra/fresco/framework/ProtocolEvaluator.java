@@ -23,6 +23,24 @@ public interface ProtocolEvaluator<ResourcePoolT extends ResourcePool> {
   EvaluationStatistics eval(
       ProtocolProducer protocolProducer, ResourcePoolT resourcePool, Network network);
 
+  /**
+   * Evaluates all gates produced by a ProtocolProducer built from a given application. Evaluators
+   * which keep state from one evaluation to the next, such as the estimated depths of the {@link
+   * dk.alexandra.fresco.framework.sce.evaluator.SchedulingPolicy#CRITICAL_PATH} policy, keep the
+   * state of each application apart using the given key. By default the key is ignored.
+   *
+   * @param protocolProducer the protocol producer to evaluate
+   * @param resourcePool the resource pool (for other resources than network)
+   * @param network network to use for the evaluation
+   * @param applicationKey identifies the application, e.g., its class, such that evaluations with
+   *     equal keys are evaluations of the same application
+   * @return the overall statistics about the evaluation
+   */
+  default EvaluationStatistics eval(ProtocolProducer protocolProducer, ResourcePoolT resourcePool,
+      Network network, Object applicationKey) {
+    return eval(protocolProducer, resourcePool, network);
+  }
+
   /**
    * Overall statistics about protocol evaluation
    */
@@ -30,6 +48,7 @@ public interface ProtocolEvaluator<ResourcePoolT extends ResourcePool> {
 
     private final int nativeProtocols;
     private final int batches;
+    private final int rounds;
 
     /**
      * Createes a new statistics object.
@@ -38,9 +57,20 @@ public interface ProtocolEvaluator<ResourcePoolT extends ResourcePool> {
      * @param batches the total of batches in the evaluation
      */
     public EvaluationStatistics(int nativeProtocols, int batches) {
+      this(nativeProtocols, batches, 0);
+    }
 
+    /**
+     * Creates a new statistics object.
+     *
+     * @param nativeProtocols the total number of native protocols in evaluation
+     * @param batches the total of batches in the evaluation
+     * @param rounds the total number of network rounds in the evaluation
+     */
+    public EvaluationStatistics(int nativeProtocols, int batches, int rounds) {
       this.nativeProtocols = nativeProtocols;
       this.batches = batches;
+      this.rounds = rounds;
     }
 
     /**
@@ -60,5 +90,15 @@ public interface ProtocolEvaluator<ResourcePoolT extends ResourcePool> {
     public int getBatches() {
       return batches;
     }
+
+    /**
+     * Returns the total number of network rounds in the evaluation, i.e., the number of times this
+     * party sent messages after having received messages, or 0 if rounds were not counted.
+     *
+     * @return the total number of network rounds in the evaluation
+     */
+    public int getRounds() {
+      return rounds;
+    }
   }
 }
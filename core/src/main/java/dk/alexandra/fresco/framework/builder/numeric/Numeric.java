@@ -4,6 +4,8 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Basic interface for numeric applications. This is the interface which an arithmetic protocol
@@ -104,6 +106,30 @@ public interface Numeric extends ComputationDirectory {
     return mult(BigInteger.valueOf(a), b);
   }
 
+  /**
+   * Multiplies two vectors of secret values entry-wise and returns the products.
+   * <p>
+   * The default implementation calls {@link #mult(DRes, DRes)} for each pair of entries. Protocol
+   * suites may override this to evaluate all the products in a single native protocol, which avoids
+   * creating and communicating for each product separately.
+   * </p>
+   *
+   * @param a Secret values 1
+   * @param b Secret values 2, must have the same size as <code>a</code>
+   * @return A deferred result computing the list of a[i]*b[i]
+   */
+  default DRes<List<DRes<SInt>>> multVector(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+    if (a.size() != b.size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have the same size, was " + a.size() + " and " + b.size());
+    }
+    List<DRes<SInt>> products = new ArrayList<>(a.size());
+    for (int i = 0; i < a.size(); i++) {
+      products.add(mult(a.get(i), b.get(i)));
+    }
+    return () -> products;
+  }
+
   /**
    * Returns a deferred result which creates a secret shared random bit. (This should be computed
    * beforehand to increase the speed of the application)
@@ -153,6 +179,26 @@ public interface Numeric extends ComputationDirectory {
     return input(BigInteger.valueOf(value), inputParty);
   }
 
+  /**
+   * Closes a list of public values provided by the same party.
+   * <p>
+   * The default implementation calls {@link #input(BigInteger, int)} for each value. Protocol
+   * suites may override this to send all the values in a single message.
+   * </p>
+   *
+   * @param values The values to input. Parties not providing input must pass a list of the same
+   *     size, whose entries may be null.
+   * @param inputParty The ID of the MPC party.
+   * @return A deferred result computing the list of closed input values
+   */
+  default DRes<List<DRes<SInt>>> inputVector(List<BigInteger> values, int inputParty) {
+    List<DRes<SInt>> inputs = new ArrayList<>(values.size());
+    for (BigInteger value : values) {
+      inputs.add(input(value, inputParty));
+    }
+    return () -> inputs;
+  }
+
   /**
    * Opens a value to all MPC parties.
    *
@@ -0,0 +1,145 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A finite field where the modulus is a pseudo Mersenne prime of at most 63 bits, e.g.,
+ * <code>2<sup>61</sup>-1</code>. The elements are stored as primitive <code>long</code> values, so
+ * the arithmetic does not allocate any intermediate objects, and are serialized as fixed size
+ * 8 byte big-endian values.
+ * <p>
+ * Elements from this field can only be combined with other elements from this field.
+ * </p>
+ */
+public final class LongFieldDefinition implements FieldDefinition {
+
+  private static final int BYTE_LENGTH = Long.BYTES;
+  /**
+   * Default field definition for a few bit lengths.
+   */
+  private static final Map<Integer, Long> precomputed = createPrecomputedModuli();
+  private final LongPrimeModulus modulus;
+  private final BigInteger modulusBig;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+
+  /**
+   * Construct a new field definition for a pseudo Mersenne prime.
+   *
+   * @param bitLength the bitlength of the prime, at most 63
+   * @param constant the constant subtracted from 2^bitLength
+   */
+  LongFieldDefinition(int bitLength, long constant) {
+    this.modulus = new LongPrimeModulus(bitLength, constant);
+    this.modulusBig = BigInteger.valueOf(modulus.getPrime());
+    this.modulusHalf = modulusBig.shiftRight(1);
+    this.modulusBitLength = bitLength;
+  }
+
+  /** Try to find a pseudo-Mersenne prime with the given bit length. */
+  public static LongFieldDefinition find(int bitlength) {
+    if (!precomputed.containsKey(bitlength)) {
+      throw new IllegalArgumentException("Unknown bit length. Possible choices are "
+          + precomputed.keySet() + ".");
+    }
+    return new LongFieldDefinition(bitlength, precomputed.get(bitlength));
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulusBig;
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return value.toBigInteger();
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, modulusBig, modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    return ByteBuffer.allocate(BYTE_LENGTH).putLong(LongFieldElement.extractValue(fieldElement))
+        .array();
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    ByteBuffer buffer = ByteBuffer.allocate(fieldElements.size() * BYTE_LENGTH);
+    for (FieldElement fieldElement : fieldElements) {
+      buffer.putLong(LongFieldElement.extractValue(fieldElement));
+    }
+    return buffer.array();
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return readElement(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    List<FieldElement> elements = new ArrayList<>(bytes.length / BYTE_LENGTH);
+    while (buffer.hasRemaining()) {
+      elements.add(readElement(buffer));
+    }
+    return elements;
+  }
+
+  private FieldElement readElement(ByteBuffer buffer) {
+    long value = buffer.getLong();
+    if (value < 0 || value >= modulus.getPrime()) {
+      throw new IllegalArgumentException("Serialized value is not in the field: " + value);
+    }
+    return LongFieldElement.createReduced(value, modulus);
+  }
+
+  private static Map<Integer, Long> createPrecomputedModuli() {
+    return new HashMap<Integer, Long>() {{
+      put(63, 25L);
+      put(62, 57L);
+      put(61, 1L);
+      put(56, 5L);
+      put(48, 59L);
+      put(32, 5L);
+      put(31, 1L);
+      put(16, 15L);
+      put(8, 5L);
+    }};
+  }
+}
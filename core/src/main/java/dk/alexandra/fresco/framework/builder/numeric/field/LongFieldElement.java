@@ -0,0 +1,97 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+/**
+ * An element in a field defined by a {@link LongPrimeModulus}, with the value stored as a
+ * <code>long</code>.
+ */
+final class LongFieldElement implements FieldElement {
+
+  private static final long serialVersionUID = 4817315036715082365L;
+  private final long value;
+  private final LongPrimeModulus modulus;
+
+  private LongFieldElement(long value, LongPrimeModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  private FieldElement create(long value) {
+    return new LongFieldElement(value, modulus);
+  }
+
+  static FieldElement create(long value, LongPrimeModulus modulus) {
+    return new LongFieldElement(modulus.ensureInField(value), modulus);
+  }
+
+  static FieldElement create(BigInteger value, LongPrimeModulus modulus) {
+    long reduced = value.mod(BigInteger.valueOf(modulus.getPrime())).longValue();
+    return new LongFieldElement(reduced, modulus);
+  }
+
+  static FieldElement create(String string, LongPrimeModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  /**
+   * Creates an element from a value already known to be in <i>0, ..., p - 1</i>.
+   */
+  static FieldElement createReduced(long value, LongPrimeModulus modulus) {
+    return new LongFieldElement(value, modulus);
+  }
+
+  static long extractValue(FieldElement element) {
+    return ((LongFieldElement) element).value;
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    return create(modulus.add(value, extractValue(operand)));
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    return create(modulus.subtract(value, extractValue(operand)));
+  }
+
+  @Override
+  public FieldElement negate() {
+    return create(modulus.negate(value));
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    return create(modulus.multiply(value, extractValue(operand)));
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    BigInteger prime = BigInteger.valueOf(modulus.getPrime());
+    return create(MathUtils.modularSqrt(toBigInteger(), prime).longValue());
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(modulus.inverse(value));
+  }
+
+  @Override
+  public boolean isZero() {
+    return value == 0;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return BigInteger.valueOf(value);
+  }
+
+  @Override
+  public String toString() {
+    return "LongFieldElement{"
+        + "value=" + value
+        + ", modulus =" + modulus
+        + '}';
+  }
+}
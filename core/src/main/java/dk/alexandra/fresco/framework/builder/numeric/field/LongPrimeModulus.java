@@ -0,0 +1,151 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * A pseudo Mersenne prime modulus small enough to fit in a <code>long</code>.
+ * <p>
+ * All values handled by this class are assumed to be in the range <i>0, ..., p - 1</i>. Products
+ * are computed as 128 bit values split in a high and a low word and reduced by repeatedly folding
+ * the bits above the bit length of the prime using <code>2<sup>bitLength</sup> = constant mod
+ * p</code>. No objects are allocated by the arithmetic operations.
+ * </p>
+ */
+final class LongPrimeModulus implements Serializable {
+
+  private static final long serialVersionUID = -2187516283453617392L;
+  private static final long LOW_BITS = 0xFFFFFFFFL;
+  private final int bitLength;
+  private final long constant;
+  private final long bitMask;
+  private final long prime;
+
+  /**
+   * Creates a modulus for the pseudo Mersenne prime <code>2<sup>bitLength</sup>-constant</code>.
+   *
+   * @param bitLength the bit length of the prime, at most 63
+   * @param constant the (small) constant, which must be smaller than
+   *     <code>2<sup>bitLength/2</sup></code>
+   */
+  LongPrimeModulus(int bitLength, long constant) {
+    if (bitLength <= 1 || bitLength >= Long.SIZE) {
+      throw new IllegalArgumentException("Bit length must be between 2 and 63, was " + bitLength);
+    }
+    if (constant <= 0) {
+      throw new IllegalArgumentException("Negative constant");
+    }
+    if (constant >= 1L << (bitLength / 2)) {
+      throw new IllegalArgumentException("Constant is too large for bit length " + bitLength);
+    }
+    this.bitLength = bitLength;
+    this.constant = constant;
+    this.bitMask = (1L << bitLength) - 1;
+    this.prime = (1L << bitLength) - constant;
+    if (!BigInteger.valueOf(prime).isProbablePrime(40)) {
+      throw new IllegalArgumentException("2^" + bitLength + "-" + constant + " is not a prime");
+    }
+  }
+
+  /**
+   * Gets the prime used for modulus.
+   *
+   * @return the prime
+   */
+  long getPrime() {
+    return prime;
+  }
+
+  /**
+   * Takes any value and computes the equivalent value in <i>0, ..., p - 1</i>.
+   *
+   * @param value the value to reduce
+   * @return <code>value mod this</code>
+   */
+  long ensureInField(long value) {
+    long result = value % prime;
+    return result < 0 ? result + prime : result;
+  }
+
+  long add(long left, long right) {
+    long sum = left + right;
+    return Long.compareUnsigned(sum, prime) >= 0 ? sum - prime : sum;
+  }
+
+  long subtract(long left, long right) {
+    long difference = left - right;
+    return difference < 0 ? difference + prime : difference;
+  }
+
+  long negate(long value) {
+    return value == 0 ? 0 : prime - value;
+  }
+
+  long multiply(long left, long right) {
+    return reduce(multiplyHigh(left, right), left * right);
+  }
+
+  /**
+   * Computes the inverse modulo this modulus using the extended Euclidean algorithm.
+   *
+   * @param value a non-zero value
+   * @return the inverse of the value
+   */
+  long inverse(long value) {
+    if (value == 0) {
+      throw new ArithmeticException("Zero is not invertible");
+    }
+    long previousRemainder = prime;
+    long remainder = value;
+    long previousCoefficient = 0;
+    long coefficient = 1;
+    while (remainder != 0) {
+      long quotient = previousRemainder / remainder;
+      long nextRemainder = previousRemainder - quotient * remainder;
+      previousRemainder = remainder;
+      remainder = nextRemainder;
+      long nextCoefficient = previousCoefficient - quotient * coefficient;
+      previousCoefficient = coefficient;
+      coefficient = nextCoefficient;
+    }
+    return previousCoefficient < 0 ? previousCoefficient + prime : previousCoefficient;
+  }
+
+  /**
+   * Reduces the unsigned 128 bit value <code>high * 2<sup>64</sup> + low</code>, which must be
+   * smaller than <code>2<sup>2 * bitLength</sup></code>.
+   */
+  private long reduce(long high, long low) {
+    // q = z / b^n, r = z mod b^n and z = c * q + r mod p
+    while (high != 0 || (low >>> bitLength) != 0) {
+      long quotient = (high << (Long.SIZE - bitLength)) | (low >>> bitLength);
+      long remainder = low & bitMask;
+      long productLow = quotient * constant;
+      low = productLow + remainder;
+      high = multiplyHigh(quotient, constant) + (Long.compareUnsigned(low, productLow) < 0 ? 1 : 0);
+    }
+    return low >= prime ? low - prime : low;
+  }
+
+  /**
+   * Computes the high 64 bits of the 128 bit product of two non-negative longs. This is equivalent
+   * to <code>Math.multiplyHigh</code>, which is not available on Java 8.
+   */
+  static long multiplyHigh(long left, long right) {
+    long leftHigh = left >>> 32;
+    long leftLow = left & LOW_BITS;
+    long rightHigh = right >>> 32;
+    long rightLow = right & LOW_BITS;
+    long lowProduct = leftLow * rightLow;
+    long middle = leftHigh * rightLow + (lowProduct >>> 32);
+    long middleLow = (middle & LOW_BITS) + leftLow * rightHigh;
+    return leftHigh * rightHigh + (middle >>> 32) + (middleLow >>> 32);
+  }
+
+  @Override
+  public String toString() {
+    return "LongPrimeModulus{"
+        + "value=" + prime
+        + '}';
+  }
+}
@@ -0,0 +1,74 @@
+package dk.alexandra.fresco.framework.network;
+
+import java.time.Duration;
+
+/**
+ * Describes the emulated conditions of a link from one party to another, used by the {@link
+ * WanNetworkDecorator}.
+ *
+ * <p>
+ * A message sent over the link first waits until the link has bandwidth for it, and then arrives
+ * after the one-way latency plus a random jitter. The bandwidth is enforced by a token bucket,
+ * which allows bursts of up to a given number of bytes to be sent at once.
+ * </p>
+ */
+public final class WanLinkProfile {
+
+  private final Duration latency;
+  private final Duration jitter;
+  private final long bitsPerSecond;
+  private final int burstBytes;
+
+  /**
+   * Creates a new link profile.
+   *
+   * @param latency the one-way latency of the link
+   * @param jitter the maximal random delay added to the latency of each message
+   * @param bitsPerSecond the bandwidth of the link
+   * @param burstBytes the number of bytes that can be sent at once over an idle link
+   */
+  public WanLinkProfile(Duration latency, Duration jitter, long bitsPerSecond, int burstBytes) {
+    if (latency.isNegative() || jitter.isNegative()) {
+      throw new IllegalArgumentException("Latency and jitter must be non-negative");
+    }
+    if (bitsPerSecond < 1 || burstBytes < 1) {
+      throw new IllegalArgumentException("Bandwidth and burst size must be positive");
+    }
+    this.latency = latency;
+    this.jitter = jitter;
+    this.bitsPerSecond = bitsPerSecond;
+    this.burstBytes = burstBytes;
+  }
+
+  /**
+   * Creates a new link profile without jitter, allowing bursts of up to 64 KB.
+   *
+   * @param latency the one-way latency of the link
+   * @param bitsPerSecond the bandwidth of the link
+   */
+  public WanLinkProfile(Duration latency, long bitsPerSecond) {
+    this(latency, Duration.ZERO, bitsPerSecond, 1 << 16);
+  }
+
+  public Duration getLatency() {
+    return latency;
+  }
+
+  public Duration getJitter() {
+    return jitter;
+  }
+
+  public long getBitsPerSecond() {
+    return bitsPerSecond;
+  }
+
+  public int getBurstBytes() {
+    return burstBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "WanLinkProfile [latency=" + latency + ", jitter=" + jitter + ", bitsPerSecond="
+        + bitsPerSecond + ", burstBytes=" + burstBytes + "]";
+  }
+}
@@ -0,0 +1,226 @@
+package dk.alexandra.fresco.framework.network;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A decorator for a {@link Network} that emulates a wide area network between the parties, in
+ * order to measure the effect of latency and bandwidth on a computation running on a single
+ * machine.
+ *
+ * <p>
+ * Each outgoing link is described by a {@link WanLinkProfile}. A sent message is held back until it
+ * would have arrived at the receiver over a link with the given latency, jitter and bandwidth, and
+ * is only then passed on to the underlying network. Messages on the same link arrive in the order
+ * they were sent, even with jitter, and messages sent to the party itself are not delayed. Only the
+ * sending side needs to be decorated, so the decorator can be combined with any network.
+ * </p>
+ * <p>
+ * The jitter is drawn from random generators seeded with a given seed, such that the same
+ * computation with the same seed sees the same delays. The held back messages are passed on by a
+ * single background thread, so {@link #send(int, byte[])} never blocks. Messages sent to the party
+ * itself are not held back and are passed on directly by the calling thread, so the underlying
+ * network must allow sending from both threads.
+ * </p>
+ */
+public class WanNetworkDecorator implements CloseableNetwork {
+
+  private final Network delegate;
+  private final int myId;
+  private final Map<Integer, Link> links;
+  private final DelayQueue<DelayedMessage> queue;
+  private final Thread deliveryThread;
+  private long sequenceNumber;
+  private long lastArrival;
+  private volatile RuntimeException failure;
+  private boolean alive;
+
+  /**
+   * Creates a new decorator with the same profile for all links.
+   *
+   * @param delegate the network to decorate
+   * @param myId the id of this party
+   * @param profile the profile of each link from this party to the other parties
+   * @param seed the seed for the jitter
+   */
+  public WanNetworkDecorator(Network delegate, int myId, WanLinkProfile profile, long seed) {
+    this(delegate, myId, profile, new HashMap<>(), seed);
+  }
+
+  /**
+   * Creates a new decorator with a profile for each link.
+   *
+   * @param delegate the network to decorate
+   * @param myId the id of this party
+   * @param defaultProfile the profile of links not given in <code>profiles</code>
+   * @param profiles a map from party ids to the profile of the link to that party
+   * @param seed the seed for the jitter
+   */
+  public WanNetworkDecorator(Network delegate, int myId, WanLinkProfile defaultProfile,
+      Map<Integer, WanLinkProfile> profiles, long seed) {
+    this.delegate = delegate;
+    this.myId = myId;
+    this.links = new HashMap<>();
+    for (int partyId = 1; partyId <= delegate.getNoOfParties(); partyId++) {
+      if (partyId != myId) {
+        WanLinkProfile profile = profiles.getOrDefault(partyId, defaultProfile);
+        links.put(partyId, new Link(profile, new Random(seed * 31 + partyId)));
+      }
+    }
+    this.queue = new DelayQueue<>();
+    this.lastArrival = System.nanoTime();
+    this.alive = true;
+    this.deliveryThread = new Thread(this::deliver, "WanNetworkDecorator-" + myId);
+    this.deliveryThread.setDaemon(true);
+    this.deliveryThread.start();
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    if (failure != null) {
+      throw new RuntimeException("P" + myId + ": Unable to send to P" + partyId, failure);
+    }
+    if (!alive) {
+      throw new RuntimeException("P" + myId + ": Unable to send to P" + partyId
+          + ". Network is closed");
+    }
+    if (partyId == myId) {
+      delegate.send(partyId, data);
+      return;
+    }
+    Link link = links.get(partyId);
+    if (link == null) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+    }
+    long arrival = link.arrival(System.nanoTime(), data.length);
+    lastArrival = Math.max(lastArrival, arrival);
+    queue.add(new DelayedMessage(partyId, data, arrival, sequenceNumber++));
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    return delegate.receive(partyId);
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return delegate.getNoOfParties();
+  }
+
+  /**
+   * Waits until all messages sent so far have been passed on to the underlying network, and then
+   * closes it if it is closeable.
+   */
+  @Override
+  public void close() throws IOException {
+    if (alive) {
+      alive = false;
+      queue.add(new DelayedMessage(myId, null, lastArrival, sequenceNumber++));
+      ExceptionConverter.safe(() -> {
+        deliveryThread.join();
+        return null;
+      }, "Interrupted while delivering the remaining messages");
+      if (delegate instanceof Closeable) {
+        ((Closeable) delegate).close();
+      }
+    }
+  }
+
+  private void deliver() {
+    try {
+      while (true) {
+        DelayedMessage message = queue.take();
+        if (message.data == null) {
+          return;
+        }
+        delegate.send(message.partyId, message.data);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      failure = e;
+    }
+  }
+
+  /**
+   * The state of the emulated link to another party.
+   */
+  private static final class Link {
+
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double bytesPerNano;
+    private final int burstBytes;
+    private final Random random;
+    private double tokens;
+    private long lastRefill;
+    private long lastArrival;
+
+    private Link(WanLinkProfile profile, Random random) {
+      this.latencyNanos = profile.getLatency().toNanos();
+      this.jitterNanos = profile.getJitter().toNanos();
+      this.bytesPerNano = profile.getBitsPerSecond() / 8.0 / TimeUnit.SECONDS.toNanos(1);
+      this.burstBytes = profile.getBurstBytes();
+      this.random = random;
+      this.tokens = burstBytes;
+      this.lastRefill = System.nanoTime();
+      this.lastArrival = lastRefill;
+    }
+
+    /**
+     * Computes when a message sent now arrives. The bucket is allowed to go into debt, which
+     * delays the following messages until the debt has been paid off.
+     */
+    private long arrival(long now, int noOfBytes) {
+      tokens = Math.min(burstBytes, tokens + (now - lastRefill) * bytesPerNano);
+      lastRefill = now;
+      long departure = now;
+      if (tokens < noOfBytes) {
+        departure += (long) ((noOfBytes - tokens) / bytesPerNano);
+      }
+      tokens -= noOfBytes;
+      long jitter = jitterNanos > 0 ? (long) (random.nextDouble() * jitterNanos) : 0;
+      lastArrival = Math.max(lastArrival, departure + latencyNanos + jitter);
+      return lastArrival;
+    }
+  }
+
+  /**
+   * A message held back until its arrival time. Messages with the same arrival time are ordered by
+   * when they were sent.
+   */
+  private static final class DelayedMessage implements Delayed {
+
+    private final int partyId;
+    private final byte[] data;
+    private final long arrival;
+    private final long sequenceNumber;
+
+    private DelayedMessage(int partyId, byte[] data, long arrival, long sequenceNumber) {
+      this.partyId = partyId;
+      this.data = data;
+      this.arrival = arrival;
+      this.sequenceNumber = sequenceNumber;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(arrival - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      DelayedMessage that = (DelayedMessage) other;
+      int result = Long.compare(arrival, that.arrival);
+      return result != 0 ? result : Long.compare(sequenceNumber, that.sequenceNumber);
+    }
+  }
+}
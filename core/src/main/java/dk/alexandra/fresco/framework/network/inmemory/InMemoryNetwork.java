@@ -0,0 +1,146 @@
+package dk.alexandra.fresco.framework.network.inmemory;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CloseableNetwork} connecting parties running in the same JVM through shared memory.
+ *
+ * <p>
+ * Each ordered pair of parties (including a party and itself) is connected by a lock-free ring
+ * buffer with a single producer and a single consumer. Messages are handed over by reference, i.e.,
+ * without copying or serialization, and no threads are used besides those of the parties
+ * themselves. This makes the network suited for tests and benchmarks where all parties run in one
+ * JVM, as the cost of the protocols is then not hidden behind the cost of sockets.
+ * </p>
+ * <p>
+ * Sending never blocks. Receiving waits for a message to arrive according to a {@link
+ * WaitStrategy}. As for the other networks, the network of a party must only be used by one thread
+ * at a time.
+ * </p>
+ */
+public class InMemoryNetwork implements CloseableNetwork {
+
+  private static final int DEFAULT_CAPACITY = 1024;
+  private static final Duration CLOSED_CHECK_INTERVAL = Duration.ofMillis(100);
+  private static final Logger logger = LoggerFactory.getLogger(InMemoryNetwork.class);
+  private final int myId;
+  private final InMemoryNetwork[] parties;
+  private final SpscRingBuffer[] incoming;
+  private final WaitStrategy waitStrategy;
+  private volatile boolean alive;
+
+  private InMemoryNetwork(int myId, InMemoryNetwork[] parties, WaitStrategy waitStrategy,
+      int capacity) {
+    this.myId = myId;
+    this.parties = parties;
+    this.incoming = new SpscRingBuffer[parties.length];
+    for (int i = 0; i < incoming.length; i++) {
+      incoming[i] = new SpscRingBuffer(capacity);
+    }
+    this.waitStrategy = waitStrategy;
+    this.alive = true;
+  }
+
+  /**
+   * Creates the connected networks of all parties, parking parties that wait for messages.
+   *
+   * @param noOfParties the number of parties
+   * @return a map from party ids to the network of each party
+   */
+  public static Map<Integer, InMemoryNetwork> create(int noOfParties) {
+    return create(noOfParties, WaitStrategy.PARK);
+  }
+
+  /**
+   * Creates the connected networks of all parties.
+   *
+   * @param noOfParties the number of parties
+   * @param waitStrategy the strategy used by parties waiting for messages
+   * @return a map from party ids to the network of each party
+   */
+  public static Map<Integer, InMemoryNetwork> create(int noOfParties, WaitStrategy waitStrategy) {
+    if (noOfParties < 1) {
+      throw new IllegalArgumentException("Need at least one party, but got " + noOfParties);
+    }
+    InMemoryNetwork[] parties = new InMemoryNetwork[noOfParties];
+    Map<Integer, InMemoryNetwork> networks = new HashMap<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      parties[partyId - 1] =
+          new InMemoryNetwork(partyId, parties, waitStrategy, DEFAULT_CAPACITY);
+      networks.put(partyId, parties[partyId - 1]);
+    }
+    return networks;
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    inRange(partyId);
+    if (!alive) {
+      throw new RuntimeException("P" + myId + ": Unable to send to P" + partyId
+          + ". Network is closed");
+    }
+    parties[partyId - 1].incoming[myId - 1].offer(data);
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    inRange(partyId);
+    SpscRingBuffer buffer = incoming[partyId - 1];
+    long timeout = CLOSED_CHECK_INTERVAL.toNanos();
+    while (true) {
+      if (!alive) {
+        throw new RuntimeException("P" + myId + ": Unable to receive from P" + partyId
+            + ". Network is closed");
+      }
+      byte[] data = buffer.take(waitStrategy, timeout);
+      if (data != null) {
+        return data;
+      }
+      if (!parties[partyId - 1].alive) {
+        // The sender may have sent the message just before closing
+        data = buffer.poll();
+        if (data != null) {
+          return data;
+        }
+        throw new RuntimeException("P" + myId + ": Unable to receive from P" + partyId
+            + ". P" + partyId + " has closed its network");
+      }
+    }
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return parties.length;
+  }
+
+  /**
+   * Check if a party ID is in the range of known parties.
+   *
+   * @param partyId an ID for a party
+   */
+  private void inRange(final int partyId) {
+    if (!(0 < partyId && partyId < getNoOfParties() + 1)) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+    }
+  }
+
+  /**
+   * Closes the network of this party. Messages already sent to the other parties can still be
+   * received by them.
+   */
+  @Override
+  public void close() {
+    if (alive) {
+      alive = false;
+      logger.info("P{}: Network closed", myId);
+    } else {
+      logger.info("P{}: Network already closed", myId);
+    }
+  }
+}
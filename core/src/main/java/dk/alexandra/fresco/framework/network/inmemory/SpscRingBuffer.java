@@ -0,0 +1,168 @@
+package dk.alexandra.fresco.framework.network.inmemory;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free queue of messages with a single producer thread and a single consumer thread.
+ *
+ * <p>
+ * Messages are stored in a ring of slots, where an empty slot holds <code>null</code>. The producer
+ * only writes to empty slots and the consumer only clears full slots, so the two threads never write
+ * to the same slot at the same time and no shared index has to be maintained. Both sides publish
+ * their writes using ordered (lazy) stores, which means that neither sending nor receiving a
+ * message requires a full memory fence.
+ * </p>
+ * <p>
+ * The producer never blocks. When the ring is full it allocates a new ring of twice the size (up to
+ * {@link #MAX_CAPACITY}) and leaves a link to it in the last free slot of the old ring. The
+ * consumer follows the link once it has drained the old ring, so messages are still delivered in
+ * order.
+ * </p>
+ */
+final class SpscRingBuffer {
+
+  static final int MAX_CAPACITY = 1 << 16;
+  private static final long MAX_PARK_NANOS = 1_000_000L;
+
+  // Producer side, only accessed by the producer thread
+  private AtomicReferenceArray<Object> producerRing;
+  private int producerIndex;
+
+  // Consumer side, only accessed by the consumer thread
+  private AtomicReferenceArray<Object> consumerRing;
+  private int consumerIndex;
+
+  private volatile Thread parkedConsumer;
+
+  /**
+   * Creates a new empty buffer.
+   *
+   * @param capacity the initial number of slots, which must be a power of two and at least 2
+   */
+  SpscRingBuffer(int capacity) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException(
+          "Capacity must be a power of two and at least 2, but was " + capacity);
+    }
+    AtomicReferenceArray<Object> ring = new AtomicReferenceArray<>(capacity);
+    this.producerRing = ring;
+    this.consumerRing = ring;
+  }
+
+  /**
+   * Adds a message to the buffer. Must only be called by the producer thread.
+   *
+   * @param message the message
+   */
+  void offer(byte[] message) {
+    AtomicReferenceArray<Object> ring = producerRing;
+    int mask = ring.length() - 1;
+    int offset = producerIndex & mask;
+    if (ring.get((producerIndex + 1) & mask) == null) {
+      ring.lazySet(offset, message);
+      producerIndex++;
+    } else {
+      // The current slot is the last free one, so we use it for the link to a new ring
+      AtomicReferenceArray<Object> next =
+          new AtomicReferenceArray<>(Math.min(ring.length() * 2, MAX_CAPACITY));
+      next.lazySet(0, message);
+      producerRing = next;
+      producerIndex = 1;
+      ring.lazySet(offset, new Link(next));
+    }
+    Thread consumer = parkedConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  /**
+   * Removes the next message from the buffer if there is one. Must only be called by the consumer
+   * thread.
+   *
+   * @return the next message or null if the buffer is empty
+   */
+  byte[] poll() {
+    while (true) {
+      AtomicReferenceArray<Object> ring = consumerRing;
+      int offset = consumerIndex & (ring.length() - 1);
+      Object element = ring.get(offset);
+      if (element == null) {
+        return null;
+      }
+      ring.lazySet(offset, null);
+      if (element instanceof Link) {
+        consumerRing = ((Link) element).next;
+        consumerIndex = 0;
+      } else {
+        consumerIndex++;
+        return (byte[]) element;
+      }
+    }
+  }
+
+  /**
+   * Waits for a message to arrive using the given strategy. Must only be called by the consumer
+   * thread.
+   *
+   * <p>
+   * Gives up and returns <code>null</code> if the buffer is still empty after the given timeout.
+   * This allows the caller to check if the network has been closed while waiting.
+   * </p>
+   *
+   * @param strategy the strategy used while the buffer is empty
+   * @param timeoutNanos how long to wait before giving up
+   * @return the next message or null if none arrived in time
+   */
+  byte[] take(WaitStrategy strategy, long timeoutNanos) {
+    byte[] message = poll();
+    if (message != null) {
+      return message;
+    }
+    long deadline = System.nanoTime() + timeoutNanos;
+    int idleRounds = 0;
+    while (true) {
+      message = poll();
+      if (message != null) {
+        return message;
+      }
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return null;
+      }
+      idleRounds++;
+      if (strategy == WaitStrategy.YIELD
+          || strategy == WaitStrategy.PARK && idleRounds < WaitStrategy.SPIN_ROUNDS) {
+        Thread.yield();
+      } else if (strategy == WaitStrategy.PARK) {
+        park(Math.min(remaining, MAX_PARK_NANOS));
+      }
+    }
+  }
+
+  /**
+   * Parks the consumer until the producer adds a message. Since the consumer re-checks the buffer
+   * after announcing itself, but the producer only uses ordered stores, a wake-up may in rare cases
+   * be missed, so the park is always bounded.
+   */
+  private void park(long nanos) {
+    parkedConsumer = Thread.currentThread();
+    if (consumerRing.get(consumerIndex & (consumerRing.length() - 1)) == null) {
+      LockSupport.parkNanos(this, nanos);
+    }
+    parkedConsumer = null;
+  }
+
+  /**
+   * Marks the end of a ring that has been replaced by a larger one.
+   */
+  private static final class Link {
+
+    private final AtomicReferenceArray<Object> next;
+
+    private Link(AtomicReferenceArray<Object> next) {
+      this.next = next;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package dk.alexandra.fresco.framework.network.inmemory;
+
+/**
+ * Determines what a party of an {@link InMemoryNetwork} does while waiting for a message.
+ */
+public enum WaitStrategy {
+
+  /**
+   * Polls continuously. Gives the lowest latency, but occupies a core per waiting party, so it is
+   * only useful when there are at least as many cores as parties.
+   */
+  BUSY_SPIN,
+  /**
+   * Polls, but yields the processor between attempts.
+   */
+  YIELD,
+  /**
+   * Yields for a short while and then parks the thread until the message arrives. Frees the
+   * processor for the other parties, which is the better choice when the parties share cores.
+   */
+  PARK;
+
+  /**
+   * The number of times a parking party yields before parking.
+   */
+  static final int SPIN_ROUNDS = 100;
+}
@@ -0,0 +1,469 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CloseableNetwork} implementation based on Java's nio API.
+ *
+ * <p>
+ * All communication with the other parties is handled by a single event loop thread using a
+ * {@link Selector}, regardless of the number of parties. Outgoing messages are queued and coalesced
+ * into a direct buffer per party, such that many small messages are written with a single call to
+ * the socket, and incoming data is read into a direct buffer per party and split into messages by
+ * the event loop. Sending is non-blocking but receiving may block waiting for messages to arrive.
+ * The same message format as {@link SocketNetwork} is used, i.e., each message is prefixed by an
+ * integer indicating the byte length of the message. When closed, the network signals the end of
+ * the stream to the other parties by closing the connections once all messages have been written,
+ * rather than by sending a marker, and it treats both a closed connection and a negative length
+ * from a party as the end of the stream from that party.
+ * </p>
+ * <p>
+ * The network requires the sockets to be backed by a {@link SocketChannel}. The constructors
+ * taking a {@link NetworkConfiguration} connect the network using the {@link Connector} with
+ * socket factories creating such sockets.
+ * </p>
+ */
+public class NioSocketNetwork implements CloseableNetwork {
+
+  private static final Logger logger = LoggerFactory.getLogger(NioSocketNetwork.class);
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final byte[] END_OF_STREAM = new byte[0];
+  private final BlockingQueue<byte[]> selfQueue;
+  private final NetworkConfiguration conf;
+  private final Map<Integer, Peer> peers;
+  private final AtomicBoolean wakeupPending;
+  private final Selector selector;
+  private final Thread eventLoop;
+  private volatile boolean alive;
+  private volatile boolean closing;
+
+  /**
+   * Creates a network with the given a configuration and a mapping from party ids to sockets.
+   *
+   * <p>
+   * The mapping of party ids to sockets must be consistent with the network configuration. I.e.,
+   * there should be exactly one mapping for each opposing party (but not for the local party).
+   * Also, the sockets must be connected, open and backed by a {@link SocketChannel}.
+   * </p>
+   *
+   * @param conf the network configuration
+   * @param socketMap a mapping from party ids to the socket to be used for communicating with
+   *     the given party.
+   * @throws IllegalArgumentException if {@code socketMap} and {@code conf} are inconsistent or
+   *     the sockets are not open, connected and backed by a channel.
+   */
+  public NioSocketNetwork(NetworkConfiguration conf, Map<Integer, Socket> socketMap) {
+    Objects.requireNonNull(conf);
+    Objects.requireNonNull(socketMap);
+    for (int i = 1; i < conf.noOfParties() + 1; i++) {
+      if (i == conf.getMyId()) {
+        continue;
+      }
+      if (!socketMap.containsKey(i)) {
+        throw new IllegalArgumentException("Missing socket for P" + i);
+      }
+      Socket s = socketMap.get(i);
+      if (s.isClosed()) {
+        throw new IllegalArgumentException("Closed socket for P" + i);
+      }
+      if (!s.isConnected()) {
+        throw new IllegalArgumentException("Unconnected socket for P" + i);
+      }
+      if (s.getChannel() == null) {
+        throw new IllegalArgumentException("Socket for P" + i + " is not backed by a channel");
+      }
+    }
+    this.conf = conf;
+    this.peers = new HashMap<>(conf.noOfParties() - 1);
+    this.selfQueue = new LinkedBlockingQueue<>();
+    this.wakeupPending = new AtomicBoolean(false);
+    this.selector = ExceptionConverter.safe(Selector::open, "Unable to open selector");
+    for (Entry<Integer, Socket> entry : socketMap.entrySet()) {
+      int id = entry.getKey();
+      inRange(id);
+      SocketChannel channel = entry.getValue().getChannel();
+      Peer peer = new Peer(id, channel);
+      peer.key = ExceptionConverter.safe(() -> {
+        channel.socket().setTcpNoDelay(true);
+        channel.configureBlocking(false);
+        return channel.register(selector, SelectionKey.OP_READ, peer);
+      }, "Unable to register channel for P" + id);
+      peers.put(id, peer);
+    }
+    this.alive = true;
+    this.eventLoop = new Thread(this::run);
+    this.eventLoop.setDaemon(true);
+    this.eventLoop.setName("nio-network-" + this.eventLoop.getId());
+    this.eventLoop.start();
+  }
+
+  /**
+   * Default constructor using one minute timeout.
+   *
+   * @param conf the configuration to load the network from.
+   */
+  public NioSocketNetwork(NetworkConfiguration conf) {
+    this(conf, Duration.of(1, ChronoUnit.MINUTES));
+  }
+
+  /**
+   * Construct a network with a specific timeout.
+   *
+   * @param conf the configuration to load the network from.
+   * @param timeout duration to wait until timeout when connecting the network.
+   */
+  public NioSocketNetwork(NetworkConfiguration conf, Duration timeout) {
+    this(conf, new Connector(conf, timeout, new ChannelSocketFactory(),
+        new ChannelServerSocketFactory()).getSocketMap());
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    if (partyId == conf.getMyId()) {
+      this.selfQueue.add(data);
+    } else {
+      inRange(partyId);
+      Peer peer = peers.get(partyId);
+      if (!alive || peer.failed || !eventLoop.isAlive()) {
+        throw new RuntimeException(
+            "P" + conf.getMyId() + ": Unable to send to P" + partyId + ". Sender not running");
+      }
+      peer.outgoing.add(data);
+      wakeup();
+    }
+  }
+
+  @Override
+  public byte[] receive(final int partyId) {
+    if (partyId == conf.getMyId()) {
+      return ExceptionConverter.safe(selfQueue::take, "Receiving from self failed");
+    }
+    inRange(partyId);
+    Peer peer = peers.get(partyId);
+    byte[] data = ExceptionConverter.safe(peer.received::take, "Receive interrupted");
+    if (data == END_OF_STREAM) {
+      // Leave the marker for subsequent calls
+      peer.received.add(END_OF_STREAM);
+      throw new RuntimeException("P" + conf.getMyId() + ": Unable to recieve from P" + partyId
+          + ". Receiver not running");
+    }
+    return data;
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return this.conf.noOfParties();
+  }
+
+  /**
+   * Closes the network down and releases held resources. Messages sent before closing the network
+   * are flushed before the connections are closed.
+   */
+  @Override
+  public void close() {
+    if (alive) {
+      alive = false;
+      closing = true;
+      selector.wakeup();
+      ExceptionConverter.safe(() -> {
+        eventLoop.join();
+        return null;
+      }, "Interrupted while closing the network");
+      logger.info("P{}: Network closed", conf.getMyId());
+    } else {
+      logger.info("P{}: Network already closed", conf.getMyId());
+    }
+  }
+
+  private void wakeup() {
+    if (wakeupPending.compareAndSet(false, true)) {
+      selector.wakeup();
+    }
+  }
+
+  private void run() {
+    try {
+      while (!(closing && isFlushed())) {
+        selector.select();
+        wakeupPending.set(false);
+        for (SelectionKey key : selector.selectedKeys()) {
+          Peer peer = (Peer) key.attachment();
+          if (key.isValid() && key.isReadable()) {
+            handle(peer, true);
+          }
+        }
+        selector.selectedKeys().clear();
+        for (Peer peer : peers.values()) {
+          handle(peer, false);
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.error("Network event loop failed unexpectedly", e);
+    } finally {
+      for (Peer peer : peers.values()) {
+        peer.fail();
+      }
+      try {
+        selector.close();
+      } catch (IOException ignored) {
+        // Ignored since the loop is stopping anyway
+      }
+    }
+  }
+
+  private boolean isFlushed() {
+    for (Peer peer : peers.values()) {
+      if (!peer.failed && peer.hasPendingOutput()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void handle(Peer peer, boolean read) {
+    if (peer.failed) {
+      return;
+    }
+    try {
+      if (read) {
+        peer.read();
+      } else if (peer.hasPendingOutput()) {
+        boolean flushed = peer.write();
+        peer.key.interestOps(flushed
+            ? SelectionKey.OP_READ
+            : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+      }
+    } catch (IOException e) {
+      if (!closing) {
+        logger.error("P" + conf.getMyId() + ": Communication with P" + peer.id + " failed", e);
+      }
+      peer.fail();
+    }
+  }
+
+  /**
+   * Check if a party ID is in the range of known parties.
+   *
+   * @param partyId an ID for a party
+   */
+  private void inRange(final int partyId) {
+    if (!(0 < partyId && partyId < getNoOfParties() + 1)) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+    }
+  }
+
+  /**
+   * State of the connection to a single opposing party. Apart from the queues, this is only
+   * accessed by the event loop.
+   */
+  private static class Peer {
+
+    private final int id;
+    private final SocketChannel channel;
+    private final Queue<byte[]> outgoing;
+    private final BlockingQueue<byte[]> received;
+    private final ByteBuffer writeBuffer;
+    private final ByteBuffer readBuffer;
+    private SelectionKey key;
+    private byte[] sending;
+    private int sendingOffset;
+    private byte[] receiving;
+    private int receivingOffset;
+    private volatile boolean failed;
+
+    private Peer(int id, SocketChannel channel) {
+      this.id = id;
+      this.channel = channel;
+      this.outgoing = new ConcurrentLinkedQueue<>();
+      this.received = new LinkedBlockingQueue<>();
+      this.writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      this.readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    private boolean hasPendingOutput() {
+      return sending != null || writeBuffer.position() > 0 || !outgoing.isEmpty();
+    }
+
+    /**
+     * Writes as much of the queued output as the socket accepts.
+     *
+     * @return true if all queued output was written
+     */
+    private boolean write() throws IOException {
+      while (true) {
+        fillWriteBuffer();
+        if (writeBuffer.position() == 0) {
+          return true;
+        }
+        writeBuffer.flip();
+        channel.write(writeBuffer);
+        boolean written = !writeBuffer.hasRemaining();
+        writeBuffer.compact();
+        if (!written) {
+          return false;
+        }
+      }
+    }
+
+    private void fillWriteBuffer() {
+      while (writeBuffer.hasRemaining()) {
+        if (sending == null) {
+          if (writeBuffer.remaining() < Integer.BYTES || outgoing.isEmpty()) {
+            return;
+          }
+          sending = outgoing.poll();
+          sendingOffset = 0;
+          writeBuffer.putInt(sending.length);
+        }
+        int length = Math.min(writeBuffer.remaining(), sending.length - sendingOffset);
+        writeBuffer.put(sending, sendingOffset, length);
+        sendingOffset += length;
+        if (sendingOffset == sending.length) {
+          sending = null;
+        }
+      }
+    }
+
+    private void read() throws IOException {
+      int read = channel.read(readBuffer);
+      readBuffer.flip();
+      boolean endOfStream = read < 0;
+      while (!endOfStream) {
+        if (receiving == null) {
+          if (readBuffer.remaining() < Integer.BYTES) {
+            break;
+          }
+          int length = readBuffer.getInt();
+          if (length < 0) {
+            endOfStream = true;
+            break;
+          }
+          receiving = new byte[length];
+          receivingOffset = 0;
+        }
+        int length = Math.min(readBuffer.remaining(), receiving.length - receivingOffset);
+        readBuffer.get(receiving, receivingOffset, length);
+        receivingOffset += length;
+        if (receivingOffset < receiving.length) {
+          break;
+        }
+        received.add(receiving);
+        receiving = null;
+      }
+      readBuffer.compact();
+      if (endOfStream) {
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        received.add(END_OF_STREAM);
+      }
+    }
+
+    private void fail() {
+      if (!failed) {
+        failed = true;
+        received.add(END_OF_STREAM);
+        try {
+          channel.close();
+        } catch (IOException ignored) {
+          // Ignored since the connection is abandoned anyway
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates client sockets backed by a {@link SocketChannel}.
+   */
+  static class ChannelSocketFactory extends SocketFactory {
+
+    @Override
+    public Socket createSocket() throws IOException {
+      return SocketChannel.open().socket();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+      return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+        throws IOException {
+      SocketChannel channel = SocketChannel.open();
+      channel.bind(new InetSocketAddress(localHost, localPort));
+      channel.connect(new InetSocketAddress(host, port));
+      return channel.socket();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+      return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+        int localPort) throws IOException {
+      SocketChannel channel = SocketChannel.open();
+      channel.bind(new InetSocketAddress(localAddress, localPort));
+      channel.connect(new InetSocketAddress(address, port));
+      return channel.socket();
+    }
+  }
+
+  /**
+   * Creates server sockets backed by a {@link ServerSocketChannel}, such that accepted sockets are
+   * backed by a {@link SocketChannel}.
+   */
+  static class ChannelServerSocketFactory extends ServerSocketFactory {
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+      return createServerSocket(port, 0, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+      return createServerSocket(port, backlog, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog, InetAddress address)
+        throws IOException {
+      ServerSocketChannel channel = ServerSocketChannel.open();
+      try {
+        channel.bind(new InetSocketAddress(address, port), backlog);
+      } catch (IOException e) {
+        channel.close();
+        throw e;
+      }
+      return channel.socket();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package dk.alexandra.fresco.framework.sce;
+
+import dk.alexandra.fresco.framework.DRes;
+import java.util.Objects;
+
+/**
+ * A handle to a value which can be changed between evaluations of a {@link RecordedApplication},
+ * used to provide the application with new inputs.
+ *
+ * @param <T> the type of the value
+ */
+public class Binding<T> implements DRes<T> {
+
+  private T value;
+
+  /**
+   * Creates a new binding, which must be bound to a value before it is used.
+   */
+  public Binding() {
+  }
+
+  /**
+   * Creates a new binding bound to the given value.
+   *
+   * @param value the value
+   */
+  public Binding(T value) {
+    this.value = value;
+  }
+
+  /**
+   * Binds this handle to a new value.
+   *
+   * @param value the value
+   */
+  public void bind(T value) {
+    this.value = value;
+  }
+
+  @Override
+  public T out() {
+    return Objects.requireNonNull(value, "Binding has not been bound to a value");
+  }
+}
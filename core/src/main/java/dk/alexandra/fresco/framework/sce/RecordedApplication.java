@@ -0,0 +1,59 @@
+package dk.alexandra.fresco.framework.sce;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.lib.helper.ReplayProtocolProducer;
+import java.util.List;
+
+/**
+ * An application recorded by {@link SecureComputationEngine#recordApplication}, holding the
+ * batches of native protocols it was evaluated in and its output.
+ *
+ * <p>
+ * Replaying the application evaluates the same native protocol objects again in the same batches,
+ * without running the application or creating any builders or producers. This is only correct if
+ * the application is data independent, i.e., its protocols do not depend on the values computed,
+ * and if values only flow between protocols through the {@link DRes} handles returned when the
+ * protocols were created, since these are read again in every evaluation. In particular, values
+ * resolved while building, such as the value passed from one build step to the next, are fixed at
+ * the time of recording. New inputs are provided by binding them to {@link Binding} handles used
+ * by the application. Moreover, all native protocols must implement {@link ReplayableProtocol},
+ * which resets them before they are evaluated again.
+ * </p>
+ *
+ * @param <OutputT> the type of the output of the application
+ */
+public class RecordedApplication<OutputT> {
+
+  private final DRes<OutputT> output;
+  private final List<List<ReplayableProtocol<?, ?>>> batches;
+
+  RecordedApplication(DRes<OutputT> output, List<List<ReplayableProtocol<?, ?>>> batches) {
+    this.output = output;
+    this.batches = batches;
+  }
+
+  /**
+   * Returns the output of the latest evaluation of the application.
+   */
+  public OutputT getOutput() {
+    return output.out();
+  }
+
+  /**
+   * Returns the number of batches the application is evaluated in.
+   */
+  public int getBatches() {
+    return batches.size();
+  }
+
+  /**
+   * Returns the number of native protocols evaluated.
+   */
+  public int getNativeProtocols() {
+    return batches.stream().mapToInt(List::size).sum();
+  }
+
+  ReplayProtocolProducer createProducer() {
+    return new ReplayProtocolProducer(batches);
+  }
+}
@@ -0,0 +1,30 @@
+package dk.alexandra.fresco.framework.sce;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * A native protocol which can be evaluated again when a {@link RecordedApplication} is replayed.
+ *
+ * <p>
+ * Only protocols implementing this interface can be recorded by {@link
+ * SecureComputationEngine#recordApplication}. Before each replay, {@link #reset()} is called on the
+ * protocol before its batch is evaluated. A protocol should only implement this interface if it
+ * reads its inputs through {@link dk.alexandra.fresco.framework.DRes} handles when evaluated, and
+ * takes any preprocessed material from the resource pool anew in each evaluation, since one-time
+ * material such as multiplication triples or masks must never be used twice.
+ * </p>
+ *
+ * @param <OutputT> the output type of the protocol
+ * @param <ResourcePoolT> the resource pool type
+ */
+public interface ReplayableProtocol<OutputT, ResourcePoolT extends ResourcePool>
+    extends NativeProtocol<OutputT, ResourcePoolT> {
+
+  /**
+   * Clears all state left by the previous evaluation, such that the protocol can be evaluated again
+   * from round 0.
+   */
+  void reset();
+
+}
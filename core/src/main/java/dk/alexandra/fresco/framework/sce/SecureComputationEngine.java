@@ -65,6 +65,43 @@ public interface SecureComputationEngine<ResourcePoolT extends ResourcePool,
   <OutputT> Future<OutputT> startApplication(Application<OutputT, BuilderT> application,
       ResourcePoolT resources, Network network);
 
+  /**
+   * Executes an application once and records the batches of native protocols it is evaluated in,
+   * so it can be evaluated again by {@link #replayApplication} without building it again. See
+   * {@link RecordedApplication} for the requirements on applications which can be replayed.
+   * <p>
+   * This method times out after waiting 10 minutes for the evaluation. Engines not supporting
+   * recording throw an {@link UnsupportedOperationException}, which is the default.
+   * </p>
+   *
+   * @param application the application to evaluate and record
+   * @param resources the resource pool used in evaluation
+   * @param network the network
+   * @return the recorded application, holding the output of the evaluation
+   */
+  default <OutputT> RecordedApplication<OutputT> recordApplication(
+      Application<OutputT, BuilderT> application, ResourcePoolT resources, Network network) {
+    throw new UnsupportedOperationException("Recording applications is not supported");
+  }
+
+  /**
+   * Evaluates the native protocols of a recorded application again, in the same batches as when it
+   * was recorded.
+   * <p>
+   * This method times out after waiting 10 minutes for output. Engines not supporting recording
+   * throw an {@link UnsupportedOperationException}, which is the default.
+   * </p>
+   *
+   * @param application the recorded application
+   * @param resources the resource pool used in evaluation
+   * @param network the network
+   * @return output of the application
+   */
+  default <OutputT> OutputT replayApplication(RecordedApplication<OutputT> application,
+      ResourcePoolT resources, Network network) {
+    throw new UnsupportedOperationException("Replaying applications is not supported");
+  }
+
 
   /**
    * Initializes the SecureComputationEngine. This method is idempotent - and sets up the proces
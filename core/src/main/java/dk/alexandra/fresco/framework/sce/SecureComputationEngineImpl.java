@@ -5,9 +5,11 @@ import dk.alexandra.fresco.framework.BuilderFactory;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.ProtocolEvaluator;
 import dk.alexandra.fresco.framework.ProtocolEvaluator.EvaluationStatistics;
+import dk.alexandra.fresco.framework.ProtocolProducer;
 import dk.alexandra.fresco.framework.builder.ProtocolBuilder;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.lib.helper.RecordingProtocolProducer;
 import dk.alexandra.fresco.suite.ProtocolSuite;
 import java.time.Duration;
 import java.util.concurrent.Callable;
@@ -53,13 +55,7 @@ public class SecureComputationEngineImpl
   public <OutputT> OutputT runApplication(Application<OutputT, BuilderT> application,
       ResourcePoolT resourcePool, Network network, Duration timeout) {
     Future<OutputT> future = startApplication(application, resourcePool, network);
-    try {
-      return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
-    } catch (InterruptedException | TimeoutException e) {
-      throw new RuntimeException("Internal error in waiting", e);
-    } catch (ExecutionException e) {
-      throw new RuntimeException("Execution exception when running the application", e.getCause());
-    }
+    return await(future, timeout);
   }
 
   @Override
@@ -70,6 +66,35 @@ public class SecureComputationEngineImpl
     return executorService.submit(callable);
   }
 
+  @Override
+  public <OutputT> RecordedApplication<OutputT> recordApplication(
+      Application<OutputT, BuilderT> application, ResourcePoolT resourcePool, Network network) {
+    setup();
+    Callable<RecordedApplication<OutputT>> callable = () -> {
+      logger.info(
+          "Recording application: " + application + " using protocol suite: " + this.protocolSuite);
+      BuilderFactory<BuilderT> protocolFactory = this.protocolSuite.init(resourcePool);
+      BuilderT builder = protocolFactory.createSequential();
+      final DRes<OutputT> output = application.buildComputation(builder);
+      RecordingProtocolProducer producer = new RecordingProtocolProducer(builder.build());
+      evaluate(application, producer, resourcePool, network);
+      application.close();
+      return new RecordedApplication<>(output, producer.getBatches());
+    };
+    return await(executorService.submit(callable), DEFAULT_TIMEOUT);
+  }
+
+  @Override
+  public <OutputT> OutputT replayApplication(RecordedApplication<OutputT> application,
+      ResourcePoolT resourcePool, Network network) {
+    setup();
+    Callable<OutputT> callable = () -> {
+      evaluate(application, application.createProducer(), resourcePool, network);
+      return application.getOutput();
+    };
+    return await(executorService.submit(callable), DEFAULT_TIMEOUT);
+  }
+
   private <OutputT> DRes<OutputT> evalApplication(Application<OutputT, BuilderT> application,
       ResourcePoolT resourcePool, Network network) {
     logger.info(
@@ -77,18 +102,35 @@ public class SecureComputationEngineImpl
     BuilderFactory<BuilderT> protocolFactory = this.protocolSuite.init(resourcePool);
     BuilderT builder = protocolFactory.createSequential();
     final DRes<OutputT> output = application.buildComputation(builder);
+    evaluate(application, builder.build(), resourcePool, network);
+    application.close();
+    return output;
+  }
+
+  private void evaluate(Object application, ProtocolProducer producer,
+      ResourcePoolT resourcePool, Network network) {
     long then = System.currentTimeMillis();
-    EvaluationStatistics eval = this.evaluator.eval(builder.build(), resourcePool, network);
+    EvaluationStatistics eval =
+        this.evaluator.eval(producer, resourcePool, network, application.getClass());
 
     logger.debug("Evaluator done."
         + " Evaluated a total of " + eval.getNativeProtocols()
-        + " native protocols in " + eval.getBatches() + " batches.");
+        + " native protocols in " + eval.getBatches() + " batches and "
+        + eval.getRounds() + " rounds.");
 
     long now = System.currentTimeMillis();
     long timeSpent = now - then;
     logger.info("The application {} finished evaluation in {} ms.", application, timeSpent);
-    application.close();
-    return output;
+  }
+
+  private static <T> T await(Future<T> future, Duration timeout) {
+    try {
+      return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException | TimeoutException e) {
+      throw new RuntimeException("Internal error in waiting", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Execution exception when running the application", e.getCause());
+    }
   }
 
   @Override
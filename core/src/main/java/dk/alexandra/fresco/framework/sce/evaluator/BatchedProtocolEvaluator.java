@@ -5,6 +5,9 @@ import dk.alexandra.fresco.framework.ProtocolProducer;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import dk.alexandra.fresco.suite.ProtocolSuite;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,10 +23,14 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
 
   private Logger logger = LoggerFactory.getLogger(BatchedProtocolEvaluator.class);
   private static final int MAX_EMPTY_BATCHES_IN_A_ROW = 10;
+  private static final int MAX_APPLICATIONS = 64;
+  private static final Object UNKNOWN_APPLICATION = new Object();
 
   private final BatchEvaluationStrategy<ResourcePoolT> batchEvaluator;
   private final ProtocolSuite<ResourcePoolT, ?> protocolSuite;
   private final int maxBatchSize;
+  private final SchedulingPolicy schedulingPolicy;
+  private final Map<Object, Map<Long, Integer>> depthEstimates;
 
   public BatchedProtocolEvaluator(
       BatchEvaluationStrategy<ResourcePoolT> batchEvaluator,
@@ -34,39 +41,85 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
   public BatchedProtocolEvaluator(
       BatchEvaluationStrategy<ResourcePoolT> batchEvaluator,
       ProtocolSuite<ResourcePoolT, ?> protocolSuite, int maxBatchSize) {
+    this(batchEvaluator, protocolSuite, maxBatchSize, SchedulingPolicy.BREADTH_FIRST);
+  }
+
+  /**
+   * Creates a new evaluator. With the {@link SchedulingPolicy#CRITICAL_PATH} policy, the depths of
+   * the branches of parallel scopes are kept from one evaluation to the next, such that repeated
+   * evaluations of the same application start the deepest branches first. The depths are kept
+   * separately for each application key given to {@link #eval(ProtocolProducer, ResourcePool,
+   * Network, Object)}, for the 64 most recently evaluated keys.
+   *
+   * @param batchEvaluator the strategy evaluating each batch
+   * @param protocolSuite the protocol suite
+   * @param maxBatchSize the maximum number of native protocols in a batch
+   * @param schedulingPolicy the order in which parallel branches are asked for protocols
+   */
+  public BatchedProtocolEvaluator(
+      BatchEvaluationStrategy<ResourcePoolT> batchEvaluator,
+      ProtocolSuite<ResourcePoolT, ?> protocolSuite, int maxBatchSize,
+      SchedulingPolicy schedulingPolicy) {
     this.batchEvaluator = batchEvaluator;
     this.maxBatchSize = maxBatchSize;
     this.protocolSuite = protocolSuite;
+    this.schedulingPolicy = schedulingPolicy;
+    this.depthEstimates = new LinkedHashMap<Object, Map<Long, Integer>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Map<Long, Integer>> eldest) {
+        return size() > MAX_APPLICATIONS;
+      }
+    };
   }
 
   @Override
   public EvaluationStatistics eval(ProtocolProducer protocolProducer, ResourcePoolT resourcePool,
       Network network) {
+    return eval(protocolProducer, resourcePool, network, UNKNOWN_APPLICATION);
+  }
+
+  @Override
+  public EvaluationStatistics eval(ProtocolProducer protocolProducer, ResourcePoolT resourcePool,
+      Network network, Object applicationKey) {
     int batch = 0;
     int totalProtocols = 0;
     int totalBatches = 0;
 
-    NetworkBatchDecorator networkBatchDecorator = createSceNetwork(resourcePool, network);
+    RoundCountingNetwork countingNetwork = new RoundCountingNetwork(network);
+    NetworkBatchDecorator networkBatchDecorator = createSceNetwork(resourcePool, countingNetwork);
     ProtocolSuite.RoundSynchronization<ResourcePoolT> roundSynchronization =
         protocolSuite.createRoundSynchronization();
+    CriticalPathScheduler scheduler = schedulingPolicy == SchedulingPolicy.CRITICAL_PATH
+        ? new CriticalPathScheduler(getDepthEstimates(applicationKey))
+        : null;
     do {
-      ProtocolCollectionList<ResourcePoolT> protocols = new ProtocolCollectionList<>(maxBatchSize);
+      ProtocolCollectionList<ResourcePoolT> protocols =
+          new ProtocolCollectionList<>(maxBatchSize, scheduler);
       protocolProducer.getNextProtocols(protocols);
       int size = protocols.size();
 
-      roundSynchronization.beforeBatch(protocols, resourcePool, network);
+      roundSynchronization.beforeBatch(protocols, resourcePool, countingNetwork);
       batchEvaluator.processBatch(protocols, resourcePool, networkBatchDecorator);
+      if (scheduler != null) {
+        scheduler.finishedBatch();
+      }
       logger.trace("Done evaluating batch: " + batch++ + " with " + size + " native protocols");
       if (size == 0) {
         logger.debug("Batch " + batch + " is empty");
       }
       totalProtocols += size;
       totalBatches += 1;
-      roundSynchronization.finishedBatch(size, resourcePool, network);
+      roundSynchronization.finishedBatch(size, resourcePool, countingNetwork);
     } while (protocolProducer.hasNextProtocols());
 
-    roundSynchronization.finishedEval(resourcePool, network);
-    return new EvaluationStatistics(totalProtocols, totalBatches);
+    roundSynchronization.finishedEval(resourcePool, countingNetwork);
+    return new EvaluationStatistics(totalProtocols, totalBatches, countingNetwork.getRounds());
+  }
+
+  private Map<Long, Integer> getDepthEstimates(Object applicationKey) {
+    synchronized (depthEstimates) {
+      return depthEstimates.computeIfAbsent(applicationKey, key -> new ConcurrentHashMap<>());
+    }
   }
 
   private NetworkBatchDecorator createSceNetwork(ResourcePool resourcePool, Network network) {
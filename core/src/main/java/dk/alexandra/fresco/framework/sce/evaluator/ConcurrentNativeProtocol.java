@@ -0,0 +1,45 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * A native protocol which may be evaluated concurrently with the other protocols of its round by
+ * the {@link ParallelBatchedStrategy}.
+ *
+ * <p>
+ * All parties must access order sensitive state of the resource pool, such as preprocessed
+ * material, stores of opened values or the choice of king of an opening, in the same order. When
+ * evaluated by the {@link ParallelBatchedStrategy}, {@link #beforeRound(int, ResourcePool)} and
+ * {@link #afterRound(int, ResourcePool)} are called on a single thread, in protocol order, before
+ * and after each round, and the protocol must do all such access in these methods rather than in
+ * {@link #evaluate(int, ResourcePool, dk.alexandra.fresco.framework.network.Network)}. Other
+ * strategies evaluate one protocol at a time and do not call the methods, in which case the
+ * protocol accesses the state from <code>evaluate</code> as usual. Protocols not accessing order
+ * sensitive state can rely on the default implementations, which do nothing.
+ * </p>
+ *
+ * @param <OutputT> the output type of the protocol
+ * @param <ResourcePoolT> the resource pool type
+ */
+public interface ConcurrentNativeProtocol<OutputT, ResourcePoolT extends ResourcePool>
+    extends NativeProtocol<OutputT, ResourcePoolT> {
+
+  /**
+   * Takes the order sensitive resources needed by the given round.
+   *
+   * @param round the round about to be evaluated
+   * @param resourcePool the resource pool
+   */
+  default void beforeRound(int round, ResourcePoolT resourcePool) {
+  }
+
+  /**
+   * Publishes the order sensitive results of the given round, e.g., opened values.
+   *
+   * @param round the round just evaluated
+   * @param resourcePool the resource pool
+   */
+  default void afterRound(int round, ResourcePoolT resourcePool) {
+  }
+}
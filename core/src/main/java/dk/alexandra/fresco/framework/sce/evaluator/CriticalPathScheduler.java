@@ -0,0 +1,75 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.BranchScheduler;
+import java.util.Map;
+
+/**
+ * The {@link BranchScheduler} keeping track of the depth of the branches of parallel scopes during
+ * an evaluation using the {@link SchedulingPolicy#CRITICAL_PATH} policy.
+ *
+ * <p>Branches are identified by keys derived from their position in the computation, i.e., the
+ * index of the branch in its parallel scope, and of each enclosing branch and sequential step.
+ * When a branch is exhausted, its depth, i.e., the number of batches in which it produced
+ * protocols, is recorded as the estimate for the branch in later evaluations of the same
+ * computation. Batches in which the branch was not asked, or asked without producing protocols,
+ * are not counted, so the estimate does not grow when the branch is delayed by other branches.
+ * Depths of a single batch are not recorded, since they are no better than an unknown depth, which
+ * keeps the estimates small for wide, shallow computations. At most {@value #MAX_ESTIMATES}
+ * estimates are kept, after which only the estimates of known branches are updated.</p>
+ */
+public final class CriticalPathScheduler implements BranchScheduler {
+
+  static final int MAX_ESTIMATES = 1 << 16;
+
+  private final Map<Long, Integer> estimates;
+  private long key;
+  private int batch;
+
+  /**
+   * Creates a scheduler for a single evaluation.
+   *
+   * @param estimates the estimated depths recorded in previous evaluations, which is updated
+   *     during this evaluation
+   */
+  CriticalPathScheduler(Map<Long, Integer> estimates) {
+    this.estimates = estimates;
+  }
+
+  @Override
+  public long getKey() {
+    return key;
+  }
+
+  @Override
+  public void setKey(long key) {
+    this.key = key;
+  }
+
+  @Override
+  public int getBatch() {
+    return batch;
+  }
+
+  @Override
+  public int getEstimate(long key) {
+    return estimates.getOrDefault(key, 0);
+  }
+
+  @Override
+  public void recordDepth(long key, int depth) {
+    if (depth > 1) {
+      if (estimates.size() < MAX_ESTIMATES || estimates.containsKey(key)) {
+        estimates.put(key, depth);
+      }
+    } else {
+      estimates.remove(key);
+    }
+  }
+
+  /**
+   * Signals that a batch has been evaluated.
+   */
+  void finishedBatch() {
+    batch++;
+  }
+}
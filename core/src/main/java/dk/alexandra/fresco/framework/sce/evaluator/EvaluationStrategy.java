@@ -15,6 +15,18 @@ public enum EvaluationStrategy {
         BatchEvaluationStrategy<ResourcePoolT> getStrategy() {
       return new BatchedStrategy<>();
     }
+  }, PARALLEL_BATCHED {
+    @Override
+    public <ResourcePoolT extends ResourcePool>
+        BatchEvaluationStrategy<ResourcePoolT> getStrategy() {
+      return new ParallelBatchedStrategy<>();
+    }
+  }, PIPELINED_BATCHED {
+    @Override
+    public <ResourcePoolT extends ResourcePool>
+        BatchEvaluationStrategy<ResourcePoolT> getStrategy() {
+      return new PipelinedBatchedStrategy<>();
+    }
   };
 
   public abstract <ResourcePoolT extends ResourcePool>
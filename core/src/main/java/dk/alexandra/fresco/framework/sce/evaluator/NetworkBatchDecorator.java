@@ -1,10 +1,8 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
 import dk.alexandra.fresco.framework.network.Network;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Default network for the evaluators, this interface bridges the raw network4
@@ -12,34 +10,38 @@ import java.util.Map;
  * communication on the network batched and hence throttled so evaluators behave nice
  * on the network.
  * <br>
+ * Each message is framed by its length encoded as an unsigned varint, i.e., seven bits per byte
+ * with the most significant bit set on all but the last byte, so messages of any size can be
+ * batched. The buffers holding outgoing messages are kept between flushes and reused.
+ * <br>
  * It is important to call flush to empty all buffers after sending and before receiving data
  */
 public class NetworkBatchDecorator implements Network {
 
-  private int noOfParties;
+  private static final int INITIAL_BUFFER_SIZE = 1024;
+  private final int noOfParties;
   private final Network network;
-  private Map<Integer, ByteArrayOutputStream> output;
-  private Map<Integer, ByteArrayInputStream> input;
+  private final ByteBuffer[] output;
+  private final ByteBuffer[] input;
+  private NetworkBatchDecorator[] parts;
 
   public NetworkBatchDecorator(int noOfParties, Network network) {
     this.noOfParties = noOfParties;
     this.network = network;
-    this.output = new HashMap<>();
-    this.input = new HashMap<>();
+    this.output = new ByteBuffer[noOfParties + 1];
+    this.input = new ByteBuffer[noOfParties + 1];
   }
 
   @Override
   public byte[] receive(int id) {
-    ByteArrayInputStream byteInputStream = input.get(id);
-    if (byteInputStream == null) {
-      byte[] partyData = network.receive(id);
-      byteInputStream = new ByteArrayInputStream(partyData);
-      input.put(id, byteInputStream);
+    ByteBuffer byteInput = input[id];
+    if (byteInput == null) {
+      byteInput = ByteBuffer.wrap(network.receive(id));
+      input[id] = byteInput;
     }
-
-    int count = byteInputStream.read();
+    int count = readLength(byteInput);
     byte[] bytes = new byte[count];
-    byteInputStream.read(bytes, 0, count);
+    byteInput.get(bytes);
     return bytes;
   }
 
@@ -50,14 +52,41 @@ public class NetworkBatchDecorator implements Network {
 
   @Override
   public void send(int id, byte[] data) {
-    ByteArrayOutputStream buffer = this.output
-        .computeIfAbsent(id, (i) -> new ByteArrayOutputStream());
-    if (data.length > Byte.MAX_VALUE) {
-      throw new IllegalStateException(
-          "Current implementation only supports small packages, data.length=" + data.length);
+    ByteBuffer buffer = ensureCapacity(id, data.length + Integer.BYTES + 1);
+    writeLength(buffer, data.length);
+    buffer.put(data);
+  }
+
+  /**
+   * Gets the underlying network which the batched messages are sent on.
+   *
+   * @return the decorated network
+   */
+  Network getNetwork() {
+    return network;
+  }
+
+  /**
+   * Gets a decorator batching messages on the same network as this one, but separately from it,
+   * for strategies which send the messages of different parts of a batch at different times. The
+   * decorators are created the first time they are asked for and then reused, so their buffers are
+   * kept from one batch to the next.
+   *
+   * @param index the index of the part, where part 0 is this decorator
+   * @return the decorator of the part
+   */
+  NetworkBatchDecorator getPart(int index) {
+    if (index == 0) {
+      return this;
+    }
+    if (parts == null || parts.length <= index) {
+      parts = parts == null ? new NetworkBatchDecorator[index + 1]
+          : Arrays.copyOf(parts, index + 1);
     }
-    buffer.write(data.length);
-    buffer.write(data, 0, data.length);
+    if (parts[index] == null) {
+      parts[index] = new NetworkBatchDecorator(noOfParties, network);
+    }
+    return parts[index];
   }
 
   /**
@@ -65,13 +94,51 @@ public class NetworkBatchDecorator implements Network {
    */
   public void flush() {
     for (int i = 1; i <= noOfParties; i++) {
-      if (output.containsKey(i)) {
-        ByteArrayOutputStream byteArrayOutputStream = output.get(i);
-        byte[] data = byteArrayOutputStream.toByteArray();
-        network.send(i, data);
+      ByteBuffer buffer = output[i];
+      if (buffer != null && buffer.position() > 0) {
+        network.send(i, Arrays.copyOf(buffer.array(), buffer.position()));
+        buffer.clear();
       }
-      output.remove(i);
     }
-    input.clear();
+    Arrays.fill(input, null);
+  }
+
+  private ByteBuffer ensureCapacity(int id, int bytes) {
+    ByteBuffer buffer = output[id];
+    if (buffer == null) {
+      buffer = ByteBuffer.allocate(Math.max(INITIAL_BUFFER_SIZE, bytes));
+      output[id] = buffer;
+    } else if (buffer.remaining() < bytes) {
+      int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+      ByteBuffer larger = ByteBuffer.allocate(capacity);
+      buffer.flip();
+      larger.put(buffer);
+      output[id] = larger;
+      buffer = larger;
+    }
+    return buffer;
+  }
+
+  private static void writeLength(ByteBuffer buffer, int length) {
+    while ((length & ~0x7F) != 0) {
+      buffer.put((byte) ((length & 0x7F) | 0x80));
+      length >>>= 7;
+    }
+    buffer.put((byte) length);
+  }
+
+  private static int readLength(ByteBuffer buffer) {
+    int length = 0;
+    int shift = 0;
+    byte current;
+    do {
+      if (shift > 28) {
+        throw new IllegalStateException("Malformed message length");
+      }
+      current = buffer.get();
+      length |= (current & 0x7F) << shift;
+      shift += 7;
+    } while ((current & 0x80) != 0);
+    return length;
   }
 }
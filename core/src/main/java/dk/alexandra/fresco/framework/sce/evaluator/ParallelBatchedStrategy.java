@@ -0,0 +1,265 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A batched evaluation strategy which evaluates each round of a batch on several threads.
+ * <p>
+ * The protocols of a batch are partitioned into slices of a fixed size. In each round every slice
+ * is evaluated as a task in a {@link ForkJoinPool}, using its own {@link NetworkBatchDecorator} to
+ * collect messages. When all slices of a round are done, the messages of all slices are sent to
+ * each party as a single message where every slice is length prefixed and the slices appear in
+ * protocol order. The other parties partition the batch in the same way (the slice size is part of
+ * the configuration shared by all parties), which allows each slice to read exactly the messages
+ * sent by the corresponding slice of the other parties. Thus the messages on the wire are
+ * deterministic and independent of the number of threads used.
+ * </p>
+ * <p>
+ * Note that protocols in the same round are evaluated concurrently. The strategy therefore only
+ * accepts native protocols implementing {@link ConcurrentNativeProtocol}, and lets them access
+ * order sensitive state of the resource pool, e.g., preprocessed material or stores of opened
+ * values, on a single thread and in protocol order before and after each round. This keeps the
+ * order of access the same for all parties, and the same as for the sequential strategies.
+ * </p>
+ */
+public class ParallelBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  static final int DEFAULT_SLICE_SIZE = 256;
+  private final int sliceSize;
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a new strategy using the default slice size and the common fork-join pool.
+   */
+  public ParallelBatchedStrategy() {
+    this(DEFAULT_SLICE_SIZE, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param sliceSize the maximum number of protocols evaluated by a single task. This must be the
+   *     same for all parties.
+   * @param pool the pool used to evaluate the slices
+   */
+  public ParallelBatchedStrategy(int sliceSize, ForkJoinPool pool) {
+    if (sliceSize < 1) {
+      throw new IllegalArgumentException("Slice size must be positive, was " + sliceSize);
+    }
+    this.sliceSize = sliceSize;
+    this.pool = pool;
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    Network network = networkBatchDecorator.getNetwork();
+    int noOfParties = networkBatchDecorator.getNoOfParties();
+    List<Slice> slices = new ArrayList<>();
+    Slice current = null;
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      if (!(protocol instanceof ConcurrentNativeProtocol)) {
+        throw new IllegalArgumentException("Protocol " + protocol
+            + " is not a ConcurrentNativeProtocol and cannot be evaluated concurrently");
+      }
+      if (current == null || current.protocols.size() == sliceSize) {
+        current = new Slice(slices.size(), noOfParties);
+        slices.add(current);
+      }
+      current.protocols.add((ConcurrentNativeProtocol<?, ResourcePoolT>) protocol);
+    }
+    SliceInbox inbox = new SliceInbox(network, 0);
+    int round = 0;
+    while (hasRemainingProtocols(slices)) {
+      // Order sensitive resources are accessed on this thread, in protocol order
+      List<ConcurrentNativeProtocol<?, ResourcePoolT>> active = new ArrayList<>();
+      for (Slice slice : slices) {
+        active.addAll(slice.protocols);
+      }
+      for (ConcurrentNativeProtocol<?, ResourcePoolT> protocol : active) {
+        protocol.beforeRound(round, resourcePool);
+      }
+      List<Callable<Void>> tasks = new ArrayList<>(slices.size());
+      for (Slice slice : slices) {
+        if (!slice.protocols.isEmpty()) {
+          final int currentRound = round;
+          final SliceInbox currentInbox = inbox;
+          tasks.add(() -> slice.evaluate(currentRound, resourcePool, currentInbox));
+        }
+      }
+      for (Future<Void> result : pool.invokeAll(tasks)) {
+        awaitResult(result);
+      }
+      for (ConcurrentNativeProtocol<?, ResourcePoolT> protocol : active) {
+        protocol.afterRound(round, resourcePool);
+      }
+      sendSlices(network, noOfParties, slices);
+      inbox = new SliceInbox(network, slices.size());
+      round++;
+    }
+  }
+
+  private boolean hasRemainingProtocols(List<Slice> slices) {
+    for (Slice slice : slices) {
+      if (!slice.protocols.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void awaitResult(Future<Void> result) {
+    try {
+      result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while evaluating batch", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Failed to evaluate batch", e.getCause());
+    }
+  }
+
+  private void sendSlices(Network network, int noOfParties, List<Slice> slices) {
+    for (int party = 1; party <= noOfParties; party++) {
+      int length = Integer.BYTES;
+      boolean hasData = false;
+      for (Slice slice : slices) {
+        byte[] data = slice.output.get(party);
+        if (data != null) {
+          hasData = true;
+          length += data.length;
+        }
+        length += Integer.BYTES;
+      }
+      if (hasData) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(slices.size());
+        for (Slice slice : slices) {
+          byte[] data = slice.output.get(party);
+          if (data == null) {
+            buffer.putInt(0);
+          } else {
+            buffer.putInt(data.length);
+            buffer.put(data);
+          }
+        }
+        network.send(party, buffer.array());
+      }
+    }
+    for (Slice slice : slices) {
+      slice.output.clear();
+    }
+  }
+
+  /**
+   * A contiguous part of the protocols of a batch, evaluated by a single task in each round. The
+   * slices are fixed for the whole batch, such that the messages received by a slice in one round
+   * are exactly the messages sent by the corresponding slices of the other parties in the previous
+   * round.
+   */
+  private class Slice implements Network {
+
+    private final int index;
+    private final int noOfParties;
+    private final List<ConcurrentNativeProtocol<?, ResourcePoolT>> protocols;
+    private final Map<Integer, byte[]> output;
+    private final NetworkBatchDecorator sliceNetwork;
+    private SliceInbox inbox;
+
+    private Slice(int index, int noOfParties) {
+      this.index = index;
+      this.noOfParties = noOfParties;
+      this.protocols = new ArrayList<>(sliceSize);
+      this.output = new HashMap<>();
+      this.sliceNetwork = new NetworkBatchDecorator(noOfParties, this);
+    }
+
+    private Void evaluate(int round, ResourcePoolT rp, SliceInbox inbox) {
+      this.inbox = inbox;
+      Iterator<ConcurrentNativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+      while (iterator.hasNext()) {
+        ConcurrentNativeProtocol<?, ResourcePoolT> protocol = iterator.next();
+        EvaluationStatus status = protocol.evaluate(round, rp, sliceNetwork);
+        if (status.equals(EvaluationStatus.IS_DONE)) {
+          iterator.remove();
+        }
+      }
+      sliceNetwork.flush();
+      return null;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      output.put(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return inbox.receive(partyId, index);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return noOfParties;
+    }
+  }
+
+  /**
+   * Holds the messages received in a single round, split into the slices of the sender.
+   */
+  private static class SliceInbox {
+
+    private final Network network;
+    private final int expectedSlices;
+    private final Map<Integer, byte[][]> received;
+
+    private SliceInbox(Network network, int expectedSlices) {
+      this.network = network;
+      this.expectedSlices = expectedSlices;
+      this.received = new HashMap<>();
+    }
+
+    private synchronized byte[] receive(int partyId, int slice) {
+      byte[][] slices = received.get(partyId);
+      if (slices == null) {
+        slices = split(partyId, network.receive(partyId));
+        received.put(partyId, slices);
+      }
+      return slices[slice];
+    }
+
+    private byte[][] split(int partyId, byte[] data) {
+      ByteBuffer buffer = ByteBuffer.wrap(data);
+      int count = buffer.getInt();
+      if (count != expectedSlices) {
+        throw new IllegalStateException("Party " + partyId + " sent " + count
+            + " slices, but expected " + expectedSlices);
+      }
+      byte[][] slices = new byte[count][];
+      for (int i = 0; i < count; i++) {
+        slices[i] = new byte[buffer.getInt()];
+        buffer.get(slices[i]);
+      }
+      return slices;
+    }
+  }
+}
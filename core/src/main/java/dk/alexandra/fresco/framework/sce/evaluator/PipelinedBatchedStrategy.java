@@ -0,0 +1,105 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A batched evaluation strategy which overlaps the network communication of one part of a batch
+ * with the local computation of the other parts.
+ * <p>
+ * The protocols of a batch are functionally independent, so the batch is split into a number of
+ * sub-batches, bounded by the window size, which are evaluated round by round in a fixed order.
+ * Each sub-batch has its own {@link NetworkBatchDecorator} and its messages are sent as soon as
+ * the sub-batch has finished a round, so each party sends up to one message per sub-batch to each
+ * other party in a round. The decorators are kept for the whole evaluation and reused by every
+ * batch. While the messages of the first sub-batch are in transit, the
+ * same round of the remaining sub-batches is evaluated. When the next round of the first sub-batch
+ * is evaluated its messages have hopefully arrived, so the time spent waiting for the network in
+ * each round is reduced from a full round trip to the part of it not covered by local computation.
+ * </p>
+ * <p>
+ * All parties must use the same window size, since it determines how the messages of a batch are
+ * framed on the wire. The batches handed to the strategy, and thus any synchronization done
+ * between batches, are unaffected.
+ * </p>
+ */
+public class PipelinedBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  static final int DEFAULT_WINDOW = 4;
+  private final int window;
+
+  /**
+   * Creates a new strategy using the default window size.
+   */
+  public PipelinedBatchedStrategy() {
+    this(DEFAULT_WINDOW);
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param window the maximum number of sub-batches that a batch is split into, i.e., the maximum
+   *     number of sub-batches with messages in transit at the same time
+   */
+  public PipelinedBatchedStrategy(int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("Window must be positive, was " + window);
+    }
+    this.window = window;
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    int size = protocols.size();
+    int count = Math.min(window, size);
+    List<List<NativeProtocol<?, ResourcePoolT>>> subBatches = new ArrayList<>(count);
+    List<NetworkBatchDecorator> networks = new ArrayList<>(count);
+    Iterator<NativeProtocol<?, ResourcePoolT>> protocolIterator = protocols.iterator();
+    for (int i = 0; i < count; i++) {
+      int subBatchSize = (i + 1) * size / count - i * size / count;
+      List<NativeProtocol<?, ResourcePoolT>> subBatch = new LinkedList<>();
+      for (int j = 0; j < subBatchSize; j++) {
+        subBatch.add(protocolIterator.next());
+      }
+      subBatches.add(subBatch);
+      networks.add(networkBatchDecorator.getPart(i));
+    }
+    int round = 0;
+    boolean hasMoreRounds = count > 0;
+    while (hasMoreRounds) {
+      hasMoreRounds = false;
+      for (int i = 0; i < count; i++) {
+        List<NativeProtocol<?, ResourcePoolT>> subBatch = subBatches.get(i);
+        if (!subBatch.isEmpty()) {
+          evaluateCurrentRound(subBatch, networks.get(i), resourcePool, round);
+          networks.get(i).flush();
+          hasMoreRounds |= !subBatch.isEmpty();
+        }
+      }
+      round++;
+    }
+  }
+
+  private void evaluateCurrentRound(
+      List<NativeProtocol<?, ResourcePoolT>> protocols, Network network, ResourcePoolT rp,
+      int round) {
+    Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+    while (iterator.hasNext()) {
+      NativeProtocol<?, ResourcePoolT> protocol = iterator.next();
+      EvaluationStatus status = protocol.evaluate(round, rp, network);
+      if (status.equals(EvaluationStatus.IS_DONE)) {
+        iterator.remove();
+      }
+    }
+  }
+}
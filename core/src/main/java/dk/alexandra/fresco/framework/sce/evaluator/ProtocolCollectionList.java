@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
+import dk.alexandra.fresco.framework.BranchScheduler;
 import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
@@ -12,10 +13,22 @@ public class ProtocolCollectionList<ResourcePoolT extends ResourcePool>
 
   private int capacity;
   private List<NativeProtocol<?, ResourcePoolT>> protocols;
+  private final BranchScheduler scheduler;
 
   public ProtocolCollectionList(int capacity) {
+    this(capacity, null);
+  }
+
+  /**
+   * Creates a new collection.
+   *
+   * @param capacity the capacity of the collection
+   * @param scheduler the scheduler ordering parallel branches by depth, or null
+   */
+  public ProtocolCollectionList(int capacity, BranchScheduler scheduler) {
     this.capacity = capacity;
     this.protocols = new LinkedList<>();
+    this.scheduler = scheduler;
   }
 
   @Override
@@ -36,4 +49,9 @@ public class ProtocolCollectionList<ResourcePoolT extends ResourcePool>
   public int size() {
     return protocols.size();
   }
+
+  @Override
+  public BranchScheduler getBranchScheduler() {
+    return scheduler;
+  }
 }
@@ -0,0 +1,49 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.network.Network;
+
+/**
+ * Network decorator counting the number of network rounds, where a new round starts each time
+ * data is sent after having received data (or for the first time). Strategies that overlap
+ * rounds, such as the {@link PipelinedBatchedStrategy}, interleave sends and receives, so each of
+ * the overlapped rounds is counted.
+ */
+class RoundCountingNetwork implements Network {
+
+  private final Network delegate;
+  private boolean sending;
+  private int rounds;
+
+  RoundCountingNetwork(Network delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    if (!sending) {
+      sending = true;
+      rounds++;
+    }
+    delegate.send(partyId, data);
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    sending = false;
+    return delegate.receive(partyId);
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return delegate.getNoOfParties();
+  }
+
+  /**
+   * Gets the number of rounds counted so far.
+   *
+   * @return the number of rounds
+   */
+  int getRounds() {
+    return rounds;
+  }
+}
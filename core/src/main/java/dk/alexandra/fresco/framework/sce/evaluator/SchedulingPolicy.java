@@ -0,0 +1,29 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+/**
+ * Determines the order in which the {@link BatchedProtocolEvaluator} asks the branches of a
+ * parallel scope for protocols when filling a batch.
+ */
+public enum SchedulingPolicy {
+
+  /**
+   * Branches are asked in the order they were added. When batches are full, this favors the first
+   * branches, which is the best choice in terms of memory, but may delay long branches that are
+   * added late.
+   */
+  BREADTH_FIRST,
+  /**
+   * Branches are asked in order of decreasing depth, i.e., the number of batches in which they
+   * produced protocols in previous evaluations of the same application, see {@link
+   * CriticalPathScheduler}. Branches of unknown depth are asked last, in the order they were added.
+   * This lets the branches on the critical path start early, such that the number of rounds
+   * approaches the depth of the computation.
+   *
+   * <p>The depth estimates are kept by each party's evaluator and decide the order in which
+   * protocols are added to each batch, and thereby the order of the messages exchanged. All parties
+   * must therefore use this policy and must have run exactly the same earlier evaluations, with the
+   * same application keys, on their evaluators. Otherwise their estimates differ, and the parties
+   * evaluate different protocols in the same batch.</p>
+   */
+  CRITICAL_PATH
+}
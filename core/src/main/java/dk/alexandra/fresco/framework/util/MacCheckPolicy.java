@@ -0,0 +1,34 @@
+package dk.alexandra.fresco.framework.util;
+
+/**
+ * Determines when an actively secure protocol suite, such as SPDZ, checks the macs of the values
+ * accumulated in its {@link OpenedValueStore}.
+ *
+ * <p>
+ * Regardless of the policy, the values are always checked before every batch which contains output
+ * protocols, such that no output is ever computed from unchecked values, as well as when the store
+ * exceeds its threshold and at the end of each evaluation.
+ * </p>
+ * <p>
+ * Each check is a separate evaluation run before or after the output batch, and not a single extra
+ * round. Checking a single value folded by a streaming store commits to and opens the mac error,
+ * which takes two rounds, or three with more than two parties, where the commitments are broadcast
+ * with validation. Checking a list of values first tosses coins for the coefficients of their
+ * combination, which takes another two to three rounds.
+ * </p>
+ */
+public enum MacCheckPolicy {
+
+  /**
+   * Checks before and after every batch which contains output protocols. Each output is thus
+   * checked before it is used for anything, at the cost of two mac checks per output batch.
+   */
+  EVERY_OUTPUT,
+  /**
+   * Checks only before every batch which contains output protocols. The outputs themselves are
+   * checked together with the values opened before the next output batch, or at the end of the
+   * evaluation, so an output may be used by the rest of the computation before it has been checked.
+   * Costs one mac check per output batch.
+   */
+  BEFORE_OUTPUT
+}
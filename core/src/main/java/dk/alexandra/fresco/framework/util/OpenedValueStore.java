@@ -37,6 +37,11 @@ public interface OpenedValueStore<AuthT, OpenT> {
    * Note that this passes ownership of the underlying lists to the caller. The caller is
    * responsible for managing and clearing the lists.
    * </p>
+   * <p>
+   * A store which does not keep the individual values may instead return fewer values, as long as
+   * a mac check of the returned values implies a mac check of all the values pushed since the last
+   * call, e.g., a random linear combination of the values.
+   * </p>
    *
    * @return a pair of lists, where the first list contains the authenticated elements scheduled for
    *         checking and the second list contains the open values
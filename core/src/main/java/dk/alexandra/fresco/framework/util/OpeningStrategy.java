@@ -0,0 +1,23 @@
+package dk.alexandra.fresco.framework.util;
+
+/**
+ * Determines how an actively secure protocol suite, such as SPDZ, opens secret shared values, e.g.,
+ * during multiplications and outputs.
+ */
+public enum OpeningStrategy {
+
+  /**
+   * Every party sends its share to every other party, and all parties reconstruct the value
+   * locally. Uses one round, but <i>n<sup>2</sup></i> messages per opening for <i>n</i> parties.
+   */
+  ALL_TO_ALL,
+  /**
+   * Every party sends its share to a designated king party, which reconstructs the value and sends
+   * it to all parties. The king rotates between the parties from one opening to the next, to spread
+   * the load. Uses two rounds, but only <i>2n</i> messages per opening for <i>n</i> parties, which
+   * pays off when the number of parties is large. A malicious king cannot change the opened value
+   * without being caught by the mac check, as the value it sends is checked like any other opened
+   * value.
+   */
+  KING
+}
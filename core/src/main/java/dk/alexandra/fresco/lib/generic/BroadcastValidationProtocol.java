@@ -1,7 +1,7 @@
 package dk.alexandra.fresco.lib.generic;
 
-import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.ConcurrentNativeProtocol;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import java.util.Collections;
 import java.util.List;
@@ -11,7 +11,7 @@ import java.util.List;
  * building block in {@link BroadcastComputation}.</p>
  */
 public class BroadcastValidationProtocol<ResourcePoolT extends ResourcePool> implements
-    NativeProtocol<Void, ResourcePoolT> {
+    ConcurrentNativeProtocol<Void, ResourcePoolT> {
 
   private final List<byte[]> input;
   private SecureBroadcastUtil broadcast;
@@ -1,7 +1,7 @@
 package dk.alexandra.fresco.lib.generic;
 
-import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.ConcurrentNativeProtocol;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import java.util.List;
 
@@ -10,7 +10,7 @@ import java.util.List;
  * BroadcastComputation}.</p>
  */
 public class InsecureBroadcastProtocol<ResourcePoolT extends ResourcePool> implements
-    NativeProtocol<List<byte[]>, ResourcePoolT> {
+    ConcurrentNativeProtocol<List<byte[]>, ResourcePoolT> {
 
   private final byte[] input;
   private List<byte[]> result;
@@ -1,9 +1,12 @@
 package dk.alexandra.fresco.lib.helper;
 
+import dk.alexandra.fresco.framework.BranchScheduler;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.ProtocolProducer;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
@@ -13,24 +16,34 @@ import java.util.List;
  * eagerly. Given some of the producers are lazy initialized this performs best - and hence does a
  * breadth first search for more protocols. THis skews the evalueration of the protocols in favor of
  * the first, but delivers the best performance in terms of memory.
+ *
+ * <p>The producers are kept in a ready queue. When filling a collection, producers are taken from
+ * the front of the queue, asked once for protocols, and put back in front of the queue in their
+ * original order afterwards. Exhausted producers are simply not put back, so removing them is
+ * constant time, and the cost of filling a collection is proportional to the number of producers
+ * asked rather than to the total number of producers.</p>
+ *
+ * <p>If the collection has a {@link BranchScheduler}, the producers are ordered by their
+ * estimated depth when first asked, such that the deepest producers are asked first.</p>
  */
 public class ParallelProtocolProducer implements ProtocolProducer {
 
   private final Deque<ProtocolProducer> subProducers;
+  private final Deque<ProtocolProducer> asked;
+  private boolean ordered;
 
   public ParallelProtocolProducer(List<ProtocolProducer> protocols) {
     subProducers = new ArrayDeque<>(protocols);
+    asked = new ArrayDeque<>();
   }
 
   @Override
   public boolean hasNextProtocols() {
-    for (Iterator<ProtocolProducer> iterator = subProducers.iterator(); iterator.hasNext(); ) {
-      ProtocolProducer producer = iterator.next();
-      if (producer.hasNextProtocols()) {
+    while (!subProducers.isEmpty()) {
+      if (subProducers.peekFirst().hasNextProtocols()) {
         return true;
-      } else {
-        iterator.remove();
       }
+      subProducers.pollFirst();
     }
     return false;
   }
@@ -38,9 +51,48 @@ public class ParallelProtocolProducer implements ProtocolProducer {
   @Override
   public <ResourcePoolT extends ResourcePool> void getNextProtocols(
       ProtocolCollection<ResourcePoolT> protocolCollection) {
-    iterate(subProducers.iterator(), protocolCollection);
+    if (!ordered) {
+      ordered = true;
+      BranchScheduler scheduler = protocolCollection.getBranchScheduler();
+      if (scheduler != null && subProducers.size() > 1) {
+        orderByDepth(scheduler);
+      }
+    }
+    while (!subProducers.isEmpty() && protocolCollection.hasFreeCapacity()) {
+      ProtocolProducer producer = subProducers.pollFirst();
+      if (producer.hasNextProtocols()) {
+        producer.getNextProtocols(protocolCollection);
+        asked.addLast(producer);
+      }
+    }
+    while (!asked.isEmpty()) {
+      subProducers.addFirst(asked.pollLast());
+    }
+  }
+
+  private void orderByDepth(BranchScheduler scheduler) {
+    long key = scheduler.getKey();
+    List<ScheduledProducer> scheduled = new ArrayList<>(subProducers.size());
+    int index = 0;
+    for (ProtocolProducer producer : subProducers) {
+      long childKey = BranchScheduler.childKey(key, index++);
+      scheduled.add(new ScheduledProducer(producer, scheduler, childKey,
+          scheduler.getEstimate(childKey)));
+    }
+    // The sort is stable, so producers of equal depth keep their order
+    scheduled.sort(Comparator.comparingInt((ScheduledProducer producer) -> producer.estimate)
+        .reversed());
+    subProducers.clear();
+    subProducers.addAll(scheduled);
   }
 
+  /**
+   * Asks the producers of the given iterator for protocols until the collection is full, removing
+   * exhausted producers through the iterator. Producers are asked at most once.
+   *
+   * @param iterator the producers to ask
+   * @param protocolCollection the collection to fill
+   */
   protected <ResourcePoolT extends ResourcePool> void iterate(
       Iterator<ProtocolProducer> iterator, ProtocolCollection<ResourcePoolT> protocolCollection) {
     while (iterator.hasNext() && protocolCollection.hasFreeCapacity()) {
@@ -52,4 +104,51 @@ public class ParallelProtocolProducer implements ProtocolProducer {
       }
     }
   }
+
+  /**
+   * Decorates a sub-producer with its key, and records its depth once it is exhausted.
+   */
+  private static class ScheduledProducer implements ProtocolProducer {
+
+    private final ProtocolProducer producer;
+    private final BranchScheduler scheduler;
+    private final long key;
+    private final int estimate;
+    private int lastBatch = -1;
+    private int depth;
+    private boolean exhausted;
+
+    private ScheduledProducer(ProtocolProducer producer, BranchScheduler scheduler,
+        long key, int estimate) {
+      this.producer = producer;
+      this.scheduler = scheduler;
+      this.key = key;
+      this.estimate = estimate;
+    }
+
+    @Override
+    public <ResourcePoolT extends ResourcePool> void getNextProtocols(
+        ProtocolCollection<ResourcePoolT> protocolCollection) {
+      int size = protocolCollection.size();
+      scheduler.setKey(key);
+      producer.getNextProtocols(protocolCollection);
+      if (protocolCollection.size() > size && lastBatch != scheduler.getBatch()) {
+        lastBatch = scheduler.getBatch();
+        depth++;
+      }
+    }
+
+    @Override
+    public boolean hasNextProtocols() {
+      if (exhausted) {
+        return false;
+      }
+      if (producer.hasNextProtocols()) {
+        return true;
+      }
+      exhausted = true;
+      scheduler.recordDepth(key, depth);
+      return false;
+    }
+  }
 }
@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.lib.helper;
+
+import dk.alexandra.fresco.framework.BranchScheduler;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.ProtocolProducer;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A protocol producer recording the batches of native protocols produced by another producer, so
+ * the same protocols can be evaluated again in the same batches by a {@link
+ * ReplayProtocolProducer}, without building the application and walking the tree of producers
+ * again.
+ *
+ * <p>
+ * Each call to {@link #getNextProtocols(ProtocolCollection)} is recorded as one batch. The
+ * collections passed on to the inner producer are marked as recording, which makes the producers
+ * keep the protocols and read their results from them on every use. Only protocols implementing
+ * {@link ReplayableProtocol} can be recorded, and adding any other protocol fails.
+ * </p>
+ */
+public class RecordingProtocolProducer implements ProtocolProducer {
+
+  private final ProtocolProducer delegate;
+  private final List<List<ReplayableProtocol<?, ?>>> batches;
+
+  /**
+   * Creates a new producer recording the protocols produced by the given producer.
+   *
+   * @param delegate the producer to record
+   */
+  public RecordingProtocolProducer(ProtocolProducer delegate) {
+    this.delegate = delegate;
+    this.batches = new ArrayList<>();
+  }
+
+  @Override
+  public <ResourcePoolT extends ResourcePool> void getNextProtocols(
+      ProtocolCollection<ResourcePoolT> protocolCollection) {
+    RecordingCollection<ResourcePoolT> recordingCollection =
+        new RecordingCollection<>(protocolCollection);
+    delegate.getNextProtocols(recordingCollection);
+    batches.add(Collections.unmodifiableList(recordingCollection.recorded));
+  }
+
+  @Override
+  public boolean hasNextProtocols() {
+    return delegate.hasNextProtocols();
+  }
+
+  /**
+   * Returns the batches recorded so far.
+   *
+   * @return the recorded batches in the order they were produced
+   */
+  public List<List<ReplayableProtocol<?, ?>>> getBatches() {
+    return Collections.unmodifiableList(batches);
+  }
+
+  private static class RecordingCollection<ResourcePoolT extends ResourcePool>
+      implements ProtocolCollection<ResourcePoolT> {
+
+    private final ProtocolCollection<ResourcePoolT> delegate;
+    private final List<ReplayableProtocol<?, ?>> recorded;
+
+    private RecordingCollection(ProtocolCollection<ResourcePoolT> delegate) {
+      this.delegate = delegate;
+      this.recorded = new ArrayList<>();
+    }
+
+    @Override
+    public void addProtocol(NativeProtocol<?, ResourcePoolT> protocol) {
+      if (!(protocol instanceof ReplayableProtocol)) {
+        throw new UnsupportedOperationException(
+            "Protocol " + protocol.getClass().getName() + " cannot be replayed");
+      }
+      recorded.add((ReplayableProtocol<?, ResourcePoolT>) protocol);
+      delegate.addProtocol(protocol);
+    }
+
+    @Override
+    public boolean hasFreeCapacity() {
+      return delegate.hasFreeCapacity();
+    }
+
+    @Override
+    public int size() {
+      return delegate.size();
+    }
+
+    @Override
+    public boolean isRecording() {
+      return true;
+    }
+
+    @Override
+    public BranchScheduler getBranchScheduler() {
+      return delegate.getBranchScheduler();
+    }
+
+    @Override
+    public Iterator<NativeProtocol<?, ResourcePoolT>> iterator() {
+      return delegate.iterator();
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package dk.alexandra.fresco.lib.helper;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.ProtocolProducer;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.List;
+
+/**
+ * A protocol producer producing batches of native protocols recorded by a {@link
+ * RecordingProtocolProducer}, in the order they were recorded. Each batch is produced as a whole,
+ * regardless of the capacity of the collection, so the protocols are evaluated in exactly the same
+ * batches as when they were recorded. Each protocol is reset when its batch is produced, before it
+ * is evaluated again.
+ */
+public class ReplayProtocolProducer implements ProtocolProducer {
+
+  private final List<List<ReplayableProtocol<?, ?>>> batches;
+  private int next;
+
+  /**
+   * Creates a new producer replaying the given batches.
+   *
+   * @param batches the recorded batches
+   */
+  public ReplayProtocolProducer(List<List<ReplayableProtocol<?, ?>>> batches) {
+    this.batches = batches;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <ResourcePoolT extends ResourcePool> void getNextProtocols(
+      ProtocolCollection<ResourcePoolT> protocolCollection) {
+    if (next < batches.size()) {
+      for (ReplayableProtocol<?, ?> protocol : batches.get(next)) {
+        protocol.reset();
+        protocolCollection.addProtocol((NativeProtocol<?, ResourcePoolT>) protocol);
+      }
+      next++;
+    }
+  }
+
+  @Override
+  public boolean hasNextProtocols() {
+    return next < batches.size();
+  }
+}
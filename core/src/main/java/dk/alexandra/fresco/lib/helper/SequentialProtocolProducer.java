@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.lib.helper;
 
+import dk.alexandra.fresco.framework.BranchScheduler;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.ProtocolProducer;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
@@ -12,6 +13,9 @@ public class SequentialProtocolProducer implements ProtocolProducer {
 
   private ProtocolProducer currentProducer;
   private final Deque<ProtocolProducer> protocolProducers;
+  private int step;
+  private long key;
+  private boolean keyed;
 
   public SequentialProtocolProducer(List<ProtocolProducer> protocols) {
     protocolProducers = new ArrayDeque<>(protocols);
@@ -27,6 +31,14 @@ public class SequentialProtocolProducer implements ProtocolProducer {
         return;
       }
     }
+    BranchScheduler scheduler = protocolCollection.getBranchScheduler();
+    if (scheduler != null) {
+      if (!keyed) {
+        keyed = true;
+        key = scheduler.getKey();
+      }
+      scheduler.setKey(BranchScheduler.childKey(key, step));
+    }
     currentProducer.getNextProtocols(protocolCollection);
   }
 
@@ -56,12 +68,19 @@ public class SequentialProtocolProducer implements ProtocolProducer {
 
   @Override
   public boolean hasNextProtocols() {
-    if (currentProducer != null && currentProducer.hasNextProtocols()) {
-      return true;
+    if (currentProducer != null) {
+      if (currentProducer.hasNextProtocols()) {
+        return true;
+      }
+      // The current producer is always the first one, so it need not be checked again
+      protocolProducers.removeFirst();
+      currentProducer = null;
+      step++;
     }
     while (!protocolProducers.isEmpty() && !protocolProducers.getFirst().hasNextProtocols()) {
       protocolProducers.removeFirst();
       currentProducer = null;
+      step++;
     }
     return !protocolProducers.isEmpty();
   }
@@ -13,6 +13,7 @@ public class SingleProtocolProducer<T> implements ProtocolProducer, DRes<T> {
 
   private NativeProtocol<T, ?> protocol;
   private boolean evaluated = false;
+  private boolean recording = false;
   private T result;
 
   public SingleProtocolProducer(NativeProtocol<T, ?> protocol) {
@@ -24,6 +25,7 @@ public class SingleProtocolProducer<T> implements ProtocolProducer, DRes<T> {
   public <ResourcePoolT extends ResourcePool> void getNextProtocols(
       ProtocolCollection<ResourcePoolT> protocolCollection) {
     evaluated = true;
+    recording = protocolCollection.isRecording();
     protocolCollection.addProtocol((NativeProtocol<?, ResourcePoolT>) protocol);
   }
 
@@ -41,6 +43,10 @@ public class SingleProtocolProducer<T> implements ProtocolProducer, DRes<T> {
 
   @Override
   public T out() {
+    if (recording) {
+      // The protocol may be evaluated again, so the result must be read from it every time
+      return protocol.out();
+    }
     if (result == null) {
       result = protocol.out();
       // Break chain of native protocols to ensure garbage collection
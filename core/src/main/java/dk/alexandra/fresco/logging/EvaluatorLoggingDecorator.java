@@ -49,6 +49,19 @@ public class EvaluatorLoggingDecorator<
       ProtocolProducer protocolProducer, ResourcePoolT resourcePool, Network network) {
     long then = System.currentTimeMillis();
     EvaluationStatistics eval = delegate.eval(protocolProducer, resourcePool, network);
+    return logRunningTime(then, eval);
+  }
+
+  @Override
+  public EvaluationStatistics eval(ProtocolProducer protocolProducer, ResourcePoolT resourcePool,
+      Network network, Object applicationKey) {
+    long then = System.currentTimeMillis();
+    EvaluationStatistics eval =
+        delegate.eval(protocolProducer, resourcePool, network, applicationKey);
+    return logRunningTime(then, eval);
+  }
+
+  private EvaluationStatistics logRunningTime(long then, EvaluationStatistics eval) {
     long now = System.currentTimeMillis();
     long runningTime = now - then;
     this.runtimeLogger.add(runningTime);
@@ -3,13 +3,15 @@ package dk.alexandra.fresco.suite.dummy.arithmetic;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 
 /**
  * Implements addition for the Dummy Arithmetic protocol suite, where all operations are done in the
  * clear.
  */
-public class DummyArithmeticAddProtocol extends DummyArithmeticNativeProtocol<SInt> {
+public class DummyArithmeticAddProtocol extends DummyArithmeticNativeProtocol<SInt>
+    implements ReplayableProtocol<SInt, DummyArithmeticResourcePool> {
 
   private DRes<SInt> left;
   private DRes<SInt> right;
@@ -36,6 +38,11 @@ public class DummyArithmeticAddProtocol extends DummyArithmeticNativeProtocol<SI
     return EvaluationStatus.IS_DONE;
   }
 
+  @Override
+  public void reset() {
+    out = null;
+  }
+
   @Override
   public SInt out() {
     return out;
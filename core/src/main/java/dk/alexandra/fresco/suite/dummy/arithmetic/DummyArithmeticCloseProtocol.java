@@ -2,6 +2,7 @@ package dk.alexandra.fresco.suite.dummy.arithmetic;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 
 /**
@@ -9,7 +10,8 @@ import dk.alexandra.fresco.framework.value.SInt;
  * clear. I.e., this really does nothing but send the open value to the other parties so they can
  * compute on it.
  */
-public class DummyArithmeticCloseProtocol extends DummyArithmeticNativeProtocol<SInt> {
+public class DummyArithmeticCloseProtocol extends DummyArithmeticNativeProtocol<SInt>
+    implements ReplayableProtocol<SInt, DummyArithmeticResourcePool> {
 
   private int targetId;
   private FieldElement open;
@@ -40,6 +42,11 @@ public class DummyArithmeticCloseProtocol extends DummyArithmeticNativeProtocol<
     }
   }
 
+  @Override
+  public void reset() {
+    closed = null;
+  }
+
   @Override
   public SInt out() {
     return closed;
@@ -3,13 +3,15 @@ package dk.alexandra.fresco.suite.dummy.arithmetic;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 
 /**
  * Implements multiplication for the Dummy Arithmetic protocol suite, where all operations are done
  * in the clear.
  */
-public class DummyArithmeticMultProtocol extends DummyArithmeticNativeProtocol<SInt> {
+public class DummyArithmeticMultProtocol extends DummyArithmeticNativeProtocol<SInt>
+    implements ReplayableProtocol<SInt, DummyArithmeticResourcePool> {
 
   private DRes<SInt> left;
   private DRes<SInt> right;
@@ -34,6 +36,11 @@ public class DummyArithmeticMultProtocol extends DummyArithmeticNativeProtocol<S
     return EvaluationStatus.IS_DONE;
   }
 
+  @Override
+  public void reset() {
+    out = null;
+  }
+
   @Override
   public SInt out() {
     return out;
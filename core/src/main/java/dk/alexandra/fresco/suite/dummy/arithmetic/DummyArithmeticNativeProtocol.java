@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.suite.dummy.arithmetic;
 
 import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.sce.evaluator.ConcurrentNativeProtocol;
 
 /**
  * The {@link NativeProtocol} for the Dummy Arithmetic suite.
@@ -8,5 +9,5 @@ import dk.alexandra.fresco.framework.NativeProtocol;
  * @param <OutputT> The output type of the protocol
  */
 public abstract class DummyArithmeticNativeProtocol<OutputT>
-    implements NativeProtocol<OutputT, DummyArithmeticResourcePool> {
+    implements ConcurrentNativeProtocol<OutputT, DummyArithmeticResourcePool> {
 }
@@ -2,6 +2,7 @@ package dk.alexandra.fresco.suite.dummy.arithmetic;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
 
@@ -9,7 +10,8 @@ import java.math.BigInteger;
  * Implements openings for the Dummy Arithmetic protocol suite, where all operations are done in the
  * clear.
  */
-public class DummyArithmeticOpenProtocol extends DummyArithmeticNativeProtocol<BigInteger> {
+public class DummyArithmeticOpenProtocol extends DummyArithmeticNativeProtocol<BigInteger>
+    implements ReplayableProtocol<BigInteger, DummyArithmeticResourcePool> {
 
   private BigInteger open;
   private DRes<SInt> closed;
@@ -40,6 +42,11 @@ public class DummyArithmeticOpenProtocol extends DummyArithmeticNativeProtocol<B
     return EvaluationStatus.IS_DONE;
   }
 
+  @Override
+  public void reset() {
+    open = null;
+  }
+
   @Override
   public BigInteger out() {
     return this.open;
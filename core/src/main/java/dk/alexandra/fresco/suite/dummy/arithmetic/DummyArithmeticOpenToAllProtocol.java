@@ -3,6 +3,7 @@ package dk.alexandra.fresco.suite.dummy.arithmetic;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
 
@@ -10,7 +11,8 @@ import java.math.BigInteger;
  * Implements openings for the Dummy Arithmetic protocol suite, where all operations are done in the
  * clear.
  */
-public class DummyArithmeticOpenToAllProtocol extends DummyArithmeticNativeProtocol<BigInteger> {
+public class DummyArithmeticOpenToAllProtocol extends DummyArithmeticNativeProtocol<BigInteger>
+    implements ReplayableProtocol<BigInteger, DummyArithmeticResourcePool> {
 
   DRes<SInt> closed;
   BigInteger opened;
@@ -33,6 +35,11 @@ public class DummyArithmeticOpenToAllProtocol extends DummyArithmeticNativeProto
     return EvaluationStatus.IS_DONE;
   }
 
+  @Override
+  public void reset() {
+    opened = null;
+  }
+
   @Override
   public BigInteger out() {
     return opened;
@@ -3,9 +3,11 @@ package dk.alexandra.fresco.suite.dummy.arithmetic;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 
-public class DummyArithmeticSubtractProtocol extends DummyArithmeticNativeProtocol<SInt> {
+public class DummyArithmeticSubtractProtocol extends DummyArithmeticNativeProtocol<SInt>
+    implements ReplayableProtocol<SInt, DummyArithmeticResourcePool> {
 
   private DRes<SInt> left;
   private DRes<SInt> right;
@@ -30,6 +32,11 @@ public class DummyArithmeticSubtractProtocol extends DummyArithmeticNativeProtoc
     return EvaluationStatus.IS_DONE;
   }
 
+  @Override
+  public void reset() {
+    out = null;
+  }
+
   @Override
   public SInt out() {
     return out;
@@ -0,0 +1,103 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class LongFieldDefinitionTest {
+
+  private final LongFieldDefinition definition = LongFieldDefinition.find(61);
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLargeBitLength() {
+    new LongFieldDefinition(64, 59);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooSmallBitLength() {
+    new LongFieldDefinition(1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeConstant() {
+    new LongFieldDefinition(61, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void largeConstant() {
+    new LongFieldDefinition(8, 17);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notPrime() {
+    new LongFieldDefinition(61, 3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownBitLength() {
+    LongFieldDefinition.find(7);
+  }
+
+  @Test
+  public void getModulus() {
+    assertThat(definition.getModulus(),
+        Is.is(BigInteger.ONE.shiftLeft(61).subtract(BigInteger.ONE)));
+    assertThat(LongFieldDefinition.find(63).getModulus(),
+        Is.is(BigInteger.ONE.shiftLeft(63).subtract(BigInteger.valueOf(25))));
+    assertThat(definition.getBitLength(), Is.is(61));
+  }
+
+  @Test
+  public void convertToSigned() {
+    BigInteger modulus = definition.getModulus();
+    assertThat(definition.convertToSigned(BigInteger.valueOf(3)), Is.is(BigInteger.valueOf(3)));
+    assertThat(definition.convertToSigned(modulus.subtract(BigInteger.ONE)),
+        Is.is(BigInteger.valueOf(-1)));
+  }
+
+  @Test
+  public void serialize() {
+    FieldElement element = definition.createElement(0x0102030405060708L);
+    assertThat(definition.serialize(element), Is.is(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    assertThat(definition.deserialize(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}).toBigInteger(),
+        Is.is(BigInteger.valueOf(0x0102030405060708L)));
+    assertThat(LongFieldDefinition.find(8).serialize(LongFieldDefinition.find(8).createElement(1)),
+        Is.is(new byte[]{0, 0, 0, 0, 0, 0, 0, 1}));
+  }
+
+  @Test
+  public void serializeList() {
+    List<FieldElement> elements = Arrays.asList(
+        definition.createElement(0),
+        definition.createElement(-1),
+        definition.createElement(42));
+    byte[] bytes = definition.serialize(elements);
+    assertThat(bytes.length, Is.is(24));
+    assertThat(toBigIntegers(definition.deserializeList(bytes)), Is.is(toBigIntegers(elements)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void deserializeOutsideField() {
+    definition.deserialize(new byte[]{-1, -1, -1, -1, -1, -1, -1, -1});
+  }
+
+  @Test
+  public void convertToBitVector() {
+    FieldElement element = definition.createElement(5);
+    StrictBitVector vector = definition.convertToBitVector(element);
+    assertThat(vector.getSize(), Is.is(64));
+    assertThat(vector.getBit(0, true), Is.is(true));
+    assertThat(vector.getBit(1, true), Is.is(false));
+    assertThat(vector.getBit(2, true), Is.is(true));
+  }
+
+  private List<BigInteger> toBigIntegers(List<FieldElement> elements) {
+    return elements.stream().map(FieldElement::toBigInteger).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,104 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.StringContains;
+import org.junit.Test;
+
+public class LongFieldElementTest {
+
+  //prime=251
+  private final LongPrimeModulus modulus = new LongPrimeModulus(8, 5);
+
+  @Test
+  public void creators() {
+    testCreation(27, 27);
+    testCreation(27 + 251, 27);
+    testCreation(27 - 251, 27);
+    testCreation(-1, 251 - 1);
+    testCreation(0, 0);
+  }
+
+  private void testCreation(int value, int expected) {
+    FieldElement element1 = LongFieldElement.create(value, modulus);
+    FieldElement element2 = LongFieldElement.create("" + value, modulus);
+    FieldElement element3 = LongFieldElement.create(BigInteger.valueOf(value), modulus);
+    assertThat(element1.toBigInteger(), Is.is(BigInteger.valueOf(expected)));
+    assertThat(element2.toBigInteger(), Is.is(BigInteger.valueOf(expected)));
+    assertThat(element3.toBigInteger(), Is.is(BigInteger.valueOf(expected)));
+  }
+
+  @Test
+  public void arithmeticMatchesBigInteger() {
+    Random random = new Random(42);
+    Stream.of(8, 16, 31, 32, 48, 56, 61, 62, 63).map(LongFieldDefinition::find)
+        .forEach(definition -> {
+          BigInteger prime = definition.getModulus();
+          BigInteger maximum = prime.subtract(BigInteger.ONE);
+          testArithmetic(definition, maximum, maximum);
+          testArithmetic(definition, maximum, BigInteger.ONE);
+          testArithmetic(definition, BigInteger.ZERO, maximum);
+          for (int i = 0; i < 1000; i++) {
+            BigInteger left = new BigInteger(64, random).mod(prime);
+            BigInteger right = new BigInteger(64, random).mod(prime);
+            testArithmetic(definition, left, right);
+          }
+        });
+  }
+
+  private void testArithmetic(FieldDefinition definition, BigInteger left, BigInteger right) {
+    BigInteger prime = definition.getModulus();
+    FieldElement leftElement = definition.createElement(left);
+    FieldElement rightElement = definition.createElement(right);
+    assertThat(leftElement.add(rightElement).toBigInteger(), Is.is(left.add(right).mod(prime)));
+    assertThat(leftElement.subtract(rightElement).toBigInteger(),
+        Is.is(left.subtract(right).mod(prime)));
+    assertThat(leftElement.multiply(rightElement).toBigInteger(),
+        Is.is(left.multiply(right).mod(prime)));
+    assertThat(leftElement.negate().toBigInteger(), Is.is(left.negate().mod(prime)));
+    if (left.signum() != 0) {
+      assertThat(leftElement.modInverse().toBigInteger(), Is.is(left.modInverse(prime)));
+    }
+  }
+
+  @Test
+  public void multiplyHigh() {
+    long value = Long.MAX_VALUE;
+    BigInteger expected = BigInteger.valueOf(value).pow(2).shiftRight(64);
+    assertThat(LongPrimeModulus.multiplyHigh(value, value), Is.is(expected.longValue()));
+    assertThat(LongPrimeModulus.multiplyHigh(1L << 40, 1L << 40), Is.is(1L << 16));
+  }
+
+  @Test
+  public void sqrt() {
+    FieldElement element = LongFieldElement.create(9, modulus);
+    BigInteger value = element.sqrt().toBigInteger();
+    assertTrue(value.equals(BigInteger.valueOf(3)) || value.equals(BigInteger.valueOf(248)));
+    FieldDefinition definition = LongFieldDefinition.find(61);
+    FieldElement square = definition.createElement(123456789L).multiply(
+        definition.createElement(123456789L));
+    FieldElement root = square.sqrt();
+    assertThat(root.multiply(root).toBigInteger(), Is.is(square.toBigInteger()));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void modInverseOfZero() {
+    LongFieldElement.create(0, modulus).modInverse();
+  }
+
+  @Test
+  public void toStringTest() {
+    FieldElement element = LongFieldElement.create(78, modulus);
+    assertThat(element.toString(), StringContains.containsString("78"));
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(LongFieldElement.create(251, modulus).isZero());
+  }
+}
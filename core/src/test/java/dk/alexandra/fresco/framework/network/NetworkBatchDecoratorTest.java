@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.framework.network;
 
 import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,25 +66,34 @@ public class NetworkBatchDecoratorTest {
     Assert.assertArrayEquals(new byte[]{1, 123}, transmissions.get(3));
   }
 
-  @Test(expected = RuntimeException.class)
-  public void errorOnBigPackets() throws Exception {
-    networkBatchDecorator.sendToAll(
-        new byte[]{
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-        });
+  @Test
+  public void sendAndReceiveBigPackets() throws Exception {
+    byte[] small = new byte[]{42};
+    byte[] big = new byte[200];
+    byte[] huge = new byte[100000];
+    Arrays.fill(big, (byte) 123);
+    Arrays.fill(huge, (byte) 7);
+    networkBatchDecorator.send(1, big);
+    networkBatchDecorator.send(1, small);
+    networkBatchDecorator.send(1, huge);
+    networkBatchDecorator.flush();
+    byte[] transmission = transmissions.get(1);
+    Assert.assertEquals(2 + big.length + 1 + small.length + 3 + huge.length, transmission.length);
+    Assert.assertEquals((byte) 0xC8, transmission[0]);
+    Assert.assertEquals((byte) 0x01, transmission[1]);
+    Assert.assertArrayEquals(big, networkBatchDecorator.receive(1));
+    Assert.assertArrayEquals(small, networkBatchDecorator.receive(1));
+    Assert.assertArrayEquals(huge, networkBatchDecorator.receive(1));
+  }
 
+  @Test
+  public void flushClearsBufferForNextBatch() throws Exception {
+    networkBatchDecorator.send(2, new byte[5000]);
+    networkBatchDecorator.flush();
+    Assert.assertEquals(5002, transmissions.get(2).length);
+    networkBatchDecorator.send(2, new byte[]{1, 2});
+    networkBatchDecorator.flush();
+    Assert.assertArrayEquals(new byte[]{2, 1, 2}, transmissions.get(2));
   }
 
   private class DummyNetwork implements Network {
@@ -0,0 +1,108 @@
+package dk.alexandra.fresco.framework.network;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class TestWanNetworkDecorator {
+
+  private static final long UNLIMITED = Long.MAX_VALUE / 2;
+
+  @Test
+  public void testLatency() throws IOException {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    WanLinkProfile profile = new WanLinkProfile(Duration.ofMillis(100), UNLIMITED);
+    try (WanNetworkDecorator network = new WanNetworkDecorator(networks.get(1), 1, profile, 0)) {
+      long start = System.nanoTime();
+      network.send(2, new byte[]{0x01});
+      assertArrayEquals(new byte[]{0x01}, networks.get(2).receive(1));
+      assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+    }
+  }
+
+  @Test
+  public void testBandwidth() throws IOException {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    // 80 kbit/s is 10 KB/s, so sending 2 KB beyond the burst takes at least 200 ms
+    WanLinkProfile profile = new WanLinkProfile(Duration.ZERO, Duration.ZERO, 80_000, 1024);
+    try (WanNetworkDecorator network = new WanNetworkDecorator(networks.get(1), 1, profile, 0)) {
+      long start = System.nanoTime();
+      for (int i = 0; i < 3; i++) {
+        network.send(2, new byte[1024]);
+      }
+      for (int i = 0; i < 3; i++) {
+        networks.get(2).receive(1);
+      }
+      assertTrue(System.nanoTime() - start >= Duration.ofMillis(200).toNanos());
+    }
+  }
+
+  @Test
+  public void testJitterKeepsOrder() throws IOException {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    WanLinkProfile profile =
+        new WanLinkProfile(Duration.ZERO, Duration.ofMillis(5), UNLIMITED, 1 << 16);
+    try (WanNetworkDecorator network = new WanNetworkDecorator(networks.get(1), 1, profile, 42)) {
+      for (int i = 0; i < 200; i++) {
+        network.send(2, new byte[]{(byte) i});
+      }
+      for (int i = 0; i < 200; i++) {
+        assertEquals((byte) i, networks.get(2).receive(1)[0]);
+      }
+    }
+  }
+
+  @Test
+  public void testPerPartyProfiles() throws IOException {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(3);
+    Map<Integer, WanLinkProfile> profiles = new HashMap<>();
+    profiles.put(3, new WanLinkProfile(Duration.ofSeconds(60), UNLIMITED));
+    WanNetworkDecorator network = new WanNetworkDecorator(networks.get(1), 1,
+        new WanLinkProfile(Duration.ZERO, UNLIMITED), profiles, 0);
+    network.send(3, new byte[]{0x03});
+    network.send(2, new byte[]{0x02});
+    network.send(1, new byte[]{0x01});
+    assertArrayEquals(new byte[]{0x01}, network.receive(1));
+    assertArrayEquals(new byte[]{0x02}, networks.get(2).receive(1));
+  }
+
+  @Test
+  public void testCloseDeliversPendingMessages() throws IOException {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    WanLinkProfile profile = new WanLinkProfile(Duration.ofMillis(50), UNLIMITED);
+    WanNetworkDecorator network = new WanNetworkDecorator(networks.get(1), 1, profile, 0);
+    network.send(2, new byte[]{0x01});
+    network.close();
+    assertArrayEquals(new byte[]{0x01}, networks.get(2).receive(1));
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testSendAfterClose() throws IOException {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    WanLinkProfile profile = new WanLinkProfile(Duration.ZERO, UNLIMITED);
+    WanNetworkDecorator network = new WanNetworkDecorator(networks.get(1), 1, profile, 0);
+    network.close();
+    network.send(2, new byte[]{0x01});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSendToTooLargePartyId() throws IOException {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    WanLinkProfile profile = new WanLinkProfile(Duration.ZERO, UNLIMITED);
+    try (WanNetworkDecorator network = new WanNetworkDecorator(networks.get(1), 1, profile, 0)) {
+      network.send(3, new byte[]{0x01});
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeLatency() {
+    new WanLinkProfile(Duration.ofMillis(-1), UNLIMITED);
+  }
+}
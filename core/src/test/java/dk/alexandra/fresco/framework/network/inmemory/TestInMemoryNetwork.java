@@ -0,0 +1,145 @@
+package dk.alexandra.fresco.framework.network.inmemory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestInMemoryNetwork {
+
+  private static final int TWO_MINUTE_TIMEOUT_MILLIS = 120000;
+  private ExecutorService executor;
+
+  @After
+  public void tearDown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testSelfSend() {
+    InMemoryNetwork network = InMemoryNetwork.create(1).get(1);
+    assertEquals(1, network.getNoOfParties());
+    for (int i = 0; i < 5000; i++) {
+      network.send(1, new byte[]{(byte) i});
+    }
+    for (int i = 0; i < 5000; i++) {
+      assertArrayEquals(new byte[]{(byte) i}, network.receive(1));
+    }
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testSendToAllBusySpin() throws Exception {
+    sendToAll(4, 100, WaitStrategy.BUSY_SPIN);
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testSendToAllYield() throws Exception {
+    sendToAll(4, 100, WaitStrategy.YIELD);
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testSendToAllPark() throws Exception {
+    sendToAll(4, 100, WaitStrategy.PARK);
+  }
+
+  /**
+   * Each party sends all of its messages before receiving, so this only terminates if sending does
+   * not block when the ring buffers fill up.
+   */
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testSendManyBeforeReceiving() throws Exception {
+    sendToAll(2, 100000, WaitStrategy.PARK);
+  }
+
+  private void sendToAll(int noOfParties, int noOfMessages, WaitStrategy waitStrategy)
+      throws InterruptedException, ExecutionException {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(noOfParties, waitStrategy);
+    executor = Executors.newFixedThreadPool(noOfParties);
+    List<Future<?>> futures = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      InMemoryNetwork network = networks.get(partyId);
+      int myId = partyId;
+      futures.add(executor.submit(() -> {
+        Random random = new Random(myId);
+        for (int i = 0; i < noOfMessages; i++) {
+          byte[] data = new byte[1 + random.nextInt(64)];
+          random.nextBytes(data);
+          network.sendToAll(data);
+        }
+        for (int otherId = 1; otherId <= noOfParties; otherId++) {
+          Random expected = new Random(otherId);
+          for (int i = 0; i < noOfMessages; i++) {
+            byte[] data = new byte[1 + expected.nextInt(64)];
+            expected.nextBytes(data);
+            assertArrayEquals(data, network.receive(otherId));
+          }
+        }
+        network.close();
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testReceiveMessageSentBeforeClose() {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    networks.get(1).send(2, new byte[]{0x01});
+    networks.get(1).close();
+    assertArrayEquals(new byte[]{0x01}, networks.get(2).receive(1));
+  }
+
+  @Test(expected = RuntimeException.class, timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testReceiveFromClosed() {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    networks.get(1).close();
+    networks.get(2).receive(1);
+  }
+
+  @Test(expected = RuntimeException.class, timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testSendAfterClose() {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    networks.get(1).close();
+    networks.get(1).send(2, new byte[]{0x01});
+  }
+
+  @Test(expected = RuntimeException.class, timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testReceiveAfterClose() {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(2);
+    networks.get(2).send(1, new byte[]{0x01});
+    networks.get(1).close();
+    networks.get(1).receive(2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSendToTooLargePartyId() {
+    InMemoryNetwork.create(2).get(1).send(3, new byte[]{0x01});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReceiveFromNegativePartyId() {
+    InMemoryNetwork.create(2).get(1).receive(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoParties() {
+    InMemoryNetwork.create(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCapacityNotPowerOfTwo() {
+    new SpscRingBuffer(6);
+  }
+}
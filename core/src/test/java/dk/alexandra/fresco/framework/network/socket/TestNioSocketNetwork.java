@@ -0,0 +1,95 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import static dk.alexandra.fresco.framework.network.socket.Connector.DEFAULT_CONNECTION_TIMEOUT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.AbstractCloseableNetworkTest;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+import org.junit.Test;
+
+public class TestNioSocketNetwork extends AbstractCloseableNetworkTest {
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf) {
+    return newCloseableNetwork(conf, DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf, Duration timeout) {
+    return new NioSocketNetwork(conf, timeout);
+  }
+
+  @Test
+  public void testInteroperatesWithSocketNetwork() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    ExecutorService es = Executors.newFixedThreadPool(2);
+    try {
+      Future<CloseableNetwork> nio = es.submit(() -> new NioSocketNetwork(confs.get(0)));
+      Future<CloseableNetwork> socket = es.submit(() -> new SocketNetwork(confs.get(1),
+          new NioSocketNetwork.ChannelSocketFactory(),
+          new NioSocketNetwork.ChannelServerSocketFactory()));
+      CloseableNetwork first = nio.get();
+      CloseableNetwork second = socket.get();
+      first.send(2, new byte[] {1, 2});
+      second.send(1, new byte[] {3});
+      assertArrayEquals(new byte[] {1, 2}, second.receive(1));
+      assertArrayEquals(new byte[] {3}, first.receive(2));
+      // Closing flushes the last message and then ends the stream without a marker
+      first.send(2, new byte[0]);
+      first.close();
+      assertArrayEquals(new byte[0], second.receive(1));
+      try {
+        second.receive(1);
+        fail("The stream from the closed network should have ended");
+      } catch (RuntimeException e) {
+        // The receiver of the socket network stopped at the end of the stream
+      }
+      second.close();
+    } finally {
+      es.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @SuppressWarnings("resource")
+  public void testSocketsWithoutChannel() throws InterruptedException, ExecutionException {
+    final int numParties = 2;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    List<Future<NetworkConnector>> fs = new ArrayList<>(numParties);
+    try {
+      for (int i = 0; i < numParties; i++) {
+        final int id = i;
+        fs.add(es.submit(() -> new Connector(confs.get(id), DEFAULT_CONNECTION_TIMEOUT,
+            SocketFactory.getDefault(), ServerSocketFactory.getDefault())));
+      }
+      Map<Integer, Socket> socketMap = fs.get(0).get().getSocketMap();
+      new NioSocketNetwork(confs.get(0), socketMap);
+    } finally {
+      for (Future<NetworkConnector> futureConn : fs) {
+        for (Socket s : futureConn.get().getSocketMap().values()) {
+          try {
+            s.close();
+          } catch (IOException e) {
+            // ignore
+          }
+        }
+      }
+      es.shutdownNow();
+    }
+  }
+}
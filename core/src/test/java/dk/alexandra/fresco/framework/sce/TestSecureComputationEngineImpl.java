@@ -19,6 +19,8 @@ import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
 import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePoolImpl;
 import java.math.BigInteger;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -104,6 +106,54 @@ public class TestSecureComputationEngineImpl {
     fail("Should not be reachable");
   }
 
+  @Test
+  public void testRecordAndReplay() {
+    DummyArithmeticResourcePool rp =
+        new DummyArithmeticResourcePoolImpl(0, 1, fieldDefinition);
+    Binding<SInt> x = new Binding<>(close(3, rp));
+    Binding<SInt> y = new Binding<>(close(4, rp));
+    Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+        builder -> {
+          DRes<SInt> sum = builder.numeric().add(x, y);
+          DRes<BigInteger> product = builder.numeric().open(builder.numeric().mult(sum, x));
+          DRes<BigInteger> square = builder.seq(seq -> seq.numeric().open(
+              seq.numeric().mult(y, y)));
+          return () -> Arrays.asList(product.out(), square.out());
+        };
+    RecordedApplication<List<BigInteger>> recorded = sce.recordApplication(app, rp, null);
+    assertThat(recorded.getOutput(), is(Arrays.asList(BigInteger.valueOf(21),
+        BigInteger.valueOf(16))));
+    assertThat(recorded.getNativeProtocols(), is(5));
+
+    x.bind(close(5, rp));
+    y.bind(close(1, rp));
+    assertThat(sce.replayApplication(recorded, rp, null), is(Arrays.asList(BigInteger.valueOf(30),
+        BigInteger.valueOf(1))));
+    x.bind(close(2, rp));
+    assertThat(sce.replayApplication(recorded, rp, null), is(Arrays.asList(BigInteger.valueOf(6),
+        BigInteger.valueOf(1))));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testRecordNotReplayable() throws Throwable {
+    DummyArithmeticResourcePool rp =
+        new DummyArithmeticResourcePoolImpl(0, 1, fieldDefinition);
+    // Known values are created by a protocol which does not implement ReplayableProtocol
+    Application<SInt, ProtocolBuilderNumeric> app =
+        builder -> builder.numeric().known(BigInteger.ONE);
+    try {
+      sce.recordApplication(app, rp, null);
+    } catch (RuntimeException e) {
+      throw e.getCause();
+    }
+  }
+
+  private SInt close(int value, DummyArithmeticResourcePool rp) {
+    Application<SInt, ProtocolBuilderNumeric> app =
+        builder -> builder.numeric().known(BigInteger.valueOf(value));
+    return sce.runApplication(app, rp, null);
+  }
+
   /**
    * Shuts down the SCE.
    */
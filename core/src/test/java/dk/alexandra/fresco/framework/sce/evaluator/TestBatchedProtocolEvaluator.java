@@ -0,0 +1,191 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import dk.alexandra.fresco.framework.BranchScheduler;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolEvaluator.EvaluationStatistics;
+import dk.alexandra.fresco.framework.ProtocolProducer;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.lib.helper.ParallelProtocolProducer;
+import dk.alexandra.fresco.lib.helper.SequentialProtocolProducer;
+import dk.alexandra.fresco.lib.helper.SingleProtocolProducer;
+import dk.alexandra.fresco.suite.ProtocolSuite;
+import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestBatchedProtocolEvaluator {
+
+  private final Map<Integer, byte[]> transmissions = new HashMap<>();
+
+  @Test
+  public void testRounds() {
+    BatchedProtocolEvaluator<ResourcePool> evaluator = createEvaluator(
+        SchedulingPolicy.BREADTH_FIRST);
+    EvaluationStatistics statistics = evaluator.eval(createProducer(), new ResourcePoolImpl(1, 1),
+        new LoopbackNetwork());
+    Assert.assertEquals(8, statistics.getNativeProtocols());
+    Assert.assertEquals(6, statistics.getBatches());
+    Assert.assertEquals(6, statistics.getRounds());
+  }
+
+  @Test
+  public void testBreadthFirstIgnoresPreviousEvaluations() {
+    BatchedProtocolEvaluator<ResourcePool> evaluator = createEvaluator(
+        SchedulingPolicy.BREADTH_FIRST);
+    for (int i = 0; i < 2; i++) {
+      EvaluationStatistics statistics = evaluator.eval(createProducer(),
+          new ResourcePoolImpl(1, 1), new LoopbackNetwork());
+      Assert.assertEquals(6, statistics.getRounds());
+    }
+  }
+
+  @Test
+  public void testCriticalPathStartsDeepBranchesFirst() {
+    BatchedProtocolEvaluator<ResourcePool> evaluator = createEvaluator(
+        SchedulingPolicy.CRITICAL_PATH);
+    // The depth of the branches is unknown in the first evaluation
+    EvaluationStatistics first = evaluator.eval(createProducer(), new ResourcePoolImpl(1, 1),
+        new LoopbackNetwork());
+    Assert.assertEquals(6, first.getRounds());
+    for (int i = 0; i < 2; i++) {
+      EvaluationStatistics statistics = evaluator.eval(createProducer(),
+          new ResourcePoolImpl(1, 1), new LoopbackNetwork());
+      Assert.assertEquals(8, statistics.getNativeProtocols());
+      Assert.assertEquals(4, statistics.getBatches());
+      Assert.assertEquals(4, statistics.getRounds());
+    }
+  }
+
+  @Test
+  public void testCriticalPathKeepsApplicationsApart() {
+    BatchedProtocolEvaluator<ResourcePool> evaluator = createEvaluator(
+        SchedulingPolicy.CRITICAL_PATH);
+    EvaluationStatistics first = evaluator.eval(createProducer(), new ResourcePoolImpl(1, 1),
+        new LoopbackNetwork(), "first");
+    Assert.assertEquals(6, first.getRounds());
+    EvaluationStatistics second = evaluator.eval(createProducer(), new ResourcePoolImpl(1, 1),
+        new LoopbackNetwork(), "first");
+    Assert.assertEquals(4, second.getRounds());
+    // Another application starts without estimates, even though its keys are the same
+    EvaluationStatistics other = evaluator.eval(createProducer(), new ResourcePoolImpl(1, 1),
+        new LoopbackNetwork(), "other");
+    Assert.assertEquals(6, other.getRounds());
+  }
+
+  @Test
+  public void testDepthCountsBatchesWithProtocols() {
+    // Branch one produces a protocol, then two in parallel, then one, while branch two produces one
+    // protocol in each of three batches, but gets no room in the second batch
+    List<ProtocolProducer> one = new ArrayList<>();
+    one.add(new SingleProtocolProducer<>(new ExchangeProtocol()));
+    one.add(new ParallelProtocolProducer(Arrays.asList(
+        new SingleProtocolProducer<>(new ExchangeProtocol()),
+        new SingleProtocolProducer<>(new ExchangeProtocol()))));
+    one.add(new SingleProtocolProducer<>(new ExchangeProtocol()));
+    List<ProtocolProducer> two = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      two.add(new SingleProtocolProducer<>(new ExchangeProtocol()));
+    }
+    ProtocolProducer producer = new ParallelProtocolProducer(Arrays.asList(
+        new SequentialProtocolProducer(one), new SequentialProtocolProducer(two)));
+    Map<Long, Integer> estimates = new HashMap<>();
+    CriticalPathScheduler scheduler = new CriticalPathScheduler(estimates);
+    int batches = 0;
+    while (producer.hasNextProtocols()) {
+      producer.getNextProtocols(new ProtocolCollectionList<>(2, scheduler));
+      scheduler.finishedBatch();
+      batches++;
+    }
+    Assert.assertEquals(4, batches);
+    Assert.assertEquals(3, scheduler.getEstimate(BranchScheduler.childKey(0, 0)));
+    Assert.assertEquals(3, scheduler.getEstimate(BranchScheduler.childKey(0, 1)));
+  }
+
+  @Test
+  public void testEstimatesAreBounded() {
+    Map<Long, Integer> estimates = new HashMap<>();
+    CriticalPathScheduler scheduler = new CriticalPathScheduler(estimates);
+    for (long key = 0; key <= CriticalPathScheduler.MAX_ESTIMATES; key++) {
+      scheduler.recordDepth(key, 2);
+    }
+    Assert.assertEquals(CriticalPathScheduler.MAX_ESTIMATES, estimates.size());
+    // Known branches are still updated
+    scheduler.recordDepth(0, 3);
+    Assert.assertEquals(3, scheduler.getEstimate(0));
+  }
+
+  private BatchedProtocolEvaluator<ResourcePool> createEvaluator(SchedulingPolicy policy) {
+    @SuppressWarnings("unchecked")
+    ProtocolSuite<ResourcePool, ?> suite = mock(ProtocolSuite.class);
+    @SuppressWarnings("unchecked")
+    RoundSynchronization<ResourcePool> roundSynchronization = mock(RoundSynchronization.class);
+    when(suite.createRoundSynchronization()).thenReturn(roundSynchronization);
+    return new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), suite, 2, policy);
+  }
+
+  /**
+   * Creates four branches with a single protocol each, followed by a branch of four protocols in
+   * sequence.
+   */
+  private ProtocolProducer createProducer() {
+    List<ProtocolProducer> branches = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      branches.add(new SingleProtocolProducer<>(new ExchangeProtocol()));
+    }
+    List<ProtocolProducer> sequence = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      sequence.add(new SingleProtocolProducer<>(new ExchangeProtocol()));
+    }
+    branches.add(new SequentialProtocolProducer(sequence));
+    return new ParallelProtocolProducer(branches);
+  }
+
+  /**
+   * Sends a message to itself, and receives it in the next round.
+   */
+  private static class ExchangeProtocol implements NativeProtocol<Void, ResourcePool> {
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      if (round == 0) {
+        network.send(1, new byte[]{(byte) 1});
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      }
+      network.receive(1);
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Void out() {
+      return null;
+    }
+  }
+
+  private class LoopbackNetwork implements Network {
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      transmissions.put(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return transmissions.remove(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 1;
+    }
+  }
+}
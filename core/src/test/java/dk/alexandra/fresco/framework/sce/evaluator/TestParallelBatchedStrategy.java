@@ -0,0 +1,169 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestParallelBatchedStrategy {
+
+  private final Map<Integer, byte[]> transmissions = new HashMap<>();
+
+  @Test
+  public void testMessagesReachMatchingProtocols() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    ParallelBatchedStrategy<ResourcePool> strategy = new ParallelBatchedStrategy<>(3, pool);
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(100);
+    List<EchoProtocol> echoes = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      EchoProtocol echo = new EchoProtocol(i, 1 + i % 4);
+      echoes.add(echo);
+      protocols.addProtocol(echo);
+    }
+    strategy.processBatch(protocols, new ResourcePoolImpl(1, 1),
+        new NetworkBatchDecorator(1, new LoopbackNetwork()));
+    pool.shutdown();
+    for (int i = 0; i < echoes.size(); i++) {
+      Assert.assertEquals(echoes.get(i).rounds * i, (int) echoes.get(i).out());
+    }
+  }
+
+  @Test
+  public void testResourcesAccessedInProtocolOrder() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    ParallelBatchedStrategy<ResourcePool> strategy = new ParallelBatchedStrategy<>(2, pool);
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(100);
+    List<String> accesses = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      protocols.addProtocol(new OrderedProtocol(i, accesses));
+    }
+    strategy.processBatch(protocols, new ResourcePoolImpl(1, 1),
+        new NetworkBatchDecorator(1, new LoopbackNetwork()));
+    pool.shutdown();
+    List<String> expected = new ArrayList<>();
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < 7; i++) {
+        expected.add("before " + round + " " + i);
+      }
+      for (int i = 0; i < 7; i++) {
+        expected.add("after " + round + " " + i);
+      }
+    }
+    Assert.assertEquals(expected, accesses);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonConcurrentProtocolRejected() {
+    ParallelBatchedStrategy<ResourcePool> strategy = new ParallelBatchedStrategy<>();
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(100);
+    protocols.addProtocol(new NativeProtocol<Void, ResourcePool>() {
+      @Override
+      public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+        return EvaluationStatus.IS_DONE;
+      }
+
+      @Override
+      public Void out() {
+        return null;
+      }
+    });
+    strategy.processBatch(protocols, new ResourcePoolImpl(1, 1),
+        new NetworkBatchDecorator(1, new LoopbackNetwork()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalSliceSize() {
+    new ParallelBatchedStrategy<>(0, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Sends its id to itself in each round, and sums what it receives.
+   */
+  private static class EchoProtocol implements ConcurrentNativeProtocol<Integer, ResourcePool> {
+
+    private final int id;
+    private final int rounds;
+    private int sum;
+
+    private EchoProtocol(int id, int rounds) {
+      this.id = id;
+      this.rounds = rounds;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      if (round > 0) {
+        sum += network.receive(1)[0];
+      }
+      if (round < rounds) {
+        network.send(1, new byte[]{(byte) id});
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      }
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Integer out() {
+      return sum;
+    }
+  }
+
+  /**
+   * Records the order in which it accesses resources, and runs for two rounds.
+   */
+  private static class OrderedProtocol implements ConcurrentNativeProtocol<Void, ResourcePool> {
+
+    private final int id;
+    private final List<String> accesses;
+
+    private OrderedProtocol(int id, List<String> accesses) {
+      this.id = id;
+      this.accesses = accesses;
+    }
+
+    @Override
+    public void beforeRound(int round, ResourcePool resourcePool) {
+      accesses.add("before " + round + " " + id);
+    }
+
+    @Override
+    public void afterRound(int round, ResourcePool resourcePool) {
+      accesses.add("after " + round + " " + id);
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      return round == 0 ? EvaluationStatus.HAS_MORE_ROUNDS : EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Void out() {
+      return null;
+    }
+  }
+
+  private class LoopbackNetwork implements Network {
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      transmissions.put(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return transmissions.remove(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 1;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestPipelinedBatchedStrategy {
+
+  private final Deque<byte[]> transmissions = new ArrayDeque<>();
+  private int messages;
+
+  @Test
+  public void testOneMessagePerSubBatchAndRound() {
+    PipelinedBatchedStrategy<ResourcePool> strategy = new PipelinedBatchedStrategy<>(2);
+    RoundCountingNetwork network = new RoundCountingNetwork(new LoopbackNetwork());
+    NetworkBatchDecorator decorator = new NetworkBatchDecorator(1, network);
+    List<ExchangeProtocol> exchanges = new ArrayList<>();
+    for (int batch = 0; batch < 2; batch++) {
+      ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(100);
+      for (int i = 0; i < 8; i++) {
+        ExchangeProtocol exchange = new ExchangeProtocol(8 * batch + i);
+        exchanges.add(exchange);
+        protocols.addProtocol(exchange);
+      }
+      strategy.processBatch(protocols, new ResourcePoolImpl(1, 1), decorator);
+    }
+    for (int i = 0; i < exchanges.size(); i++) {
+      Assert.assertEquals(i, (int) exchanges.get(i).out());
+    }
+    // Each batch sends one message per sub-batch in its first round, and nothing in the second
+    Assert.assertEquals(4, messages);
+    Assert.assertEquals(2, network.getRounds());
+  }
+
+  @Test
+  public void testSmallBatchSendsSingleMessage() {
+    PipelinedBatchedStrategy<ResourcePool> strategy = new PipelinedBatchedStrategy<>(4);
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(100);
+    ExchangeProtocol exchange = new ExchangeProtocol(7);
+    protocols.addProtocol(exchange);
+    strategy.processBatch(protocols, new ResourcePoolImpl(1, 1),
+        new NetworkBatchDecorator(1, new LoopbackNetwork()));
+    Assert.assertEquals(7, (int) exchange.out());
+    Assert.assertEquals(1, messages);
+  }
+
+  @Test
+  public void testPartsAreReused() {
+    NetworkBatchDecorator decorator = new NetworkBatchDecorator(1, new LoopbackNetwork());
+    Assert.assertSame(decorator, decorator.getPart(0));
+    NetworkBatchDecorator part = decorator.getPart(2);
+    Assert.assertSame(part, decorator.getPart(2));
+    Assert.assertNotSame(part, decorator.getPart(1));
+  }
+
+  /**
+   * Sends its value to itself in the first round, and receives it in the second.
+   */
+  private static class ExchangeProtocol implements NativeProtocol<Integer, ResourcePool> {
+
+    private final int value;
+    private Integer received;
+
+    private ExchangeProtocol(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      if (round == 0) {
+        network.send(1, new byte[]{(byte) value});
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      }
+      received = (int) network.receive(1)[0];
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Integer out() {
+      return received;
+    }
+  }
+
+  private class LoopbackNetwork implements Network {
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      messages++;
+      transmissions.addLast(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return transmissions.pollFirst();
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 1;
+    }
+  }
+}
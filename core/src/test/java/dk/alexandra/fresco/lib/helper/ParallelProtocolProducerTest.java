@@ -5,11 +5,17 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.ProtocolProducer;
+import dk.alexandra.fresco.framework.sce.evaluator.ProtocolCollectionList;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.suite.dummy.bool.DummyBooleanNotProtocol;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -34,4 +40,63 @@ public class ParallelProtocolProducerTest {
 
     verify(iterator, times(1)).remove();
   }
+
+  @Test
+  public void getNextProtocolsBreadthFirst() {
+    List<List<NativeProtocol<?, ?>>> steps = new ArrayList<>();
+    List<ProtocolProducer> producers = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      List<NativeProtocol<?, ?>> childSteps = Arrays.asList(
+          new DummyBooleanNotProtocol(null), new DummyBooleanNotProtocol(null));
+      steps.add(childSteps);
+      List<ProtocolProducer> children = new ArrayList<>();
+      for (NativeProtocol<?, ?> step : childSteps) {
+        children.add(new SingleProtocolProducer<>(step));
+      }
+      producers.add(new SequentialProtocolProducer(children));
+    }
+    ParallelProtocolProducer producer = new ParallelProtocolProducer(producers);
+
+    // Each batch is filled from the first producers, asking each producer at most once
+    Assert.assertEquals(
+        Arrays.asList(steps.get(0).get(0), steps.get(1).get(0), steps.get(2).get(0)),
+        nextBatch(producer, 3));
+    Assert.assertEquals(
+        Arrays.asList(steps.get(0).get(1), steps.get(1).get(1), steps.get(2).get(1)),
+        nextBatch(producer, 3));
+    Assert.assertEquals(
+        Arrays.asList(steps.get(3).get(0), steps.get(4).get(0)),
+        nextBatch(producer, 3));
+    Assert.assertEquals(
+        Arrays.asList(steps.get(3).get(1), steps.get(4).get(1)),
+        nextBatch(producer, 3));
+    Assert.assertFalse(producer.hasNextProtocols());
+  }
+
+  @Test
+  public void getNextProtocolsWide() {
+    int size = 200000;
+    List<ProtocolProducer> producers = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      producers.add(new SingleProtocolProducer<>(new DummyBooleanNotProtocol(null)));
+    }
+    ParallelProtocolProducer producer = new ParallelProtocolProducer(producers);
+    int batches = 0;
+    while (producer.hasNextProtocols()) {
+      Assert.assertEquals(1, nextBatch(producer, 1).size());
+      batches++;
+    }
+    Assert.assertEquals(size, batches);
+  }
+
+  private List<NativeProtocol<?, ?>> nextBatch(ProtocolProducer producer, int capacity) {
+    Assert.assertTrue(producer.hasNextProtocols());
+    ProtocolCollectionList<ResourcePool> collection = new ProtocolCollectionList<>(capacity);
+    producer.getNextProtocols(collection);
+    List<NativeProtocol<?, ?>> protocols = new ArrayList<>();
+    for (NativeProtocol<?, ResourcePool> protocol : collection) {
+      protocols.add(protocol);
+    }
+    return protocols;
+  }
 }
@@ -5,10 +5,8 @@ import dk.alexandra.fresco.framework.TestThreadRunner;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
-import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
-import dk.alexandra.fresco.framework.configuration.NetworkUtil;
 import dk.alexandra.fresco.framework.network.Network;
-import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
 import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
 import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
@@ -23,12 +21,8 @@ import dk.alexandra.fresco.logging.PerformanceLogger;
 import dk.alexandra.fresco.logging.PerformanceLoggerCountingAggregate;
 import dk.alexandra.fresco.logging.PerformancePrinter;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import javax.net.ServerSocketFactory;
-import javax.net.SocketFactory;
 
 /**
  * Abstract class which handles a lot of boiler plate testing code. This makes running a single test
@@ -80,19 +74,13 @@ public abstract class AbstractDummyArithmeticTest {
       EvaluationStrategy evalStrategy, int noOfParties, FieldDefinition fieldDefinition,
       int maxBitLength,
       int fixedPointPrecision, boolean logPerformance) {
-    List<Integer> ports = new ArrayList<>(noOfParties);
-    for (int i = 1; i <= noOfParties; i++) {
-      ports.add(9000 + i * (noOfParties - 1));
-    }
-
-    Map<Integer, NetworkConfiguration> netConf =
-        NetworkUtil.getNetworkConfigurations(ports);
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(noOfParties);
     Map<Integer,
         TestThreadRunner.TestThreadConfiguration<
             DummyArithmeticResourcePool,
             ProtocolBuilderNumeric>
         > conf = new HashMap<>();
-    for (int playerId : netConf.keySet()) {
+    for (int playerId : networks.keySet()) {
       PerformanceLoggerCountingAggregate aggregate = new PerformanceLoggerCountingAggregate();
       ProtocolSuiteNumeric<DummyArithmeticResourcePool> ps = new DummyArithmeticProtocolSuite(
           fieldDefinition, maxBitLength, fixedPointPrecision);
@@ -113,7 +101,6 @@ public abstract class AbstractDummyArithmeticTest {
         evaluator = new EvaluatorLoggingDecorator<>(evaluator);
         aggregate.add((PerformanceLogger) evaluator);
       }
-      NetworkConfiguration partyNetConf = netConf.get(playerId);
       SecureComputationEngine<DummyArithmeticResourcePool, ProtocolBuilderNumeric> sce =
           new SecureComputationEngineImpl<>(ps, evaluator);
       TestThreadRunner.TestThreadConfiguration<
@@ -122,8 +109,7 @@ public abstract class AbstractDummyArithmeticTest {
           new TestThreadRunner.TestThreadConfiguration<>(sce,
               () -> new DummyArithmeticResourcePoolImpl(playerId, noOfParties, fieldDefinition),
               () -> {
-                Network asyncNetwork = new SocketNetwork(partyNetConf, SocketFactory.getDefault(),
-                    ServerSocketFactory.getDefault());
+                Network asyncNetwork = networks.get(playerId);
                 if (logPerformance) {
                   NetworkLoggingDecorator network = new NetworkLoggingDecorator(asyncNetwork);
                   aggregate.add(network);
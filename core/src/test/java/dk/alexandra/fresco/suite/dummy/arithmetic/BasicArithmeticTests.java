@@ -527,6 +527,97 @@ public class BasicArithmeticTests {
     }
   }
 
+  /**
+   * Test multiplying two vectors of 100 secret values entry-wise using {@link
+   * Numeric#multVector(List, List)}, where the left factors are known values and the right factors
+   * are input by the first party.
+   */
+  public static class TestMultVector<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      final int size = 100;
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                Numeric numeric = par.numeric();
+                List<DRes<SInt>> left = new ArrayList<>(size);
+                List<DRes<SInt>> right = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                  left.add(numeric.known(i));
+                  right.add(numeric.input(i + 3, 1));
+                }
+                return Pair.lazy(left, right);
+              }).seq((seq, pair) -> seq.numeric().multVector(pair.getFirst(), pair.getSecond())
+              ).par((par, products) -> {
+                Numeric numeric = par.numeric();
+                List<DRes<BigInteger>> opened =
+                    products.stream().map(numeric::open).collect(Collectors.toList());
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+          List<BigInteger> output = runApplication(app);
+
+          Assert.assertThat(output.size(), Is.is(size));
+          for (int i = 0; i < size; i++) {
+            Assert.assertEquals(BigInteger.valueOf(i * (i + 3)), output.get(i));
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Test inputting a list of values from each of the first two parties using {@link
+   * Numeric#inputVector(List, int)}.
+   */
+  public static class TestInputVector<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      final int size = 100;
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                int myId = par.getBasicNumericContext().getMyId();
+                List<BigInteger> first = new ArrayList<>(size);
+                List<BigInteger> second = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                  first.add(myId == 1 ? BigInteger.valueOf(i) : null);
+                  second.add(myId == 2 ? BigInteger.valueOf(2 * i + 1) : null);
+                }
+                Numeric numeric = par.numeric();
+                return Pair.lazy(numeric.inputVector(first, 1), numeric.inputVector(second, 2));
+              }).par((par, pair) -> {
+                Numeric numeric = par.numeric();
+                List<DRes<BigInteger>> opened = new ArrayList<>(2 * size);
+                for (DRes<SInt> input : pair.getFirst().out()) {
+                  opened.add(numeric.open(input));
+                }
+                for (DRes<SInt> input : pair.getSecond().out()) {
+                  opened.add(numeric.open(input));
+                }
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+          List<BigInteger> output = runApplication(app);
+
+          Assert.assertThat(output.size(), Is.is(2 * size));
+          for (int i = 0; i < size; i++) {
+            Assert.assertEquals(BigInteger.valueOf(i), output.get(i));
+            Assert.assertEquals(BigInteger.valueOf(2 * i + 1), output.get(size + i));
+          }
+        }
+      };
+    }
+  }
+
   /**
    * Test a large amount (defined by the REPS constant) multiplication protocols in order to
    * stress-test the protocol suite.
@@ -3,6 +3,8 @@ package dk.alexandra.fresco.suite.dummy.arithmetic;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import dk.alexandra.fresco.framework.builder.numeric.field.LongFieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests.TestInputFromDifferentParties;
 import dk.alexandra.fresco.suite.dummy.arithmetic.ParallelAndSequenceTests.TestSumAndProduct;
 import dk.alexandra.fresco.logging.NetworkLoggingDecorator;
@@ -49,6 +51,22 @@ public class TestBasicArithmetic extends AbstractDummyArithmeticTest {
     runTest(new BasicArithmeticTests.TestSumAndMult<>(), new TestParameters());
   }
 
+  @Test
+  public void test_SumAndMult_LongField() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(), new TestParameters()
+        .numParties(2)
+        .field(LongFieldDefinition.find(61))
+        .maxBitLength(30));
+  }
+
+  @Test
+  public void test_Input_From_All_LongField() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), new TestParameters()
+        .numParties(3)
+        .field(LongFieldDefinition.find(61))
+        .maxBitLength(30));
+  }
+
   @Test
   public void test_MultAndAdd_Sequential() {
     runTest(new BasicArithmeticTests.TestSimpleMultAndAdd<>(), new TestParameters());
@@ -109,6 +127,44 @@ public class TestBasicArithmetic extends AbstractDummyArithmeticTest {
     runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters());
   }
 
+  @Test
+  public void test_TestMultVector() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), new TestParameters().numParties(2));
+  }
+
+  @Test
+  public void test_TestInputVector() {
+    runTest(new BasicArithmeticTests.TestInputVector<>(), new TestParameters().numParties(2));
+  }
+
+  @Test
+  public void test_TestLotsMult_ParallelBatched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void test_Input_From_All_ParallelBatched() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), new TestParameters()
+        .numParties(3)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void test_Input_From_All_PipelinedBatched() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), new TestParameters()
+        .numParties(3)
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED));
+  }
+
+  @Test
+  public void test_TestAlternatingMultAdd_PipelinedBatched() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED));
+  }
+
   @Test
   public void test_TestAlternatingMultAdd() {
     runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), new TestParameters());
@@ -4,10 +4,8 @@ import dk.alexandra.fresco.framework.ProtocolEvaluator;
 import dk.alexandra.fresco.framework.TestThreadRunner;
 import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadConfiguration;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
-import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
-import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
 import dk.alexandra.fresco.framework.network.Network;
-import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
 import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
 import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
@@ -56,21 +54,13 @@ public abstract class AbstractDummyBooleanTest {
       TestThreadRunner.TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
       EvaluationStrategy evalStrategy, boolean logPerformance, int noOfParties) {
 
-    List<Integer> ports = new ArrayList<>(noOfParties);
-    for (int i = 1; i <= noOfParties; i++) {
-      ports.add(9000 + i * (noOfParties - 1));
-    }
-
-    Map<Integer, NetworkConfiguration> netConf =
-        NetworkUtil.getNetworkConfigurations(ports);
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(noOfParties);
     Map<Integer, TestThreadConfiguration<ResourcePoolImpl, ProtocolBuilderBinary>> conf =
         new HashMap<>();
-    for (int playerId : netConf.keySet()) {
+    for (int playerId : networks.keySet()) {
       PerformanceLoggerCountingAggregate aggregate
         = new PerformanceLoggerCountingAggregate();
 
-      NetworkConfiguration partyNetConf = netConf.get(playerId);
-
       ProtocolSuiteBinary<ResourcePoolImpl> ps = new DummyBooleanProtocolSuite();
       if(logPerformance) {
         BinarySuiteLogging<ResourcePoolImpl> decoratedSuite =
@@ -98,7 +88,7 @@ public abstract class AbstractDummyBooleanTest {
           new TestThreadRunner.TestThreadConfiguration<>(sce,
               () -> new ResourcePoolImpl(playerId, noOfParties), () -> {
             Network network;
-            network = new SocketNetwork(partyNetConf);
+            network = networks.get(playerId);
             if (logPerformance) {
               network = new NetworkLoggingDecorator(network);
               aggregate.add((PerformanceLogger) network);
@@ -0,0 +1,274 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A Bristol circuit compiled by {@link BristolCircuitCompiler} into a form which can be evaluated
+ * efficiently by {@link BristolCircuitEvaluator}.
+ *
+ * <p>
+ * The gates are grouped in levels, such that the gates of a level only depend on the inputs and
+ * on gates of earlier levels, and can thus be evaluated in parallel. A level either consists of
+ * AND gates only, or of XOR and INV gates only, which are evaluated without communication.
+ * Instead of wire numbers, the gates refer to <i>slots</i>, which are reused when the wire held by
+ * a slot is no longer used, so the number of slots is the maximal number of wires alive at any
+ * time. Each gate also has flags telling which of its inputs are used for the last time, so they
+ * can be released right away.
+ * </p>
+ */
+public class BristolCircuit {
+
+  static final byte XOR = 0;
+  static final byte AND = 1;
+  static final byte INV = 2;
+  static final byte LEFT_DIES = 1;
+  static final byte RIGHT_DIES = 2;
+
+  private static final int MAGIC = 0x42726973;
+  private static final int VERSION = 2;
+
+  private final int noInput1;
+  private final int noInput2;
+  private final int noSlots;
+  private final int[] levels;
+  private final byte[] types;
+  private final byte[] flags;
+  private final int[] left;
+  private final int[] right;
+  private final int[] out;
+  private final int[] outputs;
+  private final int andDepth;
+
+  /**
+   * Creates a new compiled circuit. The inputs are placed in the first slots, first input one and
+   * then input two.
+   *
+   * @param noInput1 the number of bits in input one
+   * @param noInput2 the number of bits in input two
+   * @param noSlots the number of slots used
+   * @param levels the index of the first gate of each level, followed by the number of gates
+   * @param types the type of each gate
+   * @param flags flags telling which inputs of each gate are used for the last time
+   * @param left the slot of the left input of each gate
+   * @param right the slot of the right input of each gate, unused for {@link #INV} gates
+   * @param out the slot of the output of each gate
+   * @param outputs the slots of the outputs of the circuit
+   * @throws IllegalArgumentException if the levels, the gates or the slots are inconsistent
+   */
+  BristolCircuit(int noInput1, int noInput2, int noSlots, int[] levels, byte[] types,
+      byte[] flags, int[] left, int[] right, int[] out, int[] outputs) {
+    if (noInput1 < 0 || noInput2 < 0 || noSlots < noInput1 + noInput2) {
+      throw new IllegalArgumentException("Invalid number of inputs " + noInput1 + " and "
+          + noInput2 + " for " + noSlots + " slots");
+    }
+    int noGates = types.length;
+    if (flags.length != noGates || left.length != noGates || right.length != noGates
+        || out.length != noGates) {
+      throw new IllegalArgumentException("Inconsistent number of gates");
+    }
+    if (levels.length == 0 || levels[0] != 0 || levels[levels.length - 1] != noGates) {
+      throw new IllegalArgumentException("Levels must cover the " + noGates + " gates");
+    }
+    int depth = 0;
+    for (int level = 0; level < levels.length - 1; level++) {
+      if (levels[level] > levels[level + 1]) {
+        throw new IllegalArgumentException("Level " + level + " ends before it starts");
+      }
+      boolean hasAnd = false;
+      for (int gate = levels[level]; gate < levels[level + 1]; gate++) {
+        if (types[gate] != XOR && types[gate] != AND && types[gate] != INV) {
+          throw new IllegalArgumentException("Unknown type " + types[gate] + " of gate " + gate);
+        }
+        if ((flags[gate] & ~(LEFT_DIES | RIGHT_DIES)) != 0) {
+          throw new IllegalArgumentException("Unknown flags " + flags[gate] + " of gate " + gate);
+        }
+        checkSlot(left[gate], noSlots);
+        if (types[gate] != INV) {
+          checkSlot(right[gate], noSlots);
+        }
+        checkSlot(out[gate], noSlots);
+        hasAnd |= types[gate] == AND;
+      }
+      if (hasAnd) {
+        depth++;
+      }
+    }
+    for (int output : outputs) {
+      checkSlot(output, noSlots);
+    }
+    this.noInput1 = noInput1;
+    this.noInput2 = noInput2;
+    this.noSlots = noSlots;
+    this.levels = levels;
+    this.types = types;
+    this.flags = flags;
+    this.left = left;
+    this.right = right;
+    this.out = out;
+    this.outputs = outputs;
+    this.andDepth = depth;
+  }
+
+  private static void checkSlot(int slot, int noSlots) {
+    if (slot < 0 || slot >= noSlots) {
+      throw new IllegalArgumentException("Slot " + slot + " is out of range");
+    }
+  }
+
+  public int getNoInput1() {
+    return noInput1;
+  }
+
+  public int getNoInput2() {
+    return noInput2;
+  }
+
+  public int getNoOutput() {
+    return outputs.length;
+  }
+
+  public int getNoGates() {
+    return types.length;
+  }
+
+  /**
+   * Returns the number of levels, i.e., the number of batches needed to evaluate the circuit.
+   */
+  public int getNoLevels() {
+    return levels.length - 1;
+  }
+
+  /**
+   * Returns the number of levels with AND gates, i.e., the AND-depth of the circuit and the number
+   * of batches in which the evaluation communicates.
+   */
+  public int getAndDepth() {
+    return andDepth;
+  }
+
+  /**
+   * Returns the maximal number of wires alive at the same time during an evaluation.
+   */
+  public int getNoSlots() {
+    return noSlots;
+  }
+
+  int getLevelStart(int level) {
+    return levels[level];
+  }
+
+  int getLevelEnd(int level) {
+    return levels[level + 1];
+  }
+
+  byte getType(int gate) {
+    return types[gate];
+  }
+
+  byte getFlags(int gate) {
+    return flags[gate];
+  }
+
+  int getLeft(int gate) {
+    return left[gate];
+  }
+
+  int getRight(int gate) {
+    return right[gate];
+  }
+
+  int getOut(int gate) {
+    return out[gate];
+  }
+
+  int getOutput(int i) {
+    return outputs[i];
+  }
+
+  /**
+   * Writes this circuit in a binary format which can be read by {@link #read(InputStream)}.
+   *
+   * @param stream the stream to write to
+   */
+  public void write(OutputStream stream) throws IOException {
+    DataOutputStream data = new DataOutputStream(stream);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(noInput1);
+    data.writeInt(noInput2);
+    data.writeInt(noSlots);
+    data.writeInt(outputs.length);
+    data.writeInt(types.length);
+    data.writeInt(levels.length);
+    for (int level : levels) {
+      data.writeInt(level);
+    }
+    data.write(types);
+    data.write(flags);
+    for (int i = 0; i < types.length; i++) {
+      data.writeInt(left[i]);
+      data.writeInt(right[i]);
+      data.writeInt(out[i]);
+    }
+    for (int output : outputs) {
+      data.writeInt(output);
+    }
+    data.flush();
+  }
+
+  /**
+   * Reads a circuit written by {@link #write(OutputStream)}.
+   *
+   * @param stream the stream to read from
+   * @return the circuit
+   * @throws IllegalArgumentException if the stream does not hold a valid compiled circuit
+   */
+  public static BristolCircuit read(InputStream stream) throws IOException {
+    DataInputStream data = new DataInputStream(stream);
+    if (data.readInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a compiled Bristol circuit");
+    }
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported compiled circuit version " + version);
+    }
+    int noInput1 = data.readInt();
+    int noInput2 = data.readInt();
+    int noSlots = data.readInt();
+    int[] outputs = new int[checkLength(data.readInt())];
+    int noGates = checkLength(data.readInt());
+    int[] levels = new int[checkLength(data.readInt())];
+    for (int i = 0; i < levels.length; i++) {
+      levels[i] = data.readInt();
+    }
+    byte[] types = new byte[noGates];
+    data.readFully(types);
+    byte[] flags = new byte[noGates];
+    data.readFully(flags);
+    int[] left = new int[noGates];
+    int[] right = new int[noGates];
+    int[] out = new int[noGates];
+    for (int i = 0; i < noGates; i++) {
+      left[i] = data.readInt();
+      right[i] = data.readInt();
+      out[i] = data.readInt();
+    }
+    for (int i = 0; i < outputs.length; i++) {
+      outputs[i] = data.readInt();
+    }
+    return new BristolCircuit(noInput1, noInput2, noSlots, levels, types, flags, left, right, out,
+        outputs);
+  }
+
+  private static int checkLength(int length) {
+    if (length < 0) {
+      throw new IllegalArgumentException("Invalid length " + length);
+    }
+    return length;
+  }
+
+}
@@ -0,0 +1,165 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads compiled Bristol circuits from the class path.
+ *
+ * <p>
+ * A circuit is compiled the first time it is loaded, and kept in memory for the lifetime of the
+ * JVM. If the system property {@value #CACHE_PROPERTY} names a directory, the compiled circuit is
+ * also written to that directory, so later runs can read it without compiling it again. The disk
+ * cache is disabled by default, and the directory should only be writable by the user running the
+ * computation. A cached circuit is named by the SHA-256 digest of its description, which is also
+ * stored in the cached file and checked when it is read, so a circuit is compiled again if the
+ * description changes or the cached file does not match it.
+ * </p>
+ */
+public final class BristolCircuitCache {
+
+  /**
+   * The system property giving the directory in which compiled circuits are cached.
+   */
+  public static final String CACHE_PROPERTY = "fresco.bristol.cache";
+
+  private static final Logger logger = LoggerFactory.getLogger(BristolCircuitCache.class);
+  private static final Map<String, BristolCircuit> circuits = new ConcurrentHashMap<>();
+
+  private BristolCircuitCache() {
+    // Should not be instantiated
+  }
+
+  /**
+   * Loads the compiled circuit with a description at the given path on the class path.
+   *
+   * @param path the path of the circuit description
+   * @return the compiled circuit
+   */
+  public static BristolCircuit load(String path) {
+    return circuits.computeIfAbsent(path, BristolCircuitCache::loadCircuit);
+  }
+
+  static BristolCircuit loadCircuit(String path) {
+    byte[] description;
+    try (InputStream in = BristolCircuitCache.class.getClassLoader().getResourceAsStream(path)) {
+      if (in == null) {
+        throw new IllegalArgumentException("Couldn't find bristol circuit descritpion at " + path);
+      }
+      description = readAll(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to load bristol circuit " + path, e);
+    }
+    byte[] digest = digest(description);
+    Path cached = cacheFile(digest);
+    if (cached != null && Files.isRegularFile(cached)) {
+      try (DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(cached)))) {
+        byte[] stored = new byte[digest.length];
+        in.readFully(stored);
+        if (MessageDigest.isEqual(digest, stored)) {
+          return BristolCircuit.read(in);
+        }
+        logger.warn("Cached circuit " + cached + " does not match " + path
+            + ", compiling it again");
+      } catch (IOException | IllegalArgumentException e) {
+        logger.warn("Unable to read cached circuit " + cached + ", compiling it again", e);
+      }
+    }
+    BristolCircuit circuit;
+    try (Stream<String> lines = new BufferedReader(new InputStreamReader(
+        new ByteArrayInputStream(description), StandardCharsets.UTF_8)).lines()) {
+      circuit = BristolCircuitCompiler.compile(lines);
+    }
+    if (cached != null) {
+      store(circuit, digest, cached);
+    }
+    return circuit;
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      bytes.write(buffer, 0, read);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] digest(byte[] description) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(description);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static Path cacheFile(byte[] digest) {
+    String directory = System.getProperty(CACHE_PROPERTY, "");
+    if (directory.isEmpty()) {
+      return null;
+    }
+    StringBuilder name = new StringBuilder();
+    for (byte b : digest) {
+      name.append(String.format("%02x", b));
+    }
+    return Paths.get(directory, name.append(".bin").toString());
+  }
+
+  private static void store(BristolCircuit circuit, byte[] digest, Path cached) {
+    // Write to a temporary file first, so other processes never read a partially written circuit
+    try {
+      createDirectory(cached.getParent());
+      Path temporary = Files.createTempFile(cached.getParent(), "circuit", ".tmp");
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+        out.write(digest);
+        circuit.write(out);
+      }
+      try {
+        Files.move(temporary, cached, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, cached, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      logger.warn("Unable to cache compiled circuit at " + cached, e);
+    }
+  }
+
+  private static void createDirectory(Path directory) throws IOException {
+    if (Files.isDirectory(directory)) {
+      return;
+    }
+    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      Files.createDirectories(directory,
+          PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+    } else {
+      Files.createDirectories(directory);
+    }
+  }
+
+}
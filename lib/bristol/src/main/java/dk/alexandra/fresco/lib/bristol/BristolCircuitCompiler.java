@@ -0,0 +1,236 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Compiles a textual circuit description in "Bristol" format, see
+ * https://www.cs.bris.ac.uk/Research/CryptographySecurity/MPC/, into a {@link BristolCircuit}.
+ *
+ * <p>
+ * The compilation does the work which {@link BristolCircuitParser} does on every evaluation once
+ * and for all: the text is parsed and validated, the gates are sorted into levels such that each
+ * level can be evaluated in one batch, and the last use of each wire is computed, so the wires can
+ * be mapped to a small number of reusable slots.
+ * </p>
+ *
+ * <p>
+ * Only AND gates require communication, so the levels follow the AND-depth of the circuit rather
+ * than its total depth: all AND gates at the same AND-depth are put in a single level, and the XOR
+ * and INV gates in between are put in levels of their own, which are evaluated locally without
+ * sending anything. The number of levels with AND gates, and thus of communication rounds, is the
+ * AND-depth of the circuit.
+ * </p>
+ */
+public final class BristolCircuitCompiler {
+
+  private BristolCircuitCompiler() {
+    // Should not be instantiated
+  }
+
+  /**
+   * Compiles a circuit.
+   *
+   * @param lines the lines of the circuit description
+   * @return the compiled circuit
+   */
+  public static BristolCircuit compile(Stream<String> lines) {
+    Iterator<String> linesIter = lines.iterator();
+    // The first two lines are meta data, and the third line is always empty
+    String[] meta = tokens(linesIter.next());
+    int noGates = Integer.parseInt(meta[0]);
+    int noWires = Integer.parseInt(meta[1]);
+    meta = tokens(linesIter.next());
+    int noInput1 = Integer.parseInt(meta[0]);
+    int noInput2 = Integer.parseInt(meta[1]);
+    int noOutput = Integer.parseInt(meta[2]);
+
+    byte[] types = new byte[noGates];
+    int[] inLeft = new int[noGates];
+    int[] inRight = new int[noGates];
+    int[] outWire = new int[noGates];
+    // The AND-depth of each gate and of the gate computing each wire, or -1 for wires not computed
+    // yet, and for XOR and INV gates the length of the longest chain of such gates since the last
+    // AND gate, such that they can be evaluated locally in that many levels
+    int[] gateAndDepth = new int[noGates];
+    int[] gateFreeDepth = new int[noGates];
+    int[] wireAndDepth = new int[noWires];
+    int[] wireFreeDepth = new int[noWires];
+    Arrays.fill(wireAndDepth, -1);
+    Arrays.fill(wireAndDepth, 0, noInput1 + noInput2, 0);
+    int gates = 0;
+    int andDepth = 0;
+    while (linesIter.hasNext()) {
+      String line = linesIter.next().trim();
+      if (line.isEmpty()) {
+        continue;
+      }
+      if (gates == noGates) {
+        throw new IllegalArgumentException("Circuit has more than " + noGates + " gates");
+      }
+      String[] tokens = tokens(line);
+      int noIn = Integer.parseInt(tokens[0]);
+      int noOut = Integer.parseInt(tokens[1]);
+      String type = tokens[2 + noIn + noOut];
+      int arity;
+      if ("XOR".equals(type)) {
+        types[gates] = BristolCircuit.XOR;
+        arity = 2;
+      } else if ("AND".equals(type)) {
+        types[gates] = BristolCircuit.AND;
+        arity = 2;
+      } else if ("INV".equals(type)) {
+        types[gates] = BristolCircuit.INV;
+        arity = 1;
+      } else {
+        throw new IllegalArgumentException("Unknown gate type: " + type);
+      }
+      if (noIn != arity || noOut != 1) {
+        throw new IllegalArgumentException("Wrong circuit format for " + type);
+      }
+      int depth = 0;
+      int freeDepth = 0;
+      for (int i = 0; i < arity; i++) {
+        int wire = wire(tokens[2 + i], noWires);
+        if (wireAndDepth[wire] < 0) {
+          throw new IllegalArgumentException(type + " input wire " + wire + " was not set");
+        }
+        if (wireAndDepth[wire] > depth) {
+          depth = wireAndDepth[wire];
+          freeDepth = wireFreeDepth[wire];
+        } else if (wireAndDepth[wire] == depth) {
+          freeDepth = Math.max(freeDepth, wireFreeDepth[wire]);
+        }
+      }
+      if (types[gates] == BristolCircuit.AND) {
+        depth++;
+        freeDepth = 0;
+      } else {
+        freeDepth++;
+      }
+      inLeft[gates] = wire(tokens[2], noWires);
+      inRight[gates] = arity == 2 ? wire(tokens[3], noWires) : 0;
+      outWire[gates] = wire(tokens[2 + noIn], noWires);
+      wireAndDepth[outWire[gates]] = depth;
+      wireFreeDepth[outWire[gates]] = freeDepth;
+      gateAndDepth[gates] = depth;
+      gateFreeDepth[gates] = freeDepth;
+      andDepth = Math.max(andDepth, depth);
+      gates++;
+    }
+    for (int i = noWires - noOutput; i < noWires; i++) {
+      if (wireAndDepth[i] < 0) {
+        throw new IllegalArgumentException("Output wire " + i + " was not set");
+      }
+    }
+
+    // The local levels of the XOR and INV gates at AND-depth d come right after the level of the
+    // AND gates at AND-depth d, so first find the number of local levels at each AND-depth
+    int[] localLevels = new int[andDepth + 1];
+    for (int i = 0; i < gates; i++) {
+      localLevels[gateAndDepth[i]] = Math.max(localLevels[gateAndDepth[i]], gateFreeDepth[i]);
+    }
+    int[] firstLevel = new int[andDepth + 1];
+    for (int depth = 1; depth <= andDepth; depth++) {
+      firstLevel[depth] = firstLevel[depth - 1] + localLevels[depth - 1] + 1;
+    }
+    int maxLevel = firstLevel[andDepth] + localLevels[andDepth];
+    // Levels are numbered from one, level zero holding the inputs
+    int[] gateLevel = new int[gates];
+    for (int i = 0; i < gates; i++) {
+      gateLevel[i] = types[i] == BristolCircuit.AND
+          ? firstLevel[gateAndDepth[i]]
+          : firstLevel[gateAndDepth[i]] + gateFreeDepth[i];
+    }
+
+    // Sort the gates by level, keeping the order of the description within each level
+    int[] levels = new int[maxLevel + 1];
+    for (int i = 0; i < gates; i++) {
+      levels[gateLevel[i]]++;
+    }
+    for (int level = 1, start = 0; level <= maxLevel; level++) {
+      int count = levels[level];
+      levels[level - 1] = start;
+      start += count;
+    }
+    levels[maxLevel] = gates;
+    int[] order = new int[gates];
+    int[] next = Arrays.copyOf(levels, maxLevel);
+    for (int i = 0; i < gates; i++) {
+      order[next[gateLevel[i] - 1]++] = i;
+    }
+
+    // The last gate using each wire, where outputs are used after all gates
+    int[] lastUse = new int[noWires];
+    Arrays.fill(lastUse, -1);
+    for (int g = 0; g < gates; g++) {
+      int gate = order[g];
+      lastUse[inLeft[gate]] = g;
+      if (types[gate] != BristolCircuit.INV) {
+        lastUse[inRight[gate]] = g;
+      }
+    }
+    for (int i = noWires - noOutput; i < noWires; i++) {
+      lastUse[i] = Integer.MAX_VALUE;
+    }
+
+    // Map the wires to slots, reusing the slots of wires which are no longer used
+    int[] wireSlot = new int[noWires];
+    int[] freeSlots = new int[noWires];
+    int noFree = 0;
+    int noSlots = noInput1 + noInput2;
+    for (int i = 0; i < noInput1 + noInput2; i++) {
+      wireSlot[i] = i;
+      if (lastUse[i] < 0) {
+        freeSlots[noFree++] = i;
+      }
+    }
+    byte[] sortedTypes = new byte[gates];
+    byte[] flags = new byte[gates];
+    int[] left = new int[gates];
+    int[] right = new int[gates];
+    int[] out = new int[gates];
+    for (int g = 0; g < gates; g++) {
+      int gate = order[g];
+      sortedTypes[g] = types[gate];
+      left[g] = wireSlot[inLeft[gate]];
+      if (lastUse[inLeft[gate]] == g) {
+        flags[g] |= BristolCircuit.LEFT_DIES;
+        freeSlots[noFree++] = left[g];
+      }
+      if (types[gate] != BristolCircuit.INV) {
+        right[g] = wireSlot[inRight[gate]];
+        if (lastUse[inRight[gate]] == g && inRight[gate] != inLeft[gate]) {
+          flags[g] |= BristolCircuit.RIGHT_DIES;
+          freeSlots[noFree++] = right[g];
+        }
+      }
+      // The inputs are read before the output is stored, so the output may reuse their slots
+      out[g] = noFree > 0 ? freeSlots[--noFree] : noSlots++;
+      wireSlot[outWire[gate]] = out[g];
+      if (lastUse[outWire[gate]] < 0) {
+        freeSlots[noFree++] = out[g];
+      }
+    }
+    int[] outputs = new int[noOutput];
+    for (int i = 0; i < noOutput; i++) {
+      outputs[i] = wireSlot[noWires - noOutput + i];
+    }
+    return new BristolCircuit(noInput1, noInput2, noSlots, levels, sortedTypes, flags, left, right,
+        out, outputs);
+  }
+
+  private static String[] tokens(String line) {
+    return line.trim().split("\\s+");
+  }
+
+  private static int wire(String token, int noWires) {
+    int wire = Integer.parseInt(token);
+    if (wire < 0 || wire >= noWires) {
+      throw new IllegalArgumentException("Wire " + wire + " is out of range");
+    }
+    return wire;
+  }
+
+}
@@ -0,0 +1,110 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.binary.Binary;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.value.SBool;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates a {@link BristolCircuit}.
+ *
+ * <p>
+ * Each level of the circuit is evaluated in a single parallel scope, so all gates of a level are
+ * evaluated in the same batch. As the levels follow the AND-depth of the circuit, only the batches
+ * of the levels with AND gates communicate. The wires are kept in an array indexed by the slots of
+ * the compiled circuit, and inputs used for the last time are released as soon as the gate using
+ * them has been built, so only the wires which are still needed are kept alive.
+ * </p>
+ */
+public class BristolCircuitEvaluator implements Computation<List<SBool>, ProtocolBuilderBinary> {
+
+  private final BristolCircuit circuit;
+  private final List<DRes<SBool>> in1;
+  private final List<DRes<SBool>> in2;
+
+  /**
+   * Creates a new evaluator of a circuit.
+   *
+   * @param circuit the circuit to evaluate
+   * @param in1 the first input, which must contain at least as many bits as the circuit expects
+   * @param in2 the second input, which must contain at least as many bits as the circuit expects
+   */
+  public BristolCircuitEvaluator(BristolCircuit circuit, List<DRes<SBool>> in1,
+      List<DRes<SBool>> in2) {
+    if (in1.size() < circuit.getNoInput1() || in2.size() < circuit.getNoInput2()) {
+      throw new IllegalArgumentException("Circuit expects inputs of " + circuit.getNoInput1()
+          + " and " + circuit.getNoInput2() + " bits, but got " + in1.size() + " and "
+          + in2.size() + " bits");
+    }
+    this.circuit = circuit;
+    this.in1 = in1;
+    this.in2 = in2;
+  }
+
+  @Override
+  public DRes<List<SBool>> buildComputation(ProtocolBuilderBinary builder) {
+    @SuppressWarnings("unchecked")
+    DRes<SBool>[] slots = new DRes[circuit.getNoSlots()];
+    for (int i = 0; i < circuit.getNoInput1(); i++) {
+      slots[i] = in1.get(i);
+    }
+    for (int i = 0; i < circuit.getNoInput2(); i++) {
+      slots[circuit.getNoInput1() + i] = in2.get(i);
+    }
+    return builder.seq(seq -> new LevelState(0))
+        .whileLoop(state -> state.level < circuit.getNoLevels(), (seq, state) -> seq.par(par -> {
+          evaluateLevel(par.binary(), slots, state.level);
+          return new LevelState(state.level + 1);
+        })).seq((seq, state) -> {
+          List<SBool> output = new ArrayList<>(circuit.getNoOutput());
+          for (int i = 0; i < circuit.getNoOutput(); i++) {
+            output.add(slots[circuit.getOutput(i)].out());
+          }
+          return () -> output;
+        });
+  }
+
+  private void evaluateLevel(Binary binary, DRes<SBool>[] slots, int level) {
+    for (int gate = circuit.getLevelStart(level); gate < circuit.getLevelEnd(level); gate++) {
+      DRes<SBool> left = slots[circuit.getLeft(gate)];
+      byte type = circuit.getType(gate);
+      DRes<SBool> result;
+      if (type == BristolCircuit.INV) {
+        result = binary.not(left);
+      } else {
+        DRes<SBool> right = slots[circuit.getRight(gate)];
+        if (type == BristolCircuit.XOR) {
+          result = binary.xor(left, right);
+        } else {
+          result = binary.and(left, right);
+        }
+      }
+      byte flags = circuit.getFlags(gate);
+      if ((flags & BristolCircuit.LEFT_DIES) != 0) {
+        slots[circuit.getLeft(gate)] = null;
+      }
+      if ((flags & BristolCircuit.RIGHT_DIES) != 0) {
+        slots[circuit.getRight(gate)] = null;
+      }
+      slots[circuit.getOut(gate)] = result;
+    }
+  }
+
+  private static final class LevelState implements DRes<LevelState> {
+
+    private final int level;
+
+    private LevelState(int level) {
+      this.level = level;
+    }
+
+    @Override
+    public LevelState out() {
+      return this;
+    }
+  }
+
+}
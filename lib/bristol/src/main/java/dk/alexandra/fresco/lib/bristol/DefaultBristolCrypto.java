@@ -6,6 +6,11 @@ import dk.alexandra.fresco.framework.value.SBool;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Default implementation of {@link BristolCrypto}, evaluating the circuits compiled from the
+ * descriptions by the university of Bristol. Each circuit is compiled once and then cached, see
+ * {@link BristolCircuitCache}.
+ */
 public class DefaultBristolCrypto implements BristolCrypto {
 
   private ProtocolBuilderBinary builder;
@@ -17,52 +22,45 @@ public class DefaultBristolCrypto implements BristolCrypto {
   @Override
   public DRes<List<SBool>> mult32x32(List<DRes<SBool>> in1,
       List<DRes<SBool>> in2) {
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/mult_32x32.txt", in1, in2);
-    return builder.seq(parser);
+    return evaluate("circuits/mult_32x32.txt", in1, in2);
   }
 
   @Override
   public DRes<List<SBool>> AES(List<DRes<SBool>> plainText,
       List<DRes<SBool>> keyMaterial) {
-    BristolCircuitParser parser = BristolCircuitParser
-        .readCircuitDescription("circuits/AES-non-expanded.txt", plainText, keyMaterial);
-    return builder.seq(parser);
+    return evaluate("circuits/AES-non-expanded.txt", plainText, keyMaterial);
   }
 
   @Override
   public DRes<List<SBool>> SHA1(List<DRes<SBool>> input) {
-    // empty list since the parser will only use input1 as inputs.
+    // empty list since the circuit will only use input1 as inputs.
     List<DRes<SBool>> in2 = new ArrayList<>();
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/sha-1.txt", input, in2);
-    return builder.seq(parser);
+    return evaluate("circuits/sha-1.txt", input, in2);
   }
 
   @Override
   public DRes<List<SBool>> DES(List<DRes<SBool>> plainText,
       List<DRes<SBool>> keyMaterial) {
-    BristolCircuitParser parser = BristolCircuitParser
-        .readCircuitDescription("circuits/DES-non-expanded.txt", plainText, keyMaterial);
-    return builder.seq(parser);
+    return evaluate("circuits/DES-non-expanded.txt", plainText, keyMaterial);
   }
 
   @Override
   public DRes<List<SBool>> SHA256(List<DRes<SBool>> input) {
-    // empty list since the parser will only use input1 as inputs.
+    // empty list since the circuit will only use input1 as inputs.
     List<DRes<SBool>> in2 = new ArrayList<>();
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/sha-256.txt", input, in2);
-    return builder.seq(parser);
+    return evaluate("circuits/sha-256.txt", input, in2);
   }
 
   @Override
   public DRes<List<SBool>> MD5(List<DRes<SBool>> input) {
-    // empty list since the parser will only use input1 as inputs.
+    // empty list since the circuit will only use input1 as inputs.
     List<DRes<SBool>> in2 = new ArrayList<>();
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/md5.txt", input, in2);
-    return builder.seq(parser);
+    return evaluate("circuits/md5.txt", input, in2);
+  }
+
+  private DRes<List<SBool>> evaluate(String path, List<DRes<SBool>> in1,
+      List<DRes<SBool>> in2) {
+    return builder.seq(new BristolCircuitEvaluator(BristolCircuitCache.load(path), in1, in2));
   }
 
 }
@@ -0,0 +1,222 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestBristolCircuitCompiler {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testLevels() {
+    // Wire 2 = 0 XOR 1 and wire 3 = NOT 0 are independent, wire 4 = 2 AND 3 depends on both
+    BristolCircuit circuit = BristolCircuitCompiler.compile(Stream.of(
+        "3 5", "2 0 1", "", "2 1 0 1 2 XOR", "1 1 0 3 INV", "2 1 2 3 4 AND"));
+    assertEquals(3, circuit.getNoGates());
+    assertEquals(2, circuit.getNoLevels());
+    assertEquals(1, circuit.getAndDepth());
+    assertEquals(2, circuit.getLevelEnd(0) - circuit.getLevelStart(0));
+    assertEquals(1, circuit.getLevelEnd(1) - circuit.getLevelStart(1));
+    assertEquals(BristolCircuit.XOR, circuit.getType(0));
+    assertEquals(BristolCircuit.INV, circuit.getType(1));
+    assertEquals(BristolCircuit.AND, circuit.getType(2));
+    // Both inputs die in the first level, so their slots are reused
+    assertEquals(2, circuit.getNoSlots());
+    assertEquals(circuit.getOut(2), circuit.getOutput(0));
+  }
+
+  @Test
+  public void testLevelsFollowAndDepth() {
+    // Wire 6 = 0 XOR 1 needs no AND gate, wires 3 and 4 are a chain of XORs between two ANDs
+    BristolCircuit circuit = BristolCircuitCompiler.compile(Stream.of(
+        "5 7", "2 0 1", "", "2 1 0 1 2 AND", "2 1 2 0 3 XOR", "2 1 3 1 4 XOR", "2 1 4 0 5 AND",
+        "2 1 0 1 6 XOR"));
+    assertEquals(2, circuit.getAndDepth());
+    assertEquals(5, circuit.getNoLevels());
+    byte[] expected = {BristolCircuit.XOR, BristolCircuit.AND, BristolCircuit.XOR,
+        BristolCircuit.XOR, BristolCircuit.AND};
+    for (int level = 0; level < expected.length; level++) {
+      assertEquals(1, circuit.getLevelEnd(level) - circuit.getLevelStart(level));
+      assertEquals(expected[level], circuit.getType(circuit.getLevelStart(level)));
+    }
+  }
+
+  @Test
+  public void testAesAndDepth() throws IOException {
+    BristolCircuit circuit = compileResource("circuits/AES-non-expanded.txt");
+    assertEquals(40, circuit.getAndDepth());
+    for (int level = 0; level < circuit.getNoLevels(); level++) {
+      boolean and = circuit.getType(circuit.getLevelStart(level)) == BristolCircuit.AND;
+      for (int gate = circuit.getLevelStart(level); gate < circuit.getLevelEnd(level); gate++) {
+        assertEquals(and, circuit.getType(gate) == BristolCircuit.AND);
+      }
+    }
+  }
+
+  @Test
+  public void testSlotsReused() throws IOException {
+    BristolCircuit circuit = compileResource("circuits/AES-non-expanded.txt");
+    assertEquals(33616, circuit.getNoGates());
+    assertEquals(128, circuit.getNoOutput());
+    assertTrue(circuit.getNoSlots() < 33872 / 4);
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    BristolCircuit circuit = compileResource("circuits/mult_32x32.txt");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    circuit.write(bytes);
+    BristolCircuit read = BristolCircuit.read(new ByteArrayInputStream(bytes.toByteArray()));
+    assertEquals(circuit.getNoInput1(), read.getNoInput1());
+    assertEquals(circuit.getNoInput2(), read.getNoInput2());
+    assertEquals(circuit.getNoSlots(), read.getNoSlots());
+    assertEquals(circuit.getNoLevels(), read.getNoLevels());
+    assertEquals(circuit.getAndDepth(), read.getAndDepth());
+    assertEquals(circuit.getNoOutput(), read.getNoOutput());
+    for (int level = 0; level < circuit.getNoLevels(); level++) {
+      assertEquals(circuit.getLevelStart(level), read.getLevelStart(level));
+    }
+    for (int gate = 0; gate < circuit.getNoGates(); gate++) {
+      assertEquals(circuit.getType(gate), read.getType(gate));
+      assertEquals(circuit.getFlags(gate), read.getFlags(gate));
+      assertEquals(circuit.getLeft(gate), read.getLeft(gate));
+      assertEquals(circuit.getRight(gate), read.getRight(gate));
+      assertEquals(circuit.getOut(gate), read.getOut(gate));
+    }
+    for (int i = 0; i < circuit.getNoOutput(); i++) {
+      assertEquals(circuit.getOutput(i), read.getOutput(i));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReadNotCompiled() throws IOException {
+    BristolCircuit.read(new ByteArrayInputStream(new byte[16]));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReadSlotOutOfRange() throws IOException {
+    BristolCircuit circuit = BristolCircuitCompiler.compile(Stream.of(
+        "1 3", "1 1 1", "", "2 1 0 1 2 XOR"));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    circuit.write(bytes);
+    byte[] data = bytes.toByteArray();
+    // The last int is the slot of the output
+    data[data.length - 1] = 42;
+    BristolCircuit.read(new ByteArrayInputStream(data));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLevelsNotCoveringGates() {
+    new BristolCircuit(1, 1, 3, new int[] {0, 2}, new byte[] {BristolCircuit.XOR},
+        new byte[1], new int[] {0}, new int[] {1}, new int[] {2}, new int[] {2});
+  }
+
+  @Test
+  public void testCacheWritesToDisk() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    String previous = System.setProperty(BristolCircuitCache.CACHE_PROPERTY, directory.toString());
+    try {
+      BristolCircuit circuit = BristolCircuitCache.load("circuits/AND.txt");
+      assertSame(circuit, BristolCircuitCache.load("circuits/AND.txt"));
+      BristolCircuitCache.loadCircuit("circuits/AND.txt");
+      try (Stream<Path> files = Files.list(directory)) {
+        assertEquals(1, files.filter(p -> p.toString().endsWith(".bin")).count());
+      }
+    } finally {
+      restoreCacheProperty(previous);
+    }
+  }
+
+  @Test
+  public void testCacheIgnoresMismatchingFile() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    String previous = System.setProperty(BristolCircuitCache.CACHE_PROPERTY, directory.toString());
+    try {
+      BristolCircuit circuit = BristolCircuitCache.loadCircuit("circuits/XOR.txt");
+      Path cached;
+      try (Stream<Path> files = Files.list(directory)) {
+        cached = files.filter(p -> p.toString().endsWith(".bin")).findFirst().get();
+      }
+      byte[] valid = Files.readAllBytes(cached);
+      // A cached file with another digest is compiled again and replaced
+      byte[] tampered = valid.clone();
+      tampered[0] ^= 1;
+      Files.write(cached, tampered);
+      assertEquals(circuit.getNoGates(), BristolCircuitCache.loadCircuit("circuits/XOR.txt")
+          .getNoGates());
+      assertArrayEquals(valid, Files.readAllBytes(cached));
+      // A cached file with the right digest but an invalid circuit is also compiled again
+      tampered = valid.clone();
+      tampered[tampered.length - 1] = 42;
+      Files.write(cached, tampered);
+      assertEquals(circuit.getNoGates(), BristolCircuitCache.loadCircuit("circuits/XOR.txt")
+          .getNoGates());
+      assertArrayEquals(valid, Files.readAllBytes(cached));
+    } finally {
+      restoreCacheProperty(previous);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCacheNoSuchCircuit() {
+    BristolCircuitCache.load("circuits/no-such-circuit.txt");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidXor() throws IOException {
+    compileResource("circuits/invalid-XOR.txt");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidAnd() throws IOException {
+    compileResource("circuits/invalid-AND2.txt");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidInv() throws IOException {
+    compileResource("circuits/invalid-INV3.txt");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInputNotSet() {
+    BristolCircuitCompiler.compile(Stream.of("1 4", "1 1 1", "", "2 1 0 2 3 XOR"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownGate() {
+    BristolCircuitCompiler.compile(Stream.of("1 3", "1 1 1", "", "2 1 0 1 2 NAND"));
+  }
+
+  private static void restoreCacheProperty(String previous) {
+    if (previous == null) {
+      System.clearProperty(BristolCircuitCache.CACHE_PROPERTY);
+    } else {
+      System.setProperty(BristolCircuitCache.CACHE_PROPERTY, previous);
+    }
+  }
+
+  private static BristolCircuit compileResource(String path) throws IOException {
+    try (InputStream in = TestBristolCircuitCompiler.class.getClassLoader()
+        .getResourceAsStream(path)) {
+      return BristolCircuitCompiler.compile(
+          new BufferedReader(new InputStreamReader(in)).lines());
+    }
+  }
+
+}
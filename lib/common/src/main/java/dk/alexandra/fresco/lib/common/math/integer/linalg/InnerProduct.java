@@ -2,7 +2,6 @@ package dk.alexandra.fresco.lib.common.math.integer.linalg;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
-import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
@@ -37,16 +36,7 @@ public class InnerProduct implements Computation<SInt, ProtocolBuilderNumeric> {
   @Override
   public DRes<SInt> buildComputation(ProtocolBuilderNumeric builder) {
     return builder
-        .par(parallel -> {
-          List<DRes<SInt>> products = new ArrayList<>(vectorA.size());
-          Numeric numericBuilder = parallel.numeric();
-          for (int i = 0; i < vectorA.size(); i++) {
-            DRes<SInt> nextA = vectorA.get(i);
-            DRes<SInt> nextB = vectorB.get(i);
-            products.add(numericBuilder.mult(nextA, nextB));
-          }
-          return () -> products;
-        })
+        .par(parallel -> parallel.numeric().multVector(vectorA, vectorB))
         .seq((seq, list) -> AdvancedNumeric.using(seq).sum(list)
         );
   }
@@ -10,9 +10,11 @@ import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzInputProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzInputVectorProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzKnownSIntProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocolKnownLeft;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMultVectorProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputSingleProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputToAllProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzRandomProtocol;
@@ -20,6 +22,7 @@ import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownRight;
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Basic native builder for the SPDZ protocol suite.
@@ -93,6 +96,11 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
         return protocolBuilder.append(spdzMultProtocol4);
       }
 
+      @Override
+      public DRes<List<DRes<SInt>>> multVector(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+        return protocolBuilder.append(new SpdzMultVectorProtocol(a, b));
+      }
+
       @Override
       public DRes<SInt> randomBit() {
         return protocolBuilder.append(new SpdzRandomBitProtocol());
@@ -114,6 +122,11 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
         return protocolBuilder.append(protocol);
       }
 
+      @Override
+      public DRes<List<DRes<SInt>>> inputVector(List<BigInteger> values, int inputParty) {
+        return protocolBuilder.append(new SpdzInputVectorProtocol(values, inputParty));
+      }
+
       @Override
       public DRes<BigInteger> open(DRes<SInt> secretShare) {
         SpdzOutputToAllProtocol openProtocol = new SpdzOutputToAllProtocol(secretShare);
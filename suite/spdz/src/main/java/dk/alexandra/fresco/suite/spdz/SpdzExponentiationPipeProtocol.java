@@ -16,9 +16,16 @@ public class SpdzExponentiationPipeProtocol extends SpdzNativeProtocol<List<DRes
     this.pipeLength = pipeLength;
   }
 
+  private SInt[] pipe;
+
+  @Override
+  protected void takeResources(int round, SpdzResourcePool resourcePool) {
+    this.pipe = resourcePool.getDataSupplier().getNextExpPipe();
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool resourcePool, Network network) {
-    SInt[] pipe = resourcePool.getDataSupplier().getNextExpPipe();
+    prepareRound(round, resourcePool);
     if (pipe.length < pipeLength + 1) {
       throw new IllegalStateException(
           "Preprocessed exponentiation pipe is not long enough."
@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.util.MacCheckPolicy;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
 
@@ -8,10 +9,24 @@ public class SpdzProtocolSuite implements ProtocolSuiteNumeric<SpdzResourcePool>
 
   private final int maxBitLength;
   private final int fixedPointPrecision;
-
-  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision) {
+  private final MacCheckPolicy macCheckPolicy;
+
+  /**
+   * Creates new {@link SpdzProtocolSuite}.
+   *
+   * @param maxBitLength the maximum bit length of the secret values
+   * @param fixedPointPrecision the precision of fixed point numbers
+   * @param macCheckPolicy determines which output batches trigger a mac check
+   */
+  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision,
+      MacCheckPolicy macCheckPolicy) {
     this.maxBitLength = maxBitLength;
     this.fixedPointPrecision = fixedPointPrecision;
+    this.macCheckPolicy = macCheckPolicy;
+  }
+
+  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision) {
+    this(maxBitLength, fixedPointPrecision, MacCheckPolicy.EVERY_OUTPUT);
   }
 
   public SpdzProtocolSuite(int maxBitLength) {
@@ -31,6 +46,6 @@ public class SpdzProtocolSuite implements ProtocolSuiteNumeric<SpdzResourcePool>
 
   @Override
   public RoundSynchronization<SpdzResourcePool> createRoundSynchronization() {
-    return new SpdzRoundSynchronization(this);
+    return new SpdzRoundSynchronization(this, macCheckPolicy);
   }
 }
@@ -4,7 +4,9 @@ import dk.alexandra.fresco.framework.builder.numeric.NumericResourcePool;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBroadcastValidationStore;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import java.security.MessageDigest;
 
@@ -44,6 +46,24 @@ public interface SpdzResourcePool extends NumericResourcePool {
    */
   SpdzDataSupplier getDataSupplier();
 
+  /**
+   * Returns instance of {@link SpdzBroadcastValidationStore} which tracks all received, unvalidated
+   * broadcast messages.
+   */
+  SpdzBroadcastValidationStore getBroadcastValidationStore();
+
+  /**
+   * Returns the strategy used for opening secret shared values.
+   */
+  OpeningStrategy getOpeningStrategy();
+
+  /**
+   * Returns the id of the party acting as king in the next opening, when using {@link
+   * OpeningStrategy#KING}. Each call moves on to the next party, so all parties must call this the
+   * same number of times, in the same order.
+   */
+  int nextKing();
+
   /**
    * Returns the required bit length of seeds used for DRBGs.
    *
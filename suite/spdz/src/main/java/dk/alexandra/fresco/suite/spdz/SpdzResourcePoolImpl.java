@@ -6,7 +6,9 @@ import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBroadcastValidationStore;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import java.security.MessageDigest;
 import java.util.function.Function;
@@ -18,8 +20,11 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
   private final MessageDigest messageDigest;
   private final OpenedValueStore<SpdzSInt, FieldElement> openedValueStore;
   private final SpdzDataSupplier dataSupplier;
+  private final SpdzBroadcastValidationStore broadcastValidationStore;
   private final Function<byte[], Drbg> drbgSupplier;
   private final int drbgSeedBitLength;
+  private final OpeningStrategy openingStrategy;
+  private int nextKing;
 
   /**
    * Construct a ResourcePool implementation suitable for the spdz protocol suite.
@@ -30,18 +35,34 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
    * @param dataSupplier Pre-processing material supplier
    * @param drbgSupplier Function instantiating DRBG with given seed
    * @param drbgSeedBitLength Required bit length of seed used for DRBGs
+   * @param openingStrategy Strategy used for opening secret shared values
    */
   public SpdzResourcePoolImpl(int myId, int noOfPlayers,
       OpenedValueStore<SpdzSInt, FieldElement> openedValueStore, SpdzDataSupplier dataSupplier,
-      Function<byte[], Drbg> drbgSupplier, int drbgSeedBitLength) {
+      Function<byte[], Drbg> drbgSupplier, int drbgSeedBitLength,
+      OpeningStrategy openingStrategy) {
     super(myId, noOfPlayers);
     this.dataSupplier = dataSupplier;
     this.openedValueStore = openedValueStore;
+    this.broadcastValidationStore = new SpdzBroadcastValidationStore();
     this.messageDigest = ExceptionConverter.safe(
         () -> MessageDigest.getInstance("SHA-256"),
         "Configuration error, SHA-256 is needed for Spdz");
     this.drbgSupplier = drbgSupplier;
     this.drbgSeedBitLength = drbgSeedBitLength;
+    this.openingStrategy = openingStrategy;
+    this.nextKing = 1;
+  }
+
+  /**
+   * Default call to {@link #SpdzResourcePoolImpl(int, int, OpenedValueStore, SpdzDataSupplier,
+   * Function, int, OpeningStrategy)} which opens values using {@link OpeningStrategy#ALL_TO_ALL}.
+   */
+  public SpdzResourcePoolImpl(int myId, int noOfPlayers,
+      OpenedValueStore<SpdzSInt, FieldElement> openedValueStore, SpdzDataSupplier dataSupplier,
+      Function<byte[], Drbg> drbgSupplier, int drbgSeedBitLength) {
+    this(myId, noOfPlayers, openedValueStore, dataSupplier, drbgSupplier, drbgSeedBitLength,
+        OpeningStrategy.ALL_TO_ALL);
   }
 
   /**
@@ -69,6 +90,23 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
     return dataSupplier;
   }
 
+  @Override
+  public SpdzBroadcastValidationStore getBroadcastValidationStore() {
+    return broadcastValidationStore;
+  }
+
+  @Override
+  public OpeningStrategy getOpeningStrategy() {
+    return openingStrategy;
+  }
+
+  @Override
+  public int nextKing() {
+    int king = nextKing;
+    nextKing = king % getNoOfParties() + 1;
+    return king;
+  }
+
   @Override
   public int getDrbgSeedBitLength() {
     return drbgSeedBitLength;
@@ -7,17 +7,27 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.MacCheckPolicy;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.lib.generic.BroadcastValidationProtocol;
 import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzStreamingMacCheckProtocol;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBroadcastValidationStore;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzStreamingOpenedValueStore;
 import java.security.SecureRandom;
+import java.util.List;
 import java.util.stream.StreamSupport;
 
 /**
  * A default implementation of the round synchronization for spdz - mostly doing the MAC check if
- * needed.
+ * needed. Broadcasts which have been deferred to the {@link SpdzBroadcastValidationStore} are
+ * validated as part of the MAC check. If the opened values are kept in a {@link
+ * SpdzStreamingOpenedValueStore}, the single value it has folded them into is checked using {@link
+ * SpdzStreamingMacCheckProtocol}, which needs no coin tossing.
  */
 public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResourcePool> {
 
@@ -28,6 +38,7 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   private final SecureRandom secRand;
   private boolean isCheckRequired = false;
   private final int batchSize;
+  private final MacCheckPolicy macCheckPolicy;
 
   /**
    * Creates new {@link SpdzRoundSynchronization}.
@@ -38,17 +49,29 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
    * mac-check will always run if there are output gates but in order to reduce memory usage we will
    * run the mac-check even when there are no output gates yet but the threshold is exceeded)
    * @param batchSize batch size for mac-check protocol
+   * @param macCheckPolicy determines whether output batches are also checked after the batch
    */
   public SpdzRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite, int openValueThreshold,
-      int batchSize) {
+      int batchSize, MacCheckPolicy macCheckPolicy) {
     this.spdzProtocolSuite = spdzProtocolSuite;
     this.secRand = new SecureRandom();
     this.openValueThreshold = openValueThreshold;
     this.batchSize = batchSize;
+    this.macCheckPolicy = macCheckPolicy;
+  }
+
+  public SpdzRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite, int openValueThreshold,
+      int batchSize) {
+    this(spdzProtocolSuite, openValueThreshold, batchSize, MacCheckPolicy.EVERY_OUTPUT);
+  }
+
+  public SpdzRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite,
+      MacCheckPolicy macCheckPolicy) {
+    this(spdzProtocolSuite, DEFAULT_VALUE_THRESHOLD, DEFAULT_BATCH_SIZE, macCheckPolicy);
   }
 
   public SpdzRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite) {
-    this(spdzProtocolSuite, DEFAULT_VALUE_THRESHOLD, DEFAULT_BATCH_SIZE);
+    this(spdzProtocolSuite, MacCheckPolicy.EVERY_OUTPUT);
   }
 
   protected void doMacCheck(SpdzResourcePool resourcePool, Network network) {
@@ -58,14 +81,27 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
     BatchedProtocolEvaluator<SpdzResourcePool> evaluator =
         new BatchedProtocolEvaluator<>(batchStrategy, spdzProtocolSuite, batchSize);
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
-    SpdzMacCheckProtocol macCheck = new SpdzMacCheckProtocol(
-        store.popValues(),
-        resourcePool.getModulus(),
-        resourcePool::createRandomGenerator,
-        resourcePool.getDataSupplier().getSecretSharedKey(),
-        resourcePool.getDrbgSeedBitLength());
+    FieldElement alpha = resourcePool.getDataSupplier().getSecretSharedKey();
+    Pair<List<SpdzSInt>, List<FieldElement>> values = store.popValues();
     ProtocolBuilderNumeric sequential = spdzBuilder.createSequential();
-    macCheck.buildComputation(sequential);
+    SpdzBroadcastValidationStore broadcasts = resourcePool.getBroadcastValidationStore();
+    if (broadcasts.hasPendingValues()) {
+      sequential.append(new BroadcastValidationProtocol<>(broadcasts.popDigest()));
+    }
+    if (store instanceof SpdzStreamingOpenedValueStore) {
+      // The store has already folded the values into one, so there is nothing to combine
+      if (!values.getFirst().isEmpty()) {
+        new SpdzStreamingMacCheckProtocol(values.getFirst().get(0), values.getSecond().get(0),
+            alpha).buildComputation(sequential);
+      }
+    } else {
+      new SpdzMacCheckProtocol(
+          values,
+          resourcePool.getModulus(),
+          resourcePool::createRandomGenerator,
+          alpha,
+          resourcePool.getDrbgSeedBitLength()).buildComputation(sequential);
+    }
     evaluator.eval(sequential.build(), resourcePool, network);
   }
 
@@ -83,8 +119,7 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
 
   @Override
   public void finishedEval(SpdzResourcePool resourcePool, Network network) {
-    OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
-    if (store.hasPendingValues()) {
+    if (hasPendingValues(resourcePool)) {
       doMacCheck(resourcePool, network);
     }
   }
@@ -93,14 +128,19 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   public void beforeBatch(
       ProtocolCollection<SpdzResourcePool> protocols, SpdzResourcePool resourcePool,
       Network network) {
-    isCheckRequired = StreamSupport.stream(protocols.spliterator(), false)
+    boolean hasOutput = StreamSupport.stream(protocols.spliterator(), false)
         .anyMatch(p -> p instanceof SpdzOutputProtocol);
-    OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
-    if (store.hasPendingValues() && isCheckRequired) {
+    isCheckRequired = hasOutput && macCheckPolicy == MacCheckPolicy.EVERY_OUTPUT;
+    if (hasOutput && hasPendingValues(resourcePool)) {
       doMacCheck(resourcePool, network);
     }
   }
 
+  private boolean hasPendingValues(SpdzResourcePool resourcePool) {
+    return resourcePool.getOpenedValueStore().hasPendingValues()
+        || resourcePool.getBroadcastValidationStore().hasPendingValues();
+  }
+
   protected int getBatchSize() {
     return batchSize;
   }
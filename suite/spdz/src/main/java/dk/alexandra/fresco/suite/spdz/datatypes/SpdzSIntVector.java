@@ -0,0 +1,167 @@
+package dk.alexandra.fresco.suite.spdz.datatypes;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Spdz-specific representation of a vector of secret integers.
+ * <p>
+ * The shares and macs are stored in two separate arrays, so operations on the whole vector do not
+ * create an intermediate {@link SpdzSInt} per entry, and all shares can be serialized as a single
+ * message.
+ * </p>
+ */
+public class SpdzSIntVector implements Serializable {
+
+  private static final long serialVersionUID = -2945735136474893817L;
+  private final FieldElement[] shares;
+  private final FieldElement[] macs;
+
+  /**
+   * Create a SpdzSIntVector containing shares and macs. The arrays are used directly and should
+   * not be modified afterwards.
+   *
+   * @param shares The shares
+   * @param macs The macs, must have the same length as the shares
+   */
+  public SpdzSIntVector(FieldElement[] shares, FieldElement[] macs) {
+    if (shares.length != macs.length) {
+      throw new IllegalArgumentException(
+          "Number of shares and macs differ: " + shares.length + " and " + macs.length);
+    }
+    this.shares = shares;
+    this.macs = macs;
+  }
+
+  /**
+   * Creates a vector holding the shares and macs of the given secret integers.
+   *
+   * @param values the values, which must evaluate to {@link SpdzSInt}
+   * @return the vector
+   */
+  public static SpdzSIntVector fromSInts(List<? extends DRes<SInt>> values) {
+    FieldElement[] shares = new FieldElement[values.size()];
+    FieldElement[] macs = new FieldElement[values.size()];
+    int i = 0;
+    for (DRes<SInt> value : values) {
+      SpdzSInt spdzSInt = (SpdzSInt) value.out();
+      shares[i] = spdzSInt.getShare();
+      macs[i] = spdzSInt.getMac();
+      i++;
+    }
+    return new SpdzSIntVector(shares, macs);
+  }
+
+  public int size() {
+    return shares.length;
+  }
+
+  public FieldElement getShare(int index) {
+    return shares[index];
+  }
+
+  public FieldElement getMac(int index) {
+    return macs[index];
+  }
+
+  /**
+   * Gets a single entry of the vector.
+   *
+   * @param index the index of the entry
+   * @return the entry
+   */
+  public SpdzSInt get(int index) {
+    return new SpdzSInt(shares[index], macs[index]);
+  }
+
+  /**
+   * Adds two {@link SpdzSIntVector} instances entry-wise.
+   *
+   * @param other The vector to add
+   * @return The sum
+   */
+  public SpdzSIntVector add(SpdzSIntVector other) {
+    checkSize(other);
+    FieldElement[] resultShares = new FieldElement[shares.length];
+    FieldElement[] resultMacs = new FieldElement[shares.length];
+    for (int i = 0; i < shares.length; i++) {
+      resultShares[i] = shares[i].add(other.shares[i]);
+      resultMacs[i] = macs[i].add(other.macs[i]);
+    }
+    return new SpdzSIntVector(resultShares, resultMacs);
+  }
+
+  /**
+   * Subtracts a {@link SpdzSIntVector} from this vector entry-wise.
+   *
+   * @param other The vector to subtract
+   * @return The difference
+   */
+  public SpdzSIntVector subtract(SpdzSIntVector other) {
+    checkSize(other);
+    FieldElement[] resultShares = new FieldElement[shares.length];
+    FieldElement[] resultMacs = new FieldElement[shares.length];
+    for (int i = 0; i < shares.length; i++) {
+      resultShares[i] = shares[i].subtract(other.shares[i]);
+      resultMacs[i] = macs[i].subtract(other.macs[i]);
+    }
+    return new SpdzSIntVector(resultShares, resultMacs);
+  }
+
+  /**
+   * Multiplies each entry of this vector with a constant.
+   *
+   * @param c The constant to multiply
+   * @return The product
+   */
+  public SpdzSIntVector multiply(FieldElement c) {
+    FieldElement[] resultShares = new FieldElement[shares.length];
+    FieldElement[] resultMacs = new FieldElement[shares.length];
+    for (int i = 0; i < shares.length; i++) {
+      resultShares[i] = shares[i].multiply(c);
+      resultMacs[i] = macs[i].multiply(c);
+    }
+    return new SpdzSIntVector(resultShares, resultMacs);
+  }
+
+  /**
+   * Converts this vector to a list of {@link SpdzSInt}.
+   *
+   * @return the entries of the vector
+   */
+  public List<DRes<SInt>> toSInts() {
+    List<DRes<SInt>> result = new ArrayList<>(shares.length);
+    for (int i = 0; i < shares.length; i++) {
+      result.add(get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Serializes all shares of this vector as a single message.
+   *
+   * @param serializer the serializer used for the field elements
+   * @return the serialized shares
+   */
+  public byte[] serializeShares(ByteSerializer<FieldElement> serializer) {
+    return serializer.serialize(Arrays.asList(shares));
+  }
+
+  private void checkSize(SpdzSIntVector other) {
+    if (other.size() != size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have the same size, was " + size() + " and " + other.size());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "spdzVector(" + Arrays.toString(shares) + ", " + Arrays.toString(macs) + ")";
+  }
+}
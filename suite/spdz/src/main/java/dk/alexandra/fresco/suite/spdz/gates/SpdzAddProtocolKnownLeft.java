@@ -2,12 +2,14 @@ package dk.alexandra.fresco.suite.spdz.gates;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import java.math.BigInteger;
 
-public class SpdzAddProtocolKnownLeft extends SpdzNativeProtocol<SInt> {
+public class SpdzAddProtocolKnownLeft extends SpdzNativeProtocol<SInt>
+    implements ReplayableProtocol<SInt, SpdzResourcePool> {
 
   private final BigInteger left;
   private final DRes<SInt> right;
@@ -18,6 +20,11 @@ public class SpdzAddProtocolKnownLeft extends SpdzNativeProtocol<SInt> {
     this.right = right;
   }
 
+  @Override
+  public void reset() {
+    out = null;
+  }
+
   @Override
   public SpdzSInt out() {
     return out;
@@ -25,14 +25,21 @@ public class SpdzInputProtocol extends SpdzNativeProtocol<SInt> {
     this.inputter = inputter;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      inputMask = spdzResourcePool.getDataSupplier().getNextInputMask(inputter);
+    }
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
+    prepareRound(round, spdzResourcePool);
     int myId = spdzResourcePool.getMyId();
     SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
     ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
     if (round == 0) {
-      this.inputMask = dataSupplier.getNextInputMask(this.inputter);
       if (myId == this.inputter) {
         FieldElement inputElement = spdzResourcePool.getFieldDefinition().createElement(this.input);
         FieldElement bcValue = inputElement.subtract(this.inputMask.getRealValue());
@@ -43,7 +50,7 @@ public class SpdzInputProtocol extends SpdzNativeProtocol<SInt> {
       byte[] receivedBytes = network.receive(inputter);
       this.valueMasked = serializer.deserialize(receivedBytes);
       this.digest =
-          sendBroadcastValidation(spdzResourcePool.getMessageDigest(), network, receivedBytes);
+          sendBroadcastValidation(getMessageDigest(spdzResourcePool), network, receivedBytes);
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
       boolean validated = receiveBroadcastValidation(network, digest);
@@ -0,0 +1,104 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBroadcastValidationStore;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Closes a list of values provided by the same party.
+ * <p>
+ * Unlike a {@link SpdzInputProtocol} per value, the masked values are sent in a single message, and
+ * the consistency of the broadcast is not validated by the protocol itself. Instead, the received
+ * message is pushed to the {@link SpdzBroadcastValidationStore} of the resource pool, which is
+ * validated by {@link dk.alexandra.fresco.suite.spdz.SpdzRoundSynchronization} together with the
+ * next mac check. The protocol thus uses two rounds instead of three, and a single digest is
+ * exchanged for all inputs received since the last check. With only two parties, the receiving
+ * party has no one to compare with, so nothing is pushed.
+ * </p>
+ */
+public class SpdzInputVectorProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final List<BigInteger> inputs;
+  private final int inputter;
+  private List<SpdzInputMask> inputMasks;
+  private List<DRes<SInt>> out;
+
+  /**
+   * Creates a new protocol closing the given values.
+   *
+   * @param inputs the values to close, or a list of the same size with null entries if this party
+   *     is not the inputter
+   * @param inputter the id of the party providing the values
+   */
+  public SpdzInputVectorProtocol(List<BigInteger> inputs, int inputter) {
+    this.inputs = inputs;
+    this.inputter = inputter;
+  }
+
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+      inputMasks = new ArrayList<>(inputs.size());
+      for (int i = 0; i < inputs.size(); i++) {
+        inputMasks.add(dataSupplier.getNextInputMask(inputter));
+      }
+    }
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    prepareRound(round, spdzResourcePool);
+    int myId = spdzResourcePool.getMyId();
+    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+    FieldDefinition definition = spdzResourcePool.getFieldDefinition();
+    int size = inputs.size();
+    if (round == 0) {
+      if (myId == inputter) {
+        List<FieldElement> masked = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          masked.add(definition.createElement(inputs.get(i))
+              .subtract(inputMasks.get(i).getRealValue()));
+        }
+        network.sendToAll(definition.serialize(masked));
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      byte[] receivedBytes = network.receive(inputter);
+      List<FieldElement> masked = definition.deserializeList(receivedBytes);
+      if (masked.size() != size) {
+        throw new MaliciousException(
+            "Expected " + size + " masked inputs, but received " + masked.size());
+      }
+      if (spdzResourcePool.getNoOfParties() > 2) {
+        publish(spdzResourcePool,
+            pool -> pool.getBroadcastValidationStore().pushReceived(receivedBytes));
+      }
+      FieldElement key = dataSupplier.getSecretSharedKey();
+      out = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        FieldElement valueMasked = masked.get(i);
+        SpdzSInt valueMaskedElement = new SpdzSInt(valueMasked, key.multiply(valueMasked));
+        out.add(inputMasks.get(i).getMask().add(valueMaskedElement, myId));
+      }
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return out;
+  }
+}
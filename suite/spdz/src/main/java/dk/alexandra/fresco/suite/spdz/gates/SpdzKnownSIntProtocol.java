@@ -2,12 +2,14 @@ package dk.alexandra.fresco.suite.spdz.gates;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import java.math.BigInteger;
 
-public class SpdzKnownSIntProtocol extends SpdzNativeProtocol<SInt> {
+public class SpdzKnownSIntProtocol extends SpdzNativeProtocol<SInt>
+    implements ReplayableProtocol<SInt, SpdzResourcePool> {
 
   private final BigInteger value;
   private SpdzSInt secretValue;
@@ -21,6 +23,11 @@ public class SpdzKnownSIntProtocol extends SpdzNativeProtocol<SInt> {
     this.value = value;
   }
 
+  @Override
+  public void reset() {
+    secretValue = null;
+  }
+
   @Override
   public SInt out() {
     return secretValue;
@@ -4,13 +4,17 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.util.Arrays;
+import java.util.List;
 
-public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
+public class SpdzMultProtocol extends SpdzNativeProtocol<SInt>
+    implements ReplayableProtocol<SInt, SpdzResourcePool> {
 
   private DRes<SInt> left;
   private DRes<SInt> right;
@@ -18,40 +22,67 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
   private SpdzTriple triple;
   private SpdzSInt epsilon;  // my share of the differences [x]-[a]
   private SpdzSInt delta;  // and [y]-[b].
+  private int king;  // the king of the opening, or 0 if opening to all
 
   public SpdzMultProtocol(DRes<SInt> left, DRes<SInt> right) {
     this.left = left;
     this.right = right;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      triple = spdzResourcePool.getDataSupplier().getNextTriple();
+      king = chooseKing(spdzResourcePool);
+    }
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
+    prepareRound(round, spdzResourcePool);
     SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
     int noOfPlayers = spdzResourcePool.getNoOfParties();
     ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
     if (round == 0) {
-      this.triple = dataSupplier.getNextTriple();
-
       epsilon = ((SpdzSInt) left.out()).subtract(triple.getA());
       delta = ((SpdzSInt) right.out()).subtract(triple.getB());
 
-      network.sendToAll(epsilon.serializeShare(serializer));
-      network.sendToAll(delta.serializeShare(serializer));
+      if (king > 0) {
+        sendToKing(spdzResourcePool, network, king,
+            Arrays.asList(epsilon.getShare(), delta.getShare()));
+      } else {
+        network.sendToAll(epsilon.serializeShare(serializer));
+        network.sendToAll(delta.serializeShare(serializer));
+      }
       return EvaluationStatus.HAS_MORE_ROUNDS;
-    } else {
-      FieldElement[] epsilonShares = new FieldElement[noOfPlayers];
-      FieldElement[] deltaShares = new FieldElement[noOfPlayers];
-      for (int i = 0; i < noOfPlayers; i++) {
-        epsilonShares[i] = serializer.deserialize(network.receive(i + 1));
-        deltaShares[i] = serializer.deserialize(network.receive(i + 1));
+    } else if (round == 1 && king > 0) {
+      if (spdzResourcePool.getMyId() == king) {
+        reconstructAndSendToAll(spdzResourcePool.getFieldDefinition(), network);
       }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      FieldElement e;
+      FieldElement d;
+      if (king > 0) {
+        List<FieldElement> opened =
+            receiveFromKing(spdzResourcePool.getFieldDefinition(), network, king, 2);
+        e = opened.get(0);
+        d = opened.get(1);
+      } else {
+        FieldElement[] epsilonShares = new FieldElement[noOfPlayers];
+        FieldElement[] deltaShares = new FieldElement[noOfPlayers];
+        for (int i = 0; i < noOfPlayers; i++) {
+          epsilonShares[i] = serializer.deserialize(network.receive(i + 1));
+          deltaShares[i] = serializer.deserialize(network.receive(i + 1));
+        }
 
-      FieldElement e = epsilonShares[0];
-      FieldElement d = deltaShares[0];
-      for (int i = 1; i < epsilonShares.length; i++) {
-        e = e.add(epsilonShares[i]);
-        d = d.add(deltaShares[i]);
+        e = epsilonShares[0];
+        d = deltaShares[0];
+        for (int i = 1; i < epsilonShares.length; i++) {
+          e = e.add(epsilonShares[i]);
+          d = d.add(deltaShares[i]);
+        }
       }
 
       FieldElement product = e.multiply(d);
@@ -66,12 +97,25 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
           .add(triple.getA().multiply(d))
           .add(ed, spdzResourcePool.getMyId());
       // Set the opened and closed value.
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(epsilon, e);
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(delta, d);
+      FieldElement openedEpsilon = e;
+      FieldElement openedDelta = d;
+      publish(spdzResourcePool, pool -> {
+        pool.getOpenedValueStore().pushOpenedValue(epsilon, openedEpsilon);
+        pool.getOpenedValueStore().pushOpenedValue(delta, openedDelta);
+      });
       return EvaluationStatus.IS_DONE;
     }
   }
 
+  @Override
+  public void reset() {
+    out = null;
+    triple = null;
+    epsilon = null;
+    delta = null;
+    king = 0;
+  }
+
   @Override
   public SpdzSInt out() {
     return out;
@@ -0,0 +1,163 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSIntVector;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Multiplies two vectors of secret values entry-wise.
+ * <p>
+ * This is equivalent to a {@link SpdzMultProtocol} per entry, but the differences epsilon and
+ * delta of all entries are opened using a single message to each party, or to the king when using
+ * {@link OpeningStrategy#KING}.
+ * </p>
+ */
+public class SpdzMultVectorProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private List<DRes<SInt>> out;
+  private SpdzSIntVector a;
+  private SpdzSIntVector b;
+  private SpdzSIntVector c;
+  private SpdzSIntVector epsilon;  // my shares of the differences [x]-[a]
+  private SpdzSIntVector delta;  // and [y]-[b].
+  private int king;  // the king of the opening, or 0 if opening to all
+
+  /**
+   * Creates a new protocol multiplying the two vectors entry-wise.
+   *
+   * @param left the left factors
+   * @param right the right factors, must have the same size as the left factors
+   */
+  public SpdzMultVectorProtocol(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have the same size, was " + left.size() + " and " + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      loadTriples(spdzResourcePool.getDataSupplier(), left.size());
+      king = chooseKing(spdzResourcePool);
+    }
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    prepareRound(round, spdzResourcePool);
+    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+    ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
+    int size = left.size();
+    if (round == 0) {
+      epsilon = SpdzSIntVector.fromSInts(left).subtract(a);
+      delta = SpdzSIntVector.fromSInts(right).subtract(b);
+      FieldElement[] differences = new FieldElement[2 * size];
+      for (int i = 0; i < size; i++) {
+        differences[i] = epsilon.getShare(i);
+        differences[size + i] = delta.getShare(i);
+      }
+      if (king > 0) {
+        sendToKing(spdzResourcePool, network, king, Arrays.asList(differences));
+      } else {
+        network.sendToAll(serializer.serialize(Arrays.asList(differences)));
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else if (round == 1 && king > 0) {
+      if (spdzResourcePool.getMyId() == king) {
+        reconstructAndSendToAll(spdzResourcePool.getFieldDefinition(), network);
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      FieldElement[] opened = null;
+      if (king > 0) {
+        opened = receiveFromKing(spdzResourcePool.getFieldDefinition(), network, king, 2 * size)
+            .toArray(new FieldElement[0]);
+      } else {
+        List<byte[]> received = network.receiveFromAll();
+        for (byte[] bytes : received) {
+          List<FieldElement> differences = serializer.deserializeList(bytes);
+          if (differences.size() != 2 * size) {
+            throw new MaliciousException(
+                "Expected " + 2 * size + " shares, but received " + differences.size());
+          }
+          if (opened == null) {
+            opened = differences.toArray(new FieldElement[0]);
+          } else {
+            for (int i = 0; i < opened.length; i++) {
+              opened[i] = opened[i].add(differences.get(i));
+            }
+          }
+        }
+      }
+      FieldElement key = dataSupplier.getSecretSharedKey();
+      boolean addShare = spdzResourcePool.getMyId() == 1;
+      FieldElement[] shares = new FieldElement[size];
+      FieldElement[] macs = new FieldElement[size];
+      for (int i = 0; i < size; i++) {
+        FieldElement e = opened[i];
+        FieldElement d = opened[size + i];
+        FieldElement product = e.multiply(d);
+        FieldElement share = c.getShare(i)
+            .add(b.getShare(i).multiply(e))
+            .add(a.getShare(i).multiply(d));
+        if (addShare) {
+          share = share.add(product);
+        }
+        shares[i] = share;
+        macs[i] = c.getMac(i)
+            .add(b.getMac(i).multiply(e))
+            .add(a.getMac(i).multiply(d))
+            .add(key.multiply(product));
+      }
+      FieldElement[] values = opened;
+      publish(spdzResourcePool, pool -> {
+        OpenedValueStore<SpdzSInt, FieldElement> store = pool.getOpenedValueStore();
+        for (int i = 0; i < size; i++) {
+          store.pushOpenedValue(epsilon.get(i), values[i]);
+          store.pushOpenedValue(delta.get(i), values[size + i]);
+        }
+      });
+      out = new SpdzSIntVector(shares, macs).toSInts();
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  private void loadTriples(SpdzDataSupplier dataSupplier, int size) {
+    FieldElement[][] values = new FieldElement[6][size];
+    for (int i = 0; i < size; i++) {
+      SpdzTriple triple = dataSupplier.getNextTriple();
+      values[0][i] = triple.getA().getShare();
+      values[1][i] = triple.getA().getMac();
+      values[2][i] = triple.getB().getShare();
+      values[3][i] = triple.getB().getMac();
+      values[4][i] = triple.getC().getShare();
+      values[5][i] = triple.getC().getMac();
+    }
+    a = new SpdzSIntVector(values[0], values[1]);
+    b = new SpdzSIntVector(values[2], values[3]);
+    c = new SpdzSIntVector(values[4], values[5]);
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return out;
+  }
+}
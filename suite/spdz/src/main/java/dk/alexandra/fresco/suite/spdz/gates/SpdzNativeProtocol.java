@@ -1,15 +1,116 @@
 package dk.alexandra.fresco.suite.spdz.gates;
 
-import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.ConcurrentNativeProtocol;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Base class of the native protocols of the SPDZ suite.
+ *
+ * <p>Preprocessed material, the choice of king of an opening, and the stores of opened values and
+ * broadcasts must be accessed in the same order by all parties. Subclasses therefore take such
+ * resources in {@link #takeResources(int, SpdzResourcePool)}, which is called by {@link
+ * #prepareRound(int, SpdzResourcePool)} at the beginning of each round, and push to the stores
+ * using {@link #publish(SpdzResourcePool, Consumer)}. When the protocol is evaluated concurrently
+ * by the {@link dk.alexandra.fresco.framework.sce.evaluator.ParallelBatchedStrategy}, the resources
+ * are instead taken in {@link #beforeRound(int, SpdzResourcePool)} and the results published in
+ * {@link #afterRound(int, SpdzResourcePool)}, which the strategy calls in protocol order.</p>
+ */
 public abstract class SpdzNativeProtocol<OutputT> implements
-    NativeProtocol<OutputT, SpdzResourcePool> {
+    ConcurrentNativeProtocol<OutputT, SpdzResourcePool> {
+
+  private boolean ordered;
+  private List<Consumer<SpdzResourcePool>> published;
+
+  @Override
+  public void beforeRound(int round, SpdzResourcePool resourcePool) {
+    ordered = true;
+    if (round == 0) {
+      // The key share is loaded lazily by the data suppliers, so it is loaded here before the
+      // protocol may read it concurrently with other protocols
+      resourcePool.getDataSupplier().getSecretSharedKey();
+    }
+    takeResources(round, resourcePool);
+  }
+
+  @Override
+  public void afterRound(int round, SpdzResourcePool resourcePool) {
+    if (published != null) {
+      for (Consumer<SpdzResourcePool> result : published) {
+        result.accept(resourcePool);
+      }
+      published = null;
+    }
+  }
+
+  /**
+   * Takes the order sensitive resources needed by the given round, e.g., preprocessed material.
+   * Does nothing by default.
+   *
+   * @param round the round
+   * @param resourcePool the resource pool
+   */
+  protected void takeResources(int round, SpdzResourcePool resourcePool) {
+  }
+
+  /**
+   * Must be called at the beginning of each round of evaluation. Takes the resources of the round,
+   * unless they have already been taken in {@link #beforeRound(int, SpdzResourcePool)}.
+   *
+   * @param round the round
+   * @param resourcePool the resource pool
+   */
+  protected void prepareRound(int round, SpdzResourcePool resourcePool) {
+    if (!ordered) {
+      takeResources(round, resourcePool);
+    }
+  }
+
+  /**
+   * Publishes a result of the current round to the resource pool, e.g., by pushing opened values to
+   * the opened value store. The result is published immediately, or in {@link #afterRound(int,
+   * SpdzResourcePool)} if the protocol is evaluated concurrently.
+   *
+   * @param resourcePool the resource pool
+   * @param result the action publishing the result
+   */
+  protected void publish(SpdzResourcePool resourcePool, Consumer<SpdzResourcePool> result) {
+    if (ordered) {
+      if (published == null) {
+        published = new ArrayList<>();
+      }
+      published.add(result);
+    } else {
+      result.accept(resourcePool);
+    }
+  }
+
+  /**
+   * Gets a message digest for computing broadcast validations. The digest of the resource pool is
+   * shared by all protocols, so a fresh digest is used when evaluated concurrently.
+   *
+   * @param resourcePool the resource pool
+   * @return a message digest
+   */
+  MessageDigest getMessageDigest(SpdzResourcePool resourcePool) {
+    MessageDigest digest = resourcePool.getMessageDigest();
+    if (!ordered) {
+      return digest;
+    }
+    return ExceptionConverter.safe(() -> MessageDigest.getInstance(digest.getAlgorithm()),
+        "Configuration error, " + digest.getAlgorithm() + " is needed for Spdz");
+  }
 
   byte[] sendBroadcastValidation(MessageDigest dig, Network network, byte[] b) {
     dig.update(b);
@@ -33,4 +134,59 @@ public abstract class SpdzNativeProtocol<OutputT> implements
     }
     return validated;
   }
+
+  /**
+   * Sends this party's shares of the values to open to the king of the opening, as done in the
+   * first round of an opening using {@link OpeningStrategy#KING}. The king must be chosen in
+   * {@link #takeResources(int, SpdzResourcePool)} using {@link #chooseKing(SpdzResourcePool)}.
+   */
+  void sendToKing(SpdzResourcePool resourcePool, Network network, int king,
+      List<FieldElement> shares) {
+    network.send(king, resourcePool.getFieldDefinition().serialize(shares));
+  }
+
+  /**
+   * Chooses the king of the next opening, or 0 if values are opened to all parties.
+   */
+  int chooseKing(SpdzResourcePool resourcePool) {
+    if (resourcePool.getOpeningStrategy() == OpeningStrategy.KING) {
+      return resourcePool.nextKing();
+    }
+    return 0;
+  }
+
+  /**
+   * Reconstructs the values from the shares sent to this party as king, and sends the values to all
+   * parties.
+   */
+  void reconstructAndSendToAll(FieldDefinition definition, Network network) {
+    List<FieldElement> values = null;
+    for (byte[] bytes : network.receiveFromAll()) {
+      List<FieldElement> shares = definition.deserializeList(bytes);
+      if (values == null) {
+        values = new ArrayList<>(shares);
+      } else if (shares.size() != values.size()) {
+        throw new MaliciousException(
+            "Expected " + values.size() + " shares, but received " + shares.size());
+      } else {
+        for (int i = 0; i < shares.size(); i++) {
+          values.set(i, values.get(i).add(shares.get(i)));
+        }
+      }
+    }
+    network.sendToAll(definition.serialize(values));
+  }
+
+  /**
+   * Receives the values reconstructed by the king.
+   */
+  List<FieldElement> receiveFromKing(FieldDefinition definition, Network network, int king,
+      int expectedSize) {
+    List<FieldElement> values = definition.deserializeList(network.receive(king));
+    if (values.size() != expectedSize) {
+      throw new MaliciousException(
+          "Expected " + expectedSize + " values from king, but received " + values.size());
+    }
+    return values;
+  }
 }
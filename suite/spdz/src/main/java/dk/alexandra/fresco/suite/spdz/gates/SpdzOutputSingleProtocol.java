@@ -4,16 +4,16 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
-import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import java.math.BigInteger;
 import java.util.List;
 
 public class SpdzOutputSingleProtocol extends SpdzNativeProtocol<BigInteger>
-    implements SpdzOutputProtocol {
+    implements SpdzOutputProtocol, ReplayableProtocol<BigInteger, SpdzResourcePool> {
 
   private DRes<SInt> in;
   private BigInteger out;
@@ -26,19 +26,32 @@ public class SpdzOutputSingleProtocol extends SpdzNativeProtocol<BigInteger>
     this.targetPlayer = targetPlayer;
   }
 
+  @Override
+  public void reset() {
+    out = null;
+    mask = null;
+    inMinusMask = null;
+  }
+
   @Override
   public BigInteger out() {
     return out;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      mask = spdzResourcePool.getDataSupplier().getNextInputMask(targetPlayer);
+    }
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
+    prepareRound(round, spdzResourcePool);
     int myId = spdzResourcePool.getMyId();
-    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
     FieldDefinition definition = spdzResourcePool.getFieldDefinition();
     if (round == 0) {
-      this.mask = dataSupplier.getNextInputMask(targetPlayer);
       SpdzSInt closedValue = (SpdzSInt) this.in.out();
       inMinusMask = closedValue.subtract(this.mask.getMask());
       network.sendToAll(inMinusMask.serializeShare(definition));
@@ -50,7 +63,9 @@ public class SpdzOutputSingleProtocol extends SpdzNativeProtocol<BigInteger>
         byte[] buffer = shares.get(i);
         openedVal = openedVal.add(definition.deserialize(buffer));
       }
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(inMinusMask, openedVal);
+      FieldElement opened = openedVal;
+      publish(spdzResourcePool,
+          pool -> pool.getOpenedValueStore().pushOpenedValue(inMinusMask, opened));
       if (targetPlayer == myId) {
         openedVal = openedVal.add(this.mask.getRealValue());
         this.out = definition.convertToUnsigned(openedVal);
@@ -4,44 +4,77 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.List;
 
 public class SpdzOutputToAllProtocol extends SpdzNativeProtocol<BigInteger>
-    implements SpdzOutputProtocol {
+    implements SpdzOutputProtocol, ReplayableProtocol<BigInteger, SpdzResourcePool> {
 
   private DRes<SInt> in;
   private BigInteger out;
+  private int king;
 
   public SpdzOutputToAllProtocol(DRes<SInt> in) {
     this.in = in;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      king = chooseKing(spdzResourcePool);
+    }
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
-
+    prepareRound(round, spdzResourcePool);
     FieldDefinition definition = spdzResourcePool.getFieldDefinition();
     if (round == 0) {
       SpdzSInt out = (SpdzSInt) in.out();
-      network.sendToAll((out.serializeShare(definition)));
+      if (king > 0) {
+        sendToKing(spdzResourcePool, network, king,
+            Collections.singletonList(out.getShare()));
+      } else {
+        network.sendToAll((out.serializeShare(definition)));
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else if (round == 1 && king > 0) {
+      if (spdzResourcePool.getMyId() == king) {
+        reconstructAndSendToAll(definition, network);
+      }
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      List<byte[]> shares = network.receiveFromAll();
-      FieldElement openedVal = definition.deserialize(shares.get(0));
-      for (int i = 1; i < shares.size(); i++) {
-        byte[] buffer = shares.get(i);
-        openedVal = openedVal.add(definition.deserialize(buffer));
+      FieldElement openedVal;
+      if (king > 0) {
+        openedVal = receiveFromKing(definition, network, king, 1).get(0);
+      } else {
+        List<byte[]> shares = network.receiveFromAll();
+        openedVal = definition.deserialize(shares.get(0));
+        for (int i = 1; i < shares.size(); i++) {
+          byte[] buffer = shares.get(i);
+          openedVal = openedVal.add(definition.deserialize(buffer));
+        }
       }
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(((SpdzSInt) in.out()), openedVal);
+      FieldElement opened = openedVal;
+      publish(spdzResourcePool,
+          pool -> pool.getOpenedValueStore().pushOpenedValue(((SpdzSInt) in.out()), opened));
       this.out = definition.convertToUnsigned(openedVal);
       return EvaluationStatus.IS_DONE;
     }
   }
 
+  @Override
+  public void reset() {
+    out = null;
+    king = 0;
+  }
+
   @Override
   public BigInteger out() {
     return out;
@@ -16,10 +16,15 @@ public class SpdzRandomProtocol extends SpdzNativeProtocol<SInt> {
   }
 
   @Override
-  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
-      Network network) {
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
     SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
     this.randomElement = dataSupplier.getNextRandomFieldElement();
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    prepareRound(round, spdzResourcePool);
     return EvaluationStatus.IS_DONE;
   }
 
@@ -0,0 +1,71 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzStreamingOpenedValueStore;
+import dk.alexandra.fresco.tools.commitment.CommitmentComputation;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitmentSerializer;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Protocol which handles the MAC check internal to SPDZ for the values folded by a {@link
+ * SpdzStreamingOpenedValueStore}. The store has already combined the opened values using
+ * coefficients all parties agree on, so unlike {@link SpdzMacCheckProtocol} no coins are tossed,
+ * and the check only commits to and opens this party's share of the mac error of the combination.
+ */
+public class SpdzStreamingMacCheckProtocol implements Computation<Void, ProtocolBuilderNumeric> {
+
+  private final SpdzSInt combination;
+  private final FieldElement openedCombination;
+  private final FieldElement alpha;
+
+  /**
+   * Protocol which handles the MAC check of a combination of opened values.
+   *
+   * @param combination this party's authenticated share of the combination, as returned by {@link
+   *     SpdzStreamingOpenedValueStore#popValues()}
+   * @param openedCombination the combination of the opened values
+   * @param alpha this party's key share
+   */
+  public SpdzStreamingMacCheckProtocol(SpdzSInt combination, FieldElement openedCombination,
+      FieldElement alpha) {
+    this.combination = combination;
+    this.openedCombination = openedCombination;
+    this.alpha = alpha;
+  }
+
+  @Override
+  public DRes<Void> buildComputation(ProtocolBuilderNumeric builder) {
+    final AesCtrDrbg localDrbg = new AesCtrDrbg();
+    final HashBasedCommitmentSerializer commitmentSerializer = new HashBasedCommitmentSerializer();
+    final FieldDefinition definition = builder
+        .getBasicNumericContext()
+        .getFieldDefinition();
+    // delta_i = gamma_i - alpha_i * a
+    FieldElement delta = combination.getMac().subtract(alpha.multiply(openedCombination));
+    byte[] deltaBytes = definition.serialize(delta);
+    return builder
+        .seq(new CommitmentComputation(commitmentSerializer, deltaBytes, localDrbg))
+        .seq((seq, commitmentsRaw) -> {
+          List<FieldElement> commitments = definition.deserializeList(commitmentsRaw);
+          FieldElement deltaSum =
+              commitments
+                  .stream()
+                  .reduce(definition.createElement(0), FieldElement::add);
+          if (!BigInteger.ZERO.equals(definition.convertToUnsigned(deltaSum))) {
+            throw new MaliciousException(
+                "The sum of delta's was not 0. Someone was corrupting something amongst the macs"
+                    + " opened since the last check. Sum was " + deltaSum.toString()
+                    + " Aborting!");
+          }
+          return null;
+        });
+  }
+}
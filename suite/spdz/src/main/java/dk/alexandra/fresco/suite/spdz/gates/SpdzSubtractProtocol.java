@@ -2,11 +2,13 @@ package dk.alexandra.fresco.suite.spdz.gates;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.ReplayableProtocol;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 
-public class SpdzSubtractProtocol extends SpdzNativeProtocol<SInt> {
+public class SpdzSubtractProtocol extends SpdzNativeProtocol<SInt>
+    implements ReplayableProtocol<SInt, SpdzResourcePool> {
 
   private DRes<SInt> left;
   private DRes<SInt> right;
@@ -17,6 +19,11 @@ public class SpdzSubtractProtocol extends SpdzNativeProtocol<SInt> {
     this.right = right;
   }
 
+  @Override
+  public void reset() {
+    out = null;
+  }
+
   @Override
   public SpdzSInt out() {
     return out;
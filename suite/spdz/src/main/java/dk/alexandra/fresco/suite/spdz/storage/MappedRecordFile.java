@@ -0,0 +1,269 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A binary file of fixed size records, each consisting of a fixed number of serialized field
+ * elements of a fixed length, which is read through memory mapping.
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes holding the element length, the
+ * number of elements per record, the number of records and the index of the next record to read.
+ * The latter is updated in the mapped header whenever a record is read, so a party reopening the
+ * file after a restart resumes where it left off, and material is never used twice. The records
+ * are mapped in windows of at most {@value #MAX_WINDOW_BYTES} bytes, so files larger than what a
+ * single mapping can hold are supported.
+ * </p>
+ */
+public final class MappedRecordFile implements Closeable {
+
+  static final int MAGIC = 0x5350445A;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int MAX_WINDOW_BYTES = 1 << 30;
+  private static final int MAGIC_POSITION = 0;
+  private static final int VERSION_POSITION = 4;
+  private static final int ELEMENT_LENGTH_POSITION = 8;
+  private static final int RECORD_ELEMENTS_POSITION = 12;
+  private static final int RECORD_COUNT_POSITION = 16;
+  private static final int READ_OFFSET_POSITION = 24;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer header;
+  private final int elementLength;
+  private final int recordElements;
+  private final int recordLength;
+  private final long recordCount;
+  private final long windowRecords;
+  private long readOffset;
+  private long windowStart;
+  private MappedByteBuffer window;
+
+  private MappedRecordFile(Path path, FileChannel channel, MappedByteBuffer header)
+      throws IOException {
+    this.channel = channel;
+    this.header = header;
+    if (header.getInt(MAGIC_POSITION) != MAGIC) {
+      throw new IllegalArgumentException("Not a preprocessing file");
+    }
+    if (header.getInt(VERSION_POSITION) != VERSION) {
+      throw new IllegalArgumentException(
+          "Unsupported preprocessing file version " + header.getInt(VERSION_POSITION));
+    }
+    this.elementLength = header.getInt(ELEMENT_LENGTH_POSITION);
+    this.recordElements = header.getInt(RECORD_ELEMENTS_POSITION);
+    if (elementLength < 1 || recordElements < 1
+        || (long) elementLength * recordElements > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid record layout of " + recordElements
+          + " elements of " + elementLength + " bytes in preprocessing file: " + path);
+    }
+    this.recordLength = elementLength * recordElements;
+    this.recordCount = header.getLong(RECORD_COUNT_POSITION);
+    this.readOffset = header.getLong(READ_OFFSET_POSITION);
+    if (recordCount < 0 || readOffset < 0 || readOffset > recordCount
+        || recordCount > (channel.size() - HEADER_SIZE) / recordLength) {
+      throw new IllegalArgumentException("Preprocessing file is truncated: " + path);
+    }
+    this.windowRecords = Math.max(1, MAX_WINDOW_BYTES / recordLength);
+    this.windowStart = -1;
+  }
+
+  /**
+   * Opens an existing file for reading.
+   *
+   * @param path the path of the file
+   * @return the opened file
+   * @throws IOException if the file could not be opened or mapped
+   * @throws IllegalArgumentException if the header is invalid or the file is truncated
+   */
+  public static MappedRecordFile open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    try {
+      if (channel.size() < HEADER_SIZE) {
+        throw new IllegalArgumentException("Not a preprocessing file: " + path);
+      }
+      return new MappedRecordFile(path, channel, channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public int getElementLength() {
+    return elementLength;
+  }
+
+  public int getRecordElements() {
+    return recordElements;
+  }
+
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * Gets the number of records that have not yet been read.
+   *
+   * @return the number of remaining records
+   */
+  public synchronized long remaining() {
+    return recordCount - readOffset;
+  }
+
+  /**
+   * Gets the record with the given index without affecting the read offset.
+   *
+   * @param index the index of the record
+   * @return a read-only buffer holding exactly the bytes of the record
+   */
+  public synchronized ByteBuffer get(long index) {
+    if (index < 0 || index >= recordCount) {
+      throw new IndexOutOfBoundsException("Record " + index + " of " + recordCount);
+    }
+    long start = index - index % windowRecords;
+    if (start != windowStart) {
+      long records = Math.min(windowRecords, recordCount - start);
+      window = map(HEADER_SIZE + start * recordLength, records * recordLength);
+      windowStart = start;
+    }
+    ByteBuffer record = window.duplicate();
+    int position = (int) (index - start) * recordLength;
+    record.position(position);
+    record.limit(position + recordLength);
+    return record.slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * Gets the next record and advances the persisted read offset.
+   *
+   * @return a read-only buffer holding exactly the bytes of the record
+   * @throws IllegalStateException if there are no more records
+   */
+  public synchronized ByteBuffer next() {
+    if (readOffset >= recordCount) {
+      throw new IllegalStateException("No more records, all " + recordCount + " have been read");
+    }
+    ByteBuffer record = get(readOffset);
+    readOffset++;
+    header.putLong(READ_OFFSET_POSITION, readOffset);
+    return record;
+  }
+
+  private MappedByteBuffer map(long position, long size) {
+    try {
+      return channel.map(MapMode.READ_ONLY, position, size);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not map records of preprocessing file", e);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    header.force();
+    window = null;
+    channel.close();
+  }
+
+  /**
+   * Creates a new file of records, overwriting any existing file.
+   *
+   * @param path the path of the file
+   * @param elementLength the number of bytes of each element
+   * @param recordElements the number of elements in each record
+   * @return a writer appending records to the file
+   * @throws IOException if the file could not be created
+   */
+  public static Writer create(Path path, int elementLength, int recordElements)
+      throws IOException {
+    return new Writer(path, elementLength, recordElements);
+  }
+
+  /**
+   * Appends records to a new file. The number of records is written to the header when the writer
+   * is closed.
+   */
+  public static final class Writer implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final FileChannel channel;
+    private final int elementLength;
+    private final int recordElements;
+    private final ByteBuffer buffer;
+    private long recordCount;
+
+    private Writer(Path path, int elementLength, int recordElements) throws IOException {
+      if (elementLength < 1 || recordElements < 1) {
+        throw new IllegalArgumentException(
+            "Element length and record elements must be positive, was " + elementLength + " and "
+                + recordElements);
+      }
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+      this.elementLength = elementLength;
+      this.recordElements = recordElements;
+      this.buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, elementLength * recordElements));
+      buffer.putInt(MAGIC);
+      buffer.putInt(VERSION);
+      buffer.putInt(elementLength);
+      buffer.putInt(recordElements);
+      buffer.putLong(0);
+      buffer.putLong(0);
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param elements the serialized elements of the record
+     * @throws IOException if the record could not be written
+     */
+    public void write(byte[]... elements) throws IOException {
+      if (elements.length != recordElements) {
+        throw new IllegalArgumentException(
+            "Expected " + recordElements + " elements, but got " + elements.length);
+      }
+      for (byte[] element : elements) {
+        if (element.length != elementLength) {
+          throw new IllegalArgumentException(
+              "Expected element of " + elementLength + " bytes, but got " + element.length);
+        }
+      }
+      if (buffer.remaining() < elementLength * recordElements) {
+        flush();
+      }
+      for (byte[] element : elements) {
+        buffer.put(element);
+      }
+      recordCount++;
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        flush();
+        ByteBuffer count = ByteBuffer.allocate(Long.BYTES);
+        count.putLong(recordCount);
+        count.flip();
+        while (count.hasRemaining()) {
+          channel.write(count, RECORD_COUNT_POSITION + count.position());
+        }
+      } finally {
+        channel.close();
+      }
+    }
+  }
+}
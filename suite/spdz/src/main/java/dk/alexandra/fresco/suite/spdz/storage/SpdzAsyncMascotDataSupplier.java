@@ -0,0 +1,294 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.preprocessing.MascotFormatConverter;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier based on the Mascot protocol, which generates the preprocessed material in a
+ * background thread while the online phase is running.
+ * <p>
+ * Each kind of material (triples, input masks towards each party, random elements and bits) is
+ * kept in its own queue. When the number of elements of a queue, counting elements requested but
+ * not yet generated, drops to the low watermark, batches are requested until it reaches the high
+ * watermark. The requests are handled in order by a single background thread owning the
+ * {@link Mascot} instance, which uses its own network and instance id. The requests are issued
+ * by the online phase when it consumes material, which it does in the same order for all parties,
+ * so all parties run the same sequence of Mascot computations. The online phase only blocks if a
+ * queue is actually empty.
+ * </p>
+ */
+public class SpdzAsyncMascotDataSupplier implements SpdzDataSupplier, PerformanceLogger,
+    Closeable {
+
+  public static final String TRIPLES = "MASCOT_TRIPLES";
+  public static final String INPUT_MASKS = "MASCOT_INPUT_MASKS_";
+  public static final String RANDOM_ELEMENTS = "MASCOT_RANDOM_ELEMENTS";
+  public static final String BITS = "MASCOT_BITS";
+  public static final String AVAILABLE_SUFFIX = "_AVAILABLE";
+  public static final String WAITS_SUFFIX = "_WAITS";
+  private static final long POLL_MILLIS = 100;
+  private static final Logger logger = LoggerFactory.getLogger(SpdzAsyncMascotDataSupplier.class);
+
+  private final int myId;
+  private final int numberOfPlayers;
+  private final int instanceId;
+  private final Supplier<Network> tripleNetwork;
+  private final FieldDefinition fieldDefinition;
+  private final Function<Integer, SpdzSInt[]> preprocessedValues;
+  private final FieldElement ssk;
+  private final int prgSeedLength;
+  private final int modBitLength;
+  private final int batchSize;
+  private final int lowWatermark;
+  private final int highWatermark;
+  private final Drbg drbg;
+  private final Map<Integer, RotList> seedOts;
+  private final ExecutorService worker;
+  private final MaterialQueue<MultiplicationTriple> triples;
+  private final Map<Integer, MaterialQueue<InputMask>> masks;
+  private final MaterialQueue<AuthenticatedElement> randomElements;
+  private final MaterialQueue<AuthenticatedElement> randomBits;
+  private volatile RuntimeException failure;
+  private Mascot mascot;
+
+  /**
+   * Creates {@link SpdzAsyncMascotDataSupplier}.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param instanceId identifier used to distinguish parallel instances of Mascot
+   * @param tripleNetwork network supplier for the network used by the Mascot instance, which must
+   *     not be used by the online phase
+   * @param fieldDefinition field definition
+   * @param modBitLength bit length of modulus
+   * @param preprocessedValues callback to generate exponentiation pipes
+   * @param prgSeedLength bit length of prg
+   * @param batchSize batch size in which Mascot will generate pre-processed material
+   * @param lowWatermark the number of elements in a queue at which more batches are requested
+   * @param highWatermark the number of elements in a queue that requests are made up to
+   * @param ssk mac key share
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness
+   */
+  public SpdzAsyncMascotDataSupplier(int myId, int numberOfPlayers, int instanceId,
+      Supplier<Network> tripleNetwork, FieldDefinition fieldDefinition, int modBitLength,
+      Function<Integer, SpdzSInt[]> preprocessedValues, int prgSeedLength, int batchSize,
+      int lowWatermark, int highWatermark, FieldElement ssk, Map<Integer, RotList> seedOts,
+      Drbg drbg) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+      throw new IllegalArgumentException("Watermarks must satisfy 0 <= low < high, was "
+          + lowWatermark + " and " + highWatermark);
+    }
+    this.myId = myId;
+    this.numberOfPlayers = numberOfPlayers;
+    this.instanceId = instanceId;
+    this.tripleNetwork = tripleNetwork;
+    this.fieldDefinition = fieldDefinition;
+    this.preprocessedValues = preprocessedValues;
+    this.prgSeedLength = prgSeedLength;
+    this.modBitLength = modBitLength;
+    this.batchSize = batchSize;
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.ssk = ssk;
+    this.seedOts = seedOts;
+    this.drbg = drbg;
+    this.worker = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "Mascot-" + myId + "-" + instanceId);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.triples = new MaterialQueue<>(TRIPLES, mascot -> mascot.getTriples(batchSize));
+    this.masks = new HashMap<>();
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      final int towardsPlayerId = partyId;
+      masks.put(partyId, new MaterialQueue<>(INPUT_MASKS + partyId,
+          mascot -> mascot.getInputMasks(towardsPlayerId, batchSize)));
+    }
+    this.randomElements = new MaterialQueue<>(RANDOM_ELEMENTS,
+        mascot -> mascot.getRandomElements(batchSize));
+    this.randomBits = new MaterialQueue<>(BITS, mascot -> mascot.getRandomBits(batchSize));
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return MascotFormatConverter.toSpdzTriple(triples.take());
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return MascotFormatConverter.toSpdzSInt(randomElements.take());
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    logger.trace("Getting another exp pipe");
+    SpdzSInt[] pipe = preprocessedValues.apply(modBitLength);
+    logger.trace("Got another exp pipe");
+    return pipe;
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardsPlayerId) {
+    return MascotFormatConverter.toSpdzInputMask(masks.get(towardsPlayerId).take());
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return MascotFormatConverter.toSpdzSInt(randomBits.take());
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return fieldDefinition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  @Override
+  public void reset() {
+    triples.waits = 0;
+    for (MaterialQueue<InputMask> queue : masks.values()) {
+      queue.waits = 0;
+    }
+    randomElements.waits = 0;
+    randomBits.waits = 0;
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    triples.log(values);
+    for (MaterialQueue<InputMask> queue : masks.values()) {
+      queue.log(values);
+    }
+    randomElements.log(values);
+    randomBits.log(values);
+    return values;
+  }
+
+  /**
+   * Stops the background thread. Any material not yet generated will not be available.
+   */
+  @Override
+  public void close() {
+    worker.shutdownNow();
+  }
+
+  private Mascot getMascot() {
+    if (mascot == null) {
+      int numCandidatesPerTriple = 3;
+      mascot = new Mascot(
+          new MascotResourcePoolImpl(myId, numberOfPlayers, instanceId, drbg, seedOts,
+              new MascotSecurityParameters(modBitLength, prgSeedLength,
+                  numCandidatesPerTriple), this.fieldDefinition), tripleNetwork.get(), ssk);
+    }
+    return mascot;
+  }
+
+  /**
+   * A queue of one kind of material, which is filled by the background thread.
+   */
+  private class MaterialQueue<T> {
+
+    private final String name;
+    private final Function<Mascot, List<T>> generator;
+    private final LinkedBlockingQueue<T> available;
+    // Elements requested but not yet consumed, only accessed by the online phase
+    private long level;
+    private long waits;
+
+    private MaterialQueue(String name, Function<Mascot, List<T>> generator) {
+      this.name = name;
+      this.generator = generator;
+      this.available = new LinkedBlockingQueue<>();
+    }
+
+    private T take() {
+      if (level <= lowWatermark) {
+        while (level < highWatermark) {
+          request();
+          level += batchSize;
+        }
+      }
+      level--;
+      T next = available.poll();
+      if (next == null) {
+        waits++;
+        logger.trace("Waiting for " + name);
+        next = await();
+      }
+      return next;
+    }
+
+    private void request() {
+      worker.execute(() -> {
+        if (failure != null) {
+          return;
+        }
+        try {
+          available.addAll(generator.apply(getMascot()));
+        } catch (RuntimeException e) {
+          logger.error("Failed to generate " + name, e);
+          failure = e;
+        }
+      });
+    }
+
+    private T await() {
+      try {
+        T next = null;
+        while (next == null) {
+          if (failure != null) {
+            throw new IllegalStateException("Preprocessing failed", failure);
+          }
+          if (worker.isShutdown()) {
+            throw new IllegalStateException("Supplier has been closed");
+          }
+          next = available.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return next;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for " + name, e);
+      }
+    }
+
+    private void log(Map<String, Long> values) {
+      values.put(name + AVAILABLE_SUFFIX, (long) available.size());
+      values.put(name + WAITS_SUFFIX, waits);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.security.MessageDigest;
+
+/**
+ * Keeps a running digest of broadcast messages which have been received, but not yet validated.
+ *
+ * <p>
+ * Instead of exchanging a digest for every broadcast value, protocols push the received messages to
+ * this store, and the accumulated digest is validated once, together with the next mac check. As
+ * with the mac check, the validation only has to happen before any output is revealed. All parties
+ * must push the same messages in the same order, which is the case when the messages are pushed in
+ * the order the protocols are evaluated.
+ * </p>
+ */
+public class SpdzBroadcastValidationStore {
+
+  private final MessageDigest digest;
+  private long numberOfMessages;
+
+  /**
+   * Creates new {@link SpdzBroadcastValidationStore}. <p>Requires SHA-256 message digest.</p>
+   */
+  public SpdzBroadcastValidationStore() {
+    this.digest = ExceptionConverter.safe(() -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for SpdzBroadcastValidationStore");
+  }
+
+  /**
+   * Adds a received broadcast message to the digest.
+   *
+   * @param message the message as received from the broadcasting party
+   */
+  public void pushReceived(byte[] message) {
+    digest.update(message);
+    numberOfMessages++;
+  }
+
+  /**
+   * Returns the digest of all messages pushed since the last call, and resets the digest.
+   */
+  public byte[] popDigest() {
+    numberOfMessages = 0;
+    return digest.digest();
+  }
+
+  /**
+   * Checks if there are any messages which have not been validated yet.
+   */
+  public boolean hasPendingValues() {
+    return numberOfMessages > 0;
+  }
+}
@@ -0,0 +1,177 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data supplier which supplies the SPDZ protocol suite with preprocessed data read from
+ * memory-mapped {@link MappedRecordFile}s.
+ * <p>
+ * The files are named like the streams used by {@link SpdzStorageDataSupplier}, with the suffix
+ * {@value #FILE_SUFFIX}. The {@link SpdzStorageDataSupplier#GLOBAL_STORAGE} file holds a single
+ * record with the modulus and the share of the secret shared key. Elements are decoded from the
+ * mapped files as they are requested, and the read offset is persisted in each file, so a
+ * restarted party continues with the next unused element. Existing preprocessed material can be
+ * converted using {@link SpdzMappedFormatConverter}.
+ * </p>
+ */
+public class SpdzMappedDataSupplier implements SpdzDataSupplier, Closeable {
+
+  public static final String FILE_SUFFIX = ".bin";
+
+  private final String storageName;
+  private final Map<String, MappedRecordFile> files;
+  private FieldDefinition definition;
+  private FieldElement ssk;
+  private int elementLength;
+
+  /**
+   * Creates a new supplier reading from the mapped files with the given name prefix.
+   *
+   * @param storageName the prefix of the file names, e.g., a folder and a party specific prefix
+   */
+  public SpdzMappedDataSupplier(String storageName) {
+    this.storageName = storageName;
+    this.files = new HashMap<>();
+  }
+
+  /**
+   * Gets the path of the file holding the given stream.
+   *
+   * @param storageName the prefix of the file names
+   * @param stream the name of the stream, e.g., {@link SpdzStorageDataSupplier#TRIPLE_STORAGE}
+   * @return the path of the file
+   */
+  public static Path getPath(String storageName, String stream) {
+    return Paths.get(storageName + stream + FILE_SUFFIX);
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    ByteBuffer record = nextRecord(SpdzStorageDataSupplier.TRIPLE_STORAGE, "Triple");
+    return new SpdzTriple(readSInt(record), readSInt(record), readSInt(record));
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    ByteBuffer record = nextRecord(SpdzStorageDataSupplier.EXP_PIPE_STORAGE, "ExpPipe");
+    SpdzSInt[] expPipe = new SpdzSInt[record.remaining() / (2 * elementLength)];
+    for (int i = 0; i < expPipe.length; i++) {
+      expPipe[i] = readSInt(record);
+    }
+    return expPipe;
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardPlayerId) {
+    ByteBuffer record = nextRecord(SpdzStorageDataSupplier.INPUT_STORAGE + towardPlayerId,
+        "Mask towards player " + towardPlayerId);
+    SpdzSInt mask = readSInt(record);
+    if (record.hasRemaining()) {
+      return new SpdzInputMask(mask, readElement(record));
+    } else {
+      return new SpdzInputMask(mask);
+    }
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return readSInt(nextRecord(SpdzStorageDataSupplier.BIT_STORAGE, "Bit"));
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    if (definition == null) {
+      readGlobals();
+    }
+    return definition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    if (ssk == null) {
+      readGlobals();
+    }
+    return ssk;
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return getNextTriple().getA();
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (MappedRecordFile file : files.values()) {
+      file.close();
+    }
+    files.clear();
+  }
+
+  private void readGlobals() {
+    ByteBuffer record = getFile(SpdzStorageDataSupplier.GLOBAL_STORAGE, "Modulus").get(0);
+    byte[] modulus = new byte[record.remaining() / 2];
+    record.get(modulus);
+    this.definition = new BigIntegerFieldDefinition(new BigInteger(1, modulus));
+    this.elementLength = modulus.length;
+    this.ssk = readElement(record);
+  }
+
+  private ByteBuffer nextRecord(String stream, String description) {
+    MappedRecordFile file = getFile(stream, description);
+    if (file.remaining() == 0) {
+      throw new IllegalArgumentException(description + " no. " + file.getRecordCount()
+          + " was not present in the storage: " + getPath(storageName, stream));
+    }
+    return file.next();
+  }
+
+  private MappedRecordFile getFile(String stream, String description) {
+    MappedRecordFile file = files.get(stream);
+    if (file == null) {
+      Path path = getPath(storageName, stream);
+      if (!Files.exists(path)) {
+        throw new IllegalArgumentException(
+            description + " was not present in the storage: " + path);
+      }
+      try {
+        file = MappedRecordFile.open(path);
+      } catch (IOException e) {
+        throw new RuntimeException("Could not open preprocessing file " + path, e);
+      }
+      files.put(stream, file);
+      if (!stream.equals(SpdzStorageDataSupplier.GLOBAL_STORAGE)) {
+        getFieldDefinition();
+        if (file.getElementLength() != elementLength) {
+          throw new IllegalArgumentException("Elements in " + path + " have length "
+              + file.getElementLength() + ", but the modulus has length " + elementLength);
+        }
+      }
+    }
+    return file;
+  }
+
+  private SpdzSInt readSInt(ByteBuffer record) {
+    FieldElement share = readElement(record);
+    return new SpdzSInt(share, readElement(record));
+  }
+
+  private FieldElement readElement(ByteBuffer record) {
+    byte[] bytes = new byte[elementLength];
+    record.get(bytes);
+    return definition.deserialize(bytes);
+  }
+}
@@ -0,0 +1,135 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
+import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.framework.sce.resources.storage.StreamedStorage;
+import dk.alexandra.fresco.framework.sce.resources.storage.exceptions.NoMoreElementsException;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Converts preprocessed material stored as serialized objects, as read by
+ * {@link SpdzStorageDataSupplier}, to the memory-mapped format read by
+ * {@link SpdzMappedDataSupplier}.
+ */
+public class SpdzMappedFormatConverter {
+
+  private SpdzMappedFormatConverter() {
+  }
+
+  /**
+   * Converts all preprocessed material of a single party.
+   *
+   * @param storage the storage holding the serialized material
+   * @param storageName the storage name used by {@link SpdzStorageDataSupplier}
+   * @param targetName the storage name used by {@link SpdzMappedDataSupplier}
+   * @param noOfParties the number of parties in the computation
+   * @throws IOException if the mapped files could not be written
+   */
+  public static void convert(StreamedStorage storage, String storageName, String targetName,
+      int noOfParties) throws IOException {
+    BigInteger modulus = next(storage, storageName + SpdzStorageDataSupplier.MODULUS_KEY);
+    FieldElement ssk = next(storage, storageName + SpdzStorageDataSupplier.SSK_KEY);
+    if (modulus == null || ssk == null) {
+      throw new IllegalArgumentException("Modulus and SSK must be present in " + storageName);
+    }
+    FieldDefinition definition = new BigIntegerFieldDefinition(modulus);
+    byte[] modulusBytes = definition.serialize(definition.createElement(0));
+    byte[] magnitude = modulus.toByteArray();
+    System.arraycopy(magnitude, magnitude.length - modulusBytes.length, modulusBytes, 0,
+        modulusBytes.length);
+    try (MappedRecordFile.Writer writer = MappedRecordFile.create(
+        SpdzMappedDataSupplier.getPath(targetName, SpdzStorageDataSupplier.GLOBAL_STORAGE),
+        modulusBytes.length, 2)) {
+      writer.write(modulusBytes, definition.serialize(ssk));
+    }
+    convertStream(storage, storageName, targetName, SpdzStorageDataSupplier.TRIPLE_STORAGE,
+        definition, (SpdzTriple triple) -> toElements(triple.getA(), triple.getB(),
+            triple.getC()));
+    for (int i = 1; i <= noOfParties; i++) {
+      convertStream(storage, storageName, targetName, SpdzStorageDataSupplier.INPUT_STORAGE + i,
+          definition, (SpdzInputMask mask) -> {
+            List<FieldElement> elements = toElements(mask.getMask());
+            if (mask.getRealValue() != null) {
+              elements.add(mask.getRealValue());
+            }
+            return elements;
+          });
+    }
+    convertStream(storage, storageName, targetName, SpdzStorageDataSupplier.BIT_STORAGE,
+        definition, (SpdzSInt bit) -> toElements(bit));
+    convertStream(storage, storageName, targetName, SpdzStorageDataSupplier.EXP_PIPE_STORAGE,
+        definition, (SpdzSInt[] expPipe) -> toElements(expPipe));
+  }
+
+  /**
+   * Converts the file based material of a single party.
+   *
+   * @param args the storage name of the serialized material, the storage name of the mapped
+   *     material and the number of parties
+   * @throws IOException if the mapped files could not be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 3) {
+      System.err.println("Usage: SpdzMappedFormatConverter <storageName> <targetName> "
+          + "<noOfParties>");
+      return;
+    }
+    FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    try {
+      convert(storage, args[0], args[1], Integer.parseInt(args[2]));
+    } finally {
+      storage.shutdown();
+    }
+  }
+
+  private static <T extends Serializable> void convertStream(StreamedStorage storage,
+      String storageName, String targetName, String stream, FieldDefinition definition,
+      Function<T, List<FieldElement>> converter) throws IOException {
+    T next = next(storage, storageName + stream);
+    if (next == null) {
+      return;
+    }
+    List<FieldElement> elements = converter.apply(next);
+    int elementLength = definition.serialize(elements.get(0)).length;
+    try (MappedRecordFile.Writer writer = MappedRecordFile.create(
+        SpdzMappedDataSupplier.getPath(targetName, stream), elementLength, elements.size())) {
+      while (next != null) {
+        elements = converter.apply(next);
+        byte[][] record = new byte[elements.size()][];
+        for (int i = 0; i < record.length; i++) {
+          record[i] = definition.serialize(elements.get(i));
+        }
+        writer.write(record);
+        next = next(storage, storageName + stream);
+      }
+    }
+  }
+
+  private static List<FieldElement> toElements(SpdzSInt... values) {
+    List<FieldElement> elements = new ArrayList<>(2 * values.length + 1);
+    for (SpdzSInt value : values) {
+      elements.add(value.getShare());
+      elements.add(value.getMac());
+    }
+    return elements;
+  }
+
+  private static <T extends Serializable> T next(StreamedStorage storage, String name) {
+    try {
+      return storage.getNext(name);
+    } catch (NoMoreElementsException e) {
+      return null;
+    }
+  }
+}
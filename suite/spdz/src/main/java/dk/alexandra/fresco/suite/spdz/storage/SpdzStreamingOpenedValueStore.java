@@ -0,0 +1,173 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An {@link OpenedValueStore} which folds the opened values into a random linear combination as
+ * they are pushed, instead of keeping them until the mac check.
+ *
+ * <p>
+ * The store keeps the running sums <i>a = &Sigma; r<sub>i</sub> x<sub>i</sub></i> over the opened
+ * values <i>x<sub>i</sub></i>, and <i>&Sigma; r<sub>i</sub> [x<sub>i</sub>]</i> over this party's
+ * authenticated shares of the values, so the memory used does not grow with the number of opened
+ * values. {@link #popValues()} returns the combination as a single value, which is checked by
+ * {@link dk.alexandra.fresco.suite.spdz.gates.SpdzStreamingMacCheckProtocol}. As the coefficients
+ * are already fixed, that check only has to commit to and open a single mac error, without tossing
+ * coins for new coefficients.
+ * </p>
+ * <p>
+ * The coefficients must not be known before the values they are applied to have been opened, as a
+ * malicious party could otherwise introduce errors which cancel out. The values are therefore
+ * folded in chunks, and the coefficients of a chunk are drawn from a DRBG seeded with a hash of the
+ * opened values of the chunk, chained with the hashes of all previous chunks. As all parties see
+ * the same opened values, they agree on the coefficients without any communication. Cancelling
+ * errors then requires finding a chunk whose hash yields coefficients satisfying a fixed equation,
+ * which succeeds with probability about 1 / <i>p</i> per hash evaluation. The modulus must thus be
+ * large enough that such a search is infeasible, so moduli of less than {@value
+ * #MIN_MODULUS_BIT_LENGTH} bits are not allowed.
+ * </p>
+ */
+public class SpdzStreamingOpenedValueStore implements OpenedValueStore<SpdzSInt, FieldElement> {
+
+  /**
+   * The minimum bit length of the modulus.
+   */
+  public static final int MIN_MODULUS_BIT_LENGTH = 128;
+  private static final int DEFAULT_CHUNK_SIZE = 1024;
+  private final FieldDefinition definition;
+  private final Function<byte[], Drbg> drbgSupplier;
+  private final int chunkSize;
+  private final MessageDigest digest;
+  private final int coefficientByteLength;
+  private final List<SpdzSInt> pendingSharesWithMacs;
+  private final List<FieldElement> pendingOpenedValues;
+  private byte[] chainValue;
+  private FieldElement openedValueSum;
+  private SpdzSInt combination;
+  private long numberOfValues;
+
+  /**
+   * Creates new {@link SpdzStreamingOpenedValueStore}.
+   *
+   * @param definition the field definition of the opened values
+   * @param drbgSupplier function instantiating a DRBG from a 32 byte seed
+   * @param chunkSize the number of values folded at a time, i.e., the number of values kept in
+   *     memory
+   * @throws IllegalArgumentException if the modulus has less than {@value #MIN_MODULUS_BIT_LENGTH}
+   *     bits
+   */
+  public SpdzStreamingOpenedValueStore(FieldDefinition definition,
+      Function<byte[], Drbg> drbgSupplier, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive, but was " + chunkSize);
+    }
+    int modulusBitLength = definition.getModulus().bitLength();
+    if (modulusBitLength < MIN_MODULUS_BIT_LENGTH) {
+      throw new IllegalArgumentException("The streaming mac check needs a modulus of at least "
+          + MIN_MODULUS_BIT_LENGTH + " bits, but was " + modulusBitLength);
+    }
+    this.definition = definition;
+    this.drbgSupplier = drbgSupplier;
+    this.chunkSize = chunkSize;
+    this.digest = ExceptionConverter.safe(() -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for the streaming mac check");
+    this.coefficientByteLength = modulusBitLength / Byte.SIZE;
+    this.pendingSharesWithMacs = new ArrayList<>();
+    this.pendingOpenedValues = new ArrayList<>();
+    this.chainValue = new byte[0];
+    this.openedValueSum = definition.createElement(0);
+    this.combination = new SpdzSInt(definition.createElement(0), definition.createElement(0));
+  }
+
+  /**
+   * Creates new {@link SpdzStreamingOpenedValueStore} folding {@value #DEFAULT_CHUNK_SIZE} values
+   * at a time.
+   *
+   * @param definition the field definition of the opened values
+   * @param drbgSupplier function instantiating a DRBG from a 32 byte seed
+   */
+  public SpdzStreamingOpenedValueStore(FieldDefinition definition,
+      Function<byte[], Drbg> drbgSupplier) {
+    this(definition, drbgSupplier, DEFAULT_CHUNK_SIZE);
+  }
+
+  @Override
+  public void pushOpenedValues(List<SpdzSInt> newSharesWithMacs,
+      List<FieldElement> newOpenedValues) {
+    for (int i = 0; i < newSharesWithMacs.size(); i++) {
+      pushOpenedValue(newSharesWithMacs.get(i), newOpenedValues.get(i));
+    }
+  }
+
+  @Override
+  public void pushOpenedValue(SpdzSInt newShareWithMac, FieldElement newOpenedValue) {
+    pendingSharesWithMacs.add(newShareWithMac);
+    pendingOpenedValues.add(newOpenedValue);
+    numberOfValues++;
+    if (pendingOpenedValues.size() >= chunkSize) {
+      fold();
+    }
+  }
+
+  /**
+   * Retrieves the random linear combination of all values pushed since the last call, and resets
+   * the sums. The opened values are not kept, so the lists hold a single value, or no values if
+   * nothing has been pushed.
+   *
+   * @return a pair of lists holding this party's share of the combination of the authenticated
+   *     values and the combination of the opened values
+   */
+  @Override
+  public Pair<List<SpdzSInt>, List<FieldElement>> popValues() {
+    List<SpdzSInt> sharesWithMacs = new ArrayList<>(1);
+    List<FieldElement> openedValues = new ArrayList<>(1);
+    if (hasPendingValues()) {
+      fold();
+      sharesWithMacs.add(combination);
+      openedValues.add(openedValueSum);
+      openedValueSum = definition.createElement(0);
+      combination = new SpdzSInt(definition.createElement(0), definition.createElement(0));
+      numberOfValues = 0;
+    }
+    return new Pair<>(sharesWithMacs, openedValues);
+  }
+
+  @Override
+  public boolean hasPendingValues() {
+    return numberOfValues > 0;
+  }
+
+  @Override
+  public boolean exceedsThreshold(int threshold) {
+    return numberOfValues > threshold;
+  }
+
+  private void fold() {
+    if (pendingOpenedValues.isEmpty()) {
+      return;
+    }
+    digest.update(chainValue);
+    chainValue = digest.digest(definition.serialize(pendingOpenedValues));
+    Drbg drbg = drbgSupplier.apply(chainValue);
+    for (int i = 0; i < pendingOpenedValues.size(); i++) {
+      byte[] bytes = new byte[coefficientByteLength];
+      drbg.nextBytes(bytes);
+      FieldElement coefficient = definition.createElement(new BigInteger(bytes));
+      openedValueSum = openedValueSum.add(pendingOpenedValues.get(i).multiply(coefficient));
+      combination = combination.add(pendingSharesWithMacs.get(i).multiply(coefficient));
+    }
+    pendingSharesWithMacs.clear();
+    pendingOpenedValues.clear();
+  }
+}
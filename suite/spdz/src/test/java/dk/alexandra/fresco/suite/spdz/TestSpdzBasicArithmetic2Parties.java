@@ -118,6 +118,22 @@ public class TestSpdzBasicArithmetic2Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2, 256, 128, 16);
   }
 
+  @Test
+  public void test_Mult_Vector() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_Input_Vector() {
+    runTest(new BasicArithmeticTests.TestInputVector<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_Pipelined_Batched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PIPELINED_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
   @Test
   public void testOpenNoConversionByDefaultMascot() {
     runTest(new TestOpenNoConversionByDefault<>(),
@@ -23,6 +23,12 @@ public class TestSpdzBasicArithmetic3Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 3);
   }
 
+  @Test
+  public void test_Input_Vector() {
+    runTest(new BasicArithmeticTests.TestInputVector<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
   @Test
   public void test_Sum_And_Output_Sequential() {
     runTest(new BasicArithmeticTests.TestSumAndMult<>(),
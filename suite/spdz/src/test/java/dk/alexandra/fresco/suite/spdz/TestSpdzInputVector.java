@@ -0,0 +1,153 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.ProtocolEvaluator;
+import dk.alexandra.fresco.framework.TestThreadRunner;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadConfiguration;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSpdzInputVector {
+
+  private static final int NO_OF_PARTIES = 3;
+  private static final int SIZE = 10;
+  private final FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+
+  @Test
+  public void testBroadcastValidated() {
+    runTest(new TestInputAndOpen<>(), false);
+  }
+
+  @Test
+  public void testInconsistentBroadcast() {
+    try {
+      runTest(new TestInputAndOpen<>(), true);
+      Assert.fail("Inconsistent broadcast was not detected");
+    } catch (RuntimeException e) {
+      Throwable cause = e;
+      while (cause != null && !(cause instanceof MaliciousException)) {
+        cause = cause.getCause();
+      }
+      Assert.assertNotNull(cause);
+      Assert.assertEquals("Broadcast validation failed", cause.getMessage());
+    }
+  }
+
+  private void runTest(TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
+      boolean inconsistentBroadcast) {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(NO_OF_PARTIES);
+    Map<Integer, TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric>> conf =
+        new HashMap<>();
+    for (int playerId : networks.keySet()) {
+      SpdzProtocolSuite protocolSuite = new SpdzProtocolSuite(64);
+      ProtocolEvaluator<SpdzResourcePool> evaluator = new BatchedProtocolEvaluator<>(
+          EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(), protocolSuite);
+      SecureComputationEngine<SpdzResourcePool, ProtocolBuilderNumeric> sce =
+          new SecureComputationEngineImpl<>(protocolSuite, evaluator);
+      Network network = inconsistentBroadcast && playerId == 1
+          ? new TamperingNetwork(networks.get(playerId))
+          : networks.get(playerId);
+      conf.put(playerId, new TestThreadConfiguration<>(sce,
+          () -> createResourcePool(playerId), () -> network));
+    }
+    TestThreadRunner.run(f, conf);
+  }
+
+  private SpdzResourcePool createResourcePool(int myId) {
+    BigInteger macKey = new BigInteger(128, new Random(0)).mod(definition.getModulus());
+    return new SpdzResourcePoolImpl(myId, NO_OF_PARTIES, new OpenedValueStoreImpl<>(),
+        new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition, macKey), AesCtrDrbg::new);
+  }
+
+  /**
+   * Network modifying the first message sent to party 3, such that party 3 receives a different
+   * broadcast than the other parties.
+   */
+  private static class TamperingNetwork implements Network {
+
+    private final Network delegate;
+    private boolean tampered;
+
+    TamperingNetwork(Network delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      if (partyId == 3 && !tampered) {
+        data = Arrays.copyOf(data, data.length);
+        data[data.length - 1] ^= 1;
+        tampered = true;
+      }
+      delegate.send(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return delegate.receive(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return delegate.getNoOfParties();
+    }
+  }
+
+  private static class TestInputAndOpen<ResourcePoolT extends SpdzResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = root -> {
+            int myId = root.getBasicNumericContext().getMyId();
+            List<BigInteger> values = new ArrayList<>(SIZE);
+            for (int i = 0; i < SIZE; i++) {
+              values.add(myId == 1 ? BigInteger.valueOf(i) : null);
+            }
+            DRes<List<DRes<SInt>>> inputs = root.numeric().inputVector(values, 1);
+            return root.par(par -> {
+              List<DRes<BigInteger>> opened = inputs.out().stream()
+                  .map(par.numeric()::open)
+                  .collect(Collectors.toList());
+              return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+            });
+          };
+          List<BigInteger> output = runApplication(app);
+          for (int i = 0; i < SIZE; i++) {
+            Assert.assertEquals(BigInteger.valueOf(i), output.get(i));
+          }
+          Assert.assertFalse(conf.getResourcePool().getBroadcastValidationStore()
+              .hasPendingValues());
+        }
+      };
+    }
+  }
+}
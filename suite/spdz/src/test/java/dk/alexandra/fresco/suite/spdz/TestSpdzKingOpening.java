@@ -0,0 +1,148 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.ProtocolEvaluator;
+import dk.alexandra.fresco.framework.TestThreadRunner;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadConfiguration;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSpdzKingOpening {
+
+  private static final int NO_OF_PARTIES = 3;
+  private final FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+
+  @Test
+  public void testSumAndMult() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(), false);
+  }
+
+  @Test
+  public void testAlternatingMultAdd() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), false);
+  }
+
+  @Test
+  public void testMultVector() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), false);
+  }
+
+  @Test
+  public void testMaliciousKing() {
+    try {
+      runTest(new TestMultAndOpen<>(), true);
+      Assert.fail("Malicious king was not detected");
+    } catch (RuntimeException e) {
+      Throwable cause = e;
+      while (cause != null && !(cause instanceof MaliciousException)) {
+        cause = cause.getCause();
+      }
+      Assert.assertNotNull(cause);
+    }
+  }
+
+  private void runTest(TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
+      boolean maliciousKing) {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(NO_OF_PARTIES);
+    Map<Integer, TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric>> conf =
+        new HashMap<>();
+    for (int playerId : networks.keySet()) {
+      SpdzProtocolSuite protocolSuite = new SpdzProtocolSuite(64);
+      ProtocolEvaluator<SpdzResourcePool> evaluator = new BatchedProtocolEvaluator<>(
+          EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(), protocolSuite);
+      SecureComputationEngine<SpdzResourcePool, ProtocolBuilderNumeric> sce =
+          new SecureComputationEngineImpl<>(protocolSuite, evaluator);
+      Network network = maliciousKing && playerId == 1
+          ? new TamperingNetwork(networks.get(playerId))
+          : networks.get(playerId);
+      conf.put(playerId, new TestThreadConfiguration<>(sce,
+          () -> createResourcePool(playerId), () -> network));
+    }
+    TestThreadRunner.run(f, conf);
+  }
+
+  private SpdzResourcePool createResourcePool(int myId) {
+    BigInteger macKey = new BigInteger(128, new Random(0)).mod(definition.getModulus());
+    return new SpdzResourcePoolImpl(myId, NO_OF_PARTIES, new OpenedValueStoreImpl<>(),
+        new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition, macKey), AesCtrDrbg::new,
+        256, OpeningStrategy.KING);
+  }
+
+  /**
+   * Network modifying the first message sent to party 2. As party 1 is the king of the first
+   * opening, this is the opened value it sends to party 2.
+   */
+  private static class TamperingNetwork implements Network {
+
+    private final Network delegate;
+    private boolean tampered;
+
+    TamperingNetwork(Network delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      if (partyId == 2 && !tampered) {
+        data = Arrays.copyOf(data, data.length);
+        data[data.length - 1] ^= 1;
+        tampered = true;
+      }
+      delegate.send(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return delegate.receive(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return delegate.getNoOfParties();
+    }
+  }
+
+  private static class TestMultAndOpen<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<BigInteger, ProtocolBuilderNumeric> app = root -> {
+            DRes<SInt> left = root.numeric().known(BigInteger.valueOf(3));
+            DRes<SInt> right = root.numeric().known(BigInteger.valueOf(5));
+            return root.numeric().open(root.numeric().mult(left, right));
+          };
+          runApplication(app);
+        }
+      };
+    }
+  }
+}
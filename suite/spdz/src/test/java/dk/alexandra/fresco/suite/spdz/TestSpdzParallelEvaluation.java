@@ -0,0 +1,102 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.ProtocolEvaluator;
+import dk.alexandra.fresco.framework.TestThreadRunner;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadConfiguration;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.ParallelBatchedStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+/**
+ * Tests evaluating SPDZ using the {@link ParallelBatchedStrategy} with small slices, such that the
+ * protocols of a batch are evaluated concurrently. As preprocessed material, kings and opened
+ * values are handled in protocol order, the parties agree on them and the final mac check
+ * succeeds.
+ */
+public class TestSpdzParallelEvaluation {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int SLICE_SIZE = 3;
+  private final FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+
+  @Test
+  public void testInput() {
+    runTest(new BasicArithmeticTests.TestInput<>(), OpeningStrategy.ALL_TO_ALL);
+  }
+
+  @Test
+  public void testInputVector() {
+    runTest(new BasicArithmeticTests.TestInputVector<>(), OpeningStrategy.ALL_TO_ALL);
+  }
+
+  @Test
+  public void testOutputToSingleParty() {
+    runTest(new BasicArithmeticTests.TestOutputToSingleParty<>(), OpeningStrategy.ALL_TO_ALL);
+  }
+
+  @Test
+  public void testLotsMult() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), OpeningStrategy.ALL_TO_ALL);
+  }
+
+  @Test
+  public void testLotsMultKing() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), OpeningStrategy.KING);
+  }
+
+  @Test
+  public void testMultVectorKing() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), OpeningStrategy.KING);
+  }
+
+  @Test
+  public void testAlternatingMultAddKing() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), OpeningStrategy.KING);
+  }
+
+  @Test
+  public void testRandomElement() {
+    runTest(new BasicArithmeticTests.TestRandomElement<>(), OpeningStrategy.ALL_TO_ALL);
+  }
+
+  private void runTest(TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
+      OpeningStrategy openingStrategy) {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(NO_OF_PARTIES);
+    Map<Integer, TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric>> conf =
+        new HashMap<>();
+    for (int playerId : networks.keySet()) {
+      SpdzProtocolSuite protocolSuite = new SpdzProtocolSuite(64);
+      ProtocolEvaluator<SpdzResourcePool> evaluator = new BatchedProtocolEvaluator<>(
+          new ParallelBatchedStrategy<>(SLICE_SIZE, new ForkJoinPool(4)), protocolSuite);
+      SecureComputationEngine<SpdzResourcePool, ProtocolBuilderNumeric> sce =
+          new SecureComputationEngineImpl<>(protocolSuite, evaluator);
+      conf.put(playerId, new TestThreadConfiguration<>(sce,
+          () -> createResourcePool(playerId, openingStrategy), () -> networks.get(playerId)));
+    }
+    TestThreadRunner.run(f, conf);
+  }
+
+  private SpdzResourcePool createResourcePool(int myId, OpeningStrategy openingStrategy) {
+    BigInteger macKey = new BigInteger(128, new Random(0)).mod(definition.getModulus());
+    return new SpdzResourcePoolImpl(myId, NO_OF_PARTIES, new OpenedValueStoreImpl<>(),
+        new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition, macKey), AesCtrDrbg::new,
+        256, openingStrategy);
+  }
+}
@@ -0,0 +1,128 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadConfiguration;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import dk.alexandra.fresco.framework.sce.Binding;
+import dk.alexandra.fresco.framework.sce.RecordedApplication;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests recording an application evaluated by two SPDZ parties and replaying it on new inputs. Each
+ * replay takes fresh triples, and the mac check of each evaluation succeeds.
+ */
+public class TestSpdzReplay {
+
+  private static final int NO_OF_PARTIES = 2;
+  private final FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+
+  @Test
+  public void testReplay() {
+    runTest(new TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric>() {
+      @Override
+      public TestThread<SpdzResourcePool, ProtocolBuilderNumeric> next() {
+        return new TestThread<SpdzResourcePool, ProtocolBuilderNumeric>() {
+          @Override
+          public void test() {
+            Binding<SInt> x = new Binding<>(input(3));
+            Binding<SInt> y = new Binding<>(input(4));
+            Application<List<BigInteger>, ProtocolBuilderNumeric> app = builder -> {
+              DRes<SInt> product = builder.numeric().mult(x, y);
+              DRes<BigInteger> sum = builder.numeric().open(builder.numeric().add(product, x));
+              DRes<BigInteger> square = builder.seq(seq -> seq.numeric().open(
+                  seq.numeric().mult(product, product)));
+              return () -> Arrays.asList(sum.out(), square.out());
+            };
+            RecordedApplication<List<BigInteger>> recorded =
+                conf.sce.recordApplication(app, conf.getResourcePool(), conf.getNetwork());
+            assertEquals(Arrays.asList(BigInteger.valueOf(15), BigInteger.valueOf(144)),
+                recorded.getOutput());
+
+            x.bind(input(5));
+            y.bind(input(6));
+            for (int i = 0; i < 2; i++) {
+              assertEquals(Arrays.asList(BigInteger.valueOf(35), BigInteger.valueOf(900)),
+                  conf.sce.replayApplication(recorded, conf.getResourcePool(),
+                      conf.getNetwork()));
+            }
+          }
+
+          private SInt input(int value) {
+            return runApplication(builder -> builder.numeric().input(BigInteger.valueOf(value), 1));
+          }
+        };
+      }
+    });
+  }
+
+  @Test
+  public void testInputCannotBeRecorded() {
+    runTest(new TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric>() {
+      @Override
+      public TestThread<SpdzResourcePool, ProtocolBuilderNumeric> next() {
+        return new TestThread<SpdzResourcePool, ProtocolBuilderNumeric>() {
+          @Override
+          public void test() {
+            // Inputs are not replayable, since the input value is fixed when the protocol is built
+            Application<BigInteger, ProtocolBuilderNumeric> app = builder -> builder.numeric()
+                .open(builder.numeric().input(BigInteger.ONE, 1));
+            try {
+              conf.sce.recordApplication(app, conf.getResourcePool(), conf.getNetwork());
+            } catch (RuntimeException e) {
+              assertTrue(e.getCause() instanceof UnsupportedOperationException);
+              return;
+            }
+            throw new AssertionError("Recording should fail");
+          }
+        };
+      }
+    });
+  }
+
+  private void runTest(TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f) {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(NO_OF_PARTIES);
+    Map<Integer, TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric>> conf =
+        new HashMap<>();
+    for (int playerId : networks.keySet()) {
+      SpdzProtocolSuite protocolSuite = new SpdzProtocolSuite(64);
+      SecureComputationEngine<SpdzResourcePool, ProtocolBuilderNumeric> sce =
+          new SecureComputationEngineImpl<>(protocolSuite,
+              new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), protocolSuite));
+      conf.put(playerId, new TestThreadConfiguration<>(sce,
+          () -> createResourcePool(playerId), () -> networks.get(playerId)));
+    }
+    TestThreadRunner.run(f, conf);
+  }
+
+  private SpdzResourcePool createResourcePool(int myId) {
+    BigInteger macKey = new BigInteger(128, new Random(0)).mod(definition.getModulus());
+    return new SpdzResourcePoolImpl(myId, NO_OF_PARTIES, new OpenedValueStoreImpl<>(),
+        new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition, macKey), AesCtrDrbg::new,
+        256, OpeningStrategy.ALL_TO_ALL);
+  }
+}
@@ -0,0 +1,62 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class TestSpdzMultVectorProtocol {
+
+  private final FieldDefinition definition = MersennePrimeFieldDefinition.find(64);
+
+  @Test(expected = MaliciousException.class)
+  public void testWrongNumberOfShares() {
+    SpdzResourcePool resourcePool = new SpdzResourcePoolImpl(1, 2, new OpenedValueStoreImpl<>(),
+        new SpdzDummyDataSupplier(1, 2, definition, BigInteger.TEN), AesCtrDrbg::new, 256,
+        OpeningStrategy.ALL_TO_ALL);
+    SpdzSInt value = new SpdzSInt(definition.createElement(1), definition.createElement(10));
+    List<DRes<SInt>> vector = Arrays.asList(value, value);
+    SpdzMultVectorProtocol protocol = new SpdzMultVectorProtocol(vector, vector);
+    Map<Integer, byte[]> sent = new HashMap<>();
+    Network network = new Network() {
+      @Override
+      public void send(int partyId, byte[] data) {
+        sent.put(partyId, data);
+      }
+
+      @Override
+      public byte[] receive(int partyId) {
+        if (partyId == 1) {
+          return sent.get(1);
+        }
+        // The other party sends the differences of a single entry instead of two
+        List<FieldElement> shares = Collections.nCopies(2, definition.createElement(0));
+        return definition.serialize(shares);
+      }
+
+      @Override
+      public int getNoOfParties() {
+        return 2;
+      }
+    };
+    protocol.evaluate(0, resourcePool, network);
+    protocol.evaluate(1, resourcePool, network);
+  }
+}
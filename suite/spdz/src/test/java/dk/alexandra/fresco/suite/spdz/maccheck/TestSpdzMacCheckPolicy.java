@@ -0,0 +1,190 @@
+package dk.alexandra.fresco.suite.spdz.maccheck;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.ProtocolEvaluator;
+import dk.alexandra.fresco.framework.TestThreadRunner;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadConfiguration;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.MacCheckPolicy;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.SpdzRoundSynchronization;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSpdzMacCheckPolicy {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int NO_OF_OUTPUTS = 4;
+  private static final FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+  private final Map<Integer, AtomicInteger> macChecks = new ConcurrentHashMap<>();
+
+  @Test
+  public void testEveryOutput() {
+    runTest(new TestSequentialOutputs<>(-1, new AtomicBoolean()), MacCheckPolicy.EVERY_OUTPUT);
+    Assert.assertEquals(2 * NO_OF_OUTPUTS, macChecks.get(1).get());
+  }
+
+  @Test
+  public void testBeforeOutput() {
+    runTest(new TestSequentialOutputs<>(-1, new AtomicBoolean()), MacCheckPolicy.BEFORE_OUTPUT);
+    Assert.assertEquals(NO_OF_OUTPUTS + 1, macChecks.get(1).get());
+  }
+
+  @Test
+  public void testAllPoliciesDetectCheatingBeforeOutputIsReleased() {
+    for (MacCheckPolicy policy : MacCheckPolicy.values()) {
+      testDetectsCheating(policy);
+    }
+  }
+
+  /**
+   * Runs an application where a party tampers with a value before it is opened, and checks that
+   * the cheating is detected and that the outputs are not returned to any party.
+   */
+  private void testDetectsCheating(MacCheckPolicy policy) {
+    AtomicBoolean released = new AtomicBoolean();
+    try {
+      runTest(new TestSequentialOutputs<>(2, released), policy);
+      Assert.fail("Cheating was not detected using " + policy);
+    } catch (RuntimeException e) {
+      Throwable cause = e;
+      while (cause != null && !(cause instanceof MaliciousException)) {
+        cause = cause.getCause();
+      }
+      Assert.assertNotNull(cause);
+    }
+    Assert.assertFalse("Output was released using " + policy, released.get());
+  }
+
+  private void runTest(TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
+      MacCheckPolicy policy) {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(NO_OF_PARTIES);
+    Map<Integer, TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric>> conf =
+        new HashMap<>();
+    for (int playerId : networks.keySet()) {
+      AtomicInteger counter = new AtomicInteger();
+      macChecks.put(playerId, counter);
+      SpdzProtocolSuite protocolSuite = new CountingSpdzSuite(policy, counter);
+      ProtocolEvaluator<SpdzResourcePool> evaluator = new BatchedProtocolEvaluator<>(
+          EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(), protocolSuite);
+      SecureComputationEngine<SpdzResourcePool, ProtocolBuilderNumeric> sce =
+          new SecureComputationEngineImpl<>(protocolSuite, evaluator);
+      conf.put(playerId, new TestThreadConfiguration<>(sce,
+          () -> createResourcePool(playerId), () -> networks.get(playerId)));
+    }
+    TestThreadRunner.run(f, conf);
+  }
+
+  private SpdzResourcePool createResourcePool(int myId) {
+    BigInteger macKey = new BigInteger(128, new Random(0)).mod(definition.getModulus());
+    return new SpdzResourcePoolImpl(myId, NO_OF_PARTIES, new OpenedValueStoreImpl<>(),
+        new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition, macKey), AesCtrDrbg::new);
+  }
+
+  /**
+   * Suite counting the number of mac checks performed by its round synchronization.
+   */
+  private static class CountingSpdzSuite extends SpdzProtocolSuite {
+
+    private final MacCheckPolicy policy;
+    private final AtomicInteger counter;
+
+    CountingSpdzSuite(MacCheckPolicy policy, AtomicInteger counter) {
+      super(128, 16, policy);
+      this.policy = policy;
+      this.counter = counter;
+    }
+
+    @Override
+    public RoundSynchronization<SpdzResourcePool> createRoundSynchronization() {
+      return new SpdzRoundSynchronization(this, policy) {
+        @Override
+        protected void doMacCheck(SpdzResourcePool resourcePool, Network network) {
+          counter.incrementAndGet();
+          super.doMacCheck(resourcePool, network);
+        }
+      };
+    }
+  }
+
+  /**
+   * Squares a value and opens the result a number of times in sequence, such that every output
+   * batch is preceded by a batch opening values for a multiplication. Records whether the outputs
+   * have been returned to the application.
+   */
+  private static class TestSequentialOutputs<ResourcePoolT extends SpdzResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private final int cheatingPartyId;
+    private final AtomicBoolean released;
+
+    TestSequentialOutputs(int cheatingPartyId, AtomicBoolean released) {
+      this.cheatingPartyId = cheatingPartyId;
+      this.released = released;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = root -> {
+            List<DRes<BigInteger>> outputs = new ArrayList<>();
+            DRes<SInt> value = root.numeric().known(BigInteger.valueOf(2));
+            for (int i = 0; i < NO_OF_OUTPUTS; i++) {
+              DRes<SInt> squared = root.numeric().mult(value, value);
+              value = root.seq(seq -> {
+                SpdzSInt share = (SpdzSInt) squared.out();
+                if (seq.getBasicNumericContext().getMyId() == cheatingPartyId) {
+                  share = new SpdzSInt(share.getShare().add(definition.createElement(1)),
+                      share.getMac());
+                }
+                return share;
+              });
+              outputs.add(root.numeric().open(value));
+            }
+            return () -> outputs.stream().map(DRes::out).collect(Collectors.toList());
+          };
+          List<BigInteger> outputs = runApplication(app);
+          released.set(true);
+          if (cheatingPartyId < 0) {
+            BigInteger expected = BigInteger.valueOf(2);
+            for (BigInteger output : outputs) {
+              expected = expected.multiply(expected);
+              Assert.assertEquals(expected, output);
+            }
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package dk.alexandra.fresco.suite.spdz.maccheck;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.ProtocolEvaluator;
+import dk.alexandra.fresco.framework.ProtocolEvaluator.EvaluationStatistics;
+import dk.alexandra.fresco.framework.TestThreadRunner;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadConfiguration;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests.TestLotsMult;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests.TestSumAndMult;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzStreamingMacCheckProtocol;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzStreamingOpenedValueStore;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSpdzStreamingMacCheck {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int CHUNK_SIZE = 16;
+  private final FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+
+  @Test
+  public void testLotsMult() {
+    runTest(new TestLotsMult<>(), false);
+  }
+
+  @Test
+  public void testSumAndMult() {
+    runTest(new TestSumAndMult<>(), false);
+  }
+
+  @Test
+  public void testMacCorrupt() {
+    try {
+      runTest(new TestLotsMult<>(), true);
+      Assert.fail("Corrupted mac was not detected");
+    } catch (RuntimeException e) {
+      Throwable cause = e;
+      while (cause != null && !(cause instanceof MaliciousException)) {
+        cause = cause.getCause();
+      }
+      Assert.assertNotNull(cause);
+    }
+  }
+
+  @Test
+  public void testCheckOnlyCommitsAndOpens() throws Exception {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(NO_OF_PARTIES);
+    ExecutorService executor = Executors.newFixedThreadPool(NO_OF_PARTIES);
+    try {
+      List<Future<EvaluationStatistics>> results = new ArrayList<>();
+      for (int playerId : networks.keySet()) {
+        results.add(executor.submit(() -> {
+          SpdzResourcePool resourcePool = createResourcePool(playerId, false);
+          SpdzProtocolSuite protocolSuite = new SpdzProtocolSuite(64);
+          ProtocolBuilderNumeric builder = protocolSuite.init(resourcePool).createSequential();
+          // Both parties hold zero shares of the value zero, so the combination has no mac error
+          SpdzSInt zero = new SpdzSInt(definition.createElement(0), definition.createElement(0));
+          new SpdzStreamingMacCheckProtocol(zero, definition.createElement(0),
+              resourcePool.getDataSupplier().getSecretSharedKey()).buildComputation(builder);
+          return new BatchedProtocolEvaluator<>(
+              EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(), protocolSuite)
+              .eval(builder.build(), resourcePool, networks.get(playerId));
+        }));
+      }
+      for (Future<EvaluationStatistics> result : results) {
+        // One round to broadcast the commitments, and one to open them
+        Assert.assertEquals(2, result.get().getRounds());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void runTest(
+      TestThreadRunner.TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
+      boolean corruptMac) {
+    Map<Integer, InMemoryNetwork> networks = InMemoryNetwork.create(NO_OF_PARTIES);
+    Map<Integer, TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric>> conf =
+        new HashMap<>();
+    for (int playerId : networks.keySet()) {
+      SpdzProtocolSuite protocolSuite = new SpdzProtocolSuite(64);
+      ProtocolEvaluator<SpdzResourcePool> evaluator = new BatchedProtocolEvaluator<>(
+          EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(), protocolSuite);
+      SecureComputationEngine<SpdzResourcePool, ProtocolBuilderNumeric> sce =
+          new SecureComputationEngineImpl<>(protocolSuite, evaluator);
+      conf.put(playerId, new TestThreadConfiguration<>(sce,
+          () -> createResourcePool(playerId, corruptMac && playerId == 1),
+          () -> networks.get(playerId)));
+    }
+    TestThreadRunner.run(f, conf);
+  }
+
+  private SpdzResourcePool createResourcePool(int myId, boolean corruptMac) {
+    SpdzStreamingOpenedValueStore store = corruptMac
+        ? new CorruptingStore(definition)
+        : new SpdzStreamingOpenedValueStore(definition, AesCtrDrbg::new, CHUNK_SIZE);
+    BigInteger macKey = new BigInteger(128, new Random(0)).mod(definition.getModulus());
+    return new SpdzResourcePoolImpl(myId, NO_OF_PARTIES, store,
+        new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition, macKey), AesCtrDrbg::new);
+  }
+
+  /**
+   * Adds one to the mac share of one of the opened values.
+   */
+  private class CorruptingStore extends SpdzStreamingOpenedValueStore {
+
+    private int countdown = 2 * CHUNK_SIZE + 3;
+
+    CorruptingStore(FieldDefinition definition) {
+      super(definition, AesCtrDrbg::new, CHUNK_SIZE);
+    }
+
+    @Override
+    public void pushOpenedValue(SpdzSInt newShareWithMac, FieldElement newOpenedValue) {
+      if (--countdown == 0) {
+        newShareWithMac = new SpdzSInt(newShareWithMac.getShare(),
+            newShareWithMac.getMac().add(definition.createElement(1)));
+      }
+      super.pushOpenedValue(newShareWithMac, newOpenedValue);
+    }
+  }
+}
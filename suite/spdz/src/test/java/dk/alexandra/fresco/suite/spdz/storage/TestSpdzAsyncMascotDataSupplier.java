@@ -0,0 +1,175 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.NetManager;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzAsyncMascotDataSupplier {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int BATCH_SIZE = 16;
+  private static final int TRIPLES = 40;
+  private static final int MASKS = 5;
+
+  private ExecutorService executorService;
+  private MascotSecurityParameters mascotSecurityParameters;
+  private List<Integer> ports;
+  private BigIntegerFieldDefinition definition;
+
+  @Before
+  public void setUp() {
+    ports = new ArrayList<>(NO_OF_PARTIES);
+    for (int i = 1; i <= NO_OF_PARTIES; i++) {
+      ports.add(11000 + i);
+    }
+    executorService = Executors.newCachedThreadPool();
+    mascotSecurityParameters = new MascotSecurityParameters();
+    definition = new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128));
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void testTriplesAndMasks() {
+    List<FieldElement> sskShares = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      sskShares.add(SpdzMascotDataSupplier
+          .createRandomSsk(definition, mascotSecurityParameters.getPrgSeedLength()));
+    }
+    List<Callable<PartyResult>> tasks = new ArrayList<>();
+    try (NetManager otManager = new NetManager(ports);
+        NetManager tripleManager = new NetManager(ports)) {
+      for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+        int finalMyId = myId;
+        tasks.add(() -> {
+          Map<Integer, RotList> seedOts =
+              seedOtSetup(finalMyId, otManager.createExtraNetwork(finalMyId));
+          try (SpdzAsyncMascotDataSupplier supplier = new SpdzAsyncMascotDataSupplier(finalMyId,
+              NO_OF_PARTIES, 1, () -> tripleManager.createExtraNetwork(finalMyId), definition,
+              definition.getBitLength(), null, mascotSecurityParameters.getPrgSeedLength(),
+              BATCH_SIZE, 8, 32, sskShares.get(finalMyId - 1), seedOts, getDrbg())) {
+            PartyResult result = new PartyResult();
+            for (int i = 0; i < TRIPLES; i++) {
+              result.triples.add(supplier.getNextTriple());
+            }
+            for (int i = 0; i < MASKS; i++) {
+              result.masks.add(supplier.getNextInputMask(1));
+            }
+            result.loggedValues = supplier.getLoggedValues();
+            return result;
+          }
+        });
+      }
+      List<PartyResult> results = invokeAndReturn(tasks);
+      FieldElement alpha = sskShares.get(0).add(sskShares.get(1));
+      for (int i = 0; i < TRIPLES; i++) {
+        SpdzTriple first = results.get(0).triples.get(i);
+        SpdzTriple second = results.get(1).triples.get(i);
+        BigInteger a = open(alpha, first.getA(), second.getA());
+        BigInteger b = open(alpha, first.getB(), second.getB());
+        BigInteger c = open(alpha, first.getC(), second.getC());
+        assertEquals(a.multiply(b).mod(definition.getModulus()), c);
+      }
+      for (int i = 0; i < MASKS; i++) {
+        SpdzInputMask own = results.get(0).masks.get(i);
+        SpdzInputMask other = results.get(1).masks.get(i);
+        assertEquals(own.getRealValue().toBigInteger(),
+            open(alpha, own.getMask(), other.getMask()));
+      }
+      Map<String, Long> loggedValues = results.get(0).loggedValues;
+      String triples = SpdzAsyncMascotDataSupplier.TRIPLES;
+      assertTrue(loggedValues.containsKey(triples + SpdzAsyncMascotDataSupplier.WAITS_SUFFIX));
+      assertTrue(loggedValues.get(triples + SpdzAsyncMascotDataSupplier.AVAILABLE_SUFFIX)
+          <= 3 * BATCH_SIZE - TRIPLES + BATCH_SIZE);
+      assertTrue(loggedValues.containsKey(SpdzAsyncMascotDataSupplier.INPUT_MASKS + 2
+          + SpdzAsyncMascotDataSupplier.AVAILABLE_SUFFIX));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalWatermarks() {
+    new SpdzAsyncMascotDataSupplier(1, NO_OF_PARTIES, 1, null, definition,
+        definition.getBitLength(), null, mascotSecurityParameters.getPrgSeedLength(),
+        BATCH_SIZE, 32, 32, null, null, null);
+  }
+
+  private BigInteger open(FieldElement alpha, SpdzSInt first, SpdzSInt second) {
+    FieldElement value = first.getShare().add(second.getShare());
+    FieldElement mac = first.getMac().add(second.getMac());
+    assertEquals(value.multiply(alpha).toBigInteger(), mac.toBigInteger());
+    return value.toBigInteger();
+  }
+
+  private Map<Integer, RotList> seedOtSetup(int myId, Network network) {
+    Drbg drbg = getDrbg();
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+      if (otherId != myId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, mascotSecurityParameters.getPrgSeedLength());
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  private Drbg getDrbg() {
+    byte[] drbgSeed = new byte[mascotSecurityParameters.getPrgSeedLength() / 8];
+    new SecureRandom().nextBytes(drbgSeed);
+    return AesCtrDrbgFactory.fromDerivedSeed(drbgSeed);
+  }
+
+  private <T> List<T> invokeAndReturn(List<Callable<T>> tasks) {
+    List<Future<T>> futures = ExceptionConverter
+        .safe(() -> executorService.invokeAll(tasks), "Error invoking tasks");
+    return futures.stream().map(
+        future -> ExceptionConverter.safe(future::get, "Error getting future result"))
+        .collect(Collectors.toList());
+  }
+
+  private static class PartyResult {
+
+    private final List<SpdzTriple> triples = new ArrayList<>();
+    private final List<SpdzInputMask> masks = new ArrayList<>();
+    private Map<String, Long> loggedValues;
+  }
+}
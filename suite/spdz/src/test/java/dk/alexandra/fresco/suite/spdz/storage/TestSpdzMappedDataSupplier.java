@@ -0,0 +1,210 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
+import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestSpdzMappedDataSupplier {
+
+  private static final int PARTIES = 2;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final FieldDefinition definition = new BigIntegerFieldDefinition(
+      "340282366920938463463374607431768211283");
+  private String source;
+  private String target;
+  private List<FieldElement> alphaShares;
+  private List<SpdzTriple[]> triples;
+  private List<SpdzInputMask[]> masks;
+  private List<SpdzSInt[]> bits;
+  private List<SpdzSInt[][]> expPipes;
+
+  @Before
+  public void setUp() throws IOException {
+    source = folder.getRoot().getPath() + "/serialized_";
+    target = folder.getRoot().getPath() + "/mapped_";
+    alphaShares = FakeTripGen.generateAlphaShares(PARTIES, definition);
+    FieldElement alpha = alphaShares.get(0).add(alphaShares.get(1));
+    triples = FakeTripGen.generateTriples(10, PARTIES, definition, alpha);
+    masks = FakeTripGen.generateInputMasks(5, 1, PARTIES, definition, alpha);
+    bits = FakeTripGen.generateBits(5, PARTIES, definition, alpha);
+    expPipes = FakeTripGen.generateExpPipes(2, PARTIES, definition, alpha);
+    FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    storage.putNext(source + SpdzStorageDataSupplier.MODULUS_KEY, definition.getModulus());
+    storage.putNext(source + SpdzStorageDataSupplier.SSK_KEY, alphaShares.get(0));
+    for (SpdzTriple[] triple : triples) {
+      storage.putNext(source + SpdzStorageDataSupplier.TRIPLE_STORAGE, triple[0]);
+    }
+    for (SpdzInputMask[] mask : masks) {
+      storage.putNext(source + SpdzStorageDataSupplier.INPUT_STORAGE + 1, mask[0]);
+      storage.putNext(source + SpdzStorageDataSupplier.INPUT_STORAGE + 2, mask[1]);
+    }
+    for (SpdzSInt[] bit : bits) {
+      storage.putNext(source + SpdzStorageDataSupplier.BIT_STORAGE, bit[0]);
+    }
+    for (SpdzSInt[][] expPipe : expPipes) {
+      storage.putNext(source + SpdzStorageDataSupplier.EXP_PIPE_STORAGE, expPipe[0]);
+    }
+    storage.shutdown();
+    FilebasedStreamedStorageImpl input = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    SpdzMappedFormatConverter.convert(input, source, target, PARTIES);
+    input.shutdown();
+  }
+
+  @Test
+  public void testConvertedMaterial() throws IOException {
+    try (SpdzMappedDataSupplier supplier = new SpdzMappedDataSupplier(target)) {
+      assertEquals(definition.getModulus(), supplier.getFieldDefinition().getModulus());
+      assertEquals(alphaShares.get(0).toBigInteger(),
+          supplier.getSecretSharedKey().toBigInteger());
+      for (SpdzTriple[] triple : triples) {
+        SpdzTriple actual = supplier.getNextTriple();
+        assertEqualSInts(triple[0].getA(), actual.getA());
+        assertEqualSInts(triple[0].getB(), actual.getB());
+        assertEqualSInts(triple[0].getC(), actual.getC());
+      }
+      for (SpdzInputMask[] mask : masks) {
+        SpdzInputMask own = supplier.getNextInputMask(1);
+        assertEqualSInts(mask[0].getMask(), own.getMask());
+        assertEquals(mask[0].getRealValue().toBigInteger(), own.getRealValue().toBigInteger());
+        SpdzInputMask other = supplier.getNextInputMask(2);
+        assertEqualSInts(mask[1].getMask(), other.getMask());
+        assertNull(other.getRealValue());
+      }
+      for (SpdzSInt[] bit : bits) {
+        assertEqualSInts(bit[0], supplier.getNextBit());
+      }
+      for (SpdzSInt[][] expPipe : expPipes) {
+        SpdzSInt[] actual = supplier.getNextExpPipe();
+        assertEquals(expPipe[0].length, actual.length);
+        for (int i = 0; i < actual.length; i++) {
+          assertEqualSInts(expPipe[0][i], actual[i]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testResumesAfterRestart() throws IOException {
+    try (SpdzMappedDataSupplier supplier = new SpdzMappedDataSupplier(target)) {
+      supplier.getNextTriple();
+      supplier.getNextTriple();
+    }
+    try (SpdzMappedDataSupplier supplier = new SpdzMappedDataSupplier(target)) {
+      assertEqualSInts(triples.get(2)[0].getA(), supplier.getNextTriple().getA());
+    }
+    Path path = SpdzMappedDataSupplier.getPath(target, SpdzStorageDataSupplier.TRIPLE_STORAGE);
+    try (MappedRecordFile file = MappedRecordFile.open(path)) {
+      assertEquals(10, file.getRecordCount());
+      assertEquals(7, file.remaining());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoMoreBits() throws IOException {
+    try (SpdzMappedDataSupplier supplier = new SpdzMappedDataSupplier(target)) {
+      for (int i = 0; i <= bits.size(); i++) {
+        supplier.getNextBit();
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingStorage() {
+    new SpdzMappedDataSupplier(target + "missing_").getNextTriple();
+  }
+
+  @Test
+  public void testRecordFile() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("records");
+    try (MappedRecordFile.Writer writer = MappedRecordFile.create(path, 4, 2)) {
+      for (int i = 0; i < 5; i++) {
+        writer.write(ByteBuffer.allocate(4).putInt(i).array(),
+            ByteBuffer.allocate(4).putInt(-i).array());
+      }
+    }
+    try (MappedRecordFile file = MappedRecordFile.open(path)) {
+      assertEquals(5, file.remaining());
+      for (int i = 0; i < 5; i++) {
+        ByteBuffer record = file.next();
+        assertEquals(8, record.remaining());
+        assertEquals(i, record.getInt());
+        assertEquals(-i, record.getInt());
+      }
+      assertEquals(0, file.remaining());
+      assertEquals(3, file.get(3).getInt());
+    }
+  }
+
+  @Test
+  public void testInvalidElementLeavesNoPartialRecord() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("records");
+    try (MappedRecordFile.Writer writer = MappedRecordFile.create(path, 4, 2)) {
+      writer.write(ByteBuffer.allocate(4).putInt(1).array(), new byte[4]);
+      try {
+        writer.write(ByteBuffer.allocate(4).putInt(2).array(), new byte[3]);
+        fail("Element of wrong length should be rejected");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+      writer.write(ByteBuffer.allocate(4).putInt(3).array(), new byte[4]);
+    }
+    try (MappedRecordFile file = MappedRecordFile.open(path)) {
+      assertEquals(2, file.remaining());
+      assertEquals(1, file.next().getInt());
+      assertEquals(3, file.next().getInt());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTruncatedRecordFile() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("records");
+    try (MappedRecordFile.Writer writer = MappedRecordFile.create(path, 4, 2)) {
+      for (int i = 0; i < 5; i++) {
+        writer.write(new byte[4], new byte[4]);
+      }
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.truncate(MappedRecordFile.HEADER_SIZE + 4 * 8 + 3);
+    }
+    MappedRecordFile.open(path).close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroElementLengthInHeader() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("records");
+    try (MappedRecordFile.Writer writer = MappedRecordFile.create(path, 4, 2)) {
+      writer.write(new byte[4], new byte[4]);
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(Integer.BYTES), 8);
+    }
+    MappedRecordFile.open(path).close();
+  }
+
+  private void assertEqualSInts(SpdzSInt expected, SpdzSInt actual) {
+    assertEquals(expected.getShare().toBigInteger(), actual.getShare().toBigInteger());
+    assertEquals(expected.getMac().toBigInteger(), actual.getMac().toBigInteger());
+  }
+}
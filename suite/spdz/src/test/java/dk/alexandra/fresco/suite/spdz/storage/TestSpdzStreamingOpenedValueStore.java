@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestSpdzStreamingOpenedValueStore {
+
+  private static final int NUMBER_OF_VALUES = 100;
+  private final FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+  private final Random random = new Random(42);
+  private final FieldElement macKeyShareOne = randomElement();
+  private final FieldElement macKeyShareTwo = randomElement();
+
+  private FieldElement randomElement() {
+    return definition.createElement(new BigInteger(160, random));
+  }
+
+  /**
+   * Pushes random values to a store for each of two parties, and returns the sum of the parties'
+   * shares of the mac error, which is zero if the values and macs are consistent.
+   */
+  private FieldElement runStores(int chunkSize, boolean corrupt) {
+    SpdzStreamingOpenedValueStore storeOne =
+        new SpdzStreamingOpenedValueStore(definition, AesCtrDrbg::new, chunkSize);
+    SpdzStreamingOpenedValueStore storeTwo =
+        new SpdzStreamingOpenedValueStore(definition, AesCtrDrbg::new, chunkSize);
+    FieldElement macKey = macKeyShareOne.add(macKeyShareTwo);
+    List<SpdzSInt> sharesOne = new ArrayList<>();
+    List<SpdzSInt> sharesTwo = new ArrayList<>();
+    List<FieldElement> openedValues = new ArrayList<>();
+    for (int i = 0; i < NUMBER_OF_VALUES; i++) {
+      FieldElement value = randomElement();
+      FieldElement shareOne = randomElement();
+      FieldElement macShareOne = randomElement();
+      sharesOne.add(new SpdzSInt(shareOne, macShareOne));
+      sharesTwo.add(new SpdzSInt(value.subtract(shareOne),
+          value.multiply(macKey).subtract(macShareOne)));
+      openedValues.add(corrupt && i == NUMBER_OF_VALUES / 2
+          ? value.add(definition.createElement(1)) : value);
+    }
+    storeOne.pushOpenedValues(sharesOne, openedValues);
+    for (int i = 0; i < NUMBER_OF_VALUES; i++) {
+      storeTwo.pushOpenedValue(sharesTwo.get(i), openedValues.get(i));
+    }
+    assertTrue(storeOne.hasPendingValues());
+    assertTrue(storeOne.exceedsThreshold(NUMBER_OF_VALUES - 1));
+    assertFalse(storeOne.exceedsThreshold(NUMBER_OF_VALUES));
+    Pair<List<SpdzSInt>, List<FieldElement>> valuesOne = storeOne.popValues();
+    Pair<List<SpdzSInt>, List<FieldElement>> valuesTwo = storeTwo.popValues();
+    assertFalse(storeOne.hasPendingValues());
+    assertEquals(1, valuesOne.getFirst().size());
+    assertEquals(1, valuesOne.getSecond().size());
+    FieldElement openedOne = valuesOne.getSecond().get(0);
+    FieldElement openedTwo = valuesTwo.getSecond().get(0);
+    assertEquals(definition.convertToUnsigned(openedOne), definition.convertToUnsigned(openedTwo));
+    FieldElement deltaOne = valuesOne.getFirst().get(0).getMac()
+        .subtract(macKeyShareOne.multiply(openedOne));
+    FieldElement deltaTwo = valuesTwo.getFirst().get(0).getMac()
+        .subtract(macKeyShareTwo.multiply(openedTwo));
+    return deltaOne.add(deltaTwo);
+  }
+
+  @Test
+  public void testConsistentValues() {
+    assertEquals(BigInteger.ZERO, definition.convertToUnsigned(runStores(1, false)));
+    assertEquals(BigInteger.ZERO, definition.convertToUnsigned(runStores(16, false)));
+    assertEquals(BigInteger.ZERO,
+        definition.convertToUnsigned(runStores(NUMBER_OF_VALUES * 2, false)));
+  }
+
+  @Test
+  public void testCorruptedValue() {
+    assertNotEquals(BigInteger.ZERO, definition.convertToUnsigned(runStores(16, true)));
+    assertNotEquals(BigInteger.ZERO,
+        definition.convertToUnsigned(runStores(NUMBER_OF_VALUES * 2, true)));
+  }
+
+  @Test
+  public void testEmpty() {
+    SpdzStreamingOpenedValueStore store =
+        new SpdzStreamingOpenedValueStore(definition, AesCtrDrbg::new);
+    assertFalse(store.hasPendingValues());
+    Pair<List<SpdzSInt>, List<FieldElement>> values = store.popValues();
+    assertTrue(values.getFirst().isEmpty());
+    assertTrue(values.getSecond().isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSmallModulus() {
+    new SpdzStreamingOpenedValueStore(MersennePrimeFieldDefinition.find(64), AesCtrDrbg::new);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalChunkSize() {
+    new SpdzStreamingOpenedValueStore(definition, AesCtrDrbg::new, 0);
+  }
+}
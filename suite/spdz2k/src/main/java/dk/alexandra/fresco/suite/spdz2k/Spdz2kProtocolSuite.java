@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.suite.spdz2k;
 
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.util.MacCheckPolicy;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
@@ -36,6 +37,7 @@ public abstract class Spdz2kProtocolSuite<
     implements ProtocolSuiteNumeric<Spdz2kResourcePool<PlainT>> {
 
   private final CompUIntConverter<HighT, LowT, PlainT> converter;
+  private final MacCheckPolicy macCheckPolicy;
 
   /**
    * Constructs new {@link Spdz2kProtocolSuite}.
@@ -43,9 +45,16 @@ public abstract class Spdz2kProtocolSuite<
    * @param converter helper which allows converting {@link HighT}, and {@link LowT} instances to
    * {@link PlainT}. This is necessary for the mac-check protocol where we perform arithmetic
    * between these different types.
+   * @param macCheckPolicy determines which output batches trigger a mac-check
    */
-  Spdz2kProtocolSuite(CompUIntConverter<HighT, LowT, PlainT> converter) {
+  Spdz2kProtocolSuite(CompUIntConverter<HighT, LowT, PlainT> converter,
+      MacCheckPolicy macCheckPolicy) {
     this.converter = converter;
+    this.macCheckPolicy = macCheckPolicy;
+  }
+
+  Spdz2kProtocolSuite(CompUIntConverter<HighT, LowT, PlainT> converter) {
+    this(converter, MacCheckPolicy.EVERY_OUTPUT);
   }
 
   @Override
@@ -55,7 +64,7 @@ public abstract class Spdz2kProtocolSuite<
 
   @Override
   public RoundSynchronization<Spdz2kResourcePool<PlainT>> createRoundSynchronization() {
-    return new Spdz2kRoundSynchronization<>(this, converter);
+    return new Spdz2kRoundSynchronization<>(this, converter, macCheckPolicy);
   }
 
   public BasicNumericContext createBasicNumericContext(Spdz2kResourcePool<PlainT> resourcePool) {
@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.suite.spdz2k;
 
+import dk.alexandra.fresco.framework.util.MacCheckPolicy;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter128;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt64;
@@ -13,4 +14,8 @@ public class Spdz2kProtocolSuiteK64 extends Spdz2kProtocolSuite<UInt64, UInt64,
     super(new CompUIntConverter128());
   }
 
+  public Spdz2kProtocolSuiteK64(MacCheckPolicy macCheckPolicy) {
+    super(new CompUIntConverter128(), macCheckPolicy);
+  }
+
 }
@@ -0,0 +1,144 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.ByteAndBitConverter;
+import java.math.BigInteger;
+
+/**
+ * Unsigned 64-bit integer composed of two 32-bit halves, i.e., <i>k = s = 32</i>. <p>The whole
+ * value is stored in a single primitive long, so all ring operations are single machine
+ * instructions, with the modular wrap around of the long arithmetic. Note that this class is NOT
+ * SAFE to instantiate with negative values.</p>
+ */
+public class CompUInt64 implements CompUInt<UInt32, UInt32, CompUInt64> {
+
+  private final long value;
+
+  /**
+   * Creates new {@link CompUInt64}. <p>Do <b>not</b> pad bytes by default.</p>
+   *
+   * @param bytes bytes interpreted in big-endian order.
+   */
+  public CompUInt64(byte[] bytes) {
+    this(bytes, false);
+  }
+
+  /**
+   * Creates new {@link CompUInt64}.
+   *
+   * @param bytes bytes interpreted in big-endian order.
+   * @param requiresPadding indicates if the bytes need to be padded up to 8 bytes.
+   */
+  public CompUInt64(byte[] bytes, boolean requiresPadding) {
+    byte[] padded = requiresPadding ? CompUInt.pad(bytes, 64) : bytes;
+    if (padded.length > 8) {
+      throw new IllegalArgumentException("Exceeds capacity");
+    }
+    // fewer than 8 bytes means we are instantiating from the least significant bits only
+    long result = 0L;
+    for (byte b : padded) {
+      result = (result << 8) | (b & 0xFFL);
+    }
+    this.value = result;
+  }
+
+  /**
+   * Creates new {@link CompUInt64} from {@link BigInteger}.
+   */
+  public CompUInt64(BigInteger value) {
+    this(value.toByteArray(), true);
+  }
+
+  CompUInt64(UInt32 value) {
+    this(value.toLong());
+  }
+
+  CompUInt64(long value) {
+    this.value = value;
+  }
+
+  @Override
+  public CompUInt64 add(CompUInt64 other) {
+    return new CompUInt64(value + other.value);
+  }
+
+  @Override
+  public CompUInt64 multiply(CompUInt64 other) {
+    return new CompUInt64(value * other.value);
+  }
+
+  @Override
+  public CompUInt64 subtract(CompUInt64 other) {
+    return new CompUInt64(value - other.value);
+  }
+
+  @Override
+  public CompUInt64 negateUInt() {
+    return new CompUInt64(-value);
+  }
+
+  @Override
+  public boolean isZero() {
+    return value == 0;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public UInt32 getLeastSignificant() {
+    return new UInt32((int) value);
+  }
+
+  @Override
+  public UInt32 getMostSignificant() {
+    return new UInt32((int) (value >>> 32));
+  }
+
+  @Override
+  public UInt32 getLeastSignificantAsHigh() {
+    return getLeastSignificant();
+  }
+
+  @Override
+  public long toLong() {
+    return value;
+  }
+
+  @Override
+  public int toInt() {
+    return (int) value;
+  }
+
+  @Override
+  public CompUInt64 shiftLowIntoHigh() {
+    return new CompUInt64(value << 32);
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 32;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 32;
+  }
+
+  @Override
+  public String toString() {
+    return Long.toUnsignedString(value);
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    return ByteAndBitConverter.toByteArray(value);
+  }
+
+  static BigInteger extractValue(FieldElement element) {
+    return ((CompUInt64) element).toBigInteger();
+  }
+
+}
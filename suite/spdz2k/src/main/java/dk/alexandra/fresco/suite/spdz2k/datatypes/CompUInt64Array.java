@@ -0,0 +1,181 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A vector of {@link CompUInt64} values backed by a single primitive long array. <p>Operations
+ * are element-wise and performed in-place on this vector, so computing on a whole vector of shares
+ * allocates no objects per element. The serialized form is the same as for a list of {@link
+ * CompUInt64}, i.e., the big-endian bytes of each element in order.</p>
+ */
+public class CompUInt64Array {
+
+  private final long[] values;
+
+  /**
+   * Creates new {@link CompUInt64Array} of the given size with all values zero.
+   */
+  public CompUInt64Array(int size) {
+    this(new long[size]);
+  }
+
+  /**
+   * Creates new {@link CompUInt64Array} backed by the given array, which is not copied.
+   */
+  public CompUInt64Array(long[] values) {
+    this.values = values;
+  }
+
+  /**
+   * Creates new {@link CompUInt64Array} holding the given elements.
+   */
+  public static CompUInt64Array fromList(List<CompUInt64> elements) {
+    long[] values = new long[elements.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = elements.get(i).toLong();
+    }
+    return new CompUInt64Array(values);
+  }
+
+  /**
+   * Creates new {@link CompUInt64Array} from bytes serialized by {@link #toByteArray()}.
+   */
+  public static CompUInt64Array fromByteArray(byte[] bytes) {
+    if (bytes.length % Long.BYTES != 0) {
+      throw new IllegalArgumentException(
+          "Total number of bytes must be a multiple of length of single element");
+    }
+    long[] values = new long[bytes.length / Long.BYTES];
+    for (int i = 0; i < values.length; i++) {
+      long value = 0L;
+      for (int j = i * Long.BYTES; j < (i + 1) * Long.BYTES; j++) {
+        value = (value << 8) | (bytes[j] & 0xFFL);
+      }
+      values[i] = value;
+    }
+    return new CompUInt64Array(values);
+  }
+
+  /**
+   * Returns the number of elements.
+   */
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * Returns the element at the given index.
+   */
+  public CompUInt64 get(int index) {
+    return new CompUInt64(values[index]);
+  }
+
+  /**
+   * Sets the element at the given index.
+   */
+  public void set(int index, CompUInt64 value) {
+    values[index] = value.toLong();
+  }
+
+  /**
+   * Adds {@code other} to this element-wise.
+   */
+  public CompUInt64Array addInPlace(CompUInt64Array other) {
+    checkSize(other);
+    for (int i = 0; i < values.length; i++) {
+      values[i] += other.values[i];
+    }
+    return this;
+  }
+
+  /**
+   * Subtracts {@code other} from this element-wise.
+   */
+  public CompUInt64Array subtractInPlace(CompUInt64Array other) {
+    checkSize(other);
+    for (int i = 0; i < values.length; i++) {
+      values[i] -= other.values[i];
+    }
+    return this;
+  }
+
+  /**
+   * Multiplies this by {@code other} element-wise.
+   */
+  public CompUInt64Array multiplyInPlace(CompUInt64Array other) {
+    checkSize(other);
+    for (int i = 0; i < values.length; i++) {
+      values[i] *= other.values[i];
+    }
+    return this;
+  }
+
+  /**
+   * Multiplies every element of this by {@code scalar}, e.g., a mac key share.
+   */
+  public CompUInt64Array multiplyInPlace(CompUInt64 scalar) {
+    long scalarValue = scalar.toLong();
+    for (int i = 0; i < values.length; i++) {
+      values[i] *= scalarValue;
+    }
+    return this;
+  }
+
+  /**
+   * Returns the elements as a list.
+   */
+  public List<CompUInt64> toList() {
+    List<CompUInt64> elements = new ArrayList<>(values.length);
+    for (long value : values) {
+      elements.add(new CompUInt64(value));
+    }
+    return elements;
+  }
+
+  /**
+   * Returns the big-endian bytes of all elements in order.
+   */
+  public byte[] toByteArray() {
+    byte[] bytes = new byte[values.length * Long.BYTES];
+    for (int i = 0; i < values.length; i++) {
+      long value = values[i];
+      for (int j = (i + 1) * Long.BYTES - 1; j >= i * Long.BYTES; j--) {
+        bytes[j] = (byte) value;
+        value >>>= 8;
+      }
+    }
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    return "CompUInt64Array{" + toList() + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return Arrays.equals(values, ((CompUInt64Array) o).values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(values);
+  }
+
+  private void checkSize(CompUInt64Array other) {
+    if (other.values.length != values.length) {
+      throw new IllegalArgumentException(
+          "Vectors must have the same size, was " + values.length + " and "
+              + other.values.length);
+    }
+  }
+
+}
@@ -3,6 +3,7 @@ package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
@@ -11,6 +12,7 @@ import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
 import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Native protocol for computing product of two secret numbers.
@@ -24,6 +26,7 @@ public class Spdz2kMultiplyProtocol<PlainT extends CompUInt<?, ?, PlainT>> exten
   private Spdz2kSInt<PlainT> epsilon;
   private Spdz2kSInt<PlainT> delta;
   private SInt product;
+  private int king;
 
   /**
    * Creates new {@link Spdz2kMultiplyProtocol}.
@@ -45,13 +48,28 @@ public class Spdz2kMultiplyProtocol<PlainT extends CompUInt<?, ?, PlainT>> exten
       triple = resourcePool.getDataSupplier().getNextTripleShares();
       epsilon = toSpdz2kSInt(left).subtract(triple.getLeft());
       delta = toSpdz2kSInt(right).subtract(triple.getRight());
-      network.sendToAll(epsilon.getShare().getLeastSignificant().toByteArray());
-      network.sendToAll(delta.getShare().getLeastSignificant().toByteArray());
+      if (resourcePool.getOpeningStrategy() == OpeningStrategy.KING) {
+        king = sendToKing(resourcePool, network, Arrays.asList(epsilon, delta));
+      } else {
+        network.sendToAll(epsilon.getShare().getLeastSignificant().toByteArray());
+        network.sendToAll(delta.getShare().getLeastSignificant().toByteArray());
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else if (round == 1 && king > 0) {
+      if (resourcePool.getMyId() == king) {
+        reconstructAndSendToAll(resourcePool.getFactory(), network);
+      }
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      Pair<PlainT, PlainT> epsilonAndDelta = receiveAndReconstruct(network,
-          resourcePool.getFactory(),
-          resourcePool.getNoOfParties());
+      Pair<PlainT, PlainT> epsilonAndDelta;
+      if (king > 0) {
+        List<PlainT> opened = receiveFromKing(resourcePool.getFactory(), network, king, 2);
+        epsilonAndDelta = new Pair<>(opened.get(0), opened.get(1));
+      } else {
+        epsilonAndDelta = receiveAndReconstruct(network,
+            resourcePool.getFactory(),
+            resourcePool.getNoOfParties());
+      }
       // compute [prod] = [c] + epsilon * [b] + delta * [a] + epsilon * delta
       PlainT e = epsilonAndDelta.getFirst();
       PlainT d = epsilonAndDelta.getSecond();
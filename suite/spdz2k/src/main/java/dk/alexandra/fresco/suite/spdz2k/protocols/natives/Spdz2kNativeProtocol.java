@@ -1,11 +1,18 @@
 package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
 
 import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
 import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -23,4 +30,64 @@ public abstract class Spdz2kNativeProtocol<
     return Objects.requireNonNull((Spdz2kSInt<PlainT>) value.out());
   }
 
+  /**
+   * Sends the least significant bits of this party's shares of the values to open to the king of the
+   * opening, as done in the first round of an opening using {@link OpeningStrategy#KING}.
+   *
+   * @return the id of the king
+   */
+  int sendToKing(Spdz2kResourcePool<PlainT> resourcePool, Network network,
+      List<Spdz2kSInt<PlainT>> values) {
+    int byteLength = resourcePool.getFactory().getLowBitLength() / Byte.SIZE;
+    byte[] shares = new byte[byteLength * values.size()];
+    for (int i = 0; i < values.size(); i++) {
+      byte[] share = values.get(i).getShare().getLeastSignificant().toByteArray();
+      System.arraycopy(share, 0, shares, i * byteLength, byteLength);
+    }
+    int king = resourcePool.nextKing();
+    network.send(king, shares);
+    return king;
+  }
+
+  /**
+   * Reconstructs the values from the shares sent to this party as king, and sends the values to all
+   * parties.
+   */
+  void reconstructAndSendToAll(CompUIntFactory<PlainT> factory, Network network) {
+    int byteLength = factory.getLowBitLength() / Byte.SIZE;
+    List<PlainT> values = null;
+    for (byte[] shares : network.receiveFromAll()) {
+      int size = shares.length / byteLength;
+      if (values == null) {
+        values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          values.add(factory.zero());
+        }
+      }
+      if (size != values.size() || shares.length % byteLength != 0) {
+        throw new MaliciousException(
+            "Expected " + values.size() + " shares, but received " + shares.length + " bytes");
+      }
+      for (int i = 0; i < size; i++) {
+        PlainT share = factory.deserialize(
+            Arrays.copyOfRange(shares, i * byteLength, (i + 1) * byteLength));
+        values.set(i, values.get(i).add(share));
+      }
+    }
+    network.sendToAll(factory.getSerializer().serialize(values));
+  }
+
+  /**
+   * Receives the values reconstructed by the king.
+   */
+  List<PlainT> receiveFromKing(CompUIntFactory<PlainT> factory, Network network, int king,
+      int expectedSize) {
+    List<PlainT> values = factory.getSerializer().deserializeList(network.receive(king));
+    if (values.size() != expectedSize) {
+      throw new MaliciousException(
+          "Expected " + expectedSize + " values from king, but received " + values.size());
+    }
+    return values;
+  }
+
 }
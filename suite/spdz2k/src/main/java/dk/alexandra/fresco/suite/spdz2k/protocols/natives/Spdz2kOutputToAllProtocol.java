@@ -4,12 +4,14 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
 import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -22,6 +24,7 @@ public class Spdz2kOutputToAllProtocol<PlainT extends CompUInt<?, ?, PlainT>>
   private final DRes<SInt> share;
   private BigInteger opened;
   private Spdz2kSInt<PlainT> authenticatedElement;
+  private int king;
 
   /**
    * Creates new {@link Spdz2kOutputToAllProtocol}.
@@ -39,17 +42,32 @@ public class Spdz2kOutputToAllProtocol<PlainT extends CompUInt<?, ?, PlainT>>
         .getOpenedValueStore();
     if (round == 0) {
       authenticatedElement = toSpdz2kSInt(share);
-      network.sendToAll(authenticatedElement
-          .getShare()
-          .getLeastSignificant()
-          .toByteArray());
+      if (resourcePool.getOpeningStrategy() == OpeningStrategy.KING) {
+        king = sendToKing(resourcePool, network,
+            Collections.singletonList(authenticatedElement));
+      } else {
+        network.sendToAll(authenticatedElement
+            .getShare()
+            .getLeastSignificant()
+            .toByteArray());
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else if (round == 1 && king > 0) {
+      if (resourcePool.getMyId() == king) {
+        reconstructAndSendToAll(resourcePool.getFactory(), network);
+      }
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      ByteSerializer<PlainT> serializer = resourcePool
-          .getFactory()
-          .getSerializer();
-      List<PlainT> shares = serializer.deserializeList(network.receiveFromAll());
-      PlainT recombined = UInt.sum(shares);
+      PlainT recombined;
+      if (king > 0) {
+        recombined = receiveFromKing(resourcePool.getFactory(), network, king, 1).get(0);
+      } else {
+        ByteSerializer<PlainT> serializer = resourcePool
+            .getFactory()
+            .getSerializer();
+        List<PlainT> shares = serializer.deserializeList(network.receiveFromAll());
+        recombined = UInt.sum(shares);
+      }
       openedValueStore.pushOpenedValue(authenticatedElement, recombined);
       this.opened = recombined
           .getLeastSignificant()
@@ -7,6 +7,7 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
 import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuite;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
@@ -76,6 +77,18 @@ public interface Spdz2kResourcePool<PlainT extends CompUInt<?, ?, PlainT>>
    */
   int getMaxBitLength();
 
+  /**
+   * Returns the strategy used for opening secret shared values.
+   */
+  OpeningStrategy getOpeningStrategy();
+
+  /**
+   * Returns the id of the party acting as king in the next opening, when using {@link
+   * OpeningStrategy#KING}. Each call moves on to the next party, so all parties must call this the
+   * same number of times, in the same order.
+   */
+  int nextKing();
+
   /**
    * Returns serializer for {@link HashBasedCommitment}.
    */
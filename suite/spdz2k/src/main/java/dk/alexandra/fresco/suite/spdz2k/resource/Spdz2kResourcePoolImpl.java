@@ -18,6 +18,7 @@ import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpeningStrategy;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.suite.spdz2k.Spdz2kBuilder;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
@@ -45,7 +46,9 @@ public class Spdz2kResourcePoolImpl<PlainT extends CompUInt<?, ?, PlainT>>
   private final CompUIntFactory<PlainT> factory;
   private final ByteSerializer<PlainT> rawSerializer;
   private final Drbg localDrbg;
+  private final OpeningStrategy openingStrategy;
   private Drbg drbg;
+  private int nextKing;
 
   /**
    * Creates new {@link Spdz2kResourcePoolImpl}.
@@ -53,6 +56,16 @@ public class Spdz2kResourcePoolImpl<PlainT extends CompUInt<?, ?, PlainT>>
   public Spdz2kResourcePoolImpl(int myId, int noOfPlayers, Drbg drbg,
       OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> storage,
       Spdz2kDataSupplier<PlainT> supplier, CompUIntFactory<PlainT> factory) {
+    this(myId, noOfPlayers, drbg, storage, supplier, factory, OpeningStrategy.ALL_TO_ALL);
+  }
+
+  /**
+   * Creates new {@link Spdz2kResourcePoolImpl} opening values using the given strategy.
+   */
+  public Spdz2kResourcePoolImpl(int myId, int noOfPlayers, Drbg drbg,
+      OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> storage,
+      Spdz2kDataSupplier<PlainT> supplier, CompUIntFactory<PlainT> factory,
+      OpeningStrategy openingStrategy) {
     super(myId, noOfPlayers);
     Objects.requireNonNull(storage);
     Objects.requireNonNull(supplier);
@@ -64,6 +77,8 @@ public class Spdz2kResourcePoolImpl<PlainT extends CompUInt<?, ?, PlainT>>
     this.rawSerializer = factory.getSerializer();
     this.drbg = drbg;
     this.localDrbg = new AesCtrDrbg();
+    this.openingStrategy = Objects.requireNonNull(openingStrategy);
+    this.nextKing = 1;
   }
 
   @Override
@@ -71,6 +86,18 @@ public class Spdz2kResourcePoolImpl<PlainT extends CompUInt<?, ?, PlainT>>
     return effectiveBitLength;
   }
 
+  @Override
+  public OpeningStrategy getOpeningStrategy() {
+    return openingStrategy;
+  }
+
+  @Override
+  public int nextKing() {
+    int king = nextKing;
+    nextKing = king % getNoOfParties() + 1;
+    return king;
+  }
+
   @Override
   public OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> getOpenedValueStore() {
     return storage;
@@ -0,0 +1,304 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessing;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePoolImpl;
+import java.io.Closeable;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier based on the OT-based SPDZ2k pre-processing protocol, using the concrete
+ * implementation {@link Spdz2kPreprocessing}, which generates the pre-processed material in a
+ * background thread while the online phase is running.
+ * <p>
+ * Works like the asynchronous MASCOT supplier of the SPDZ suite: each kind of material (triples,
+ * input masks towards each party, random elements and bits) is kept in its own queue. When the
+ * number of elements of a queue, counting elements requested but not yet generated, drops to the
+ * low watermark, batches are requested until it reaches the high watermark. The requests are
+ * handled in order by a single background thread owning the {@link Spdz2kPreprocessing} instance,
+ * which uses its own network and instance id. The requests are issued by the online phase when it
+ * consumes material, which it does in the same order for all parties, so all parties run the same
+ * sequence of pre-processing computations. The online phase only blocks if a queue is actually
+ * empty.
+ * </p>
+ */
+public class Spdz2kPreprocessingDataSupplier<PlainT extends CompUInt<?, ?, PlainT>>
+    implements Spdz2kDataSupplier<PlainT>, PerformanceLogger, Closeable {
+
+  public static final String TRIPLES = "SPDZ2K_TRIPLES";
+  public static final String INPUT_MASKS = "SPDZ2K_INPUT_MASKS_";
+  public static final String RANDOM_ELEMENTS = "SPDZ2K_RANDOM_ELEMENTS";
+  public static final String BITS = "SPDZ2K_BITS";
+  public static final String AVAILABLE_SUFFIX = "_AVAILABLE";
+  public static final String WAITS_SUFFIX = "_WAITS";
+  private static final long POLL_MILLIS = 100;
+  private static final int NUM_CANDIDATES_PER_TRIPLE = 3;
+  private static final Logger logger =
+      LoggerFactory.getLogger(Spdz2kPreprocessingDataSupplier.class);
+
+  private final int myId;
+  private final int numberOfPlayers;
+  private final int instanceId;
+  private final Supplier<Network> preprocessingNetwork;
+  private final CompUIntFactory<PlainT> factory;
+  private final PlainT macKeyShare;
+  private final int prgSeedLength;
+  private final int batchSize;
+  private final int lowWatermark;
+  private final int highWatermark;
+  private final Drbg drbg;
+  private final Map<Integer, RotList> seedOts;
+  private final ExecutorService worker;
+  private final MaterialQueue<MultiplicationTriple> triples;
+  private final Map<Integer, MaterialQueue<InputMask>> masks;
+  private final MaterialQueue<AuthenticatedElement> randomElements;
+  private final MaterialQueue<AuthenticatedElement> randomBits;
+  private volatile RuntimeException failure;
+  private Spdz2kPreprocessing preprocessing;
+
+  /**
+   * Creates {@link Spdz2kPreprocessingDataSupplier}.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param instanceId identifier used to distinguish parallel instances of the pre-processing
+   * @param preprocessingNetwork network supplier for the network used by the pre-processing,
+   *     which must not be used by the online phase
+   * @param factory factory for the ring elements
+   * @param prgSeedLength bit length of prg
+   * @param batchSize batch size in which the pre-processed material is generated
+   * @param lowWatermark the number of elements in a queue at which more batches are requested
+   * @param highWatermark the number of elements in a queue that requests are made up to
+   * @param macKeyShare mac key share, see {@link #createRandomSsk(CompUIntFactory)}
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness
+   */
+  public Spdz2kPreprocessingDataSupplier(int myId, int numberOfPlayers, int instanceId,
+      Supplier<Network> preprocessingNetwork, CompUIntFactory<PlainT> factory, int prgSeedLength,
+      int batchSize, int lowWatermark, int highWatermark, PlainT macKeyShare,
+      Map<Integer, RotList> seedOts, Drbg drbg) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+      throw new IllegalArgumentException("Watermarks must satisfy 0 <= low < high, was "
+          + lowWatermark + " and " + highWatermark);
+    }
+    this.myId = myId;
+    this.numberOfPlayers = numberOfPlayers;
+    this.instanceId = instanceId;
+    this.preprocessingNetwork = preprocessingNetwork;
+    this.factory = factory;
+    this.macKeyShare = macKeyShare;
+    this.prgSeedLength = prgSeedLength;
+    this.batchSize = batchSize;
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.seedOts = seedOts;
+    this.drbg = drbg;
+    this.worker = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "Spdz2kPreprocessing-" + myId + "-" + instanceId);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.triples = new MaterialQueue<>(TRIPLES, p -> p.getTriples(batchSize));
+    this.masks = new HashMap<>();
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      final int towardsPlayerId = partyId;
+      masks.put(partyId, new MaterialQueue<>(INPUT_MASKS + partyId,
+          p -> p.getInputMasks(towardsPlayerId, batchSize)));
+    }
+    this.randomElements = new MaterialQueue<>(RANDOM_ELEMENTS,
+        p -> p.getRandomElements(batchSize));
+    this.randomBits = new MaterialQueue<>(BITS, p -> p.getRandomBits(batchSize));
+  }
+
+  /**
+   * Creates a random mac key share for the calling party, i.e., a uniformly random element of
+   * <i>Z<sub>2<sup>s</sup></sub></i>, as required by the pre-processing protocol.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> PlainT createRandomSsk(
+      CompUIntFactory<PlainT> factory) {
+    return factory.createElement(new BigInteger(factory.getHighBitLength(), new SecureRandom()));
+  }
+
+  @Override
+  public Spdz2kTriple<PlainT> getNextTripleShares() {
+    MultiplicationTriple triple = triples.take();
+    return new Spdz2kTriple<>(toSpdz2kSInt(triple.getLeft()), toSpdz2kSInt(triple.getRight()),
+        toSpdz2kSInt(triple.getProduct()));
+  }
+
+  @Override
+  public Spdz2kInputMask<PlainT> getNextInputMask(int towardPlayerId) {
+    InputMask mask = masks.get(towardPlayerId).take();
+    return new Spdz2kInputMask<>(toSpdz2kSInt(mask.getMaskShare()),
+        mask.getOpenValue() == null ? null : toPlain(mask.getOpenValue()));
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextBitShare() {
+    return toSpdz2kSInt(randomBits.take());
+  }
+
+  @Override
+  public PlainT getSecretSharedKey() {
+    return macKeyShare;
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextRandomElementShare() {
+    return toSpdz2kSInt(randomElements.take());
+  }
+
+  @Override
+  public void reset() {
+    triples.waits = 0;
+    for (MaterialQueue<InputMask> queue : masks.values()) {
+      queue.waits = 0;
+    }
+    randomElements.waits = 0;
+    randomBits.waits = 0;
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    triples.log(values);
+    for (MaterialQueue<InputMask> queue : masks.values()) {
+      queue.log(values);
+    }
+    randomElements.log(values);
+    randomBits.log(values);
+    return values;
+  }
+
+  /**
+   * Stops the background thread. Any material not yet generated will not be available.
+   */
+  @Override
+  public void close() {
+    worker.shutdownNow();
+  }
+
+  private Spdz2kSInt<PlainT> toSpdz2kSInt(AuthenticatedElement element) {
+    return new Spdz2kSInt<>(toPlain(element.getShare()), toPlain(element.getMac()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private PlainT toPlain(FieldElement element) {
+    // safe since all elements are created by the factory
+    return (PlainT) element;
+  }
+
+  private Spdz2kPreprocessing getPreprocessing() {
+    if (preprocessing == null) {
+      MascotSecurityParameters securityParameters = new MascotSecurityParameters(
+          factory.getCompositeBitLength(), prgSeedLength, NUM_CANDIDATES_PER_TRIPLE);
+      preprocessing = new Spdz2kPreprocessing(
+          new Spdz2kPreprocessingResourcePoolImpl(myId, numberOfPlayers, instanceId, drbg,
+              seedOts, securityParameters, factory, factory.getHighBitLength()),
+          preprocessingNetwork.get(), macKeyShare);
+    }
+    return preprocessing;
+  }
+
+  /**
+   * A queue of one kind of material, which is filled by the background thread.
+   */
+  private class MaterialQueue<T> {
+
+    private final String name;
+    private final Function<Spdz2kPreprocessing, List<T>> generator;
+    private final LinkedBlockingQueue<T> available;
+    // Elements requested but not yet consumed, only accessed by the online phase
+    private long level;
+    private long waits;
+
+    private MaterialQueue(String name, Function<Spdz2kPreprocessing, List<T>> generator) {
+      this.name = name;
+      this.generator = generator;
+      this.available = new LinkedBlockingQueue<>();
+    }
+
+    private T take() {
+      if (level <= lowWatermark) {
+        while (level < highWatermark) {
+          request();
+          level += batchSize;
+        }
+      }
+      level--;
+      T next = available.poll();
+      if (next == null) {
+        waits++;
+        logger.trace("Waiting for " + name);
+        next = await();
+      }
+      return next;
+    }
+
+    private void request() {
+      worker.execute(() -> {
+        if (failure != null) {
+          return;
+        }
+        try {
+          available.addAll(generator.apply(getPreprocessing()));
+        } catch (RuntimeException e) {
+          logger.error("Failed to generate " + name, e);
+          failure = e;
+        }
+      });
+    }
+
+    private T await() {
+      try {
+        T next = null;
+        while (next == null) {
+          if (failure != null) {
+            throw new IllegalStateException("Preprocessing failed", failure);
+          }
+          if (worker.isShutdown()) {
+            throw new IllegalStateException("Supplier has been closed");
+          }
+          next = available.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return next;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for " + name, e);
+      }
+    }
+
+    private void log(Map<String, Long> values) {
+      values.put(name + AVAILABLE_SUFFIX, (long) available.size());
+      values.put(name + WAITS_SUFFIX, waits);
+    }
+  }
+}
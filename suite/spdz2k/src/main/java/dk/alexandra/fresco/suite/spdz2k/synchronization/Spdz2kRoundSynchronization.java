@@ -6,6 +6,7 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.MacCheckPolicy;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
 import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
 import dk.alexandra.fresco.suite.spdz2k.Spdz2kBuilder;
@@ -21,7 +22,8 @@ import java.util.stream.StreamSupport;
 
 /**
  * Round synchronization for SPDZ2k. <p>Requires a mac check to be performed on an all opened
- * unauthenticated values whenever an output protocol is encountered in a batch.</p>
+ * unauthenticated values whenever an output protocol is encountered in a batch, and depending on
+ * the {@link MacCheckPolicy} also after the batch.</p>
  */
 public class Spdz2kRoundSynchronization<
     HighT extends UInt<HighT>,
@@ -34,20 +36,44 @@ public class Spdz2kRoundSynchronization<
   private boolean isCheckRequired;
   private final Spdz2kProtocolSuite<HighT, LowT, PlainT> protocolSuite;
   private final CompUIntConverter<HighT, LowT, PlainT> converter;
+  private final MacCheckPolicy macCheckPolicy;
 
   public Spdz2kRoundSynchronization(Spdz2kProtocolSuite<HighT, LowT, PlainT> protocolSuite,
       CompUIntConverter<HighT, LowT, PlainT> converter) {
-    this(protocolSuite, converter, 1000000, 128);
+    this(protocolSuite, converter, MacCheckPolicy.EVERY_OUTPUT);
+  }
+
+  public Spdz2kRoundSynchronization(Spdz2kProtocolSuite<HighT, LowT, PlainT> protocolSuite,
+      CompUIntConverter<HighT, LowT, PlainT> converter, MacCheckPolicy macCheckPolicy) {
+    this(protocolSuite, converter, 1000000, 128, macCheckPolicy);
   }
 
   public Spdz2kRoundSynchronization(Spdz2kProtocolSuite<HighT, LowT, PlainT> protocolSuite,
       CompUIntConverter<HighT, LowT, PlainT> converter,
       int openValueThreshold,
       int batchSize) {
+    this(protocolSuite, converter, openValueThreshold, batchSize, MacCheckPolicy.EVERY_OUTPUT);
+  }
+
+  /**
+   * Creates new {@link Spdz2kRoundSynchronization}.
+   *
+   * @param protocolSuite the protocol suite used for the mac-check computation
+   * @param converter helper for converting between the types of the mac-check computation
+   * @param openValueThreshold number of open values to accumulate before forcing a mac-check
+   * @param batchSize batch size for the mac-check computation
+   * @param macCheckPolicy determines whether output batches are also checked after the batch
+   */
+  public Spdz2kRoundSynchronization(Spdz2kProtocolSuite<HighT, LowT, PlainT> protocolSuite,
+      CompUIntConverter<HighT, LowT, PlainT> converter,
+      int openValueThreshold,
+      int batchSize,
+      MacCheckPolicy macCheckPolicy) {
     this.protocolSuite = protocolSuite;
     this.converter = converter;
     this.openValueThreshold = openValueThreshold;
     this.batchSize = batchSize;
+    this.macCheckPolicy = macCheckPolicy;
     this.isCheckRequired = false;
   }
 
@@ -90,10 +116,11 @@ public class Spdz2kRoundSynchronization<
   public void beforeBatch(
       ProtocolCollection<Spdz2kResourcePool<PlainT>> nativeProtocols,
       Spdz2kResourcePool<PlainT> resourcePool, Network network) {
-    isCheckRequired = StreamSupport.stream(nativeProtocols.spliterator(), false)
+    boolean hasOutput = StreamSupport.stream(nativeProtocols.spliterator(), false)
         .anyMatch(p -> p instanceof RequiresMacCheck);
+    isCheckRequired = hasOutput && macCheckPolicy == MacCheckPolicy.EVERY_OUTPUT;
     OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> store = resourcePool.getOpenedValueStore();
-    if (store.hasPendingValues() && isCheckRequired) {
+    if (store.hasPendingValues() && hasOutput) {
       doMacCheck(resourcePool, network);
     }
   }
@@ -0,0 +1,108 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt64 {
+
+  private final BigInteger twoTo32 = BigInteger.ONE.shiftLeft(32);
+  private final BigInteger twoTo64 = BigInteger.ONE.shiftLeft(64);
+
+  @Test
+  public void testConstruct() {
+    assertEquals(BigInteger.ZERO, new CompUInt64(BigInteger.ZERO).toBigInteger());
+    assertEquals(BigInteger.ONE, new CompUInt64(BigInteger.ONE).toBigInteger());
+    assertEquals(twoTo32, new CompUInt64(twoTo32).toBigInteger());
+    assertEquals(twoTo32.subtract(BigInteger.ONE),
+        new CompUInt64(twoTo32.subtract(BigInteger.ONE)).toBigInteger());
+    assertEquals(twoTo64.subtract(BigInteger.ONE),
+        new CompUInt64(twoTo64.subtract(BigInteger.ONE)).toBigInteger());
+  }
+
+  @Test
+  public void testConstructFromLowBytes() {
+    byte[] low = new UInt32(-1).toByteArray();
+    assertEquals(twoTo32.subtract(BigInteger.ONE), new CompUInt64(low).toBigInteger());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructTooManyBytes() {
+    new CompUInt64(new byte[9]);
+  }
+
+  @Test
+  public void testArithmeticAgainstBigInteger() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      BigInteger left = new BigInteger(64, random);
+      BigInteger right = new BigInteger(64, random);
+      CompUInt64 leftUInt = new CompUInt64(left);
+      CompUInt64 rightUInt = new CompUInt64(right);
+      assertEquals(left.add(right).mod(twoTo64), leftUInt.add(rightUInt).toBigInteger());
+      assertEquals(left.multiply(right).mod(twoTo64),
+          leftUInt.multiply(rightUInt).toBigInteger());
+      assertEquals(left.subtract(right).mod(twoTo64),
+          leftUInt.subtract(rightUInt).toBigInteger());
+      assertEquals(left.negate().mod(twoTo64), leftUInt.negateUInt().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testParts() {
+    CompUInt64 value = new CompUInt64(0x1234567890abcdefL);
+    assertEquals(0x90abcdef, value.getLeastSignificant().toInt());
+    assertEquals(0x12345678, value.getMostSignificant().toInt());
+    assertEquals(0x90abcdef, value.getLeastSignificantAsHigh().toInt());
+    assertEquals(0x90abcdef00000000L, value.shiftLowIntoHigh().toLong());
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] expected = {0x12, 0x34, 0x56, 0x78, (byte) 0x90, (byte) 0xab, (byte) 0xcd,
+        (byte) 0xef};
+    CompUInt64 value = new CompUInt64(0x1234567890abcdefL);
+    assertArrayEquals(expected, value.toByteArray());
+    assertEquals(value.toLong(), new CompUInt64(expected).toLong());
+  }
+
+  @Test
+  public void testGetBitLength() {
+    CompUInt64 value = new CompUInt64(1L);
+    assertEquals(32, value.getLowBitLength());
+    assertEquals(32, value.getHighBitLength());
+    assertEquals(64, value.getCompositeBitLength());
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals(twoTo64.subtract(BigInteger.ONE).toString(), new CompUInt64(-1L).toString());
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(new CompUInt64(0L).isZero());
+    assertFalse(new CompUInt64(1L).isZero());
+    assertTrue(new CompUInt64(-1L).add(new CompUInt64(1L)).isZero());
+  }
+
+  @Test
+  public void testFactory() {
+    CompUInt64Factory factory = new CompUInt64Factory();
+    assertEquals(twoTo32, factory.getModulus());
+    assertEquals(64, factory.getBitLength());
+    assertEquals(BigInteger.valueOf(123), factory.convertToUnsigned(factory.createElement(
+        twoTo32.multiply(BigInteger.TEN).add(BigInteger.valueOf(123)))));
+    assertEquals(BigInteger.valueOf(-1),
+        factory.convertToSigned(twoTo32.subtract(BigInteger.ONE)));
+    assertEquals(BigInteger.valueOf(7), factory.convertToSigned(BigInteger.valueOf(7)));
+    assertEquals(32, factory.convertToBitVector(factory.createElement(5)).getSize());
+    assertTrue(factory.zero().isZero());
+  }
+
+}
@@ -0,0 +1,77 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt64Array {
+
+  private static final int SIZE = 20;
+  private final CompUInt64Factory factory = new CompUInt64Factory();
+  private final Random random = new Random(42);
+
+  @Test
+  public void testOperationsMatchElements() {
+    List<CompUInt64> left = randomList();
+    List<CompUInt64> right = randomList();
+    CompUInt64 scalar = new CompUInt64(random.nextLong());
+    CompUInt64Array sum = CompUInt64Array.fromList(left)
+        .addInPlace(CompUInt64Array.fromList(right));
+    CompUInt64Array difference = CompUInt64Array.fromList(left)
+        .subtractInPlace(CompUInt64Array.fromList(right));
+    CompUInt64Array product = CompUInt64Array.fromList(left)
+        .multiplyInPlace(CompUInt64Array.fromList(right));
+    CompUInt64Array scaled = CompUInt64Array.fromList(left).multiplyInPlace(scalar);
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(left.get(i).add(right.get(i)).toLong(), sum.get(i).toLong());
+      assertEquals(left.get(i).subtract(right.get(i)).toLong(), difference.get(i).toLong());
+      assertEquals(left.get(i).multiply(right.get(i)).toLong(), product.get(i).toLong());
+      assertEquals(left.get(i).multiply(scalar).toLong(), scaled.get(i).toLong());
+    }
+  }
+
+  @Test
+  public void testSerializationMatchesFactory() {
+    List<CompUInt64> elements = randomList();
+    CompUInt64Array array = CompUInt64Array.fromList(elements);
+    byte[] bytes = array.toByteArray();
+    assertArrayEquals(factory.getSerializer().serialize(elements), bytes);
+    assertEquals(array, CompUInt64Array.fromByteArray(bytes));
+    List<CompUInt64> roundTrip = array.toList();
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(elements.get(i).toLong(), roundTrip.get(i).toLong());
+    }
+  }
+
+  @Test
+  public void testSet() {
+    CompUInt64Array array = new CompUInt64Array(2);
+    array.set(1, new CompUInt64(7L));
+    assertEquals(0L, array.get(0).toLong());
+    assertEquals(7L, array.get(1).toLong());
+    assertEquals(2, array.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSizeMismatch() {
+    new CompUInt64Array(2).addInPlace(new CompUInt64Array(3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeserializeWrongLength() {
+    CompUInt64Array.fromByteArray(new byte[9]);
+  }
+
+  private List<CompUInt64> randomList() {
+    List<CompUInt64> elements = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      elements.add(new CompUInt64(random.nextLong()));
+    }
+    return elements;
+  }
+
+}
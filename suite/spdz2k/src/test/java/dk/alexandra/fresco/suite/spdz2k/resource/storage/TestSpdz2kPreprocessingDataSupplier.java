@@ -0,0 +1,182 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdz2kPreprocessingDataSupplier {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int BATCH_SIZE = 8;
+  private static final int TRIPLES = 12;
+  private static final int MASKS = 4;
+  private static final int BITS = 4;
+  private static final int RANDOM_ELEMENTS = 4;
+
+  private ExecutorService executorService;
+  private CompUInt128Factory factory;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+    factory = new CompUInt128Factory();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void testPreprocessedMaterial() {
+    List<CompUInt128> sskShares = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      sskShares.add(Spdz2kPreprocessingDataSupplier.createRandomSsk(factory));
+    }
+    Map<Integer, InMemoryNetwork> otNetworks = InMemoryNetwork.create(NO_OF_PARTIES);
+    Map<Integer, InMemoryNetwork> preprocessingNetworks = InMemoryNetwork.create(NO_OF_PARTIES);
+    List<Callable<PartyResult>> tasks = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      int finalMyId = myId;
+      tasks.add(() -> {
+        Map<Integer, RotList> seedOts = seedOtSetup(finalMyId, otNetworks.get(finalMyId));
+        try (Spdz2kPreprocessingDataSupplier<CompUInt128> supplier =
+            new Spdz2kPreprocessingDataSupplier<>(finalMyId, NO_OF_PARTIES, 1,
+                () -> preprocessingNetworks.get(finalMyId), factory, PRG_SEED_LENGTH, BATCH_SIZE,
+                4, 16, sskShares.get(finalMyId - 1), seedOts, getDrbg())) {
+          PartyResult result = new PartyResult();
+          for (int i = 0; i < TRIPLES; i++) {
+            result.triples.add(supplier.getNextTripleShares());
+          }
+          for (int i = 0; i < MASKS; i++) {
+            result.masks.add(supplier.getNextInputMask(1));
+          }
+          for (int i = 0; i < BITS; i++) {
+            result.bits.add(supplier.getNextBitShare());
+          }
+          for (int i = 0; i < RANDOM_ELEMENTS; i++) {
+            result.randomElements.add(supplier.getNextRandomElementShare());
+          }
+          result.loggedValues = supplier.getLoggedValues();
+          return result;
+        }
+      });
+    }
+    List<PartyResult> results = invokeAndReturn(tasks);
+    CompUInt128 alpha = sskShares.get(0).add(sskShares.get(1));
+    PartyResult first = results.get(0);
+    PartyResult second = results.get(1);
+    for (int i = 0; i < TRIPLES; i++) {
+      CompUInt128 a = open(alpha, first.triples.get(i).getLeft(),
+          second.triples.get(i).getLeft());
+      CompUInt128 b = open(alpha, first.triples.get(i).getRight(),
+          second.triples.get(i).getRight());
+      CompUInt128 c = open(alpha, first.triples.get(i).getProduct(),
+          second.triples.get(i).getProduct());
+      assertEquals(a.multiply(b).toBigInteger(), c.toBigInteger());
+    }
+    for (int i = 0; i < MASKS; i++) {
+      Spdz2kInputMask<CompUInt128> own = first.masks.get(i);
+      Spdz2kInputMask<CompUInt128> other = second.masks.get(i);
+      assertEquals(own.getOpenValue().toBigInteger(),
+          open(alpha, own.getMaskShare(), other.getMaskShare()).toBigInteger());
+    }
+    for (int i = 0; i < BITS; i++) {
+      BigInteger bit = open(alpha, first.bits.get(i), second.bits.get(i)).toBigInteger();
+      assertTrue(bit.equals(BigInteger.ZERO) || bit.equals(BigInteger.ONE));
+    }
+    for (int i = 0; i < RANDOM_ELEMENTS; i++) {
+      open(alpha, first.randomElements.get(i), second.randomElements.get(i));
+    }
+    String triples = Spdz2kPreprocessingDataSupplier.TRIPLES;
+    assertTrue(first.loggedValues
+        .containsKey(triples + Spdz2kPreprocessingDataSupplier.WAITS_SUFFIX));
+    assertTrue(first.loggedValues.containsKey(Spdz2kPreprocessingDataSupplier.INPUT_MASKS + 2
+        + Spdz2kPreprocessingDataSupplier.AVAILABLE_SUFFIX));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalWatermarks() {
+    new Spdz2kPreprocessingDataSupplier<>(1, NO_OF_PARTIES, 1, null, factory, PRG_SEED_LENGTH,
+        BATCH_SIZE, 16, 16, null, null, null);
+  }
+
+  private CompUInt128 open(CompUInt128 alpha, Spdz2kSInt<CompUInt128> first,
+      Spdz2kSInt<CompUInt128> second) {
+    CompUInt128 value = first.getShare().add(second.getShare());
+    CompUInt128 mac = first.getMacShare().add(second.getMacShare());
+    assertEquals(value.multiply(alpha).toBigInteger(), mac.toBigInteger());
+    return value;
+  }
+
+  private Map<Integer, RotList> seedOtSetup(int myId, Network network) {
+    Drbg drbg = getDrbg();
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+      if (otherId != myId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  private Drbg getDrbg() {
+    byte[] drbgSeed = new byte[PRG_SEED_LENGTH / 8];
+    new SecureRandom().nextBytes(drbgSeed);
+    return AesCtrDrbgFactory.fromDerivedSeed(drbgSeed);
+  }
+
+  private <T> List<T> invokeAndReturn(List<Callable<T>> tasks) {
+    List<Future<T>> futures = ExceptionConverter
+        .safe(() -> executorService.invokeAll(tasks), "Error invoking tasks");
+    return futures.stream().map(
+        future -> ExceptionConverter.safe(future::get, "Error getting future result"))
+        .collect(Collectors.toList());
+  }
+
+  private static class PartyResult {
+
+    private final List<Spdz2kTriple<CompUInt128>> triples = new ArrayList<>();
+    private final List<Spdz2kInputMask<CompUInt128>> masks = new ArrayList<>();
+    private final List<Spdz2kSInt<CompUInt128>> bits = new ArrayList<>();
+    private final List<Spdz2kSInt<CompUInt128>> randomElements = new ArrayList<>();
+    private Map<String, Long> loggedValues;
+  }
+}
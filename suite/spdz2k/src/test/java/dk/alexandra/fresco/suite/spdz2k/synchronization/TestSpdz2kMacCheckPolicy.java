@@ -0,0 +1,95 @@
+package dk.alexandra.fresco.suite.spdz2k.synchronization;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.MacCheckPolicy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz2k.AbstractSpdz2kTest;
+import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuiteK64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSpdz2kMacCheckPolicy extends
+    AbstractSpdz2kTest<Spdz2kResourcePool<CompUInt128>> {
+
+  private MacCheckPolicy policy;
+
+  @Test
+  public void testBeforeOutput() {
+    policy = MacCheckPolicy.BEFORE_OUTPUT;
+    runTest(new TestSequentialOutputs<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 2);
+  }
+
+  @Override
+  protected Spdz2kResourcePool<CompUInt128> createResourcePool(int playerId, int noOfParties,
+      Supplier<Network> networkSupplier) {
+    CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+    Spdz2kResourcePool<CompUInt128> resourcePool =
+        new Spdz2kResourcePoolImpl<>(
+            playerId,
+            noOfParties, null,
+            new Spdz2kOpenedValueStoreImpl<>(),
+            new Spdz2kDummyDataSupplier<>(playerId, noOfParties, factory.createRandom(), factory),
+            factory);
+    resourcePool.initializeJointRandomness(networkSupplier, AesCtrDrbg::new, 32);
+    return resourcePool;
+  }
+
+  @Override
+  protected ProtocolSuiteNumeric<Spdz2kResourcePool<CompUInt128>> createProtocolSuite() {
+    return new Spdz2kProtocolSuiteK64(policy);
+  }
+
+  private static class TestSequentialOutputs<ResourcePoolT extends Spdz2kResourcePool<CompUInt128>>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private static final int NO_OF_OUTPUTS = 4;
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = root -> {
+            List<DRes<BigInteger>> outputs = new ArrayList<>();
+            DRes<SInt> value = root.numeric().known(BigInteger.valueOf(2));
+            for (int i = 0; i < NO_OF_OUTPUTS; i++) {
+              value = root.numeric().mult(value, value);
+              outputs.add(root.numeric().open(value));
+            }
+            return () -> outputs.stream().map(DRes::out).collect(Collectors.toList());
+          };
+          List<BigInteger> outputs = runApplication(testApplication);
+          BigInteger expected = BigInteger.valueOf(2);
+          for (BigInteger output : outputs) {
+            expected = expected.multiply(expected);
+            Assert.assertEquals(expected, output);
+          }
+          Assert.assertFalse(
+              "There should be no unchecked opened values after the evaluation has finished",
+              conf.getResourcePool().getOpenedValueStore().hasPendingValues());
+        }
+      };
+    }
+  }
+
+}
@@ -1,22 +1,32 @@
 package dk.alexandra.fresco.suite.tinytables.online;
 
 import dk.alexandra.fresco.framework.BuilderFactory;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.RegularBitVector;
 import dk.alexandra.fresco.suite.ProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesCloseProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesNOTProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpenToAllProtocol;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesPackedProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesXORProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesMappedStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import dk.alexandra.fresco.suite.tinytables.util.Util;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,12 +49,20 @@ import org.slf4j.LoggerFactory;
  * {@link TinyTablesOpenToAllProtocol} and {@link TinyTablesXORProtocol}.
  * </p>
  *
+ * <p>
+ * By default, the suite uses packed evaluation: before each batch is evaluated, the shares opened
+ * by all AND and open-to-all protocols in the batch (see {@link TinyTablesPackedProtocol}) are
+ * packed into a single bit vector, which is exchanged in one message and opened with one XOR.
+ * Without packed evaluation, each of these protocols sends its own single-byte message.
+ * </p>
+ *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
 public class TinyTablesProtocolSuite
     implements ProtocolSuite<ResourcePoolImpl, ProtocolBuilderBinary> {
 
   private final File tinyTablesFile;
+  private final boolean packedEvaluation;
   private TinyTablesStorage storage;
   private static volatile Map<Integer, TinyTablesProtocolSuite> instances = new HashMap<>();
   private static final Logger logger = LoggerFactory.getLogger(TinyTablesProtocolSuite.class);
@@ -54,7 +72,20 @@ public class TinyTablesProtocolSuite
   }
 
   public TinyTablesProtocolSuite(int id, File tinyTablesFile) {
+    this(id, tinyTablesFile, true);
+  }
+
+  /**
+   * Creates a new protocol suite for the online phase.
+   *
+   * @param id the id of this player
+   * @param tinyTablesFile the file with the TinyTables computed in the preprocessing phase
+   * @param packedEvaluation whether to open the shares of all AND and open-to-all protocols of a
+   *     batch in a single message
+   */
+  public TinyTablesProtocolSuite(int id, File tinyTablesFile, boolean packedEvaluation) {
     this.tinyTablesFile = tinyTablesFile;
+    this.packedEvaluation = packedEvaluation;
     instances.put(id, this);
   }
 
@@ -67,6 +98,11 @@ public class TinyTablesProtocolSuite
   }
 
   private TinyTablesStorage loadTinyTables(File file) throws IOException, ClassNotFoundException {
+    if (TinyTablesMappedStorage.isPackedFile(file.toPath())) {
+      logger.info("Mapping TinyTables from " + file);
+      return TinyTablesMappedStorage.open(file.toPath());
+    }
+    // Files written before the packed format was introduced are serialized storage objects
     FileInputStream fin = new FileInputStream(file);
     ObjectInputStream is = new ObjectInputStream(fin);
     logger.info("Loading TinyTabels from " + file);
@@ -81,6 +117,55 @@ public class TinyTablesProtocolSuite
 
   @Override
   public RoundSynchronization<ResourcePoolImpl> createRoundSynchronization() {
+    if (packedEvaluation) {
+      return new PackedRoundSynchronization();
+    }
     return new DummyRoundSynchronization<>();
   }
+
+  private class PackedRoundSynchronization implements RoundSynchronization<ResourcePoolImpl> {
+
+    @Override
+    public void beforeBatch(ProtocolCollection<ResourcePoolImpl> protocols,
+        ResourcePoolImpl resourcePool, Network network) {
+      /*
+       * The protocols of a batch only depend on values computed in earlier batches, so the shares
+       * to open are available before the batch is evaluated. Both players have the same batches,
+       * so they agree on the packed protocols and their order.
+       */
+      List<TinyTablesPackedProtocol> packed = new ArrayList<>();
+      for (NativeProtocol<?, ResourcePoolImpl> protocol : protocols) {
+        if (protocol instanceof TinyTablesPackedProtocol) {
+          packed.add((TinyTablesPackedProtocol) protocol);
+        }
+      }
+      if (packed.isEmpty()) {
+        return;
+      }
+      int size = packed.size();
+      RegularBitVector shares = new RegularBitVector(size);
+      for (int i = 0; i < size; i++) {
+        shares.setBit(i, packed.get(i).getShareToOpen(storage));
+      }
+      int otherId = Util.otherPlayerId(resourcePool.getMyId());
+      // The bit vector omits trailing zero bytes, so we pad it to a fixed length
+      network.send(otherId, Arrays.copyOf(shares.toByteArray(), (size + 7) / Byte.SIZE));
+      RegularBitVector opened = new RegularBitVector(network.receive(otherId), size);
+      opened.xor(shares);
+      for (int i = 0; i < size; i++) {
+        packed.get(i).setOpened(opened.getBit(i));
+      }
+    }
+
+    @Override
+    public void finishedBatch(int gatesEvaluated, ResourcePoolImpl resourcePool,
+        Network network) {
+      // Ignore
+    }
+
+    @Override
+    public void finishedEval(ResourcePoolImpl resourcePool, Network network) {
+      // Ignore
+    }
+  }
 }
@@ -5,13 +5,12 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.value.SBool;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * <p>
@@ -29,14 +28,21 @@ import java.util.Objects;
  * Both players now add their share with the other players share to get the masked value of the
  * output wire.
  * </p>
+ * <p>
+ * With packed evaluation, the table lookup is instead opened together with the lookups of all other
+ * AND gates in the same batch (see {@link TinyTablesPackedProtocol}), and the protocol finishes in
+ * the first round without communicating.
+ * </p>
  *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
-public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
+public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool>
+    implements TinyTablesPackedProtocol {
 
   private int id;
   private DRes<SBool> inLeft, inRight;
   private TinyTablesSBool out;
+  private boolean openedInBatch;
 
   public TinyTablesANDProtocol(int id, DRes<SBool> inLeft, DRes<SBool> inRight) {
     this.id = id;
@@ -49,12 +55,13 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
     TinyTablesProtocolSuite ps = TinyTablesProtocolSuite.getInstance(resourcePool.getMyId());
 
     if (round == 0) {
-      TinyTable tinyTable = Objects.requireNonNull(ps.getStorage().getTinyTable(id),
-          "Unable to find TinyTable for gate with id " + id);
-      TinyTablesElement myShare = tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
-          ((TinyTablesSBool) inRight.out()).getValue());
-
-      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare.getShare())});
+      if (openedInBatch) {
+        // Already opened by packed evaluation of this batch
+        openedInBatch = false;
+        return EvaluationStatus.IS_DONE;
+      }
+      boolean myShare = getShareToOpen(ps.getStorage());
+      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare)});
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
       List<byte[]> buffers = network.receiveFromAll();
@@ -68,6 +75,18 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
     }
   }
 
+  @Override
+  public boolean getShareToOpen(TinyTablesStorage storage) {
+    return storage.getTableEntry(id, ((TinyTablesSBool) inLeft.out()).getValue().getShare(),
+        ((TinyTablesSBool) inRight.out()).getValue().getShare());
+  }
+
+  @Override
+  public void setOpened(boolean opened) {
+    this.out = TinyTablesSBool.getInstance(TinyTablesElement.getInstance(opened));
+    this.openedInBatch = true;
+  }
+
   @Override
   public SBool out() {
     return out;
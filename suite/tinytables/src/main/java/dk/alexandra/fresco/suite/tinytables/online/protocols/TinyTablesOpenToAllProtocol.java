@@ -8,6 +8,7 @@ import dk.alexandra.fresco.framework.value.SBool;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,13 +23,20 @@ import java.util.List;
  * unmasked output <i>b</i>.
  * </p>
  *
+ * <p>
+ * With packed evaluation, the mask shares of all openings in a batch are exchanged in a single
+ * message (see {@link TinyTablesPackedProtocol}).
+ * </p>
+ *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
-public class TinyTablesOpenToAllProtocol extends TinyTablesProtocol<Boolean> {
+public class TinyTablesOpenToAllProtocol extends TinyTablesProtocol<Boolean>
+    implements TinyTablesPackedProtocol {
 
   private int id;
   private DRes<SBool> toOpen;
   private Boolean opened;
+  private boolean openedInBatch;
 
   public TinyTablesOpenToAllProtocol(int id, DRes<SBool> toOpen) {
     super();
@@ -46,8 +54,12 @@ public class TinyTablesOpenToAllProtocol extends TinyTablesProtocol<Boolean> {
      * and all the shares of the mask.
      */
     if (round == 0) {
-      TinyTablesElement myR = ps.getStorage().getMaskShare(id);
-      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myR.getShare())});
+      if (openedInBatch) {
+        // Already opened by packed evaluation of this batch
+        openedInBatch = false;
+        return EvaluationStatus.IS_DONE;
+      }
+      network.sendToAll(new byte[]{BooleanSerializer.toBytes(getShareToOpen(ps.getStorage()))});
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
       // round > 0
@@ -56,12 +68,26 @@ public class TinyTablesOpenToAllProtocol extends TinyTablesProtocol<Boolean> {
       for (byte[] buffer : buffers) {
         maskShares.add(TinyTablesElement.getInstance(BooleanSerializer.fromBytes(buffer[0])));
       }
-      boolean mask = TinyTablesElement.open(maskShares);
-      this.opened = ((TinyTablesSBool) toOpen.out()).getValue().getShare() ^ mask;
+      unmask(TinyTablesElement.open(maskShares));
       return EvaluationStatus.IS_DONE;
     }
   }
 
+  @Override
+  public boolean getShareToOpen(TinyTablesStorage storage) {
+    return storage.getMaskShare(id).getShare();
+  }
+
+  @Override
+  public void setOpened(boolean mask) {
+    unmask(mask);
+    this.openedInBatch = true;
+  }
+
+  private void unmask(boolean mask) {
+    this.opened = ((TinyTablesSBool) toOpen.out()).getValue().getShare() ^ mask;
+  }
+
   @Override
   public Boolean out() {
     return opened;
@@ -0,0 +1,34 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+
+/**
+ * A protocol in the online phase of the TinyTables protocol whose only communication is opening a
+ * single additively shared bit.
+ *
+ * <p>
+ * When the packed evaluation of {@link dk.alexandra.fresco.suite.tinytables.online
+ * .TinyTablesProtocolSuite} is used, the shares of all such protocols in a batch are packed into a
+ * single bit vector which is exchanged in one message before the batch is evaluated, and the
+ * opened bits are handed back to the protocols, which then finish without communicating.
+ * </p>
+ */
+public interface TinyTablesPackedProtocol {
+
+  /**
+   * Returns this player's share of the bit to open.
+   *
+   * @param storage the TinyTables computed in the preprocessing phase
+   */
+  boolean getShareToOpen(TinyTablesStorage storage);
+
+  /**
+   * Finishes the protocol given the opened bit. This marks the protocol as opened for the current
+   * batch only: its next first round uses the bit and returns without communicating, and clears
+   * the mark, so a later evaluation of the same protocol opens its share again.
+   *
+   * @param opened the XOR of the shares of both players
+   */
+  void setOpened(boolean opened);
+
+}
@@ -11,8 +11,9 @@ import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproProtocol;
 import dk.alexandra.fresco.suite.tinytables.storage.BatchTinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesPackedStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
-import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStreamingStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesTripleProvider;
 import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
 import dk.alexandra.fresco.suite.tinytables.util.Util;
@@ -21,12 +22,10 @@ import dk.alexandra.fresco.tools.ot.otextension.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -36,10 +35,16 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TinyTablesPreproResourcePool.class);
   private static final int TRIP_BATCH_SIZE = 8192;
+  /**
+   * The number of AND gates for which the TinyTables are computed using a single message.
+   */
+  private static final int WINDOW_SIZE = TRIP_BATCH_SIZE;
 
   private final Drng drng;
   private final List<TinyTablesPreproANDProtocol> unprocessedAnds;
   private final TinyTablesStorage storage;
+  private final Closeable storageCloser;
+  private final boolean streaming;
   private final File tinyTablesFile;
   private final Supplier<TinyTablesTripleProvider> supplier;
   private TinyTablesTripleProvider tinyTablesTripleProvider;
@@ -57,9 +62,43 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
   public TinyTablesPreproResourcePool(int myId, TinyTablesOt baseOt, Drbg drbg,
       int computationalSecurity, int statisticalSecurity,
       int otBatchSize, File tinyTablesFile, Supplier<Network> network) {
+    this(myId, baseOt, drbg, computationalSecurity, statisticalSecurity, otBatchSize,
+        tinyTablesFile, network, false);
+  }
+
+  /**
+   * Creates an instance of the default implementation of a resource pool. This contains the basic
+   * resources needed within FRESCO.
+   *
+   * <p>
+   * In streaming mode, the TinyTables and mask shares are written to the file as soon as they are
+   * computed, so the memory used does not grow with the size of the circuit. Otherwise, they are
+   * kept in memory and written to the file when the evaluation is closed.
+   * </p>
+   *
+   * @param myId The ID of the MPC party.
+   * @param baseOt OT functionality for the base OTs
+   * @param drbg Secure bit randomness generator
+   * @param otBatchSize The amount of OTs to preprocess in a batch
+   * @param tinyTablesFile file for data
+   * @param streaming whether to write the TinyTables to the file while they are computed
+   */
+  public TinyTablesPreproResourcePool(int myId, TinyTablesOt baseOt, Drbg drbg,
+      int computationalSecurity, int statisticalSecurity,
+      int otBatchSize, File tinyTablesFile, Supplier<Network> network, boolean streaming) {
     super(myId, 2);
     this.unprocessedAnds = Collections.synchronizedList(new ArrayList<>());
-    this.storage = new TinyTablesStorageImpl();
+    this.streaming = streaming;
+    if (streaming) {
+      TinyTablesStreamingStorage streamingStorage =
+          new TinyTablesStreamingStorage(tinyTablesFile.toPath());
+      this.storage = streamingStorage;
+      this.storageCloser = streamingStorage;
+    } else {
+      TinyTablesPackedStorage packedStorage = new TinyTablesPackedStorage();
+      this.storage = packedStorage;
+      this.storageCloser = () -> packedStorage.write(tinyTablesFile.toPath());
+    }
     this.tinyTablesFile = tinyTablesFile;
     this.drng = new DrngImpl(drbg);
     this.supplier = () -> {
@@ -102,17 +141,31 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
   }
 
   void calculateTinyTables(Network network) {
-    int unprocessedGates = this.unprocessedAnds.size();
     /*
      * Sort the unprocessed gates to make sure that the players process them in the same order.
      */
     this.unprocessedAnds.sort(Comparator.comparingInt(TinyTablesPreproProtocol::getId));
+    /*
+     * Process the gates in windows of a fixed size, so the size of the messages and the number of
+     * triples in use are bounded.
+     */
+    for (int from = 0; from < unprocessedAnds.size(); from += WINDOW_SIZE) {
+      int to = Math.min(from + WINDOW_SIZE, unprocessedAnds.size());
+      calculateTinyTables(unprocessedAnds.subList(from, to), network);
+      if (streaming) {
+        ((TinyTablesStreamingStorage) storage).flush();
+      }
+    }
+    this.unprocessedAnds.clear();
+  }
 
+  private void calculateTinyTables(List<TinyTablesPreproANDProtocol> gates, Network network) {
+    int unprocessedGates = gates.size();
     // Two bits per gate
     TinyTablesElementVector shares = new TinyTablesElementVector(unprocessedGates * 2);
-    List<TinyTablesTriple> usedTriples = new ArrayList<>();
+    List<TinyTablesTriple> usedTriples = new ArrayList<>(unprocessedGates);
     for (int i = 0; i < unprocessedGates; i++) {
-      TinyTablesPreproANDProtocol gate = this.unprocessedAnds.get(i);
+      TinyTablesPreproANDProtocol gate = gates.get(i);
       if (tinyTablesTripleProvider == null) {
         tinyTablesTripleProvider = supplier.get();
       }
@@ -130,21 +183,16 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
       shares.setShare(2 * i + 1, msg.getSecond().getShare());
     }
 
-    byte[] size = ByteBuffer.allocate(Integer.BYTES).putInt(shares.getSize()).array();
-    // send
-    network.send(Util.otherPlayerId(getMyId()), size);
-    network.send(Util.otherPlayerId(this.getMyId()), shares.payload());
-
-    // receive
-    size = network.receive(Util.otherPlayerId(this.getMyId()));
-    int length = ByteBuffer.wrap(size).getInt();
+    // Both players process the same gates, so the size of the message is known
+    network.send(Util.otherPlayerId(this.getMyId()),
+        Arrays.copyOf(shares.payload(), (shares.getSize() + Byte.SIZE - 1) / Byte.SIZE));
     byte[] data = network.receive(Util.otherPlayerId(this.getMyId()));
-    TinyTablesElementVector otherShares = new TinyTablesElementVector(data, length);
+    TinyTablesElementVector otherShares = new TinyTablesElementVector(data, shares.getSize());
 
     RegularBitVector open = TinyTablesElementVector.open(shares, otherShares);
 
     for (int i = 0; i < unprocessedGates; i++) {
-      TinyTablesPreproANDProtocol gate = this.unprocessedAnds.get(i);
+      TinyTablesPreproANDProtocol gate = gates.get(i);
       boolean e = open.getBit(2 * i);
       boolean d = open.getBit(2 * i + 1);
 
@@ -155,8 +203,6 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
 
       this.storage.storeTinyTable(gate.getId(), tinyTable);
     }
-
-    this.unprocessedAnds.clear();
   }
 
   public void closeEvaluation() {
@@ -164,23 +210,16 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
       tinyTablesTripleProvider.close();
     }
     /*
-     * Store the TinyTables to a file.
+     * Store the TinyTables to a file in the packed format, which is memory-mapped in the online
+     * phase. In streaming mode, this only writes what is left in the buffer and the header.
      */
     ExceptionConverter.safe(() -> {
-      storeTinyTables(storage, tinyTablesFile);
+      storageCloser.close();
       LOGGER.info("TinyTables stored to {}", tinyTablesFile);
       return null;
     }, "Failed to store TinyTables");
   }
 
-  private void storeTinyTables(TinyTablesStorage tinyTablesStorage, File file) throws IOException {
-    file.createNewFile();
-    try (FileOutputStream fout = new FileOutputStream(file);
-      ObjectOutputStream oos = new ObjectOutputStream(fout)) {
-      oos.writeObject(tinyTablesStorage);
-    }
-  }
-
   public TinyTablesStorage getStorage() {
     return storage;
   }
@@ -0,0 +1,137 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only {@link TinyTablesStorage} used in the online phase, which reads the TinyTables and
+ * mask shares directly from a memory-mapped file written by {@link TinyTablesPackedStorage}.
+ *
+ * <p>
+ * Nothing is decoded up front, so opening the storage takes constant time regardless of the size of
+ * the circuit, and only the pages actually used are loaded into memory.
+ * </p>
+ */
+public class TinyTablesMappedStorage implements TinyTablesStorage {
+
+  private static final long serialVersionUID = -2203517262924640736L;
+  private final transient MappedByteBuffer buffer;
+  private final int numberOfIds;
+
+  private TinyTablesMappedStorage(MappedByteBuffer buffer, int numberOfIds) {
+    this.buffer = buffer;
+    this.numberOfIds = numberOfIds;
+  }
+
+  /**
+   * Checks if the given file is in the packed format, i.e., starts with the right magic number.
+   *
+   * @param path the file to check
+   * @return true if the file is in the packed format
+   */
+  public static boolean isPackedFile(Path path) throws IOException {
+    try (InputStream in = Files.newInputStream(path)) {
+      DataInputStream data = new DataInputStream(in);
+      return Files.size(path) >= TinyTablesPackedStorage.HEADER_SIZE
+          && data.readInt() == TinyTablesPackedStorage.MAGIC;
+    }
+  }
+
+  /**
+   * Maps a file written by {@link TinyTablesPackedStorage} read-only into memory.
+   *
+   * @param path the file to map
+   * @return a storage backed by the mapped file
+   */
+  public static TinyTablesMappedStorage open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      if (channel.size() < TinyTablesPackedStorage.HEADER_SIZE
+          || buffer.getInt(0) != TinyTablesPackedStorage.MAGIC) {
+        throw new IllegalArgumentException("Not a TinyTables file: " + path);
+      }
+      if (buffer.getInt(4) != TinyTablesPackedStorage.VERSION) {
+        throw new IllegalArgumentException(
+            "Unsupported TinyTables file version " + buffer.getInt(4));
+      }
+      int numberOfIds = buffer.getInt(8);
+      long expectedSize = TinyTablesPackedStorage.HEADER_SIZE
+          + (long) TinyTablesPackedStorage.blocks(numberOfIds) * TinyTablesPackedStorage.BLOCK_SIZE;
+      if (channel.size() < expectedSize) {
+        throw new IllegalArgumentException("TinyTables file is truncated: " + path);
+      }
+      // The mapping stays valid after the channel is closed
+      return new TinyTablesMappedStorage(buffer, numberOfIds);
+    }
+  }
+
+  @Override
+  public void storeTinyTable(int id, TinyTable table) {
+    throw new UnsupportedOperationException("Mapped TinyTables storage is read-only");
+  }
+
+  @Override
+  public TinyTable getTinyTable(int id) {
+    if (!hasTable(id)) {
+      return null;
+    }
+    return TinyTablesPackedStorage.decode(table(id));
+  }
+
+  @Override
+  public boolean getTableEntry(int id, boolean left, boolean right) {
+    TinyTablesPackedStorage.checkTable(id, hasTable(id));
+    return TinyTablesPackedStorage.entry(table(id), left, right);
+  }
+
+  @Override
+  public void storeMaskShare(int id, TinyTablesElement r) {
+    throw new UnsupportedOperationException("Mapped TinyTables storage is read-only");
+  }
+
+  @Override
+  public TinyTablesElement getMaskShare(int id) {
+    if (!hasMaskShare(id)) {
+      return null;
+    }
+    byte masks = buffer.get(TinyTablesPackedStorage.HEADER_SIZE
+        + TinyTablesPackedStorage.maskPosition(id));
+    return TinyTablesElement.getInstance(
+        (masks & (1 << TinyTablesPackedStorage.maskShift(id))) != 0);
+  }
+
+  /**
+   * Returns the number of ids stored, i.e., one more than the largest id stored.
+   */
+  public int getNumberOfIds() {
+    return numberOfIds;
+  }
+
+  private boolean hasTable(int id) {
+    return id >= 0 && id < numberOfIds && TinyTablesPackedStorage.isMarked(
+        buffer.get(TinyTablesPackedStorage.HEADER_SIZE
+            + TinyTablesPackedStorage.tablePresencePosition(id)), id);
+  }
+
+  private boolean hasMaskShare(int id) {
+    return id >= 0 && id < numberOfIds && TinyTablesPackedStorage.isMarked(
+        buffer.get(TinyTablesPackedStorage.HEADER_SIZE
+            + TinyTablesPackedStorage.maskPresencePosition(id)), id);
+  }
+
+  private int table(int id) {
+    byte tables = buffer.get(TinyTablesPackedStorage.HEADER_SIZE
+        + TinyTablesPackedStorage.tablePosition(id));
+    return (tables >>> TinyTablesPackedStorage.tableShift(id)) & 0x0F;
+  }
+
+}
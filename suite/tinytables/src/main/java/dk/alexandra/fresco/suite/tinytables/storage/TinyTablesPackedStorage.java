@@ -0,0 +1,225 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A compact {@link TinyTablesStorage} used in the preprocessing phase, which keeps the TinyTables
+ * and mask shares packed in a byte array and writes them to a file which is read in the online
+ * phase by {@link TinyTablesMappedStorage}.
+ *
+ * <p>
+ * Each protocol id takes up seven bits: a TinyTable is stored as four bits, where entry <i>(c,
+ * d)</i> is bit <i>2c + d</i>, a mask share as one bit, and one bit each marks whether a table
+ * and a mask share were stored for the id. Ids are grouped in blocks of {@value #BLOCK_IDS}, each
+ * stored as {@value #BLOCK_SIZE} bytes: four bytes with the tables, two per byte with the lower id
+ * in the low nibble, followed by one byte with the mask shares, one byte marking the stored tables
+ * and one byte marking the stored mask shares. The position of the data of an id can thus be
+ * computed directly from the id, and ids that were never stored are not mistaken for all-zero
+ * entries. The file starts with a header of {@value #HEADER_SIZE} bytes holding a magic number, a
+ * version and the number of ids.
+ * </p>
+ */
+public class TinyTablesPackedStorage implements TinyTablesStorage {
+
+  private static final long serialVersionUID = 4518153297326181410L;
+  static final int MAGIC = 0x54696E54;
+  static final int VERSION = 2;
+  static final int HEADER_SIZE = 12;
+  static final int BLOCK_IDS = 8;
+  static final int BLOCK_SIZE = 7;
+  private static final int INITIAL_BLOCKS = 1024;
+
+  private byte[] data;
+  private int numberOfIds;
+
+  /**
+   * Creates a new empty storage.
+   */
+  public TinyTablesPackedStorage() {
+    this.data = new byte[INITIAL_BLOCKS * BLOCK_SIZE];
+  }
+
+  @Override
+  public synchronized void storeTinyTable(int id, TinyTable table) {
+    ensureCapacity(id);
+    int position = tablePosition(id);
+    int shift = tableShift(id);
+    data[position] = (byte) ((data[position] & ~(0x0F << shift)) | (encode(table) << shift));
+    data[tablePresencePosition(id)] |= 1 << presenceShift(id);
+  }
+
+  @Override
+  public synchronized TinyTable getTinyTable(int id) {
+    if (!hasTable(id)) {
+      return null;
+    }
+    return decode((data[tablePosition(id)] >>> tableShift(id)) & 0x0F);
+  }
+
+  @Override
+  public synchronized boolean getTableEntry(int id, boolean left, boolean right) {
+    checkTable(id, hasTable(id));
+    return entry(data[tablePosition(id)] >>> tableShift(id), left, right);
+  }
+
+  @Override
+  public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+    ensureCapacity(id);
+    int position = maskPosition(id);
+    int mask = 1 << maskShift(id);
+    data[position] = (byte) (r.getShare() ? data[position] | mask : data[position] & ~mask);
+    data[maskPresencePosition(id)] |= 1 << presenceShift(id);
+  }
+
+  @Override
+  public synchronized TinyTablesElement getMaskShare(int id) {
+    if (!hasMaskShare(id)) {
+      return null;
+    }
+    return TinyTablesElement.getInstance((data[maskPosition(id)] & (1 << maskShift(id))) != 0);
+  }
+
+  /**
+   * Returns the number of ids stored, i.e., one more than the largest id stored.
+   */
+  public synchronized int getNumberOfIds() {
+    return numberOfIds;
+  }
+
+  /**
+   * Writes the content of this storage to a file in a single sequential pass.
+   *
+   * @param path the file to write to, which is overwritten if it exists
+   */
+  public synchronized void write(Path path) throws IOException {
+    try (OutputStream out = Files.newOutputStream(path)) {
+      out.write(header(numberOfIds).array());
+      out.write(data, 0, blocks(numberOfIds) * BLOCK_SIZE);
+    }
+  }
+
+  private boolean hasTable(int id) {
+    return id >= 0 && id < numberOfIds && isMarked(data[tablePresencePosition(id)], id);
+  }
+
+  private boolean hasMaskShare(int id) {
+    return id >= 0 && id < numberOfIds && isMarked(data[maskPresencePosition(id)], id);
+  }
+
+  private void ensureCapacity(int id) {
+    checkNonNegative(id);
+    int required = (id / BLOCK_IDS + 1) * BLOCK_SIZE;
+    if (required > data.length) {
+      data = Arrays.copyOf(data, Math.max(required, 2 * data.length));
+    }
+    numberOfIds = Math.max(numberOfIds, id + 1);
+  }
+
+  static ByteBuffer header(int numberOfIds) {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putInt(VERSION).putInt(numberOfIds);
+    header.flip();
+    return header;
+  }
+
+  static void checkNonNegative(int id) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Id must be non-negative, but was " + id);
+    }
+  }
+
+  static void checkTable(int id, boolean present) {
+    if (!present) {
+      throw new IllegalArgumentException("Unable to find TinyTable for gate with id " + id);
+    }
+  }
+
+  /**
+   * Checks if a byte marking the stored tables or mask shares of a block marks the given id.
+   */
+  static boolean isMarked(byte presence, int id) {
+    return (presence & (1 << presenceShift(id))) != 0;
+  }
+
+  static int blocks(int numberOfIds) {
+    return (numberOfIds + BLOCK_IDS - 1) / BLOCK_IDS;
+  }
+
+  /**
+   * Returns the position of the byte holding the table of the given id, relative to the start of
+   * the blocks.
+   */
+  static int tablePosition(int id) {
+    return (id / BLOCK_IDS) * BLOCK_SIZE + (id % BLOCK_IDS) / 2;
+  }
+
+  static int tableShift(int id) {
+    return (id % 2) * 4;
+  }
+
+  /**
+   * Returns the position of the byte holding the mask share of the given id, relative to the start
+   * of the blocks.
+   */
+  static int maskPosition(int id) {
+    return (id / BLOCK_IDS) * BLOCK_SIZE + 4;
+  }
+
+  static int maskShift(int id) {
+    return id % BLOCK_IDS;
+  }
+
+  /**
+   * Returns the position of the byte marking whether the table of the given id is stored, relative
+   * to the start of the blocks.
+   */
+  static int tablePresencePosition(int id) {
+    return (id / BLOCK_IDS) * BLOCK_SIZE + BLOCK_SIZE - 2;
+  }
+
+  /**
+   * Returns the position of the byte marking whether the mask share of the given id is stored,
+   * relative to the start of the blocks.
+   */
+  static int maskPresencePosition(int id) {
+    return (id / BLOCK_IDS) * BLOCK_SIZE + BLOCK_SIZE - 1;
+  }
+
+  static int presenceShift(int id) {
+    return id % BLOCK_IDS;
+  }
+
+  static boolean entry(int table, boolean left, boolean right) {
+    return ((table >>> ((left ? 2 : 0) + (right ? 1 : 0))) & 1) != 0;
+  }
+
+  static int encode(TinyTable table) {
+    int encoded = 0;
+    for (int c = 0; c < 2; c++) {
+      for (int d = 0; d < 2; d++) {
+        boolean share = table.getValue(TinyTablesElement.getInstance(c == 1),
+            TinyTablesElement.getInstance(d == 1)).getShare();
+        if (share) {
+          encoded |= 1 << (2 * c + d);
+        }
+      }
+    }
+    return encoded;
+  }
+
+  static TinyTable decode(int table) {
+    TinyTablesElement[] entries = new TinyTablesElement[4];
+    for (int i = 0; i < 4; i++) {
+      entries[i] = TinyTablesElement.getInstance(((table >>> i) & 1) != 0);
+    }
+    return new TinyTable(entries);
+  }
+
+}
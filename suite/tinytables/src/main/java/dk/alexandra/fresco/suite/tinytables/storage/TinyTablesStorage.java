@@ -24,6 +24,30 @@ public interface TinyTablesStorage extends Serializable {
 
 	public TinyTable getTinyTable(int id);
 
+	/**
+	 * Returns this players share of the entry of the {@link TinyTable} for
+	 * the protocol with the given <code>id</code> at the given position. The
+	 * default implementation looks up the whole table, but implementations
+	 * storing the tables in a packed form may read the entry directly.
+	 * 
+	 * @param id
+	 * @param left
+	 *            the first index of the entry
+	 * @param right
+	 *            the second index of the entry
+	 * @throws IllegalArgumentException
+	 *             if no table is stored for the given <code>id</code>
+	 */
+	public default boolean getTableEntry(int id, boolean left, boolean right) {
+		TinyTable table = getTinyTable(id);
+		if (table == null) {
+			throw new IllegalArgumentException(
+					"Unable to find TinyTable for gate with id " + id);
+		}
+		return table.getValue(TinyTablesElement.getInstance(left),
+				TinyTablesElement.getInstance(right)).getShare();
+	}
+
 	/**
 	 * Store a boolean for the protocol with the given ID. Can be used by a
 	 * player to store a mask that he has picked during preprocessing.
@@ -0,0 +1,247 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A {@link TinyTablesStorage} used in the preprocessing phase, which writes the TinyTables and mask
+ * shares to a file while they are being computed, instead of keeping them in memory until the end
+ * of the evaluation. The file has the same format as the one written by
+ * {@link TinyTablesPackedStorage}, and is read in the online phase by
+ * {@link TinyTablesMappedStorage}.
+ *
+ * <p>
+ * Stored values are buffered and written to the file when the buffer is full or when
+ * {@link #flush()} is called. Since two ids may share a byte in the file, and values are not
+ * necessarily stored in the order of their ids, a flush reads the affected bytes back from the file
+ * and merges the new values into them. The values are sorted by position before being written, so
+ * values of consecutive ids are written in a single operation. The memory used is thus bounded by
+ * the size of the buffer, regardless of the size of the circuit. The header of the file is written
+ * when the storage is closed, so the file should not be used before then.
+ * </p>
+ */
+public class TinyTablesStreamingStorage implements TinyTablesStorage, Closeable {
+
+  private static final long serialVersionUID = -6380218795164916373L;
+  private static final int MAX_BUFFER_SIZE = 1 << 16;
+  /**
+   * Positions closer than this are merged into a single read and write when flushing.
+   */
+  private static final int MAX_GAP = 64;
+
+  private final Path path;
+  private final transient long[] pending;
+  private transient FileChannel channel;
+  private int numberOfPending;
+  private int numberOfIds;
+  private boolean closed;
+
+  /**
+   * Creates a new storage writing to the given file, which is created, or truncated if it exists,
+   * when the first value is flushed.
+   *
+   * @param path the file to write to
+   */
+  public TinyTablesStreamingStorage(Path path) {
+    this(path, MAX_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a new storage writing to the given file.
+   *
+   * @param path the file to write to
+   * @param bufferSize the number of values to buffer before they are written to the file, at most
+   *     {@value #MAX_BUFFER_SIZE}
+   */
+  public TinyTablesStreamingStorage(Path path, int bufferSize) {
+    if (bufferSize < 1 || bufferSize > MAX_BUFFER_SIZE) {
+      throw new IllegalArgumentException(
+          "Buffer size must be between 1 and " + MAX_BUFFER_SIZE + ", but was " + bufferSize);
+    }
+    this.path = path;
+    this.pending = new long[bufferSize];
+  }
+
+  @Override
+  public synchronized void storeTinyTable(int id, TinyTable table) {
+    TinyTablesPackedStorage.checkNonNegative(id);
+    int shift = TinyTablesPackedStorage.tableShift(id);
+    buffer(id, TinyTablesPackedStorage.tablePosition(id), 0x0F << shift,
+        TinyTablesPackedStorage.encode(table) << shift);
+    int present = 1 << TinyTablesPackedStorage.presenceShift(id);
+    buffer(id, TinyTablesPackedStorage.tablePresencePosition(id), present, present);
+  }
+
+  /**
+   * Returns the table of the given id. As this requires the buffer to be flushed and the file to be
+   * read, this is only intended for testing.
+   */
+  @Override
+  public synchronized TinyTable getTinyTable(int id) {
+    if (!isStored(id, TinyTablesPackedStorage.tablePresencePosition(id))) {
+      return null;
+    }
+    byte tables = read(TinyTablesPackedStorage.tablePosition(id));
+    return TinyTablesPackedStorage
+        .decode((tables >>> TinyTablesPackedStorage.tableShift(id)) & 0x0F);
+  }
+
+  @Override
+  public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+    TinyTablesPackedStorage.checkNonNegative(id);
+    int mask = 1 << TinyTablesPackedStorage.maskShift(id);
+    buffer(id, TinyTablesPackedStorage.maskPosition(id), mask, r.getShare() ? mask : 0);
+    int present = 1 << TinyTablesPackedStorage.presenceShift(id);
+    buffer(id, TinyTablesPackedStorage.maskPresencePosition(id), present, present);
+  }
+
+  /**
+   * Returns the mask share of the given id. As this requires the buffer to be flushed and the file
+   * to be read, this is only intended for testing.
+   */
+  @Override
+  public synchronized TinyTablesElement getMaskShare(int id) {
+    if (!isStored(id, TinyTablesPackedStorage.maskPresencePosition(id))) {
+      return null;
+    }
+    byte masks = read(TinyTablesPackedStorage.maskPosition(id));
+    return TinyTablesElement
+        .getInstance((masks & (1 << TinyTablesPackedStorage.maskShift(id))) != 0);
+  }
+
+  /**
+   * Returns the number of ids stored, i.e., one more than the largest id stored.
+   */
+  public synchronized int getNumberOfIds() {
+    return numberOfIds;
+  }
+
+  /**
+   * Writes all buffered values to the file.
+   */
+  public synchronized void flush() {
+    if (numberOfPending == 0) {
+      return;
+    }
+    ExceptionConverter.safe(() -> {
+      writePending();
+      return null;
+    }, "Failed to write TinyTables to " + path);
+  }
+
+  /**
+   * Flushes the buffered values, writes the header and closes the file.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    writePending();
+    FileChannel file = getChannel();
+    long size = TinyTablesPackedStorage.HEADER_SIZE
+        + (long) TinyTablesPackedStorage.blocks(numberOfIds) * TinyTablesPackedStorage.BLOCK_SIZE;
+    if (file.size() < size) {
+      // The last block may not have been written completely
+      file.write(ByteBuffer.allocate(1), size - 1);
+    }
+    file.write(TinyTablesPackedStorage.header(numberOfIds), 0);
+    file.close();
+    this.channel = null;
+    this.closed = true;
+  }
+
+  /**
+   * Buffers a value, encoded as the position of the byte in the file, the index in the buffer, the
+   * bits of the byte which are set and their values. Including the index makes values stored for
+   * the same byte sort in the order they were stored, so a value may be overwritten.
+   */
+  private void buffer(int id, int position, int mask, int value) {
+    if (closed) {
+      throw new IllegalStateException("Storage has been closed");
+    }
+    numberOfIds = Math.max(numberOfIds, id + 1);
+    pending[numberOfPending] = ((long) position << 32) | ((long) numberOfPending << 16)
+        | ((mask & 0xFF) << 8) | (value & 0xFF);
+    numberOfPending++;
+    if (numberOfPending == pending.length) {
+      flush();
+    }
+  }
+
+  private void writePending() throws IOException {
+    Arrays.sort(pending, 0, numberOfPending);
+    int i = 0;
+    while (i < numberOfPending) {
+      // Find a run of values which are close, and read and write them at once
+      int start = position(pending[i]);
+      int j = i + 1;
+      while (j < numberOfPending && position(pending[j]) - position(pending[j - 1]) <= MAX_GAP) {
+        j++;
+      }
+      int end = position(pending[j - 1]) + 1;
+      ByteBuffer bytes = readBytes(start, end - start);
+      for (int k = i; k < j; k++) {
+        int index = position(pending[k]) - start;
+        int mask = (int) (pending[k] >>> 8) & 0xFF;
+        int value = (int) pending[k] & 0xFF;
+        bytes.put(index, (byte) ((bytes.get(index) & ~mask) | value));
+      }
+      bytes.rewind();
+      long offset = TinyTablesPackedStorage.HEADER_SIZE + (long) start;
+      while (bytes.hasRemaining()) {
+        getChannel().write(bytes, offset + bytes.position());
+      }
+      i = j;
+    }
+    numberOfPending = 0;
+  }
+
+  private ByteBuffer readBytes(int position, int length) throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate(length);
+    long offset = TinyTablesPackedStorage.HEADER_SIZE + (long) position;
+    // Bytes beyond the end of the file have not been written yet and are zero
+    int read = 0;
+    while (bytes.hasRemaining() && read >= 0) {
+      read = getChannel().read(bytes, offset + bytes.position());
+    }
+    bytes.clear();
+    return bytes;
+  }
+
+  /**
+   * Checks if the given id is in the range stored and marked as stored by the byte at the given
+   * position.
+   */
+  private boolean isStored(int id, int presencePosition) {
+    return id >= 0 && id < numberOfIds
+        && TinyTablesPackedStorage.isMarked(read(presencePosition), id);
+  }
+
+  private byte read(int position) {
+    flush();
+    return ExceptionConverter.safe(() -> readBytes(position, 1).get(0),
+        "Failed to read TinyTables from " + path);
+  }
+
+  private FileChannel getChannel() throws IOException {
+    if (closed) {
+      throw new IllegalStateException("Storage has been closed");
+    }
+    if (channel == null) {
+      channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+    return channel;
+  }
+
+  private static int position(long value) {
+    return (int) (value >>> 32);
+  }
+
+}
@@ -56,6 +56,18 @@ public class TestTinyTables {
 
   private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
       EvaluationStrategy evalStrategy, boolean preprocessing, String name) {
+    runTest(f, evalStrategy, preprocessing, name, true);
+  }
+
+  private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
+      EvaluationStrategy evalStrategy, boolean preprocessing, String name,
+      boolean packedEvaluation) {
+    runTest(f, evalStrategy, preprocessing, name, packedEvaluation, false);
+  }
+
+  private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
+      EvaluationStrategy evalStrategy, boolean preprocessing, String name,
+      boolean packedEvaluation, boolean streaming) {
     int noPlayers = 2;
     List<Integer> ports = NetworkUtil.getFreePorts(noPlayers);
     Map<Integer, NetworkConfiguration> netConf = NetworkUtil
@@ -78,14 +90,15 @@ public class TestTinyTables {
             () -> new TinyTablesPreproResourcePool(
                 playerId, baseOt, random,
                 COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, OT_BATCH_SIZE, tinyTablesFile,
-                networkSupplier);
+                networkSupplier, streaming);
         ProtocolEvaluator<TinyTablesPreproResourcePool> evaluator =
             new BatchedProtocolEvaluator<>(batchStrategy, suite);
         computationEngine =
             (SecureComputationEngine) new SecureComputationEngineImpl<>(suite, evaluator);
       } else {
         BatchEvaluationStrategy<ResourcePoolImpl> batchStrategy = evalStrategy.getStrategy();
-        TinyTablesProtocolSuite suite = new TinyTablesProtocolSuite(playerId, tinyTablesFile);
+        TinyTablesProtocolSuite suite =
+            new TinyTablesProtocolSuite(playerId, tinyTablesFile, packedEvaluation);
         resourcePoolSupplier = () -> new ResourcePoolImpl(playerId, noPlayers);
         ProtocolEvaluator<ResourcePoolImpl> evaluator =
             new BatchedProtocolEvaluator<>(batchStrategy, suite);
@@ -205,6 +218,24 @@ public class TestTinyTables {
         EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testAND");
   }
 
+  @Test
+  public void testManyAndUnpacked() {
+    final int numAnds = 2000;
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(false, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testAND");
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(true, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testAND", false);
+  }
+
+  @Test
+  public void testManyAndStreaming() {
+    final int numAnds = 10000;
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(false, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testAND", true, true);
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(true, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testAND");
+  }
+
   @Test
   public void testNot() {
     runTest(new BasicBooleanTests.TestNOT<>(false), EvaluationStrategy.SEQUENTIAL_BATCHED, true,
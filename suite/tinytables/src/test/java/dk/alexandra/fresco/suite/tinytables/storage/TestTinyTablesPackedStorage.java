@@ -0,0 +1,166 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestTinyTablesPackedStorage {
+
+  private static final int IDS = 1000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testWriteAndMap() throws IOException {
+    Random random = new Random(42);
+    Map<Integer, TinyTable> tables = new HashMap<>();
+    Map<Integer, TinyTablesElement> masks = new HashMap<>();
+    TinyTablesPackedStorage storage = new TinyTablesPackedStorage();
+    // Store in reverse order and leave gaps, as the ids of the AND gates are not consecutive
+    for (int id = IDS - 1; id >= 0; id -= 1 + random.nextInt(3)) {
+      TinyTable table = randomTable(random);
+      TinyTablesElement mask = TinyTablesElement.getInstance(random.nextBoolean());
+      storage.storeTinyTable(id, table);
+      storage.storeMaskShare(id, mask);
+      tables.put(id, table);
+      masks.put(id, mask);
+    }
+    File file = folder.newFile();
+    storage.write(file.toPath());
+    assertTrue(TinyTablesMappedStorage.isPackedFile(file.toPath()));
+    TinyTablesMappedStorage mapped = TinyTablesMappedStorage.open(file.toPath());
+    assertEquals(storage.getNumberOfIds(), mapped.getNumberOfIds());
+    for (int id : tables.keySet()) {
+      assertTablesEqual(tables.get(id), storage, id);
+      assertTablesEqual(tables.get(id), mapped, id);
+      assertEquals(masks.get(id), storage.getMaskShare(id));
+      assertEquals(masks.get(id), mapped.getMaskShare(id));
+    }
+  }
+
+  @Test
+  public void testOverwrite() {
+    TinyTablesPackedStorage storage = new TinyTablesPackedStorage();
+    TinyTablesElement t = TinyTablesElement.getInstance(true);
+    TinyTablesElement f = TinyTablesElement.getInstance(false);
+    storage.storeTinyTable(2, new TinyTable(new TinyTablesElement[] {f, f, f, f}));
+    storage.storeTinyTable(3, new TinyTable(new TinyTablesElement[] {t, t, t, t}));
+    storage.storeTinyTable(3, new TinyTable(new TinyTablesElement[] {f, t, f, f}));
+    storage.storeMaskShare(3, t);
+    storage.storeMaskShare(3, f);
+    assertFalse(storage.getTableEntry(3, false, false));
+    assertTrue(storage.getTableEntry(3, false, true));
+    assertFalse(storage.getTableEntry(3, true, false));
+    assertFalse(storage.getTableEntry(3, true, true));
+    assertEquals(f, storage.getMaskShare(3));
+    // The neighbouring id sharing the same byte is untouched
+    assertFalse(storage.getTableEntry(2, true, true));
+  }
+
+  @Test
+  public void testOutOfRange() throws IOException {
+    TinyTablesPackedStorage storage = new TinyTablesPackedStorage();
+    storage.storeTinyTable(5, randomTable(new Random(1)));
+    File file = folder.newFile();
+    storage.write(file.toPath());
+    TinyTablesMappedStorage mapped = TinyTablesMappedStorage.open(file.toPath());
+    assertNull(storage.getTinyTable(6));
+    assertNull(mapped.getTinyTable(6));
+    assertNull(mapped.getMaskShare(-1));
+  }
+
+  @Test
+  public void testMissingIds() throws IOException {
+    TinyTablesPackedStorage storage = new TinyTablesPackedStorage();
+    storage.storeTinyTable(1, randomTable(new Random(1)));
+    storage.storeMaskShare(2, TinyTablesElement.getInstance(false));
+    storage.storeTinyTable(20, randomTable(new Random(2)));
+    File file = folder.newFile();
+    storage.write(file.toPath());
+    TinyTablesMappedStorage mapped = TinyTablesMappedStorage.open(file.toPath());
+    // Ids below the largest id stored which were never stored are not read as zero
+    for (TinyTablesStorage s : new TinyTablesStorage[] {storage, mapped}) {
+      assertNull(s.getTinyTable(0));
+      assertNull(s.getTinyTable(2));
+      assertNull(s.getMaskShare(1));
+      assertNull(s.getMaskShare(19));
+      assertEquals(TinyTablesElement.getInstance(false), s.getMaskShare(2));
+      try {
+        s.getTableEntry(2, false, false);
+        fail("Expected missing table to be reported");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Unable to find TinyTable for gate with id 2", e.getMessage());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEntryOutOfRange() throws IOException {
+    File file = folder.newFile();
+    new TinyTablesPackedStorage().write(file.toPath());
+    TinyTablesMappedStorage.open(file.toPath()).getTableEntry(0, false, false);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testMappedIsReadOnly() throws IOException {
+    File file = folder.newFile();
+    new TinyTablesPackedStorage().write(file.toPath());
+    TinyTablesMappedStorage.open(file.toPath())
+        .storeMaskShare(0, TinyTablesElement.getInstance(true));
+  }
+
+  @Test
+  public void testLegacyFileIsNotPacked() throws IOException {
+    File file = folder.newFile();
+    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+      out.writeObject(new TinyTablesStorageImpl());
+    }
+    assertFalse(TinyTablesMappedStorage.isPackedFile(file.toPath()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOpenNotPacked() throws IOException {
+    File file = folder.newFile();
+    try (FileOutputStream out = new FileOutputStream(file)) {
+      out.write(new byte[32]);
+    }
+    TinyTablesMappedStorage.open(file.toPath());
+  }
+
+  private static TinyTable randomTable(Random random) {
+    TinyTablesElement[] entries = new TinyTablesElement[4];
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = TinyTablesElement.getInstance(random.nextBoolean());
+    }
+    return new TinyTable(entries);
+  }
+
+  private static void assertTablesEqual(TinyTable expected, TinyTablesStorage storage, int id) {
+    TinyTable actual = storage.getTinyTable(id);
+    for (boolean left : new boolean[] {false, true}) {
+      for (boolean right : new boolean[] {false, true}) {
+        TinyTablesElement l = TinyTablesElement.getInstance(left);
+        TinyTablesElement r = TinyTablesElement.getInstance(right);
+        assertEquals(expected.getValue(l, r), actual.getValue(l, r));
+        assertEquals(expected.getValue(l, r).getShare(), storage.getTableEntry(id, left, right));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,115 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestTinyTablesStreamingStorage {
+
+  private static final int IDS = 1000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testSameFileAsPacked() throws IOException {
+    Random random = new Random(42);
+    List<Integer> ids = new ArrayList<>();
+    for (int id = 0; id < IDS; id += 1 + random.nextInt(3)) {
+      ids.add(id);
+    }
+    // Values are not stored in the order of their ids
+    Collections.shuffle(ids, random);
+    File packedFile = folder.newFile();
+    File streamingFile = folder.newFile();
+    TinyTablesPackedStorage packed = new TinyTablesPackedStorage();
+    // A small buffer to make sure values are flushed and merged with those already written
+    TinyTablesStreamingStorage streaming = new TinyTablesStreamingStorage(streamingFile.toPath(),
+        7);
+    for (int id : ids) {
+      TinyTable table = randomTable(random);
+      TinyTablesElement mask = TinyTablesElement.getInstance(random.nextBoolean());
+      packed.storeTinyTable(id, table);
+      streaming.storeTinyTable(id, table);
+      if (id % 3 == 0) {
+        packed.storeMaskShare(id, mask);
+        streaming.storeMaskShare(id, mask);
+      }
+    }
+    packed.write(packedFile.toPath());
+    streaming.close();
+    TinyTablesMappedStorage expected = TinyTablesMappedStorage.open(packedFile.toPath());
+    TinyTablesMappedStorage actual = TinyTablesMappedStorage.open(streamingFile.toPath());
+    assertEquals(expected.getNumberOfIds(), actual.getNumberOfIds());
+    assertEquals(packedFile.length(), streamingFile.length());
+    for (int id = 0; id < expected.getNumberOfIds(); id++) {
+      assertEquals(expected.getMaskShare(id), actual.getMaskShare(id));
+      // Ids left out by the gaps have no table in either file
+      assertEquals(expected.getTinyTable(id) == null, actual.getTinyTable(id) == null);
+      if (expected.getTinyTable(id) == null) {
+        continue;
+      }
+      for (boolean left : new boolean[] {false, true}) {
+        for (boolean right : new boolean[] {false, true}) {
+          assertEquals(expected.getTableEntry(id, left, right),
+              actual.getTableEntry(id, left, right));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOverwriteBeforeFlush() throws IOException {
+    File file = folder.newFile();
+    TinyTablesStreamingStorage storage = new TinyTablesStreamingStorage(file.toPath());
+    storage.storeMaskShare(9, TinyTablesElement.getInstance(true));
+    storage.storeMaskShare(9, TinyTablesElement.getInstance(false));
+    storage.storeMaskShare(10, TinyTablesElement.getInstance(true));
+    assertEquals(TinyTablesElement.getInstance(false), storage.getMaskShare(9));
+    assertEquals(TinyTablesElement.getInstance(true), storage.getMaskShare(10));
+    assertNull(storage.getMaskShare(11));
+    // Only a mask share was stored for these ids
+    assertNull(storage.getTinyTable(9));
+    storage.close();
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    File file = folder.newFile();
+    new TinyTablesStreamingStorage(file.toPath()).close();
+    assertEquals(0, TinyTablesMappedStorage.open(file.toPath()).getNumberOfIds());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testStoreAfterClose() throws IOException {
+    File file = folder.newFile();
+    TinyTablesStreamingStorage storage = new TinyTablesStreamingStorage(file.toPath());
+    storage.close();
+    storage.storeMaskShare(0, TinyTablesElement.getInstance(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBufferSize() {
+    new TinyTablesStreamingStorage(folder.getRoot().toPath().resolve("tables"), 0);
+  }
+
+  private static TinyTable randomTable(Random random) {
+    TinyTablesElement[] entries = new TinyTablesElement[4];
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = TinyTablesElement.getInstance(random.nextBoolean());
+    }
+    return new TinyTable(entries);
+  }
+
+}
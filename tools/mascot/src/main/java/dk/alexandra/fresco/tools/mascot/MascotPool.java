@@ -0,0 +1,158 @@
+package dk.alexandra.fresco.tools.mascot;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * A pool of independent {@link Mascot} instances, each running on its own thread and network, to
+ * generate pre-processed material in parallel. <br> Each batch requested from the pool is split
+ * evenly among the instances and the results are concatenated in the order of the instances. The
+ * split only depends on the batch size and the number of instances, so as long as all parties
+ * create their pools with the same number of instances, using the same instance id for the i'th
+ * instance, all parties get matching shares.
+ */
+public class MascotPool implements Closeable {
+
+  private final List<Mascot> instances;
+  private final ExecutorService executor;
+
+  /**
+   * Creates new {@link MascotPool}. The {@link Mascot} instances are created in parallel, each
+   * running the initial coin tossing on its own network.
+   *
+   * @param resourcePools the resource pools of the instances, which must have distinct instance
+   *     ids and must not share a source of randomness
+   * @param networks the networks of the instances, one for each resource pool, which must not be
+   *     used by anything else while the pool is in use
+   * @param macKeyShare this party's share of the mac key
+   */
+  public MascotPool(List<? extends MascotResourcePool> resourcePools,
+      List<? extends Network> networks, FieldElement macKeyShare) {
+    if (resourcePools.isEmpty()) {
+      throw new IllegalArgumentException("Need at least one instance");
+    }
+    if (resourcePools.size() != networks.size()) {
+      throw new IllegalArgumentException("Need a network for each of the "
+          + resourcePools.size() + " instances, but got " + networks.size());
+    }
+    Set<Integer> instanceIds = new HashSet<>();
+    for (MascotResourcePool resourcePool : resourcePools) {
+      if (!instanceIds.add(resourcePool.getInstanceId())) {
+        throw new IllegalArgumentException(
+            "Instance id " + resourcePool.getInstanceId() + " is used more than once");
+      }
+    }
+    this.executor = Executors.newFixedThreadPool(resourcePools.size(), runnable -> {
+      Thread thread = new Thread(runnable, "MascotPool");
+      thread.setDaemon(true);
+      return thread;
+    });
+    List<Callable<Mascot>> constructors = new ArrayList<>(resourcePools.size());
+    for (int i = 0; i < resourcePools.size(); i++) {
+      MascotResourcePool resourcePool = resourcePools.get(i);
+      Network network = networks.get(i);
+      constructors.add(() -> new Mascot(resourcePool, network, macKeyShare));
+    }
+    this.instances = invokeAll(constructors);
+  }
+
+  /**
+   * Gets the number of {@link Mascot} instances in this pool.
+   *
+   * @return the number of instances
+   */
+  public int getNumberOfInstances() {
+    return instances.size();
+  }
+
+  /**
+   * Generates a batch of multiplication triples.
+   *
+   * @param numTriples number of triples in batch
+   * @return multiplication triples
+   */
+  public List<MultiplicationTriple> getTriples(int numTriples) {
+    return generate(numTriples, Mascot::getTriples);
+  }
+
+  /**
+   * Creates random authenticated elements.
+   *
+   * @param numElements number of elements to create
+   * @return random authenticated elements
+   */
+  public List<AuthenticatedElement> getRandomElements(int numElements) {
+    return generate(numElements, Mascot::getRandomElements);
+  }
+
+  /**
+   * Generates random input masks.
+   *
+   * @param maskerId the party that knows the plain mask
+   * @param numMasks number of masks to generate
+   * @return input masks
+   */
+  public List<InputMask> getInputMasks(Integer maskerId, int numMasks) {
+    return generate(numMasks, (mascot, amount) -> mascot.getInputMasks(maskerId, amount));
+  }
+
+  /**
+   * Generates random bits (as authenticated elements).
+   *
+   * @param numBits number of bits to generate
+   * @return random bits
+   */
+  public List<AuthenticatedElement> getRandomBits(int numBits) {
+    return generate(numBits, Mascot::getRandomBits);
+  }
+
+  /**
+   * Shuts down the threads of the pool. The networks are not closed.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private <T> List<T> generate(int amount,
+      BiFunction<Mascot, Integer, List<T>> generator) {
+    int numberOfInstances = instances.size();
+    List<Callable<List<T>>> tasks = new ArrayList<>(numberOfInstances);
+    for (int i = 0; i < numberOfInstances; i++) {
+      int share = amount / numberOfInstances + (i < amount % numberOfInstances ? 1 : 0);
+      if (share > 0) {
+        Mascot mascot = instances.get(i);
+        tasks.add(() -> generator.apply(mascot, share));
+      }
+    }
+    List<T> result = new ArrayList<>(amount);
+    for (List<T> partial : invokeAll(tasks)) {
+      result.addAll(partial);
+    }
+    return result;
+  }
+
+  private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+    List<Future<T>> futures = ExceptionConverter.safe(() -> executor.invokeAll(tasks),
+        "Mascot pool was interrupted");
+    List<T> results = new ArrayList<>(futures.size());
+    for (Future<T> future : futures) {
+      results.add(ExceptionConverter.safe(future::get, "Mascot instance failed"));
+    }
+    return results;
+  }
+}
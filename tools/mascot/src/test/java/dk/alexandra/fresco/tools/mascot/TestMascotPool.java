@@ -0,0 +1,156 @@
+package dk.alexandra.fresco.tools.mascot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import dk.alexandra.fresco.framework.Party;
+import dk.alexandra.fresco.framework.builder.numeric.Addable;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.configuration.NetworkConfigurationImpl;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class TestMascotPool extends NetworkedTest {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int NO_OF_INSTANCES = 3;
+  private final FieldElement macKeyShareOne = getFieldDefinition().createElement(11231);
+  private final FieldElement macKeyShareTwo = getFieldDefinition().createElement(7719);
+
+  private <T> List<List<T>> runPools(Function<MascotPool, List<T>> task) {
+    initContexts(NO_OF_PARTIES);
+    List<Callable<List<T>>> tasks = new ArrayList<>();
+    tasks.add(() -> runPool(1, macKeyShareOne, task));
+    tasks.add(() -> runPool(2, macKeyShareTwo, task));
+    return testRuntime.runPerPartyTasks(tasks);
+  }
+
+  private <T> List<T> runPool(int myId, FieldElement macKeyShare,
+      Function<MascotPool, List<T>> task) {
+    List<MascotResourcePool> resourcePools = new ArrayList<>();
+    List<CloseableNetwork> networks = new ArrayList<>();
+    for (int instanceId = 1; instanceId <= NO_OF_INSTANCES; instanceId++) {
+      CloseableNetwork network = createNetwork(myId, instanceId);
+      networks.add(network);
+      resourcePools.add(createResourcePool(myId, instanceId, network));
+    }
+    try (MascotPool pool = new MascotPool(resourcePools, networks, macKeyShare)) {
+      assertEquals(NO_OF_INSTANCES, pool.getNumberOfInstances());
+      return task.apply(pool);
+    } finally {
+      for (CloseableNetwork network : networks) {
+        ExceptionConverter.safe(() -> {
+          network.close();
+          return null;
+        }, "Closing network failed");
+      }
+    }
+  }
+
+  private CloseableNetwork createNetwork(int myId, int instanceId) {
+    Map<Integer, Party> parties = new HashMap<>();
+    for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+      parties.put(partyId, new Party(partyId, "localhost", 8100 + 10 * instanceId + partyId));
+    }
+    return new SocketNetwork(new NetworkConfigurationImpl(myId, parties));
+  }
+
+  private MascotResourcePool createResourcePool(int myId, int instanceId,
+      CloseableNetwork network) {
+    MascotSecurityParameters securityParameters = getDefaultParameters();
+    byte[] drbgSeed = new byte[securityParameters.getPrgSeedLength() / 8];
+    new Random(31 * myId + instanceId).nextBytes(drbgSeed);
+    Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed(drbgSeed);
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, securityParameters.getPrgSeedLength());
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return new MascotResourcePoolImpl(myId, NO_OF_PARTIES, instanceId, drbg, seedOts,
+        securityParameters, getFieldDefinition());
+  }
+
+  @Test
+  public void testTriples() {
+    int numTriples = 11;
+    List<List<MultiplicationTriple>> results = runPools(pool -> pool.getTriples(numTriples));
+    assertEquals(numTriples, results.get(0).size());
+    assertEquals(numTriples, results.get(1).size());
+    for (MultiplicationTriple triple : Addable.sumRows(results)) {
+      CustomAsserts
+          .assertTripleIsValid(getFieldDefinition(), triple, macKeyShareOne.add(macKeyShareTwo));
+    }
+  }
+
+  @Test
+  public void testFewerTriplesThanInstances() {
+    List<List<MultiplicationTriple>> results = runPools(pool -> pool.getTriples(2));
+    assertEquals(2, results.get(0).size());
+    for (MultiplicationTriple triple : Addable.sumRows(results)) {
+      CustomAsserts
+          .assertTripleIsValid(getFieldDefinition(), triple, macKeyShareOne.add(macKeyShareTwo));
+    }
+  }
+
+  @Test
+  public void testRandomBits() {
+    List<List<AuthenticatedElement>> results = runPools(pool -> pool.getRandomBits(5));
+    assertEquals(5, results.get(0).size());
+    for (AuthenticatedElement bit : Addable.sumRows(results)) {
+      CustomAsserts.assertFieldElementIsBit(getFieldDefinition(), bit.getShare());
+    }
+  }
+
+  @Test
+  public void testInputMasks() {
+    int numMasks = 7;
+    List<List<InputMask>> results = runPools(pool -> pool.getInputMasks(1, numMasks));
+    FieldElement macKey = macKeyShareOne.add(macKeyShareTwo);
+    for (int i = 0; i < numMasks; i++) {
+      InputMask left = results.get(0).get(i);
+      InputMask right = results.get(1).get(i);
+      assertNull(right.getOpenValue());
+      AuthenticatedElement recombined = left.getMaskShare().add(right.getMaskShare());
+      AuthenticatedElement expected = new AuthenticatedElement(left.getOpenValue(),
+          left.getOpenValue().multiply(macKey));
+      CustomAsserts.assertEquals(getFieldDefinition(), expected, recombined);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateInstanceIds() {
+    MascotResourcePool resourcePool = new MascotResourcePoolImpl(1, NO_OF_PARTIES, 1,
+        AesCtrDrbgFactory.fromDerivedSeed(new byte[32]), Collections.emptyMap(),
+        getDefaultParameters(), getFieldDefinition());
+    new MascotPool(Collections.nCopies(2, resourcePool), Collections.nCopies(2, null),
+        macKeyShareOne);
+  }
+}
@@ -0,0 +1,142 @@
+package dk.alexandra.fresco.tools.spdz2k;
+
+import dk.alexandra.fresco.framework.builder.numeric.Addable;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.cointossing.CoinTossingMpc;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import dk.alexandra.fresco.tools.spdz2k.bit.BitGeneration;
+import dk.alexandra.fresco.tools.spdz2k.elgen.ElementGeneration;
+import dk.alexandra.fresco.tools.spdz2k.online.OnlinePhase;
+import dk.alexandra.fresco.tools.spdz2k.prg.RingElementPrg;
+import dk.alexandra.fresco.tools.spdz2k.triple.TripleGeneration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the OT-based SPDZ2k pre-processing protocol (<a
+ * href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>), which is
+ * the ring analogue of {@link dk.alexandra.fresco.tools.mascot.Mascot}. <br> Supports generation of
+ * multiplication triples, input masks, random authenticated elements, and random authenticated bits
+ * over the ring of integers modulo <i>2<sup>k + s</sup></i>. The mac key share of each party must
+ * be a uniformly random element of <i>Z<sub>2<sup>s</sup></sub></i>.
+ */
+public class Spdz2kPreprocessing {
+
+  private final TripleGeneration tripleGeneration;
+  private final ElementGeneration elementGeneration;
+  private final BitGeneration bitGeneration;
+  private final Spdz2kPreprocessingResourcePool resourcePool;
+
+  /**
+   * Creates new {@link Spdz2kPreprocessing}.
+   */
+  public Spdz2kPreprocessing(Spdz2kPreprocessingResourcePool resourcePool, Network network,
+      FieldElement macKeyShare) {
+    this.resourcePool = resourcePool;
+    // agree on joint seeds for ring elements and coefficients
+    CoinTossingMpc coinTossing = new CoinTossingMpc(resourcePool, network);
+    StrictBitVector jointSeed = coinTossing.generateJointSeed(resourcePool.getPrgSeedLength());
+    StrictBitVector coefficientSeed =
+        coinTossing.generateJointSeed(resourcePool.getPrgSeedLength());
+    FieldElementPrg jointSampler = new RingElementPrg(jointSeed,
+        resourcePool.getWideFieldDefinition(),
+        resourcePool.getWideFieldDefinition().getBitLength());
+    FieldElementPrg coefficientSampler = new RingElementPrg(coefficientSeed,
+        resourcePool.getFieldDefinition(), resourcePool.getSecurityBitLength());
+    this.elementGeneration =
+        new ElementGeneration(resourcePool, network, macKeyShare, coefficientSampler);
+    this.tripleGeneration = new TripleGeneration(resourcePool, network, elementGeneration,
+        jointSampler, coefficientSampler);
+    this.bitGeneration = new BitGeneration(resourcePool, elementGeneration,
+        new OnlinePhase(resourcePool, tripleGeneration, elementGeneration, macKeyShare));
+  }
+
+  /**
+   * Generates a batch of multiplication triples.
+   *
+   * @param numTriples number of triples in batch
+   * @return multiplication triples
+   */
+  public List<MultiplicationTriple> getTriples(int numTriples) {
+    return tripleGeneration.triple(numTriples);
+  }
+
+  /**
+   * Runs the input functionality on a batch of ring elements. <br> The party holding the input
+   * elements should call this method.
+   *
+   * @param rawElements ring elements to input
+   * @return this party's authenticated shares of the inputs
+   */
+  public List<AuthenticatedElement> input(List<FieldElement> rawElements) {
+    return elementGeneration.input(rawElements);
+  }
+
+  /**
+   * Same as {@link #input(List)} but to be called by non-input parties.
+   *
+   * @param inputterId the id of the inputter
+   * @param numElements number of input elements
+   * @return this party's authenticated shares of the inputs
+   */
+  public List<AuthenticatedElement> input(Integer inputterId, int numElements) {
+    return elementGeneration.input(inputterId, numElements);
+  }
+
+  /**
+   * Creates random authenticated elements.
+   *
+   * @param numElements number of elements to create
+   * @return random authenticated elements
+   */
+  public List<AuthenticatedElement> getRandomElements(int numElements) {
+    List<List<AuthenticatedElement>> perPartyElements = new ArrayList<>(
+        resourcePool.getNoOfParties());
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId == resourcePool.getMyId()) {
+        List<FieldElement> randomElements = resourcePool.getLocalSampler().getNext(numElements);
+        perPartyElements.add(elementGeneration.input(randomElements));
+      } else {
+        perPartyElements.add(elementGeneration.input(partyId, numElements));
+      }
+    }
+    return Addable.sumRows(perPartyElements);
+  }
+
+  /**
+   * Generates random input masks.
+   *
+   * @param maskerId the party that knows the plain mask
+   * @param numMasks number of masks to generate
+   * @return input masks
+   */
+  public List<InputMask> getInputMasks(Integer maskerId, int numMasks) {
+    if (maskerId.equals(resourcePool.getMyId())) {
+      List<FieldElement> randomMasks = resourcePool.getLocalSampler().getNext(numMasks);
+      List<AuthenticatedElement> authenticated = input(randomMasks);
+      return IntStream.range(0, numMasks)
+          .mapToObj(idx -> new InputMask(randomMasks.get(idx), authenticated.get(idx)))
+          .collect(Collectors.toList());
+    } else {
+      return input(maskerId, numMasks).stream().map(InputMask::new)
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Generates random bits (as authenticated elements).
+   *
+   * @param numBits number of bits to generate
+   * @return random bits
+   */
+  public List<AuthenticatedElement> getRandomBits(int numBits) {
+    return bitGeneration.generateBits(numBits);
+  }
+}
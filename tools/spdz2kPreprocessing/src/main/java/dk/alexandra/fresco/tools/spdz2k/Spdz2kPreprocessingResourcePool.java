@@ -0,0 +1,43 @@
+package dk.alexandra.fresco.tools.spdz2k;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+
+/**
+ * Resources for the SPDZ2k pre-processing protocol.
+ *
+ * <p>The computation happens in the ring of integers modulo <i>2<sup>k + s</sup></i>, described by
+ * {@link #getFieldDefinition()}, where <i>k</i> is the bit length of the values we compute on and
+ * <i>s</i> is the statistical security parameter. Elements of the ring must serialize to big-endian
+ * byte arrays of exactly <i>(k + s) / 8</i> bytes, and {@link FieldDefinition#getBitLength()} must
+ * return <i>k + s</i>.</p>
+ */
+public interface Spdz2kPreprocessingResourcePool extends MascotResourcePool {
+
+  /**
+   * Gets the bit length of the mac key shares and the random coefficients used in checks, i.e.,
+   * <i>s</i>.
+   *
+   * @return security bit length
+   */
+  int getSecurityBitLength();
+
+  /**
+   * Gets the ring of integers modulo <i>2<sup>k + 2s</sup></i>, in which the candidate triples are
+   * multiplied and combined before they are reduced to <i>k + s</i> bits. Elements of this ring
+   * must serialize like the elements of {@link #getFieldDefinition()}.
+   *
+   * @return the wide ring
+   */
+  FieldDefinition getWideFieldDefinition();
+
+  /**
+   * Gets PRG for generating random ring elements of bit length <i>k + s</i> locally (for this
+   * party only).
+   *
+   * @return PRG
+   */
+  @Override
+  FieldElementPrg getLocalSampler();
+}
@@ -0,0 +1,68 @@
+package dk.alexandra.fresco.tools.spdz2k;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import dk.alexandra.fresco.tools.spdz2k.field.BigIntegerRingDefinition;
+import dk.alexandra.fresco.tools.spdz2k.prg.RingElementPrg;
+import java.util.Map;
+
+public class Spdz2kPreprocessingResourcePoolImpl extends MascotResourcePoolImpl implements
+    Spdz2kPreprocessingResourcePool {
+
+  private final int securityBitLength;
+  private final FieldElementPrg localSampler;
+  private final FieldDefinition wideDefinition;
+
+  /**
+   * Creates new {@link Spdz2kPreprocessingResourcePoolImpl}.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param instanceId the instance ID which is unique for this particular resource pool object,
+   *     but only in the given execution.
+   * @param drbg source of randomness
+   * @param seedOts pre-computed base OTs
+   * @param securityParameters security parameters of the underlying OT extension and triple
+   *     generation ({@link MascotSecurityParameters})
+   * @param ringDefinition the ring of integers modulo <i>2<sup>k + s</sup></i> used for
+   *     calculations
+   * @param securityBitLength the bit length <i>s</i> of mac key shares and random coefficients
+   */
+  public Spdz2kPreprocessingResourcePoolImpl(int myId, int noOfParties, int instanceId, Drbg drbg,
+      Map<Integer, RotList> seedOts, MascotSecurityParameters securityParameters,
+      FieldDefinition ringDefinition, int securityBitLength) {
+    super(myId, noOfParties, instanceId, drbg, seedOts, securityParameters, ringDefinition);
+    if (ringDefinition.getBitLength() % Byte.SIZE != 0 || securityBitLength % Byte.SIZE != 0
+        || securityBitLength <= 0 || securityBitLength >= ringDefinition.getBitLength()) {
+      throw new IllegalArgumentException(
+          "Bit lengths must be positive multiples of 8 with s < k + s, was s = "
+          + securityBitLength + " and k + s = " + ringDefinition.getBitLength());
+    }
+    this.securityBitLength = securityBitLength;
+    this.localSampler = new RingElementPrg(
+        new StrictBitVector(securityParameters.getPrgSeedLength(), drbg), ringDefinition,
+        ringDefinition.getBitLength());
+    this.wideDefinition =
+        new BigIntegerRingDefinition(ringDefinition.getBitLength() + securityBitLength);
+  }
+
+  @Override
+  public int getSecurityBitLength() {
+    return securityBitLength;
+  }
+
+  @Override
+  public FieldDefinition getWideFieldDefinition() {
+    return wideDefinition;
+  }
+
+  @Override
+  public FieldElementPrg getLocalSampler() {
+    return localSampler;
+  }
+}
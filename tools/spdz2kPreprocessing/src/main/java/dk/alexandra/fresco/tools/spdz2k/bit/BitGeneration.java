@@ -0,0 +1,88 @@
+package dk.alexandra.fresco.tools.spdz2k.bit;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.elgen.ElementGeneration;
+import dk.alexandra.fresco.tools.spdz2k.online.OnlinePhase;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protocol for generating random authenticated bits over the ring of integers modulo <i>2<sup>k +
+ * s</sup></i>.
+ *
+ * <p>The square root trick of {@link dk.alexandra.fresco.tools.mascot.bit.BitConverter} does not
+ * work in a ring, so instead each party inputs a random bit, and the bits are combined using
+ * <i>x XOR y = x + y - 2xy</i>. Finally, each combined bit <i>b</i> is checked by verifying that
+ * <i>b - b<sup>2</sup></i> is zero. Since one of <i>b</i> and <i>1 - b</i> is odd, and therefore
+ * invertible, this implies that <i>b</i> is a bit. If a corrupt party inputs a value which is not a
+ * bit, the combined value is not a bit either, no matter what the honest parties' bits are, so
+ * the check fails. Uses <i>n</i> triples per bit for <i>n</i> parties.</p>
+ */
+public class BitGeneration {
+
+  private final ElementGeneration elementGeneration;
+  private final OnlinePhase onlinePhase;
+  private final Spdz2kPreprocessingResourcePool resourcePool;
+
+  /**
+   * Creates new {@link BitGeneration}.
+   */
+  public BitGeneration(Spdz2kPreprocessingResourcePool resourcePool,
+      ElementGeneration elementGeneration, OnlinePhase onlinePhase) {
+    this.resourcePool = resourcePool;
+    this.elementGeneration = elementGeneration;
+    this.onlinePhase = onlinePhase;
+  }
+
+  /**
+   * Generates random authenticated bits.
+   *
+   * @param numBits number of bits to generate
+   * @return random bits
+   */
+  public List<AuthenticatedElement> generateBits(int numBits) {
+    List<AuthenticatedElement> bits = null;
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      List<AuthenticatedElement> partyBits = inputBits(partyId, numBits);
+      bits = (bits == null) ? partyBits : xor(bits, partyBits);
+    }
+    List<AuthenticatedElement> squares = onlinePhase.multiply(bits, bits);
+    List<AuthenticatedElement> differences = new ArrayList<>(numBits);
+    for (int i = 0; i < numBits; i++) {
+      differences.add(bits.get(i).subtract(squares.get(i)));
+    }
+    onlinePhase.checkZeroAndOpened(differences);
+    return bits;
+  }
+
+  private List<AuthenticatedElement> inputBits(int inputterId, int numBits) {
+    if (inputterId != resourcePool.getMyId()) {
+      return elementGeneration.input(inputterId, numBits);
+    }
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    FieldElement zero = definition.createElement(0);
+    FieldElement one = definition.createElement(1);
+    List<FieldElement> bits = new ArrayList<>(numBits);
+    byte[] randomBytes = new byte[(numBits + Byte.SIZE - 1) / Byte.SIZE];
+    resourcePool.getRandomGenerator().nextBytes(randomBytes);
+    for (int i = 0; i < numBits; i++) {
+      boolean bit = ((randomBytes[i / Byte.SIZE] >>> (i % Byte.SIZE)) & 1) == 1;
+      bits.add(bit ? one : zero);
+    }
+    return elementGeneration.input(bits);
+  }
+
+  private List<AuthenticatedElement> xor(List<AuthenticatedElement> left,
+      List<AuthenticatedElement> right) {
+    FieldElement two = resourcePool.getFieldDefinition().createElement(2);
+    List<AuthenticatedElement> products = onlinePhase.multiply(left, right);
+    List<AuthenticatedElement> result = new ArrayList<>(left.size());
+    for (int i = 0; i < left.size(); i++) {
+      result.add(left.get(i).add(right.get(i)).subtract(products.get(i).multiply(two)));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,78 @@
+package dk.alexandra.fresco.tools.spdz2k.cope;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.mult.MultiplyRightHelper;
+import dk.alexandra.fresco.tools.spdz2k.prg.RingElementPrg;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Inputter side of the Correlated Oblivious Product Evaluation (COPE) protocol over the ring of
+ * integers modulo <i>2<sup>k + s</sup></i>.
+ *
+ * <p>Works as {@link dk.alexandra.fresco.tools.mascot.cope.CopeInputter}, except that the mac key
+ * share of the signer only has <i>s</i> bits. For the other side of the protocol, see {@link
+ * CopeSigner}.</p>
+ */
+public class CopeInputter {
+
+  private final List<FieldElementPrg> leftPrgs;
+  private final List<FieldElementPrg> rightPrgs;
+  private final MultiplyRightHelper helper;
+  private final int otherId;
+  private final Spdz2kPreprocessingResourcePool resourcePool;
+  private final Network network;
+
+  /**
+   * Creates a new {@link CopeInputter} and runs the initialization sub-protocol of COPE, using OTs
+   * to set up the PRG seeds used in {@link #extend(List)}.
+   */
+  public CopeInputter(Spdz2kPreprocessingResourcePool resourcePool, Network network,
+      int otherId) {
+    this.otherId = otherId;
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.leftPrgs = new ArrayList<>();
+    this.rightPrgs = new ArrayList<>();
+    this.helper = new MultiplyRightHelper(resourcePool, network, otherId);
+    List<Pair<StrictBitVector, StrictBitVector>> seeds = helper.generateSeeds(1,
+        resourcePool.getSecurityBitLength(), resourcePool.getLambdaSecurityParam());
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    for (Pair<StrictBitVector, StrictBitVector> seedPair : seeds) {
+      leftPrgs.add(new RingElementPrg(seedPair.getFirst(), definition,
+          resourcePool.getModBitLength()));
+      rightPrgs.add(new RingElementPrg(seedPair.getSecond(), definition,
+          resourcePool.getModBitLength()));
+    }
+  }
+
+  /**
+   * Computes shares of products of this party's input elements and other party's mac key share.
+   *
+   * @param inputElements input ring elements
+   * @return shares of products of mac key share and input elements
+   */
+  public List<FieldElement> extend(List<FieldElement> inputElements) {
+    List<Pair<FieldElement, FieldElement>> maskPairs =
+        new ArrayList<>(inputElements.size() * leftPrgs.size());
+    for (int i = 0; i < inputElements.size(); i++) {
+      for (int j = 0; j < leftPrgs.size(); j++) {
+        maskPairs.add(new Pair<>(leftPrgs.get(j).getNext(), rightPrgs.get(j).getNext()));
+      }
+    }
+    int numBits = resourcePool.getSecurityBitLength();
+    // compute t0 - t1 + x for each input x for each mask pair
+    List<FieldElement> diffs = helper.computeDiffs(maskPairs, inputElements, numBits);
+    network.send(otherId, resourcePool.getFieldDefinition().serialize(diffs));
+    List<FieldElement> zeroMasks =
+        maskPairs.stream().map(Pair::getFirst).collect(Collectors.toList());
+    return helper.computeProductShares(zeroMasks, inputElements.size(), numBits);
+  }
+}
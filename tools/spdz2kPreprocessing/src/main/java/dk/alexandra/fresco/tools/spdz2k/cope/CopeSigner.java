@@ -0,0 +1,76 @@
+package dk.alexandra.fresco.tools.spdz2k.cope;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.mult.MultiplyLeftHelper;
+import dk.alexandra.fresco.tools.spdz2k.prg.RingElementPrg;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Signer side of the Correlated Oblivious Product Evaluation (COPE) protocol over the ring of
+ * integers modulo <i>2<sup>k + s</sup></i>.
+ *
+ * <p>Works as {@link dk.alexandra.fresco.tools.mascot.cope.CopeSigner}, except that the mac key
+ * share of the signer only has <i>s</i> bits, so only <i>s</i> OTs are needed per input. For the
+ * other side of the protocol, see {@link CopeInputter}.</p>
+ */
+public class CopeSigner {
+
+  private final List<FieldElementPrg> prgs;
+  private final FieldElement macKeyShare;
+  private final MultiplyLeftHelper multiplier;
+  private final int otherId;
+  private final Spdz2kPreprocessingResourcePool resourcePool;
+  private final Network network;
+
+  /**
+   * Creates new cope signer and runs the initialization sub-protocol of COPE, using OTs to set up
+   * the PRG seeds used in {@link #extend(int)}.
+   *
+   * @param resourcePool The resource pool for the protocol
+   * @param network the network to use for communication
+   * @param otherId the id of the other party
+   * @param macKeyShare this party's share of the mac key
+   */
+  public CopeSigner(Spdz2kPreprocessingResourcePool resourcePool, Network network, int otherId,
+      FieldElement macKeyShare) {
+    this.otherId = otherId;
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.macKeyShare = macKeyShare;
+    this.multiplier = new MultiplyLeftHelper(resourcePool, network, otherId);
+    this.prgs = new ArrayList<>();
+    List<StrictBitVector> seeds = multiplier.generateSeeds(
+        Collections.singletonList(macKeyShare), resourcePool.getSecurityBitLength(),
+        resourcePool.getLambdaSecurityParam());
+    for (StrictBitVector seed : seeds) {
+      prgs.add(new RingElementPrg(seed, resourcePool.getFieldDefinition(),
+          resourcePool.getModBitLength()));
+    }
+  }
+
+  /**
+   * Computes shares of product of this party's mac key share and other party's inputs.
+   *
+   * @param numInputs number of other party's inputs
+   * @return shares of product
+   */
+  public List<FieldElement> extend(int numInputs) {
+    List<FieldElement> chosenMasks = new ArrayList<>(numInputs * prgs.size());
+    for (int i = 0; i < numInputs; i++) {
+      for (FieldElementPrg prg : prgs) {
+        chosenMasks.add(prg.getNext());
+      }
+    }
+    List<FieldElement> macKeyShares = Collections.nCopies(numInputs, macKeyShare);
+    List<FieldElement> diffs =
+        resourcePool.getFieldDefinition().deserializeList(network.receive(otherId));
+    return multiplier.computeProductShares(macKeyShares, resourcePool.getSecurityBitLength(),
+        chosenMasks, diffs);
+  }
+}
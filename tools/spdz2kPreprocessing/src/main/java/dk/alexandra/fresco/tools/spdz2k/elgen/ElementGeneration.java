@@ -0,0 +1,219 @@
+package dk.alexandra.fresco.tools.spdz2k.elgen;
+
+import dk.alexandra.fresco.framework.builder.numeric.Addable;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.TransposeUtils;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.cope.CopeInputter;
+import dk.alexandra.fresco.tools.spdz2k.cope.CopeSigner;
+import dk.alexandra.fresco.tools.spdz2k.maccheck.MacCheck;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Actively-secure protocol for generating authenticated, secret-shared elements of the ring of
+ * integers modulo <i>2<sup>k + s</sup></i>, following the SPDZ2k protocol (<a
+ * href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>).
+ *
+ * <p>Structured as {@link dk.alexandra.fresco.tools.mascot.elgen.ElementGeneration}, with the
+ * following differences: the macs are computed with {@link CopeSigner} and {@link CopeInputter}
+ * for <i>s</i>-bit mac key shares, the random coefficients of all checks are sampled from
+ * <i>Z<sub>2<sup>s</sup></sub></i>, the extra element masking the linear combination opened during
+ * input has coefficient one, so that the combination is uniformly random, and the mac check covers
+ * all <i>k + s</i> bits.</p>
+ */
+public class ElementGeneration {
+
+  private final MacCheck macChecker;
+  private final FieldElement macKeyShare;
+  private final FieldElementPrg localSampler;
+  private final FieldElementPrg coefficientSampler;
+  private final Map<Integer, CopeSigner> copeSigners;
+  private final Map<Integer, CopeInputter> copeInputters;
+  private final Spdz2kPreprocessingResourcePool resourcePool;
+  private final Network network;
+  private final FieldElementUtils fieldElementUtils;
+
+  /**
+   * Creates new {@link ElementGeneration}.
+   *
+   * @param resourcePool the resource pool
+   * @param network the network
+   * @param macKeyShare this party's <i>s</i>-bit share of the mac key
+   * @param coefficientSampler joint source of random <i>s</i>-bit coefficients
+   */
+  public ElementGeneration(Spdz2kPreprocessingResourcePool resourcePool, Network network,
+      FieldElement macKeyShare, FieldElementPrg coefficientSampler) {
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.fieldElementUtils = new FieldElementUtils(resourcePool.getFieldDefinition());
+    this.macChecker = new MacCheck(resourcePool, network);
+    this.macKeyShare = macKeyShare;
+    this.localSampler = resourcePool.getLocalSampler();
+    this.coefficientSampler = coefficientSampler;
+    this.copeSigners = new HashMap<>();
+    this.copeInputters = new HashMap<>();
+    initializeCope(resourcePool, network);
+  }
+
+  /**
+   * Computes this party's authenticated shares of input. <br> To be called by input party.
+   *
+   * @param values values to input
+   * @return authenticated shares of inputs
+   */
+  public List<AuthenticatedElement> input(List<FieldElement> values) {
+    values = new ArrayList<>(values);
+    // add extra random element which will later be used to mask inputs
+    values.add(localSampler.getNext());
+    List<FieldElement> shares = secretShare(values, resourcePool.getNoOfParties());
+    List<FieldElement> macs = macValues(values);
+    List<FieldElement> coefficients = sampleCoefficients(values.size());
+    FieldElement maskedValue = fieldElementUtils.innerProduct(values, coefficients);
+    network.sendToAll(resourcePool.getFieldDefinition().serialize(maskedValue));
+    // so that we can use receiveFromAll correctly later
+    network.receive(resourcePool.getMyId());
+    runMacCheck(maskedValue, coefficients, macs);
+    int numInputs = values.size() - 1;
+    return toAuthenticatedElements(shares.subList(0, numInputs), macs.subList(0, numInputs));
+  }
+
+  /**
+   * Computes this party's authenticated shares of inputter party's inputs.
+   *
+   * @param inputterId id of inputter
+   * @param numInputs number of inputs
+   * @return authenticated shares of inputs
+   */
+  public List<AuthenticatedElement> input(Integer inputterId, int numInputs) {
+    List<FieldElement> shares =
+        resourcePool.getFieldDefinition().deserializeList(network.receive(inputterId));
+    List<FieldElement> macs = copeSigners.get(inputterId).extend(numInputs + 1);
+    List<FieldElement> coefficients = sampleCoefficients(numInputs + 1);
+    FieldElement maskedValue =
+        resourcePool.getFieldDefinition().deserialize(network.receive(inputterId));
+    runMacCheck(maskedValue, coefficients, macs);
+    return toAuthenticatedElements(shares.subList(0, numInputs), macs.subList(0, numInputs));
+  }
+
+  /**
+   * Runs mac-check on opened values.
+   *
+   * @param sharesWithMacs authenticated shares holding mac shares
+   * @param openValues batch of opened, unchecked values
+   */
+  public void check(List<AuthenticatedElement> sharesWithMacs, List<FieldElement> openValues) {
+    List<FieldElement> coefficients = coefficientSampler.getNext(sharesWithMacs.size());
+    List<FieldElement> macs =
+        sharesWithMacs.stream().map(AuthenticatedElement::getMac).collect(Collectors.toList());
+    FieldElement open = fieldElementUtils.innerProduct(openValues, coefficients);
+    runMacCheck(open, coefficients, macs);
+  }
+
+  /**
+   * Opens secret elements (distributes shares among all parties and recombines). All <i>k + s</i>
+   * bits are opened, so the elements must be masked by uniformly random elements.
+   *
+   * @param closed authenticated elements to open
+   * @return opened value
+   */
+  public List<FieldElement> open(List<AuthenticatedElement> closed) {
+    List<FieldElement> ownShares =
+        closed.stream().map(AuthenticatedElement::getShare).collect(Collectors.toList());
+    network.sendToAll(resourcePool.getFieldDefinition().serialize(ownShares));
+    List<List<FieldElement>> shares = network.receiveFromAll().stream()
+        .map(resourcePool.getFieldDefinition()::deserializeList)
+        .collect(Collectors.toList());
+    return Addable.sumRows(shares);
+  }
+
+  /**
+   * Samples a coefficient for each value, where the last value is the extra masking element which
+   * gets coefficient one.
+   */
+  private List<FieldElement> sampleCoefficients(int numValues) {
+    List<FieldElement> coefficients = coefficientSampler.getNext(numValues - 1);
+    coefficients.add(resourcePool.getFieldDefinition().createElement(1));
+    return coefficients;
+  }
+
+  /**
+   * Computes shares of macs of unauthenticated values, i.e., <i>[v * (alpha<sub>1</sub> + ... +
+   * alpha<sub>n</sub>)]</i> for each value <i>v</i>.
+   */
+  private List<FieldElement> macValues(List<FieldElement> values) {
+    List<List<FieldElement>> maccedByAll = new ArrayList<>();
+    // note that the order in which this is run does not matter so it's fine to use values().
+    for (CopeInputter copeInputter : copeInputters.values()) {
+      maccedByAll.add(copeInputter.extend(values));
+    }
+    maccedByAll.add(fieldElementUtils.scalarMultiply(values, macKeyShare));
+    return Addable.sumRows(maccedByAll);
+  }
+
+  /**
+   * Computes additive (unauthenticated) shares of values and distributes the shares across
+   * parties.
+   */
+  private List<FieldElement> secretShare(List<FieldElement> values, int numShares) {
+    List<List<FieldElement>> allShares = values.stream().map(value -> {
+      List<FieldElement> shares = localSampler.getNext(numShares - 1);
+      shares.add(value.subtract(Addable.sum(shares)));
+      return shares;
+    }).collect(Collectors.toList());
+    List<List<FieldElement>> byParty = TransposeUtils.transpose(allShares);
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        network.send(partyId, resourcePool.getFieldDefinition().serialize(
+            byParty.get(partyId - 1)));
+      }
+    }
+    return byParty.get(resourcePool.getMyId() - 1);
+  }
+
+  private List<AuthenticatedElement> toAuthenticatedElements(List<FieldElement> shares,
+      List<FieldElement> macs) {
+    return IntStream.range(0, shares.size())
+        .mapToObj(idx -> new AuthenticatedElement(shares.get(idx), macs.get(idx)))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Performs mac check on a linear combination of values with the given coefficients.
+   */
+  private void runMacCheck(FieldElement value, List<FieldElement> coefficients,
+      List<FieldElement> macs) {
+    FieldElement maskedMac = fieldElementUtils.innerProduct(macs, coefficients);
+    macChecker.check(value, macKeyShare, maskedMac);
+  }
+
+  /**
+   * Initializes COPE protocols with all other parties.
+   */
+  private void initializeCope(Spdz2kPreprocessingResourcePool resourcePool, Network network) {
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (resourcePool.getMyId() != partyId) {
+        CopeSigner signer;
+        CopeInputter inputter;
+        // construction order matters since receive blocks and this is not parallelized
+        if (resourcePool.getMyId() < partyId) {
+          signer = new CopeSigner(resourcePool, network, partyId, macKeyShare);
+          inputter = new CopeInputter(resourcePool, network, partyId);
+        } else {
+          inputter = new CopeInputter(resourcePool, network, partyId);
+          signer = new CopeSigner(resourcePool, network, partyId, macKeyShare);
+        }
+        copeInputters.put(partyId, inputter);
+        copeSigners.put(partyId, signer);
+      }
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package dk.alexandra.fresco.tools.spdz2k.field;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The ring of integers modulo <i>2<sup>n</sup></i>, backed by {@link BigIntegerFieldDefinition}.
+ *
+ * <p>Elements serialize to big-endian byte arrays of exactly <i>n / 8</i> bytes and {@link
+ * #getBitLength()} returns <i>n</i>, as required by {@link
+ * dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool}. Only the ring operations of
+ * the elements may be used, i.e., not inversion or square roots.</p>
+ */
+public final class BigIntegerRingDefinition implements FieldDefinition {
+
+  private final BigIntegerFieldDefinition delegate;
+  private final int bitLength;
+  private final int byteLength;
+
+  /**
+   * Creates new {@link BigIntegerRingDefinition}.
+   *
+   * @param bitLength the bit length <i>n</i> of the ring, must be a positive multiple of 8
+   */
+  public BigIntegerRingDefinition(int bitLength) {
+    if (bitLength <= 0 || bitLength % Byte.SIZE != 0) {
+      throw new IllegalArgumentException(
+          "Bit length must be a positive multiple of 8, was " + bitLength);
+    }
+    this.delegate = new BigIntegerFieldDefinition(BigInteger.ONE.shiftLeft(bitLength));
+    this.bitLength = bitLength;
+    this.byteLength = bitLength / Byte.SIZE;
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return delegate.createElement(value);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return delegate.createElement(value);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return delegate.createElement(value);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return delegate.getModulus();
+  }
+
+  @Override
+  public int getBitLength() {
+    return bitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return delegate.convertToUnsigned(value);
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return delegate.convertToSigned(asUnsigned);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    // the delegate pads to the bit length of the modulus 2^n, i.e., n + 1 bits
+    byte[] bytes = delegate.serialize(fieldElement);
+    return Arrays.copyOfRange(bytes, bytes.length - byteLength, bytes.length);
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[fieldElements.size() * byteLength];
+    for (int i = 0; i < fieldElements.size(); i++) {
+      System.arraycopy(serialize(fieldElements.get(i)), 0, bytes, i * byteLength, byteLength);
+    }
+    return bytes;
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    if (bytes.length != byteLength) {
+      throw new IllegalArgumentException(
+          "Expected " + byteLength + " bytes but got " + bytes.length);
+    }
+    return createElement(new BigInteger(1, bytes));
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    if (bytes.length % byteLength != 0) {
+      throw new IllegalArgumentException(
+          "Expected a multiple of " + byteLength + " bytes but got " + bytes.length);
+    }
+    List<FieldElement> elements = new ArrayList<>(bytes.length / byteLength);
+    for (int i = 0; i < bytes.length; i += byteLength) {
+      elements.add(deserialize(Arrays.copyOfRange(bytes, i, i + byteLength)));
+    }
+    return elements;
+  }
+}
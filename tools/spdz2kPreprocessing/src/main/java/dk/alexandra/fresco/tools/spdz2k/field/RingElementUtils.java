@@ -0,0 +1,103 @@
+package dk.alexandra.fresco.tools.spdz2k.field;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utilities for working with elements of the ring of integers modulo <i>2<sup>k + s</sup></i> on
+ * the bit level.
+ *
+ * <p>The SPDZ2k rings only expose the <i>k</i> least significant bits through {@link
+ * FieldDefinition#convertToBitVector(FieldElement)} and {@link
+ * FieldDefinition#convertToUnsigned(FieldElement)}, so these methods work on the serialized
+ * elements, which are big-endian and cover all <i>k + s</i> bits.</p>
+ */
+public final class RingElementUtils {
+
+  private final FieldDefinition definition;
+  private final int elementByteLength;
+
+  /**
+   * Creates new {@link RingElementUtils}.
+   *
+   * @param definition the ring of integers modulo <i>2<sup>k + s</sup></i>
+   */
+  public RingElementUtils(FieldDefinition definition) {
+    this.definition = definition;
+    this.elementByteLength = definition.getBitLength() / Byte.SIZE;
+  }
+
+  /**
+   * Creates an element from its least significant bytes. The remaining bytes are zero.
+   *
+   * @param bytes the least significant bytes in big-endian order
+   * @return the element
+   */
+  public FieldElement fromLowBytes(byte[] bytes) {
+    byte[] padded = new byte[elementByteLength];
+    System.arraycopy(bytes, 0, padded, elementByteLength - bytes.length, bytes.length);
+    return definition.deserialize(padded);
+  }
+
+  /**
+   * Gets the <i>numBits</i> least significant bits of an element as a bit vector. Bit <i>i</i> of
+   * the element is at little-endian index <i>i</i> of the vector.
+   *
+   * @param element the element
+   * @param numBits the number of bits, must be a multiple of 8
+   * @return the least significant bits
+   */
+  public StrictBitVector toBits(FieldElement element, int numBits) {
+    return new StrictBitVector(toLowBytes(element, numBits));
+  }
+
+  /**
+   * Packs the <i>numBits</i> least significant bits of each element into a single bit vector. Bit
+   * <i>j</i> of element <i>i</i> is at little-endian index <i>i * numBits + j</i> of the vector.
+   *
+   * @param elements the elements
+   * @param numBits the number of bits per element, must be a multiple of 8
+   * @return the packed bits
+   */
+  public StrictBitVector pack(List<FieldElement> elements, int numBits) {
+    int numBytes = numBits / Byte.SIZE;
+    byte[] packed = new byte[elements.size() * numBytes];
+    for (int i = 0; i < elements.size(); i++) {
+      byte[] bytes = toLowBytes(elements.get(i), numBits);
+      System.arraycopy(bytes, 0, packed, packed.length - (i + 1) * numBytes, numBytes);
+    }
+    return new StrictBitVector(packed);
+  }
+
+  /**
+   * Checks if all <i>k + s</i> bits of an element are zero.
+   *
+   * @param element the element
+   * @return true if the element is zero
+   */
+  public boolean isZero(FieldElement element) {
+    for (byte b : definition.serialize(element)) {
+      if (b != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the <i>numBits</i> least significant bits of an element as a big-endian byte array. Used
+   * together with {@link #fromLowBytes(byte[])} this converts elements between rings of different
+   * bit lengths.
+   *
+   * @param element the element
+   * @param numBits the number of bits, must be a multiple of 8
+   * @return the least significant bytes in big-endian order
+   */
+  public byte[] toLowBytes(FieldElement element, int numBits) {
+    byte[] bytes = definition.serialize(element);
+    return Arrays.copyOfRange(bytes, bytes.length - numBits / Byte.SIZE, bytes.length);
+  }
+}
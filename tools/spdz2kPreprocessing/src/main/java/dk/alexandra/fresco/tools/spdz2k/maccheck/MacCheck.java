@@ -0,0 +1,50 @@
+package dk.alexandra.fresco.tools.spdz2k.maccheck;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.Addable;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.tools.mascot.commit.CommitmentBasedInput;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.field.RingElementUtils;
+import java.util.List;
+
+/**
+ * Actively-secure protocol for performing a MAC check on a public ring element <i>e</i>. <br> Each
+ * party p_i holds a share of the MAC m_i and a share of the MAC key alpha_i. <br> This protocol
+ * validates that e * (alpha_1 + ... + alpha_n) = m_1 + ... + m_n modulo <i>2<sup>k +
+ * s</sup></i>.
+ *
+ * <p>Unlike {@link dk.alexandra.fresco.tools.mascot.maccheck.MacCheck}, all <i>k + s</i> bits of
+ * the sum are checked, since the <i>s</i> most significant bits are what makes cheating in the
+ * <i>k</i> least significant bits detectable.</p>
+ */
+public class MacCheck extends CommitmentBasedInput<FieldElement> {
+
+  private final RingElementUtils ringElementUtils;
+
+  /**
+   * Constructs new mac checker.
+   */
+  public MacCheck(Spdz2kPreprocessingResourcePool resourcePool, Network network) {
+    super(resourcePool, network, resourcePool.getFieldDefinition());
+    this.ringElementUtils = new RingElementUtils(resourcePool.getFieldDefinition());
+  }
+
+  /**
+   * Runs mac-check on open value. <br> Conceptually, checks (macShare0 + ... + macShareN) = (open)
+   * * (keyShare0 + ... + keyShareN)
+   *
+   * @param opened the opened element to validate
+   * @param macKeyShare this party's share of the mac key
+   * @param macShare this party's share of the mac
+   * @throws MaliciousException if mac-check fails
+   */
+  public void check(FieldElement opened, FieldElement macKeyShare, FieldElement macShare) {
+    FieldElement sigma = macShare.subtract(opened.multiply(macKeyShare));
+    List<FieldElement> sigmas = allCommit(sigma);
+    if (!ringElementUtils.isZero(Addable.sum(sigmas))) {
+      throw new MaliciousException("Malicious mac forging detected");
+    }
+  }
+}
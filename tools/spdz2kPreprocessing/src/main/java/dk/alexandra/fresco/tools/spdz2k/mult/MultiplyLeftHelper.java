@@ -0,0 +1,100 @@
+package dk.alexandra.fresco.tools.spdz2k.mult;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.field.RingElementUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A helper class for the multiplication-based protocols {@link
+ * dk.alexandra.fresco.tools.spdz2k.cope.CopeSigner} and the multiplication sub-protocol used by
+ * {@link dk.alexandra.fresco.tools.spdz2k.triple.TripleGeneration}.
+ *
+ * <p>This is the ring version of {@link dk.alexandra.fresco.tools.mascot.mult.MultiplyLeftHelper}.
+ * The number of bits of the left factors is given explicitly, since the mac key shares only have
+ * <i>s</i> bits, while the factors of the triples have <i>k + s</i> bits.</p>
+ */
+public class MultiplyLeftHelper {
+
+  private final RotBatch rot;
+  private final FieldDefinition definition;
+  private final RingElementUtils ringElementUtils;
+  private final FieldElementUtils fieldElementUtils;
+
+  /**
+   * Creates new {@link MultiplyLeftHelper}.
+   */
+  public MultiplyLeftHelper(Spdz2kPreprocessingResourcePool resourcePool, Network network,
+      int otherId) {
+    this(resourcePool, network, otherId, resourcePool.getFieldDefinition());
+  }
+
+  /**
+   * Creates new {@link MultiplyLeftHelper} computing products in the given ring.
+   */
+  public MultiplyLeftHelper(Spdz2kPreprocessingResourcePool resourcePool, Network network,
+      int otherId, FieldDefinition definition) {
+    this.definition = definition;
+    this.ringElementUtils = new RingElementUtils(definition);
+    this.fieldElementUtils = new FieldElementUtils(definition);
+    this.rot = resourcePool.createRot(otherId, network);
+  }
+
+  /**
+   * Uses the bits of the left factors as choice bits to receive seeds to prgs.
+   *
+   * @param leftFactors the left side of the multiplication
+   * @param numBits the number of least significant bits of each left factor to use
+   * @param seedLength the length of the seeds that the ROT produces
+   * @return list of seeds to prgs
+   */
+  public List<StrictBitVector> generateSeeds(List<FieldElement> leftFactors, int numBits,
+      int seedLength) {
+    StrictBitVector packedFactors = ringElementUtils.pack(leftFactors, numBits);
+    // use rot to get choice seeds
+    List<StrictBitVector> seeds = rot.receive(packedFactors, seedLength);
+    Collections.reverse(seeds);
+    return seeds;
+  }
+
+  /**
+   * Computes this party's shares of the products. <br> There is a product share per left factor.
+   *
+   * @param leftFactors this party's multiplication factors
+   * @param numBits the number of least significant bits of each left factor to use
+   * @param feSeeds seeds as ring elements
+   * @param diffs the diffs received from other party
+   * @return product shares
+   */
+  public List<FieldElement> computeProductShares(List<FieldElement> leftFactors, int numBits,
+      List<FieldElement> feSeeds, List<FieldElement> diffs) {
+    if (diffs.size() != leftFactors.size() * numBits) {
+      throw new IllegalArgumentException(
+          "Expected " + leftFactors.size() * numBits + " diffs but got " + diffs.size());
+    }
+    final FieldElement zeroElement = definition.createElement(0);
+    List<FieldElement> result = new ArrayList<>(leftFactors.size());
+    int diffIdx = 0;
+    for (FieldElement leftFactor : leftFactors) {
+      StrictBitVector currentBits = ringElementUtils.toBits(leftFactor, numBits);
+      List<FieldElement> summands = new ArrayList<>(numBits);
+      for (int b = 0; b < numBits; b++) {
+        FieldElement feSeed = feSeeds.get(diffIdx);
+        FieldElement diff = diffs.get(diffIdx);
+        boolean bit = currentBits.getBit(b, true);
+        FieldElement select = bit ? diff : zeroElement;
+        summands.add(select.add(feSeed));
+        diffIdx++;
+      }
+      result.add(fieldElementUtils.recombine(summands));
+    }
+    return result;
+  }
+}
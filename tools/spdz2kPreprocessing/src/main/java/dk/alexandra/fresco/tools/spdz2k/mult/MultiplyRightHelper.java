@@ -0,0 +1,102 @@
+package dk.alexandra.fresco.tools.spdz2k.mult;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A helper class for the multiplication-based protocols {@link
+ * dk.alexandra.fresco.tools.spdz2k.cope.CopeInputter} and the multiplication sub-protocol used by
+ * {@link dk.alexandra.fresco.tools.spdz2k.triple.TripleGeneration}.
+ *
+ * <p>This is the ring version of {@link dk.alexandra.fresco.tools.mascot.mult.MultiplyRightHelper},
+ * where the number of bits of the other party's left factors is given explicitly.</p>
+ */
+public class MultiplyRightHelper {
+
+  private final RotBatch rot;
+  private final FieldElementUtils fieldElementUtils;
+
+  /**
+   * Creates new {@link MultiplyRightHelper}.
+   */
+  public MultiplyRightHelper(Spdz2kPreprocessingResourcePool resourcePool, Network network,
+      int otherId) {
+    this(resourcePool, network, otherId, resourcePool.getFieldDefinition());
+  }
+
+  /**
+   * Creates new {@link MultiplyRightHelper} computing products in the given ring.
+   */
+  public MultiplyRightHelper(Spdz2kPreprocessingResourcePool resourcePool, Network network,
+      int otherId, FieldDefinition definition) {
+    this.fieldElementUtils = new FieldElementUtils(definition);
+    this.rot = resourcePool.createRot(otherId, network);
+  }
+
+  /**
+   * Generate random seed pairs using OT, one pair for each bit of each of the other party's left
+   * factors.
+   *
+   * @param numMults the number of total multiplications
+   * @param numBits the number of bits of each of the other party's left factors
+   * @param seedLength the bit length of the seeds
+   * @return the seed pairs
+   */
+  public List<Pair<StrictBitVector, StrictBitVector>> generateSeeds(int numMults, int numBits,
+      int seedLength) {
+    List<Pair<StrictBitVector, StrictBitVector>> seeds = rot.send(numBits * numMults, seedLength);
+    Collections.reverse(seeds);
+    return seeds;
+  }
+
+  /**
+   * Computes "masked" share of each bit of each of this party's factors.
+   *
+   * <p>For each seed pair <i>(q<sub>0</sub>, q<sub>1</sub>)</i> compute <i>q<sub>0</sub> -
+   * q<sub>1</sub> + b</i> where <i>b</i> is the corresponding factor of this party.</p>
+   *
+   * @param feSeedPairs seed pairs as ring elements
+   * @param rightFactors this party's factors
+   * @param numBits the number of seed pairs per factor
+   * @return masked shares of this party's factor's bits.
+   */
+  public List<FieldElement> computeDiffs(List<Pair<FieldElement, FieldElement>> feSeedPairs,
+      List<FieldElement> rightFactors, int numBits) {
+    List<FieldElement> diffs = new ArrayList<>(feSeedPairs.size());
+    for (int i = 0; i < feSeedPairs.size(); i++) {
+      Pair<FieldElement, FieldElement> feSeedPair = feSeedPairs.get(i);
+      FieldElement rightFactor = rightFactors.get(i / numBits);
+      diffs.add(feSeedPair.getFirst().subtract(feSeedPair.getSecond()).add(rightFactor));
+    }
+    return diffs;
+  }
+
+  /**
+   * Computes this party's shares of the final products. <br> For each seed pair (q0, q1) this party
+   * holds, uses q0 to recombine into ring elements representing the product shares.
+   *
+   * @param feZeroSeeds the zero choice seeds
+   * @param numRightFactors number of total right factors
+   * @param numBits the number of seed pairs per factor
+   * @return shares of products
+   */
+  public List<FieldElement> computeProductShares(List<FieldElement> feZeroSeeds,
+      int numRightFactors, int numBits) {
+    List<FieldElement> productShares = new ArrayList<>(numRightFactors);
+    for (int rightFactIdx = 0; rightFactIdx < numRightFactors; rightFactIdx++) {
+      List<FieldElement> subFactors =
+          feZeroSeeds.subList(rightFactIdx * numBits, (rightFactIdx + 1) * numBits);
+      productShares.add(fieldElementUtils.recombine(subFactors).negate());
+    }
+    return productShares;
+  }
+}
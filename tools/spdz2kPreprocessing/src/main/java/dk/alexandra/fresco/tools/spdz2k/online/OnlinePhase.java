@@ -0,0 +1,101 @@
+package dk.alexandra.fresco.tools.spdz2k.online;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.elgen.ElementGeneration;
+import dk.alexandra.fresco.tools.spdz2k.triple.TripleGeneration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The subset of the online SPDZ2k protocols needed for generating random bits as pre-processed
+ * material, i.e., opening and multiplication. <p>Values are opened on all <i>k + s</i> bits, which
+ * is only safe since the opened values are masked by uniformly random triples.</p>
+ */
+public class OnlinePhase {
+
+  private final TripleGeneration tripleGeneration;
+  private final ElementGeneration elementGeneration;
+  private final FieldElement macKeyShare;
+  private final Spdz2kPreprocessingResourcePool resourcePool;
+  private final List<AuthenticatedElement> sharesWithMacs;
+  private final List<FieldElement> openedValues;
+
+  /**
+   * Creates new {@link OnlinePhase}.
+   */
+  public OnlinePhase(Spdz2kPreprocessingResourcePool resourcePool,
+      TripleGeneration tripleGeneration, ElementGeneration elementGeneration,
+      FieldElement macKeyShare) {
+    this.resourcePool = resourcePool;
+    this.tripleGeneration = tripleGeneration;
+    this.elementGeneration = elementGeneration;
+    this.macKeyShare = macKeyShare;
+    this.sharesWithMacs = new ArrayList<>();
+    this.openedValues = new ArrayList<>();
+  }
+
+  /**
+   * Computes authenticated products of left and right factors using multiplication triples.
+   *
+   * @param leftFactors left factors
+   * @param rightFactors right factors
+   * @return authenticated products
+   */
+  public List<AuthenticatedElement> multiply(List<AuthenticatedElement> leftFactors,
+      List<AuthenticatedElement> rightFactors) {
+    List<MultiplicationTriple> triples = tripleGeneration.triple(leftFactors.size());
+    List<AuthenticatedElement> epsilons = new ArrayList<>(leftFactors.size());
+    List<AuthenticatedElement> deltas = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      MultiplicationTriple triple = triples.get(i);
+      epsilons.add(leftFactors.get(i).subtract(triple.getLeft()));
+      deltas.add(rightFactors.get(i).subtract(triple.getRight()));
+    }
+    List<FieldElement> openEpsilons = open(epsilons);
+    List<FieldElement> openDeltas = open(deltas);
+    List<AuthenticatedElement> products = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      MultiplicationTriple triple = triples.get(i);
+      FieldElement epsilon = openEpsilons.get(i);
+      FieldElement delta = openDeltas.get(i);
+      // [c] + epsilon * [b] + delta * [a] + epsilon * delta
+      AuthenticatedElement product = triple.getProduct()
+          .add(triple.getRight().multiply(epsilon))
+          .add(triple.getLeft().multiply(delta))
+          .add(resourcePool.getFieldDefinition(), epsilon.multiply(delta), resourcePool.getMyId(),
+              macKeyShare);
+      products.add(product);
+    }
+    return products;
+  }
+
+  /**
+   * Opens values and stores them along with the macs for later validation.
+   */
+  public List<FieldElement> open(List<AuthenticatedElement> closed) {
+    List<FieldElement> opened = elementGeneration.open(closed);
+    sharesWithMacs.addAll(closed);
+    openedValues.addAll(opened);
+    return opened;
+  }
+
+  /**
+   * Checks that the given values are all zero, together with all unchecked values opened so far.
+   * The values to check are not opened.
+   *
+   * @param zeroes authenticated values which must be zero
+   */
+  public void checkZeroAndOpened(List<AuthenticatedElement> zeroes) {
+    sharesWithMacs.addAll(zeroes);
+    FieldElement zero = resourcePool.getFieldDefinition().createElement(0);
+    for (int i = 0; i < zeroes.size(); i++) {
+      openedValues.add(zero);
+    }
+    elementGeneration.check(sharesWithMacs, openedValues);
+    sharesWithMacs.clear();
+    openedValues.clear();
+  }
+}
@@ -0,0 +1,54 @@
+package dk.alexandra.fresco.tools.spdz2k.prg;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import dk.alexandra.fresco.tools.spdz2k.field.RingElementUtils;
+
+/**
+ * PRG for uniformly random elements of <i>Z<sub>2<sup>l</sup></sub></i>, embedded in the ring of
+ * integers modulo <i>2<sup>k + s</sup></i> for some <i>l &le; k + s</i>.
+ *
+ * <p>Unlike {@link dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl} this does not sample
+ * below {@link FieldDefinition#getModulus()}, which for the SPDZ2k rings only covers the <i>k</i>
+ * least significant bits.</p>
+ */
+public class RingElementPrg implements FieldElementPrg {
+
+  private final Drbg drbg;
+  private final RingElementUtils ringElementUtils;
+  private final int byteLength;
+
+  /**
+   * Creates new ring element prg.
+   *
+   * @param seed seed to the underlying DRBG
+   * @param definition the ring of integers modulo <i>2<sup>k + s</sup></i>
+   * @param bitLength the number of random least significant bits of each element
+   */
+  public RingElementPrg(StrictBitVector seed, FieldDefinition definition, int bitLength) {
+    if (bitLength % Byte.SIZE != 0 || bitLength > definition.getBitLength()) {
+      throw new IllegalArgumentException(
+          "Bit length must be a multiple of 8 and at most " + definition.getBitLength());
+    }
+    this.ringElementUtils = new RingElementUtils(definition);
+    this.byteLength = bitLength / Byte.SIZE;
+    byte[] bytes = seed.toByteArray();
+    if (bytes.length != AesCtrDrbg.SEED_LENGTH) {
+      this.drbg = AesCtrDrbgFactory.fromDerivedSeed(bytes);
+    } else {
+      this.drbg = AesCtrDrbgFactory.fromRandomSeed(bytes);
+    }
+  }
+
+  @Override
+  public FieldElement getNext() {
+    byte[] bytes = new byte[byteLength];
+    drbg.nextBytes(bytes);
+    return ringElementUtils.fromLowBytes(bytes);
+  }
+}
@@ -0,0 +1,64 @@
+package dk.alexandra.fresco.tools.spdz2k.triple;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.field.RingElementUtils;
+import dk.alexandra.fresco.tools.spdz2k.mult.MultiplyLeftHelper;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Left hand side of a two-party protocol for computing a secret sharing of the entry wise product
+ * of vectors <i><b>a</b></i> held by the <i>left</i> party and <i><b>b</b></i> held by the
+ * <i>right</i> party, over the wide ring of integers modulo <i>2<sup>k + 2s</sup></i> ({@link
+ * Spdz2kPreprocessingResourcePool#getWideFieldDefinition()}).
+ *
+ * <p>This is the ring version of the left multiplier used by MASCOT, using one OT for each of the
+ * <i>k + 2s</i> bits of each left factor. <b>Note:</b> this class is to be used as a sub-protocol
+ * in {@link TripleGeneration} and may not be secure if used outside of the intended context. For
+ * the other side, see {@link MultiplyRight}.</p>
+ */
+class MultiplyLeft {
+
+  private final MultiplyLeftHelper multiplyLeftHelper;
+  private final RingElementUtils ringElementUtils;
+  private final int otherId;
+  private final Network network;
+  private final FieldDefinition definition;
+
+  /**
+   * Constructs one side of the two-party multiplication protocol.
+   *
+   * @param resourcePool the resource pool
+   * @param network the network
+   * @param otherId the other party's id
+   */
+  MultiplyLeft(Spdz2kPreprocessingResourcePool resourcePool, Network network, int otherId) {
+    this.otherId = otherId;
+    this.network = network;
+    this.definition = resourcePool.getWideFieldDefinition();
+    this.ringElementUtils = new RingElementUtils(definition);
+    this.multiplyLeftHelper = new MultiplyLeftHelper(resourcePool, network, otherId, definition);
+  }
+
+  /**
+   * Runs a batch of the entry wise product protocol with a given left hand vector.
+   *
+   * @param leftFactors this party's vector <i>a<sub>0</sub>, a<sub>1</sub> ...</i>
+   * @return shares of the products <i>a<sub>0</sub>b<sub>0</sub>, a<sub>1</sub>b<sub>1</sub>
+   *     ...</i>
+   */
+  public List<FieldElement> multiply(List<FieldElement> leftFactors) {
+    int numBits = definition.getBitLength();
+    List<StrictBitVector> seeds = multiplyLeftHelper.generateSeeds(leftFactors, numBits, numBits);
+    List<FieldElement> feSeeds = seeds.stream()
+        .map(seed -> ringElementUtils.fromLowBytes(seed.toByteArray()))
+        .collect(Collectors.toList());
+    List<FieldElement> diffs =
+        definition.deserializeList(network.receive(otherId));
+    return multiplyLeftHelper.computeProductShares(leftFactors, numBits, feSeeds, diffs);
+  }
+}
@@ -0,0 +1,63 @@
+package dk.alexandra.fresco.tools.spdz2k.triple;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.field.RingElementUtils;
+import dk.alexandra.fresco.tools.spdz2k.mult.MultiplyRightHelper;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Right hand side of a two-party protocol for computing a secret sharing of the entry wise product
+ * of vectors <i><b>a</b></i> held by the <i>left</i> party and <i><b>b</b></i> held by the
+ * <i>right</i> party, over the wide ring of integers modulo <i>2<sup>k + 2s</sup></i> ({@link
+ * Spdz2kPreprocessingResourcePool#getWideFieldDefinition()}).
+ *
+ * <p><b>Note:</b> this class is to be used as a sub-protocol in {@link TripleGeneration} and may
+ * not be secure if used outside of the intended context. For the other side, see {@link
+ * MultiplyLeft}.</p>
+ */
+class MultiplyRight {
+
+  private final MultiplyRightHelper multiplyRightHelper;
+  private final RingElementUtils ringElementUtils;
+  private final int otherId;
+  private final Network network;
+  private final FieldDefinition definition;
+
+  MultiplyRight(Spdz2kPreprocessingResourcePool resourcePool, Network network, int otherId) {
+    this.otherId = otherId;
+    this.network = network;
+    this.definition = resourcePool.getWideFieldDefinition();
+    this.ringElementUtils = new RingElementUtils(definition);
+    this.multiplyRightHelper = new MultiplyRightHelper(resourcePool, network, otherId, definition);
+  }
+
+  /**
+   * Runs a batch of the entry wise product protocol with a given right hand vector.
+   *
+   * @param rightFactors this party's vector <i>b<sub>0</sub>, b<sub>1</sub> ...</i>
+   * @return shares of the products <i>a<sub>0</sub>b<sub>0</sub>, a<sub>1</sub>b<sub>1</sub>
+   *     ...</i>
+   */
+  public List<FieldElement> multiply(List<FieldElement> rightFactors) {
+    int numBits = definition.getBitLength();
+    List<Pair<StrictBitVector, StrictBitVector>> seedPairs =
+        multiplyRightHelper.generateSeeds(rightFactors.size(), numBits, numBits);
+    List<Pair<FieldElement, FieldElement>> feSeedPairs = seedPairs.stream()
+        .map(pair -> new Pair<>(
+            ringElementUtils.fromLowBytes(pair.getFirst().toByteArray()),
+            ringElementUtils.fromLowBytes(pair.getSecond().toByteArray())))
+        .collect(Collectors.toList());
+    List<FieldElement> diffs =
+        multiplyRightHelper.computeDiffs(feSeedPairs, rightFactors, numBits);
+    network.send(otherId, definition.serialize(diffs));
+    List<FieldElement> feZeroSeeds =
+        feSeedPairs.stream().map(Pair::getFirst).collect(Collectors.toList());
+    return multiplyRightHelper.computeProductShares(feZeroSeeds, rightFactors.size(), numBits);
+  }
+}
@@ -0,0 +1,289 @@
+package dk.alexandra.fresco.tools.spdz2k.triple;
+
+import dk.alexandra.fresco.framework.builder.numeric.Addable;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.spdz2k.elgen.ElementGeneration;
+import dk.alexandra.fresco.tools.spdz2k.field.RingElementUtils;
+import dk.alexandra.fresco.tools.spdz2k.prg.RingElementPrg;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Actively-secure protocol for computing authenticated, secret-shared multiplication triples over
+ * the ring of integers modulo <i>2<sup>k + s</sup></i>, following the SPDZ2k protocol (<a
+ * href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>).
+ *
+ * <p>The steps are the same as in {@link dk.alexandra.fresco.tools.mascot.triple.TripleGeneration}:
+ * <i>Multiply</i> computes unauthenticated products of <i>(k + 2s)</i>-bit left factors and <i>(k
+ * + s)</i>-bit right factors with OT-based multiplication in the ring of integers modulo
+ * <i>2<sup>k + 2s</sup></i>, <i>Combine</i> takes random linear combinations of the candidates in
+ * the same ring and only then reduces them to <i>k + s</i> bits, <i>Authenticate</i> inputs the
+ * shares using {@link ElementGeneration}, and <i>Sacrifice</i> checks each triple against a second
+ * triple sharing the right factor. Combining over <i>k + 2s</i> bits makes the combined left factor
+ * uniformly random modulo <i>2<sup>k + s</sup></i>, even if a corrupt party learned some of the
+ * bits of the left factors during <i>Multiply</i>. In <i>Sacrifice</i> the
+ * random coefficient <i>t</i> is sampled from <i>Z<sub>2<sup>s</sup></sub></i>, such that an
+ * additive error in the product which is non-zero modulo <i>2<sup>k</sup></i> survives the
+ * multiplication by <i>t</i>, except with probability <i>2<sup>-s</sup></i>.</p>
+ */
+public class TripleGeneration {
+
+  private final ElementGeneration elementGeneration;
+  private final Map<Integer, MultiplyRight> rightMultipliers;
+  private final Map<Integer, MultiplyLeft> leftMultipliers;
+  private final FieldElementPrg jointSampler;
+  private final FieldElementPrg coefficientSampler;
+  private final FieldElementPrg wideSampler;
+  private final Spdz2kPreprocessingResourcePool resourcePool;
+  private final FieldElementUtils fieldElementUtils;
+  private final FieldElementUtils wideUtils;
+  private final RingElementUtils ringElementUtils;
+  private final RingElementUtils wideRingElementUtils;
+
+  /**
+   * Creates new triple generation protocol.
+   *
+   * @param resourcePool the resource pool
+   * @param network the network
+   * @param elementGeneration the protocol used to authenticate the triples
+   * @param jointSampler joint source of random elements of the wide ring {@link
+   *     Spdz2kPreprocessingResourcePool#getWideFieldDefinition()}
+   * @param coefficientSampler joint source of random <i>s</i>-bit coefficients
+   */
+  public TripleGeneration(Spdz2kPreprocessingResourcePool resourcePool, Network network,
+      ElementGeneration elementGeneration, FieldElementPrg jointSampler,
+      FieldElementPrg coefficientSampler) {
+    this.resourcePool = resourcePool;
+    FieldDefinition wideDefinition = resourcePool.getWideFieldDefinition();
+    this.fieldElementUtils = new FieldElementUtils(resourcePool.getFieldDefinition());
+    this.wideUtils = new FieldElementUtils(wideDefinition);
+    this.ringElementUtils = new RingElementUtils(resourcePool.getFieldDefinition());
+    this.wideRingElementUtils = new RingElementUtils(wideDefinition);
+    this.wideSampler = new RingElementPrg(
+        new StrictBitVector(resourcePool.getPrgSeedLength(), resourcePool.getRandomGenerator()),
+        wideDefinition, wideDefinition.getBitLength());
+    this.leftMultipliers = new HashMap<>();
+    this.rightMultipliers = new HashMap<>();
+    initializeMultipliers(resourcePool, network);
+    this.elementGeneration = elementGeneration;
+    this.jointSampler = jointSampler;
+    this.coefficientSampler = coefficientSampler;
+  }
+
+  private void initializeMultipliers(Spdz2kPreprocessingResourcePool resourcePool,
+      Network network) {
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        if (resourcePool.getMyId() < partyId) {
+          rightMultipliers.put(partyId, new MultiplyRight(resourcePool, network, partyId));
+          leftMultipliers.put(partyId, new MultiplyLeft(resourcePool, network, partyId));
+        } else {
+          leftMultipliers.put(partyId, new MultiplyLeft(resourcePool, network, partyId));
+          rightMultipliers.put(partyId, new MultiplyRight(resourcePool, network, partyId));
+        }
+      }
+    }
+  }
+
+  /**
+   * Generates numTriples multiplication triples in a batch.
+   *
+   * @param numTriples number of triples to generate
+   * @return valid multiplication triples
+   */
+  public List<MultiplicationTriple> triple(int numTriples) {
+    List<FieldElement> leftFactorGroups =
+        wideSampler.getNext(numTriples * resourcePool.getNumCandidatesPerTriple());
+    List<FieldElement> rightFactors = resourcePool.getLocalSampler().getNext(numTriples);
+    List<FieldElement> productGroups = multiply(leftFactorGroups, widen(rightFactors));
+    List<UnauthenticatedCandidate> candidates =
+        combine(leftFactorGroups, rightFactors, productGroups);
+    List<AuthenticatedCandidate> authenticated = authenticate(candidates);
+    return sacrifice(authenticated);
+  }
+
+  /**
+   * Computes the unauthenticated, secret-shared products of leftFactorGroups and rightFactors,
+   * where each right factor is multiplied with a group of {@link
+   * Spdz2kPreprocessingResourcePool#getNumCandidatesPerTriple()} left factors. The factors and
+   * products are elements of the wide ring {@link
+   * Spdz2kPreprocessingResourcePool#getWideFieldDefinition()}.
+   */
+  List<FieldElement> multiply(List<FieldElement> leftFactorGroups,
+      List<FieldElement> rightFactors) {
+    List<FieldElement> stretched =
+        wideUtils.stretch(rightFactors, resourcePool.getNumCandidatesPerTriple());
+    List<List<FieldElement>> subFactors = new ArrayList<>();
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        MultiplyLeft leftMult = leftMultipliers.get(partyId);
+        MultiplyRight rightMult = rightMultipliers.get(partyId);
+        if (resourcePool.getMyId() < partyId) {
+          subFactors.add(rightMult.multiply(stretched));
+          subFactors.add(leftMult.multiply(leftFactorGroups));
+        } else {
+          subFactors.add(leftMult.multiply(leftFactorGroups));
+          subFactors.add(rightMult.multiply(stretched));
+        }
+      }
+    }
+    subFactors.add(wideUtils.pairWiseMultiply(leftFactorGroups, stretched));
+    return Addable.sumRows(subFactors);
+  }
+
+  /**
+   * Combines each group of candidates into a single triple and a second triple for sacrificing,
+   * using jointly sampled random linear combinations in the wide ring. The combined left factors
+   * and products are reduced to <i>k + s</i> bits, while the right factors are used as they are.
+   */
+  private List<UnauthenticatedCandidate> combine(List<FieldElement> leftFactorGroups,
+      List<FieldElement> rightFactors, List<FieldElement> productGroups) {
+    int groupSize = resourcePool.getNumCandidatesPerTriple();
+    List<List<FieldElement>> masks = jointSampler.getNext(rightFactors.size(), groupSize);
+    List<List<FieldElement>> sacrificeMasks =
+        jointSampler.getNext(rightFactors.size(), groupSize);
+    return IntStream.range(0, rightFactors.size()).mapToObj(idx -> {
+      List<FieldElement> left = leftFactorGroups.subList(idx * groupSize, (idx + 1) * groupSize);
+      List<FieldElement> prod = productGroups.subList(idx * groupSize, (idx + 1) * groupSize);
+      List<FieldElement> m = masks.get(idx);
+      List<FieldElement> ms = sacrificeMasks.get(idx);
+      return new UnauthenticatedCandidate(
+          reduce(wideUtils.innerProduct(left, m)),
+          rightFactors.get(idx),
+          reduce(wideUtils.innerProduct(prod, m)),
+          reduce(wideUtils.innerProduct(left, ms)),
+          reduce(wideUtils.innerProduct(prod, ms)));
+    }).collect(Collectors.toList());
+  }
+
+  /**
+   * Embeds <i>(k + s)</i>-bit ring elements in the wide ring.
+   */
+  private List<FieldElement> widen(List<FieldElement> elements) {
+    return elements.stream()
+        .map(element -> wideRingElementUtils
+            .fromLowBytes(resourcePool.getFieldDefinition().serialize(element)))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Reduces an element of the wide ring modulo <i>2<sup>k + s</sup></i>.
+   */
+  private FieldElement reduce(FieldElement wideElement) {
+    return ringElementUtils.fromLowBytes(
+        wideRingElementUtils.toLowBytes(wideElement, resourcePool.getModBitLength()));
+  }
+
+  /**
+   * Inputs the shares of all parties using {@link ElementGeneration} and sums them up.
+   */
+  private List<AuthenticatedCandidate> authenticate(List<UnauthenticatedCandidate> candidates) {
+    List<FieldElement> flatInputs = candidates.stream()
+        .flatMap(TripleCandidate::stream)
+        .collect(Collectors.toList());
+    List<List<AuthenticatedElement>> shares = new ArrayList<>();
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId == resourcePool.getMyId()) {
+        shares.add(elementGeneration.input(flatInputs));
+      } else {
+        shares.add(elementGeneration.input(partyId, flatInputs.size()));
+      }
+    }
+    List<AuthenticatedElement> combined = Addable.sumRows(shares);
+    return IntStream.range(0, candidates.size())
+        .mapToObj(idx -> new AuthenticatedCandidate(combined.subList(idx * 5, (idx + 1) * 5)))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Checks the candidates by opening <i>rho = t * a - a'</i> and checking that <i>t * c - c' - rho
+   * * b</i> is zero, along with the macs of the opened values.
+   */
+  private List<MultiplicationTriple> sacrifice(List<AuthenticatedCandidate> candidates) {
+    List<FieldElement> randomCoefficients = coefficientSampler.getNext(candidates.size());
+    List<AuthenticatedElement> rhos = IntStream.range(0, candidates.size())
+        .mapToObj(idx -> candidates.get(idx).computeRho(randomCoefficients.get(idx)))
+        .collect(Collectors.toList());
+    List<FieldElement> openRhos = elementGeneration.open(rhos);
+    List<AuthenticatedElement> sigmas = IntStream.range(0, candidates.size())
+        .mapToObj(idx -> candidates.get(idx)
+            .computeSigma(openRhos.get(idx), randomCoefficients.get(idx)))
+        .collect(Collectors.toList());
+    rhos.addAll(sigmas);
+    List<FieldElement> paddedRhos = fieldElementUtils
+        .padWith(openRhos, resourcePool.getFieldDefinition().createElement(0), sigmas.size());
+    elementGeneration.check(rhos, paddedRhos);
+    return candidates.stream().map(AuthenticatedCandidate::toTriple).collect(Collectors.toList());
+  }
+
+  /**
+   * Represents single unauthenticated triple candidate (<i>a</i>, <i>b</i>, <i>c</i>, <i>a'</i>,
+   * <i>c'</i>).
+   */
+  private static final class UnauthenticatedCandidate extends TripleCandidate<FieldElement> {
+
+    UnauthenticatedCandidate(FieldElement leftFactor, FieldElement rightFactor,
+        FieldElement product, FieldElement leftFactorHat, FieldElement productHat) {
+      super(leftFactor, rightFactor, product, leftFactorHat, productHat);
+    }
+  }
+
+  /**
+   * Represents single authenticated triple candidate (<i>[[a]]</i>, <i>[[b]]</i>, <i>[[c]]</i>,
+   * <i>[[a']]</i>, <i>[[c']]</i>).
+   */
+  private static final class AuthenticatedCandidate extends
+      TripleCandidate<AuthenticatedElement> {
+
+    AuthenticatedCandidate(List<AuthenticatedElement> ordered) {
+      super(ordered.get(0), ordered.get(1), ordered.get(2), ordered.get(3), ordered.get(4));
+    }
+
+    AuthenticatedElement computeRho(FieldElement coefficient) {
+      return leftFactor.multiply(coefficient).subtract(leftFactorHat);
+    }
+
+    AuthenticatedElement computeSigma(FieldElement openRho, FieldElement coefficient) {
+      return product.multiply(coefficient).subtract(productHat)
+          .subtract(rightFactor.multiply(openRho));
+    }
+
+    MultiplicationTriple toTriple() {
+      return new MultiplicationTriple(leftFactor, rightFactor, product);
+    }
+  }
+
+  private static class TripleCandidate<T> {
+
+    final T leftFactor;
+    final T rightFactor;
+    final T product;
+    final T leftFactorHat;
+    final T productHat;
+
+    TripleCandidate(T leftFactor, T rightFactor, T product, T leftFactorHat, T productHat) {
+      this.leftFactor = leftFactor;
+      this.rightFactor = rightFactor;
+      this.product = product;
+      this.leftFactorHat = leftFactorHat;
+      this.productHat = productHat;
+    }
+
+    Stream<T> stream() {
+      return Stream.of(leftFactor, rightFactor, product, leftFactorHat, productHat);
+    }
+  }
+}
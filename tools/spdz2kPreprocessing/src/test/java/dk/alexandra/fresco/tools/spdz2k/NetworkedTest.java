@@ -0,0 +1,85 @@
+package dk.alexandra.fresco.tools.spdz2k;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.builder.numeric.Addable;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.spdz2k.field.BigIntegerRingDefinition;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+
+public abstract class NetworkedTest {
+
+  /**
+   * The bit length <i>k + s</i> of the ring used in the tests.
+   */
+  protected static final int MOD_BIT_LENGTH = 64;
+  /**
+   * The bit length <i>s</i> of the mac key shares used in the tests.
+   */
+  protected static final int SECURITY_BIT_LENGTH = 32;
+
+  protected Map<Integer, Spdz2kTestContext> contexts;
+  protected TestRuntime testRuntime;
+
+  private final MascotSecurityParameters defaultParameters = new MascotSecurityParameters(16,
+      256, 3);
+  private final FieldDefinition ringDefinition = new BigIntegerRingDefinition(MOD_BIT_LENGTH);
+
+  public void initContexts(int noOfParties) {
+    initContexts(noOfParties, defaultParameters);
+  }
+
+  public void initContexts(int noOfParties, MascotSecurityParameters securityParameters) {
+    contexts = testRuntime.initializeContexts(noOfParties, 1, securityParameters,
+        ringDefinition, SECURITY_BIT_LENGTH);
+  }
+
+  @Before
+  public void initializeRuntime() {
+    testRuntime = new TestRuntime();
+  }
+
+  /**
+   * Closes all resources allocated for tests and shuts down test runtime.
+   */
+  @After
+  public void teardownRuntime() {
+    if (testRuntime != null && testRuntime.isExecutorInitialized()) {
+      testRuntime.shutdown();
+      testRuntime = null;
+    }
+  }
+
+  protected FieldDefinition getRingDefinition() {
+    return ringDefinition;
+  }
+
+  protected MascotSecurityParameters getDefaultParameters() {
+    return defaultParameters;
+  }
+
+  /**
+   * Asserts that two ring elements are equal on all <i>k + s</i> bits.
+   */
+  protected void assertRingEquals(FieldElement expected, FieldElement actual) {
+    assertEquals(ringDefinition.convertToUnsigned(expected),
+        ringDefinition.convertToUnsigned(actual));
+  }
+
+  /**
+   * Recombines the shares of an authenticated element held by each party, checks the mac against
+   * the mac key and returns the value.
+   */
+  protected FieldElement recombine(List<AuthenticatedElement> shares, FieldElement macKey) {
+    AuthenticatedElement recombined = Addable.sum(shares);
+    assertRingEquals(recombined.getShare().multiply(macKey), recombined.getMac());
+    return recombined.getShare();
+  }
+
+}
@@ -0,0 +1,123 @@
+package dk.alexandra.fresco.tools.spdz2k;
+
+import dk.alexandra.fresco.framework.Party;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkConfigurationImpl;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import dk.alexandra.fresco.tools.spdz2k.elgen.ElementGeneration;
+import dk.alexandra.fresco.tools.spdz2k.prg.RingElementPrg;
+import dk.alexandra.fresco.tools.spdz2k.triple.TripleGeneration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Context for a single party to participate in networked test. Holds a resource pool and network.
+ */
+public class Spdz2kTestContext {
+
+  private final Spdz2kPreprocessingResourcePool resourcePool;
+  private final Network network;
+
+  /**
+   * Creates new test context.
+   */
+  public Spdz2kTestContext(int myId, int noOfParties, int instanceId,
+      MascotSecurityParameters securityParameters, FieldDefinition ringDefinition,
+      int securityBitLength) {
+    this.network = new SocketNetwork(defaultNetworkConfiguration(myId, noOfParties));
+    byte[] drbgSeed = new byte[securityParameters.getPrgSeedLength() / 8];
+    new Random(myId).nextBytes(drbgSeed);
+    Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed(drbgSeed);
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, securityParameters.getPrgSeedLength());
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    this.resourcePool = new Spdz2kPreprocessingResourcePoolImpl(myId, noOfParties, instanceId,
+        drbg, seedOts, securityParameters, ringDefinition, securityBitLength);
+  }
+
+  /**
+   * Creates the element generation protocol for this party.
+   */
+  public ElementGeneration createElementGeneration(FieldElement macKeyShare) {
+    return new ElementGeneration(resourcePool, network, macKeyShare, createCoefficientSampler());
+  }
+
+  /**
+   * Creates the triple generation protocol for this party.
+   */
+  public TripleGeneration createTripleGeneration(ElementGeneration elementGeneration) {
+    return new TripleGeneration(resourcePool, network, elementGeneration, createJointSampler(),
+        createCoefficientSampler());
+  }
+
+  /**
+   * Creates a sampler of random elements of the wide ring. All parties use the same fixed seed.
+   */
+  public FieldElementPrg createJointSampler() {
+    FieldDefinition wideDefinition = resourcePool.getWideFieldDefinition();
+    return new RingElementPrg(new StrictBitVector(getPrgSeedLength()), wideDefinition,
+        wideDefinition.getBitLength());
+  }
+
+  /**
+   * Creates a sampler of random <i>s</i>-bit coefficients. All parties use the same fixed seed.
+   */
+  public FieldElementPrg createCoefficientSampler() {
+    return new RingElementPrg(new StrictBitVector(getPrgSeedLength()),
+        resourcePool.getFieldDefinition(), resourcePool.getSecurityBitLength());
+  }
+
+  public Spdz2kPreprocessingResourcePool getResourcePool() {
+    return resourcePool;
+  }
+
+  public int getMyId() {
+    return resourcePool.getMyId();
+  }
+
+  public int getNoOfParties() {
+    return resourcePool.getNoOfParties();
+  }
+
+  public int getPrgSeedLength() {
+    return resourcePool.getPrgSeedLength();
+  }
+
+  public Network getNetwork() {
+    return network;
+  }
+
+  private static NetworkConfiguration defaultNetworkConfiguration(int myId,
+      int noOfParties) {
+    Map<Integer, Party> parties = new HashMap<>();
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      parties.put(partyId, new Party(partyId, "localhost", 8000 + partyId));
+    }
+    return new NetworkConfigurationImpl(myId, parties);
+  }
+
+}
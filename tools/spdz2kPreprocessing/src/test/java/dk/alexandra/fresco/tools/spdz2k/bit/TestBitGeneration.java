@@ -0,0 +1,70 @@
+package dk.alexandra.fresco.tools.spdz2k.bit;
+
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.spdz2k.NetworkedTest;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kTestContext;
+import dk.alexandra.fresco.tools.spdz2k.elgen.ElementGeneration;
+import dk.alexandra.fresco.tools.spdz2k.online.OnlinePhase;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.Test;
+
+public class TestBitGeneration extends NetworkedTest {
+
+  private List<AuthenticatedElement> runSinglePartyBits(Spdz2kTestContext ctx,
+      FieldElement macKeyShare, int numBits) {
+    ElementGeneration elementGeneration = ctx.createElementGeneration(macKeyShare);
+    OnlinePhase onlinePhase = new OnlinePhase(ctx.getResourcePool(),
+        ctx.createTripleGeneration(elementGeneration), elementGeneration, macKeyShare);
+    BitGeneration bitGeneration =
+        new BitGeneration(ctx.getResourcePool(), elementGeneration, onlinePhase);
+    return bitGeneration.generateBits(numBits);
+  }
+
+  private void testBits(int noOfParties, int numBits) {
+    initContexts(noOfParties);
+    FieldElement[] macKeyShares = {getRingDefinition().createElement(11231),
+        getRingDefinition().createElement(7719), getRingDefinition().createElement(1)};
+    Callable<List<AuthenticatedElement>> partyOneTask =
+        () -> runSinglePartyBits(contexts.get(1), macKeyShares[0], numBits);
+    Callable<List<AuthenticatedElement>> partyTwoTask =
+        () -> runSinglePartyBits(contexts.get(2), macKeyShares[1], numBits);
+    Callable<List<AuthenticatedElement>> partyThreeTask =
+        () -> runSinglePartyBits(contexts.get(3), macKeyShares[2], numBits);
+    List<List<AuthenticatedElement>> results = testRuntime.runPerPartyTasks(
+        Arrays.asList(partyOneTask, partyTwoTask, partyThreeTask).subList(0, noOfParties));
+
+    FieldElement macKey = getRingDefinition().createElement(0);
+    for (int i = 0; i < noOfParties; i++) {
+      macKey = macKey.add(macKeyShares[i]);
+    }
+    int ones = 0;
+    for (int i = 0; i < numBits; i++) {
+      AuthenticatedElement[] shares = new AuthenticatedElement[noOfParties];
+      for (int p = 0; p < noOfParties; p++) {
+        shares[p] = results.get(p).get(i);
+      }
+      BigInteger bit = getRingDefinition().convertToUnsigned(
+          recombine(Arrays.asList(shares), macKey));
+      assertTrue(bit.equals(BigInteger.ZERO) || bit.equals(BigInteger.ONE));
+      ones += bit.intValue();
+    }
+    // the bits are random, so all zero or all one happens with probability 2^(1 - numBits)
+    assertTrue(0 < ones && ones < numBits);
+  }
+
+  @Test
+  public void testTwoPartyBits() {
+    testBits(2, 32);
+  }
+
+  @Test
+  public void testThreePartyBits() {
+    testBits(3, 16);
+  }
+}
@@ -0,0 +1,82 @@
+package dk.alexandra.fresco.tools.spdz2k.cope;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.spdz2k.NetworkedTest;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kTestContext;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class TestCope extends NetworkedTest {
+
+  private List<FieldElement> runSigner(Spdz2kTestContext ctx, Integer otherId,
+      FieldElement macKeyShare, int numExtends) {
+    CopeSigner signer =
+        new CopeSigner(ctx.getResourcePool(), ctx.getNetwork(), otherId, macKeyShare);
+    return signer.extend(numExtends);
+  }
+
+  private List<FieldElement> runInputter(Spdz2kTestContext ctx, Integer otherId,
+      List<FieldElement> inputs) {
+    CopeInputter inputter = new CopeInputter(ctx.getResourcePool(), ctx.getNetwork(), otherId);
+    return inputter.extend(inputs);
+  }
+
+  private void testExtend(FieldElement macKeyShare, List<FieldElement> inputs) {
+    initContexts(2);
+
+    // define task each party will run
+    Callable<List<FieldElement>> partyOneTask =
+        () -> runSigner(contexts.get(1), 2, macKeyShare, inputs.size());
+    Callable<List<FieldElement>> partyTwoTask = () -> runInputter(contexts.get(2), 1, inputs);
+
+    // run tasks and get ordered list of results
+    List<List<FieldElement>> results =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask));
+
+    // get per party results
+    List<FieldElement> leftResults = results.get(0);
+    List<FieldElement> rightResults = results.get(1);
+
+    for (int i = 0; i < inputs.size(); i++) {
+      FieldElement expected = macKeyShare.multiply(inputs.get(i));
+      FieldElement actual = leftResults.get(i).add(rightResults.get(i));
+      assertRingEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testSingleExtend() {
+    FieldElement macKeyShare = getRingDefinition().createElement(11231);
+    List<FieldElement> inputs = Collections.singletonList(getRingDefinition().createElement(7));
+    testExtend(macKeyShare, inputs);
+  }
+
+  @Test
+  public void testBatchedExtend() {
+    FieldElement macKeyShare = getRingDefinition().createElement(11231);
+    List<FieldElement> inputs = Stream.of(7, 444, 112, 11)
+        .map(getRingDefinition()::createElement)
+        .collect(Collectors.toList());
+    testExtend(macKeyShare, inputs);
+  }
+
+  @Test
+  public void testExtendAllBits() {
+    // the largest s-bit mac key share and inputs using the s most significant bits of the ring
+    FieldElement macKeyShare = getRingDefinition().createElement(
+        BigInteger.ONE.shiftLeft(SECURITY_BIT_LENGTH).subtract(BigInteger.ONE));
+    List<FieldElement> inputs = Stream.of(
+        BigInteger.ONE.shiftLeft(MOD_BIT_LENGTH - 1),
+        BigInteger.ONE.shiftLeft(MOD_BIT_LENGTH).subtract(BigInteger.ONE),
+        new BigInteger("12345678901234567890"))
+        .map(getRingDefinition()::createElement)
+        .collect(Collectors.toList());
+    testExtend(macKeyShare, inputs);
+  }
+}
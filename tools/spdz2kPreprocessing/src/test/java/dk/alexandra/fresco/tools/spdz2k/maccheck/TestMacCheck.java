@@ -0,0 +1,73 @@
+package dk.alexandra.fresco.tools.spdz2k.maccheck;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.spdz2k.NetworkedTest;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kTestContext;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.Test;
+
+public class TestMacCheck extends NetworkedTest {
+
+  // party one holds 42 * 11231 - 4444 + 2^40 of the mac and party two 4444 + 42 * 7719 - 2^40,
+  // so the mac is valid for the mac key 11231 + 7719
+  private final FieldElement opened = getRingDefinition().createElement(42);
+  private final FieldElement macKeyShareOne = getRingDefinition().createElement(11231);
+  private final FieldElement macKeyShareTwo = getRingDefinition().createElement(7719);
+  private final FieldElement macShareOne = getRingDefinition().createElement(
+      BigInteger.valueOf(42 * 11231 - 4444).add(BigInteger.ONE.shiftLeft(40)));
+  private final FieldElement macShareTwo = getRingDefinition().createElement(
+      BigInteger.valueOf(4444 + 42 * 7719).subtract(BigInteger.ONE.shiftLeft(40)));
+
+  private Exception runSinglePartyMacCheck(Spdz2kTestContext ctx, FieldElement opened,
+      FieldElement macKeyShare, FieldElement macShare) {
+    MacCheck macChecker = new MacCheck(ctx.getResourcePool(), ctx.getNetwork());
+    try {
+      macChecker.check(opened, macKeyShare, macShare);
+    } catch (MaliciousException e) {
+      return e;
+    }
+    return null;
+  }
+
+  private List<Exception> runMacCheck(FieldElement macShareOne) {
+    initContexts(2);
+    Callable<Exception> partyOneTask =
+        () -> runSinglePartyMacCheck(contexts.get(1), opened, macKeyShareOne, macShareOne);
+    Callable<Exception> partyTwoTask =
+        () -> runSinglePartyMacCheck(contexts.get(2), opened, macKeyShareTwo, macShareTwo);
+    return testRuntime.runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask));
+  }
+
+  private void assertCheatingDetected(FieldElement macShareOne) {
+    for (Exception exception : runMacCheck(macShareOne)) {
+      assertEquals(MaliciousException.class, exception.getClass());
+      assertEquals("Malicious mac forging detected", exception.getMessage());
+    }
+  }
+
+  @Test
+  public void testTwoPartiesValidMacCheck() {
+    for (Exception exception : runMacCheck(macShareOne)) {
+      assertNull(exception);
+    }
+  }
+
+  @Test
+  public void testPartyOneTampersWithMacShare() {
+    assertCheatingDetected(macShareOne.add(getRingDefinition().createElement(1)));
+  }
+
+  @Test
+  public void testPartyOneTampersWithMostSignificantBit() {
+    // the error is zero modulo 2^k, but must still be detected
+    assertCheatingDetected(macShareOne.add(
+        getRingDefinition().createElement(BigInteger.ONE.shiftLeft(MOD_BIT_LENGTH - 1))));
+  }
+}
@@ -0,0 +1,121 @@
+package dk.alexandra.fresco.tools.spdz2k.online;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.spdz2k.NetworkedTest;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kTestContext;
+import dk.alexandra.fresco.tools.spdz2k.elgen.ElementGeneration;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class TestOnlinePhase extends NetworkedTest {
+
+  private final List<FieldElement> leftFactors = Stream.of(
+      BigInteger.valueOf(3), BigInteger.ONE.shiftLeft(MOD_BIT_LENGTH - 1).add(BigInteger.TEN))
+      .map(getRingDefinition()::createElement)
+      .collect(Collectors.toList());
+  private final List<FieldElement> rightFactors = Stream.of(
+      BigInteger.valueOf(5), new BigInteger("12345678901234567890"))
+      .map(getRingDefinition()::createElement)
+      .collect(Collectors.toList());
+
+  /**
+   * Party one inputs the left factors and party two the right factors. The parties multiply and
+   * open the products, and finally check the opened values.
+   */
+  private List<FieldElement> runSinglePartyMultiply(Spdz2kTestContext ctx,
+      FieldElement macKeyShare, boolean cheat) {
+    ElementGeneration elementGeneration = ctx.createElementGeneration(macKeyShare);
+    OnlinePhase onlinePhase = new OnlinePhase(ctx.getResourcePool(),
+        ctx.createTripleGeneration(elementGeneration), elementGeneration, macKeyShare);
+    List<AuthenticatedElement> left;
+    List<AuthenticatedElement> right;
+    if (ctx.getMyId() == 1) {
+      left = elementGeneration.input(leftFactors);
+      right = elementGeneration.input(2, rightFactors.size());
+    } else {
+      left = elementGeneration.input(1, leftFactors.size());
+      right = elementGeneration.input(rightFactors);
+    }
+    List<AuthenticatedElement> products = new ArrayList<>(onlinePhase.multiply(left, right));
+    if (cheat) {
+      // change the share of the first product without changing the mac
+      AuthenticatedElement product = products.get(0);
+      products.set(0, new AuthenticatedElement(
+          product.getShare().add(getRingDefinition().createElement(1)), product.getMac()));
+    }
+    List<FieldElement> opened = onlinePhase.open(products);
+    onlinePhase.checkZeroAndOpened(Collections.emptyList());
+    return opened;
+  }
+
+  private Exception runAndCatch(Spdz2kTestContext ctx, FieldElement macKeyShare,
+      boolean cheat) {
+    try {
+      runSinglePartyMultiply(ctx, macKeyShare, cheat);
+    } catch (MaliciousException e) {
+      return e;
+    }
+    return null;
+  }
+
+  @Test
+  public void testTwoPartiesMultiply() {
+    initContexts(2);
+    FieldElement macKeyShareOne = getRingDefinition().createElement(11231);
+    FieldElement macKeyShareTwo = getRingDefinition().createElement(7719);
+    Callable<List<FieldElement>> partyOneTask =
+        () -> runSinglePartyMultiply(contexts.get(1), macKeyShareOne, false);
+    Callable<List<FieldElement>> partyTwoTask =
+        () -> runSinglePartyMultiply(contexts.get(2), macKeyShareTwo, false);
+    List<List<FieldElement>> results =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask));
+    for (List<FieldElement> opened : results) {
+      for (int i = 0; i < leftFactors.size(); i++) {
+        assertRingEquals(leftFactors.get(i).multiply(rightFactors.get(i)), opened.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testCheatingInOpenIsDetected() {
+    initContexts(2);
+    FieldElement macKeyShareOne = getRingDefinition().createElement(11231);
+    FieldElement macKeyShareTwo = getRingDefinition().createElement(7719);
+    Callable<Exception> partyOneTask =
+        () -> runAndCatch(contexts.get(1), macKeyShareOne, true);
+    Callable<Exception> partyTwoTask =
+        () -> runAndCatch(contexts.get(2), macKeyShareTwo, false);
+    List<Exception> results =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask));
+    for (Exception exception : results) {
+      assertTrue(exception instanceof MaliciousException);
+    }
+  }
+
+  @Test
+  public void testHonestPartiesDoNotThrow() {
+    initContexts(2);
+    FieldElement macKeyShareOne = getRingDefinition().createElement(1);
+    FieldElement macKeyShareTwo = getRingDefinition().createElement(2);
+    Callable<Exception> partyOneTask =
+        () -> runAndCatch(contexts.get(1), macKeyShareOne, false);
+    Callable<Exception> partyTwoTask =
+        () -> runAndCatch(contexts.get(2), macKeyShareTwo, false);
+    for (Exception exception :
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask))) {
+      assertNull(exception);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package dk.alexandra.fresco.tools.spdz2k.triple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.spdz2k.NetworkedTest;
+import dk.alexandra.fresco.tools.spdz2k.Spdz2kTestContext;
+import dk.alexandra.fresco.tools.spdz2k.elgen.ElementGeneration;
+import dk.alexandra.fresco.tools.spdz2k.field.BigIntegerRingDefinition;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class TestTripleGeneration extends NetworkedTest {
+
+  private final FieldDefinition wideDefinition =
+      new BigIntegerRingDefinition(MOD_BIT_LENGTH + SECURITY_BIT_LENGTH);
+  private final FieldElement macKeyShareOne = getRingDefinition().createElement(11231);
+  private final FieldElement macKeyShareTwo = getRingDefinition().createElement(
+      BigInteger.ONE.shiftLeft(SECURITY_BIT_LENGTH).subtract(BigInteger.ONE));
+
+  private List<FieldElement> runSinglePartyMult(Spdz2kTestContext ctx, FieldElement macKeyShare,
+      List<FieldElement> leftFactorGroups, List<FieldElement> rightFactors) {
+    TripleGeneration tripleGen =
+        ctx.createTripleGeneration(ctx.createElementGeneration(macKeyShare));
+    return tripleGen.multiply(leftFactorGroups, rightFactors);
+  }
+
+  private List<MultiplicationTriple> runSinglePartyTriple(Spdz2kTestContext ctx,
+      FieldElement macKeyShare, int numTriples, int numIterations) {
+    TripleGeneration tripleGen =
+        ctx.createTripleGeneration(ctx.createElementGeneration(macKeyShare));
+    List<MultiplicationTriple> triples = new ArrayList<>();
+    for (int r = 0; r < numIterations; r++) {
+      triples.addAll(tripleGen.triple(numTriples));
+    }
+    return triples;
+  }
+
+  private List<FieldElement> toWide(BigInteger... values) {
+    return Stream.of(values).map(wideDefinition::createElement).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testTwoPartiesMultiply() {
+    initContexts(2, new MascotSecurityParameters(
+        getDefaultParameters().getLambdaSecurityParam(),
+        getDefaultParameters().getPrgSeedLength(),
+        2));
+
+    // left factors use all k + 2s bits
+    BigInteger large = BigInteger.ONE.shiftLeft(MOD_BIT_LENGTH + SECURITY_BIT_LENGTH - 1);
+    List<FieldElement> leftFactorsOne = toWide(BigInteger.valueOf(12), large.add(BigInteger.TEN));
+    List<FieldElement> rightFactorsOne = toWide(new BigInteger("18446744073709551557"));
+    List<FieldElement> leftFactorsTwo = toWide(BigInteger.valueOf(123), large);
+    List<FieldElement> rightFactorsTwo = toWide(BigInteger.valueOf(2222));
+
+    Callable<List<FieldElement>> partyOneTask = () -> runSinglePartyMult(contexts.get(1),
+        macKeyShareOne, leftFactorsOne, rightFactorsOne);
+    Callable<List<FieldElement>> partyTwoTask = () -> runSinglePartyMult(contexts.get(2),
+        macKeyShareTwo, leftFactorsTwo, rightFactorsTwo);
+    List<List<FieldElement>> results =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask));
+
+    FieldElement right = rightFactorsOne.get(0).add(rightFactorsTwo.get(0));
+    for (int i = 0; i < 2; i++) {
+      FieldElement expected = leftFactorsOne.get(i).add(leftFactorsTwo.get(i)).multiply(right);
+      FieldElement actual = results.get(0).get(i).add(results.get(1).get(i));
+      assertEquals(wideDefinition.convertToUnsigned(expected),
+          wideDefinition.convertToUnsigned(actual));
+    }
+  }
+
+  @Test
+  public void testTwoPartiesTriples() {
+    initContexts(2);
+    int numTriples = 8;
+    int numIterations = 2;
+    Callable<List<MultiplicationTriple>> partyOneTask = () -> runSinglePartyTriple(
+        contexts.get(1), macKeyShareOne, numTriples, numIterations);
+    Callable<List<MultiplicationTriple>> partyTwoTask = () -> runSinglePartyTriple(
+        contexts.get(2), macKeyShareTwo, numTriples, numIterations);
+    List<List<MultiplicationTriple>> results =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask));
+
+    FieldElement macKey = macKeyShareOne.add(macKeyShareTwo);
+    for (int i = 0; i < numTriples * numIterations; i++) {
+      MultiplicationTriple one = results.get(0).get(i);
+      MultiplicationTriple two = results.get(1).get(i);
+      FieldElement left = recombine(Arrays.asList(one.getLeft(), two.getLeft()), macKey);
+      FieldElement right = recombine(Arrays.asList(one.getRight(), two.getRight()), macKey);
+      FieldElement product =
+          recombine(Arrays.asList(one.getProduct(), two.getProduct()), macKey);
+      assertRingEquals(left.multiply(right), product);
+    }
+  }
+
+  @Test
+  public void testCheatingInMultiplyIsDetected() {
+    initContexts(2);
+    int numTriples = 4;
+    Callable<Exception> partyOneTask = () -> {
+      Spdz2kTestContext ctx = contexts.get(1);
+      // party one adds an error to its shares of the products
+      TripleGeneration tripleGen = new TripleGeneration(ctx.getResourcePool(), ctx.getNetwork(),
+          ctx.createElementGeneration(macKeyShareOne), ctx.createJointSampler(),
+          ctx.createCoefficientSampler()) {
+        @Override
+        List<FieldElement> multiply(List<FieldElement> leftFactorGroups,
+            List<FieldElement> rightFactors) {
+          FieldElement error = wideDefinition.createElement(1);
+          return super.multiply(leftFactorGroups, rightFactors).stream()
+              .map(product -> product.add(error))
+              .collect(Collectors.toList());
+        }
+      };
+      return runAndCatch(tripleGen, numTriples);
+    };
+    Callable<Exception> partyTwoTask = () -> {
+      Spdz2kTestContext ctx = contexts.get(2);
+      return runAndCatch(ctx.createTripleGeneration(ctx.createElementGeneration(macKeyShareTwo)),
+          numTriples);
+    };
+    List<Exception> results =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask));
+    for (Exception exception : results) {
+      assertTrue(exception instanceof MaliciousException);
+    }
+  }
+
+  private Exception runAndCatch(TripleGeneration tripleGen, int numTriples) {
+    try {
+      tripleGen.triple(numTriples);
+    } catch (MaliciousException e) {
+      return e;
+    }
+    return null;
+  }
+}